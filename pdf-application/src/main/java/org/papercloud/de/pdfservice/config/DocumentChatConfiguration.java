@@ -0,0 +1,24 @@
+package org.papercloud.de.pdfservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "document.chat")
+@Data
+public class DocumentChatConfiguration {
+    /** Page chunks fetched from the vector index per question. */
+    private int topK = 8;
+    /** Chunks scoring below this cosine similarity are not used as context. */
+    private double minScore = 0.0;
+    /**
+     * Maximum estimated tokens of the whole prompt, question and passages included. Passages
+     * are added in rank order until the next one no longer fits.
+     */
+    private int tokenBudget = 1500;
+    /** Rough characters-per-token ratio used to estimate token counts without a tokenizer. */
+    private double charsPerToken = 3.5;
+    /** Characters of each passage returned as citation snippet. */
+    private int snippetChars = 200;
+}
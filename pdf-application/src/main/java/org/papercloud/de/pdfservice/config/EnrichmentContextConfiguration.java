@@ -0,0 +1,26 @@
+package org.papercloud.de.pdfservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "document.enrichment-context")
+@Data
+public class EnrichmentContextConfiguration {
+    /**
+     * Maximum estimated tokens of document text sent to the LLM. Keep it well below the model's
+     * context length so prompt processing time stays predictable.
+     */
+    private int tokenBudget = 768;
+    /** Rough characters-per-token ratio used to estimate token counts without a tokenizer. */
+    private double charsPerToken = 3.5;
+    /** Number of leading lines on each page treated as header lines. */
+    private int headerLines = 6;
+    /** Line prefixes that mark a subject line, matched case-insensitively. */
+    private List<String> subjectPrefixes = List.of(
+            "betreff", "betr.", "subject", "re:", "aw:", "ihr zeichen", "unser zeichen",
+            "rechnung", "invoice", "kontoauszug", "mahnung", "bescheid", "vertrag", "kündigung");
+}
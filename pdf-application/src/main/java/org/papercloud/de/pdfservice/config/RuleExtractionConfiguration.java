@@ -0,0 +1,46 @@
+package org.papercloud.de.pdfservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "document.rule-extraction")
+@Data
+public class RuleExtractionConfiguration {
+    private boolean enabled = true;
+    /** Rule results at or above this confidence are used directly and skip the LLM. */
+    private double confidenceThreshold = 0.8;
+    /** Only the first lines of each page are searched for sender and subject. */
+    private int headerLines = 15;
+    private int maxTags = 5;
+    /** Words in a header line that mark it as the sender, matched case-insensitively. */
+    private List<String> senderMarkers = List.of(
+            "gmbh", "ag", "kg", "e.v.", "mbh", "bank", "sparkasse", "versicherung", "stadtwerke",
+            "finanzamt", "krankenkasse", "amt", "gemeinde", "stadt");
+    /** Document type keywords; the first one found at the start of a header line becomes the title prefix. */
+    private List<String> documentTypes = List.of(
+            "Rechnung", "Kontoauszug", "Mahnung", "Gehaltsabrechnung", "Lohnabrechnung", "Steuerbescheid",
+            "Bescheid", "Vertrag", "Kündigung", "Angebot", "Auftragsbestätigung", "Gutschrift", "Beitragsrechnung");
+    /** Tag name to keywords; a tag is assigned when any keyword occurs in the text. */
+    private Map<String, List<String>> tagKeywords = defaultTagKeywords();
+
+    private static Map<String, List<String>> defaultTagKeywords() {
+        Map<String, List<String>> tags = new LinkedHashMap<>();
+        tags.put("rechnung", List.of("rechnung", "rechnungsbetrag", "invoice"));
+        tags.put("bank", List.of("kontoauszug", "iban", "sparkasse", "überweisung", "kontostand"));
+        tags.put("versicherung", List.of("versicherung", "versicherungsschein", "police"));
+        tags.put("steuer", List.of("finanzamt", "steuerbescheid", "steuernummer", "einkommensteuer"));
+        tags.put("gehalt", List.of("gehaltsabrechnung", "lohnabrechnung", "bruttolohn", "nettobezüge"));
+        tags.put("miete", List.of("miete", "vermieter", "nebenkosten", "mietvertrag"));
+        tags.put("gesundheit", List.of("krankenkasse", "arztpraxis", "rezept", "behandlung"));
+        tags.put("energie", List.of("stadtwerke", "strom", "erdgas", "zählerstand", "abschlag"));
+        tags.put("vertrag", List.of("vertrag", "vertragsnummer", "kündigung"));
+        tags.put("mahnung", List.of("mahnung", "zahlungserinnerung", "mahngebühr"));
+        return tags;
+    }
+}
@@ -0,0 +1,19 @@
+package org.papercloud.de.pdfservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "search.reindex")
+@Data
+public class SearchReindexConfiguration {
+    /** Documents read from the database and sent as one bulk request. */
+    private int batchSize = 200;
+    /** Bulk requests in flight at the same time. */
+    private int writers = 4;
+    /** Upper bound on copied documents per second so live searches keep their capacity; 0 disables it. */
+    private int maxDocumentsPerSecond = 200;
+    /** Continue a rebuild that was running when the application stopped. */
+    private boolean resumeOnStartup = true;
+}
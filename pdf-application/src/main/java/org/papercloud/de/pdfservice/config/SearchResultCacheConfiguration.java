@@ -0,0 +1,26 @@
+package org.papercloud.de.pdfservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings for the per-user cache of search result pages.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "search.result-cache")
+@Data
+public class SearchResultCacheConfiguration {
+    private boolean enabled = true;
+    /** Users whose results are kept; the user who searched least recently is dropped first. */
+    private int maxUsers = 500;
+    /** Result pages kept per user. */
+    private int maxEntriesPerUser = 20;
+    /** Longest a page is served; bounds staleness from index changes that bypass the write path. */
+    private long maxAgeMs = 300_000;
+    /**
+     * How long after a write the search index may still answer without it; results of the
+     * user are not cached meanwhile. Elasticsearch refreshes every second by default.
+     */
+    private long indexRefreshDelayMs = 1_500;
+}
@@ -0,0 +1,21 @@
+package org.papercloud.de.pdfservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "search.semantic")
+@Data
+public class SemanticSearchConfiguration {
+    /** Compute chunk embeddings while indexing. Semantic and hybrid search need them. */
+    private boolean enabled = true;
+    /** Target chunk length in characters; chunks end at a whitespace where possible. */
+    private int chunkChars = 1000;
+    /** Characters shared by consecutive chunks so a sentence on a boundary is not split apart. */
+    private int chunkOverlap = 150;
+    /** Chunks fetched from the vector index and hits fetched from the lexical index before fusion. */
+    private int candidates = 50;
+    /** Share of the semantic score in hybrid mode; the lexical score gets the rest. */
+    private double semanticWeight = 0.5;
+}
@@ -3,9 +3,9 @@ package org.papercloud.de.pdfservice.processor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.papercloud.de.core.domain.Document;
+import org.papercloud.de.core.dto.llm.EnrichmentPriority;
 import org.papercloud.de.core.dto.llm.EnrichmentResultDTO;
 import org.papercloud.de.core.ports.outbound.EnrichmentService;
-import org.papercloud.de.core.ports.outbound.OcrTextCleaningService;
 import org.papercloud.de.pdfdatabase.entity.DocumentPdfEntity;
 import org.papercloud.de.pdfdatabase.entity.PagesPdfEntity;
 import org.papercloud.de.pdfdatabase.repository.DocumentRepository;
@@ -14,6 +14,8 @@ import org.papercloud.de.pdfservice.errors.DocumentEnrichmentException;
 import org.papercloud.de.pdfservice.errors.DocumentNotFoundException;
 import org.papercloud.de.pdfservice.errors.InvalidDocumentException;
 import org.papercloud.de.pdfservice.service.DocumentStatusService;
+import org.papercloud.de.pdfservice.textutils.EnrichmentContextBuilder;
+import org.papercloud.de.pdfservice.textutils.RuleBasedMetadataExtractor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,6 +25,7 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -33,7 +36,8 @@ public class DocumentEnrichmentProcessorImpl implements DocumentEnrichmentProces
     private static final Duration ENRICHMENT_TIMEOUT = Duration.ofSeconds(60);
 
     private final EnrichmentService enrichmentService;
-    private final OcrTextCleaningService textCleaningService;
+    private final EnrichmentContextBuilder contextBuilder;
+    private final RuleBasedMetadataExtractor metadataExtractor;
     private final DocumentRepository documentRepository;
     private final PageRepository pageRepository;
     private final DocumentStatusService documentStatusService;
@@ -45,8 +49,9 @@ public class DocumentEnrichmentProcessorImpl implements DocumentEnrichmentProces
         long startTime = System.nanoTime();
 
         try {
-            String cleanedText = prepareForEnrichment(documentId);
-            EnrichmentResultDTO result = requestEnrichment(cleanedText, documentId);
+            PreparedEnrichment prepared = prepareForEnrichment(documentId);
+            EnrichmentResultDTO result = extractWithRules(prepared, documentId)
+                    .orElseGet(() -> requestEnrichment(prepared, documentId));
             if (!validateEnrichmentResult(result, documentId)) {
                 documentStatusService.markEnrichmentFailure(documentId, "Invalid enrichment result");
                 return;
@@ -64,7 +69,7 @@ public class DocumentEnrichmentProcessorImpl implements DocumentEnrichmentProces
     }
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
-    protected String prepareForEnrichment(Long documentId) {
+    protected PreparedEnrichment prepareForEnrichment(Long documentId) {
         DocumentPdfEntity document = getDocumentById(documentId);
         //Todo Check again:
         if (document.getStatus() != Document.Status.OCR_COMPLETED
@@ -72,6 +77,11 @@ public class DocumentEnrichmentProcessorImpl implements DocumentEnrichmentProces
             throw new DocumentEnrichmentException("Document status must be OCR_COMPLETED or ENRICHMENT_ERROR for ID: " + documentId);
         }
 
+        // Retries yield the LLM queue to documents that have not been tried yet
+        EnrichmentPriority priority = document.getEnrichmentRetryCount() > 0
+                ? EnrichmentPriority.LOW
+                : EnrichmentPriority.NORMAL;
+
         document.setStatus(Document.Status.ENRICHMENT_IN_PROGRESS);
         documentRepository.saveAndFlush(document);
 
@@ -80,7 +90,7 @@ public class DocumentEnrichmentProcessorImpl implements DocumentEnrichmentProces
                 .toList();
         validatePageTexts(pageTexts);
 
-        return cleanFirstPageText(pageTexts);
+        return new PreparedEnrichment(contextBuilder.buildContext(pageTexts), pageTexts, priority);
     }
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
@@ -106,14 +116,15 @@ public class DocumentEnrichmentProcessorImpl implements DocumentEnrichmentProces
         }
     }
 
-    private String cleanFirstPageText(List<String> pageTexts) {
-        // validatePageTexts already ensures index 0 exists
-        return textCleaningService.cleanOcrText(pageTexts.get(0));
+    private Optional<EnrichmentResultDTO> extractWithRules(PreparedEnrichment prepared, Long documentId) {
+        Optional<EnrichmentResultDTO> result = metadataExtractor.tryExtract(prepared.pageTexts());
+        result.ifPresent(r -> log.info("Document {} enriched by rules, skipping LLM", documentId));
+        return result;
     }
 
-    private EnrichmentResultDTO requestEnrichment(String cleanedText, Long documentId) {
-        log.debug("Prepared cleaned text for document {}", documentId);
-        return enrichmentService.enrichTextAsync(cleanedText).block(ENRICHMENT_TIMEOUT);
+    private EnrichmentResultDTO requestEnrichment(PreparedEnrichment prepared, Long documentId) {
+        log.debug("Prepared cleaned text for document {} with priority {}", documentId, prepared.priority());
+        return enrichmentService.enrichTextAsync(prepared.cleanedText(), prepared.priority()).block(ENRICHMENT_TIMEOUT);
     }
 
     private boolean validateEnrichmentResult(EnrichmentResultDTO result, Long documentId) {
@@ -150,4 +161,7 @@ public class DocumentEnrichmentProcessorImpl implements DocumentEnrichmentProces
         long durationMs = (endTime - startTime) / 1_000_000;
         log.debug("Enrichment flow finished for document {} in {} ms", documentId, durationMs);
     }
+
+    protected record PreparedEnrichment(String cleanedText, List<String> pageTexts, EnrichmentPriority priority) {
+    }
 }
@@ -2,13 +2,19 @@ package org.papercloud.de.pdfservice.processor;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.papercloud.de.core.domain.Document;
 import org.papercloud.de.core.dto.search.IndexableDocumentDTO;
+import org.papercloud.de.core.dto.search.IndexableMetadataDTO;
+import org.papercloud.de.core.dto.search.IndexablePageDTO;
 import org.papercloud.de.core.events.DocumentEnrichedEvent;
+import org.papercloud.de.core.events.DocumentIndexedEvent;
 import org.papercloud.de.core.events.DocumentIndexingEvent;
+import org.papercloud.de.core.events.DocumentIndexingFailedEvent;
+import org.papercloud.de.core.events.DocumentMetadataChangedEvent;
 import org.papercloud.de.core.ports.outbound.SearchService;
 import org.papercloud.de.pdfdatabase.entity.DocumentPdfEntity;
 import org.papercloud.de.pdfdatabase.entity.PagesPdfEntity;
@@ -16,10 +22,15 @@ import org.papercloud.de.pdfdatabase.repository.DocumentRepository;
 import org.papercloud.de.pdfdatabase.repository.PageRepository;
 import org.papercloud.de.pdfservice.errors.DocumentNotFoundException;
 import org.papercloud.de.pdfservice.service.DocumentStatusService;
+import org.papercloud.de.pdfservice.service.SavedSearchService;
+import org.papercloud.de.pdfservice.service.SemanticIndexingService;
 import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 @Component
 @RequiredArgsConstructor
@@ -30,6 +41,8 @@ public class DocumentIndexingListener {
     private final PageRepository pageRepository;
     private final SearchService searchService;
     private final DocumentStatusService documentStatusService;
+    private final SemanticIndexingService semanticIndexingService;
+    private final SavedSearchService savedSearchService;
 
     @Async
     @EventListener
@@ -45,6 +58,78 @@ public class DocumentIndexingListener {
         indexDocument(event.documentId());
     }
 
+    /**
+     * Sends a title or tag change to the index without re-reading the page text. Runs after the
+     * change is committed so the listener sees it. A document that has not reached indexing
+     * picks up the change when the pipeline gets to it. One that is being indexed may have been
+     * read before the change, and one whose indexing failed may be missing from the index, so
+     * both are indexed in full instead.
+     */
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void handleDocumentMetadataChanged(DocumentMetadataChangedEvent event) {
+        DocumentPdfEntity document = documentRepository.findById(event.documentId()).orElse(null);
+        if (document == null) {
+            log.debug("Document ID {} was deleted before its metadata change was indexed", event.documentId());
+            return;
+        }
+
+        if (document.getStatus() == Document.Status.INDEXING_IN_PROGRESS
+                || document.getStatus() == Document.Status.INDEXING_ERROR) {
+            indexDocument(document.getId());
+        } else if (document.getStatus() == Document.Status.INDEXING_COMPLETED) {
+            searchService.updateMetadata(IndexableMetadataDTO.builder()
+                    .id(document.getId())
+                    .fileName(fileName(document.getTitle(), document.getFilename()))
+                    .tags(tags(document.getTags()))
+                    .year(year(document.getDateOnDocument()))
+                    .username(document.getOwner().getUsername())
+                    .build());
+            log.debug("Queued metadata update for document ID {}", document.getId());
+        } else {
+            log.debug("Document ID {} is not indexed yet; its metadata is picked up with the content",
+                    document.getId());
+        }
+    }
+
+    /**
+     * The search adapter reports the outcome once the buffered write has been sent. A document
+     * that was not yet completed is new to the index and is matched against the owner's saved
+     * searches; metadata updates of completed documents are not.
+     */
+    @Async
+    @EventListener
+    public void handleDocumentIndexed(DocumentIndexedEvent event) {
+        boolean newlyIndexed;
+        try {
+            newlyIndexed = documentStatusService.getStatus(event.documentId()) != Document.Status.INDEXING_COMPLETED;
+            documentStatusService.updateStatus(event.documentId(), Document.Status.INDEXING_COMPLETED);
+            documentStatusService.resetIndexingRetry(event.documentId());
+        } catch (DocumentNotFoundException e) {
+            log.debug("Document ID {} was deleted before its indexing completed", event.documentId());
+            return;
+        }
+
+        if (newlyIndexed) {
+            try {
+                savedSearchService.matchDocument(event.documentId());
+            } catch (Exception e) {
+                log.warn("Could not match document ID {} against saved searches: {}", event.documentId(), e.getMessage());
+            }
+        }
+    }
+
+    @Async
+    @EventListener
+    public void handleDocumentIndexingFailed(DocumentIndexingFailedEvent event) {
+        try {
+            documentStatusService.markIndexingFailure(event.documentId(), event.reason());
+        } catch (DocumentNotFoundException e) {
+            log.debug("Document ID {} was deleted before its indexing failed", event.documentId());
+        }
+    }
+
     private void indexDocument(Long documentId) {
         DocumentPdfEntity document = documentRepository.findById(documentId)
                 .orElseThrow(() -> new DocumentNotFoundException("Document not found with ID: " + documentId));
@@ -53,32 +138,64 @@ public class DocumentIndexingListener {
 
         try {
             List<PagesPdfEntity> pages = pageRepository.findByDocumentIdOrderByPageNumber(document.getId());
-            String fullText = pages.stream()
-                    .map(PagesPdfEntity::getPageText)
-                    .filter(text -> text != null && !text.isBlank())
-                    .reduce((a, b) -> a + "\n" + b)
-                    .orElse("");
-
-            String fileName = document.getTitle() != null ? document.getTitle() : document.getFilename();
+            List<IndexablePageDTO> indexablePages = pages.stream()
+                    .map(page -> new IndexablePageDTO(page.getPageNumber(), page.getPageText()))
+                    .toList();
 
-            IndexableDocumentDTO dto = IndexableDocumentDTO.builder()
-                    .id(document.getId())
-                    .fileName(fileName)
-                    .contentType(document.getContentType())
-                    .tags(document.getTags() == null ? List.of() : document.getTags())
-                    .year(document.getDateOnDocument() != null ? document.getDateOnDocument().getYear() : LocalDate.now().getYear())
-                    .fullText(fullText)
-                    .username(document.getOwner().getUsername())
-                    .build();
+            IndexableDocumentDTO dto = toIndexableDocument(document.getId(), document.getTitle(),
+                    document.getFilename(), document.getContentType(), document.getTags(),
+                    document.getDateOnDocument(), document.getOwner().getUsername(), indexablePages);
 
             searchService.indexDocument(dto);
-
-            documentStatusService.updateStatus(documentId, Document.Status.INDEXING_COMPLETED);
-            documentStatusService.resetIndexingRetry(documentId);
-            log.debug("Indexed document ID {} via SearchService", document.getId());
+            indexVectors(document, pages);
+            log.debug("Queued document ID {} for indexing via SearchService", document.getId());
         } catch (Exception e) {
             log.error("Failed to index document ID {}: {}", documentId, e.getMessage(), e);
             documentStatusService.markIndexingFailure(documentId, e.getMessage());
         }
     }
+
+    /** Shared with the {@link SearchReindexJob}, which reads the same fields through projections. */
+    static IndexableDocumentDTO toIndexableDocument(Long id, String title, String filename, String contentType,
+                                                    List<String> tags, LocalDate dateOnDocument, String username,
+                                                    List<IndexablePageDTO> pages) {
+        List<IndexablePageDTO> indexablePages = pages.stream()
+                .filter(page -> page.getText() != null && !page.getText().isBlank())
+                .toList();
+        String fullText = indexablePages.stream()
+                .map(IndexablePageDTO::getText)
+                .collect(Collectors.joining("\n"));
+
+        return IndexableDocumentDTO.builder()
+                .id(id)
+                .fileName(fileName(title, filename))
+                .contentType(contentType)
+                .tags(tags(tags))
+                .year(year(dateOnDocument))
+                .fullText(fullText)
+                .pages(indexablePages)
+                .username(username)
+                .build();
+    }
+
+    private static String fileName(String title, String filename) {
+        return title != null ? title : filename;
+    }
+
+    private static List<String> tags(List<String> tags) {
+        return tags == null ? List.of() : List.copyOf(tags);
+    }
+
+    private static int year(LocalDate dateOnDocument) {
+        return dateOnDocument != null ? dateOnDocument.getYear() : LocalDate.now().getYear();
+    }
+
+    /** Lexical search keeps working without vectors, so a failure here does not fail indexing. */
+    private void indexVectors(DocumentPdfEntity document, List<PagesPdfEntity> pages) {
+        try {
+            semanticIndexingService.indexDocument(document.getId(), document.getOwner().getUsername(), pages);
+        } catch (Exception e) {
+            log.warn("Failed to embed document ID {} for semantic search: {}", document.getId(), e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,70 @@
+package org.papercloud.de.pdfservice.processor;
+
+import lombok.RequiredArgsConstructor;
+import org.papercloud.de.core.domain.Document;
+import org.papercloud.de.core.dto.search.IndexableDocumentDTO;
+import org.papercloud.de.core.dto.search.IndexablePageDTO;
+import org.papercloud.de.pdfdatabase.repository.DocumentRepository;
+import org.papercloud.de.pdfdatabase.repository.PageRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Reads documents from the database in id order, in batches that load the tags and pages of
+ * all their documents with one query each, in the form the search index takes them.
+ */
+@Component
+@RequiredArgsConstructor
+public class IndexSourceReader {
+
+    private final DocumentRepository documentRepository;
+    private final PageRepository pageRepository;
+
+    /**
+     * Reads the next documents in id order.
+     *
+     * @param afterId   the id of the last document already read, 0 to start at the beginning
+     * @param batchSize the maximum number of documents to read
+     * @return the documents, empty once there are none left
+     */
+    public List<IndexableDocumentDTO> readAfter(long afterId, int batchSize) {
+        return read(documentRepository.findIndexSources(afterId, PageRequest.of(0, batchSize)));
+    }
+
+    /**
+     * Reads the next documents with the given status in id order.
+     *
+     * @param afterId   the id of the last document already read, 0 to start at the beginning
+     * @param batchSize the maximum number of documents to read
+     * @param status    the status of the documents to read
+     * @return the documents, empty once there are none left
+     */
+    public List<IndexableDocumentDTO> readAfter(long afterId, int batchSize, Document.Status status) {
+        return read(documentRepository.findIndexSourcesWithStatus(afterId, status, PageRequest.of(0, batchSize)));
+    }
+
+    private List<IndexableDocumentDTO> read(List<DocumentRepository.IndexSourceView> sources) {
+        if (sources.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = sources.stream().map(DocumentRepository.IndexSourceView::getId).toList();
+        Map<Long, List<String>> tags = documentRepository.findTags(ids).stream()
+                .collect(Collectors.groupingBy(DocumentRepository.DocumentTagView::getDocumentId,
+                        Collectors.mapping(DocumentRepository.DocumentTagView::getTag, Collectors.toList())));
+        Map<Long, List<IndexablePageDTO>> pages = pageRepository.findPageTextsByDocumentIds(ids).stream()
+                .collect(Collectors.groupingBy(PageRepository.PageTextView::getDocumentId,
+                        Collectors.mapping(page -> new IndexablePageDTO(page.getPageNumber(), page.getPageText()),
+                                Collectors.toList())));
+
+        return sources.stream()
+                .map(source -> DocumentIndexingListener.toIndexableDocument(source.getId(), source.getTitle(),
+                        source.getFilename(), source.getContentType(), tags.get(source.getId()),
+                        source.getDateOnDocument(), source.getUsername(),
+                        pages.getOrDefault(source.getId(), List.of())))
+                .toList();
+    }
+}
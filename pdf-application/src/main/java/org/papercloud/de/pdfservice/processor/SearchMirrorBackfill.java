@@ -0,0 +1,87 @@
+package org.papercloud.de.pdfservice.processor;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.papercloud.de.core.domain.Document;
+import org.papercloud.de.core.dto.search.IndexableDocumentDTO;
+import org.papercloud.de.core.ports.outbound.SearchIndexMirror;
+import org.papercloud.de.pdfdatabase.repository.DocumentRepository;
+import org.papercloud.de.pdfservice.config.SearchReindexConfiguration;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Copies the indexed documents in the database into the local search index mirror when it
+ * holds fewer of them, e.g. because it was created after the documents were indexed or because
+ * another instance indexed them into its own mirror.
+ * <p>
+ * The check runs once on startup. The copy runs in the background with the batch size and
+ * rate of the search index rebuild, and leaves documents alone that receive a live write
+ * while it runs. A document that cannot be copied reaches the mirror with its next write.
+ * Documents that are not indexed yet are left to their indexing, which writes the mirror too.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "search", name = "engine", havingValue = "elasticsearch", matchIfMissing = true)
+@RequiredArgsConstructor
+public class SearchMirrorBackfill implements SmartInitializingSingleton {
+
+    private final SearchIndexMirror mirror;
+    private final DocumentRepository documentRepository;
+    private final IndexSourceReader reader;
+    private final SearchReindexConfiguration config;
+
+    /**
+     * Starts tracking live writes before the web server and event listeners start, so no
+     * live write is overwritten by an older copy.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        long mirrored;
+        long stored;
+        try {
+            mirrored = mirror.countDocuments();
+            stored = documentRepository.countByStatus(Document.Status.INDEXING_COMPLETED);
+        } catch (RuntimeException e) {
+            log.warn("Could not compare the search index mirror with the database: {}", e.getMessage());
+            return;
+        }
+        if (mirrored >= stored) {
+            return;
+        }
+        log.info("Search index mirror holds {} of {} indexed documents, copying them from the database", mirrored, stored);
+        mirror.beginBackfill();
+        Thread.ofVirtual().name("search-mirror-backfill").start(this::run);
+    }
+
+    void run() {
+        long cursor = 0;
+        long copied = 0;
+        long failed = 0;
+        long startNanos = System.nanoTime();
+        try {
+            while (true) {
+                List<IndexableDocumentDTO> documents = reader.readAfter(cursor, config.getBatchSize(),
+                        Document.Status.INDEXING_COMPLETED);
+                if (documents.isEmpty()) {
+                    break;
+                }
+                SearchReindexJob.pace(config.getMaxDocumentsPerSecond(), startNanos, copied);
+                failed += mirror.writeBackfillBatch(documents).size();
+                copied += documents.size();
+                cursor = documents.get(documents.size() - 1).getId();
+            }
+            log.info("Search index mirror backfill completed: {} documents copied, {} failed", copied, failed);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Search index mirror backfill interrupted after document {}", cursor);
+        } catch (RuntimeException e) {
+            log.warn("Search index mirror backfill failed after document {}: {}", cursor, e.getMessage());
+        } finally {
+            mirror.endBackfill();
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package org.papercloud.de.pdfservice.processor;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.papercloud.de.core.domain.ReindexStatus;
+import org.papercloud.de.core.dto.search.IndexableDocumentDTO;
+import org.papercloud.de.core.dto.search.ReindexProgressDTO;
+import org.papercloud.de.core.ports.outbound.SearchIndexAdmin;
+import org.papercloud.de.core.ports.outbound.SearchRebuildConflictException;
+import org.papercloud.de.pdfdatabase.entity.SearchReindexJobEntity;
+import org.papercloud.de.pdfdatabase.repository.DocumentRepository;
+import org.papercloud.de.pdfdatabase.repository.SearchReindexJobRepository;
+import org.papercloud.de.pdfservice.config.SearchReindexConfiguration;
+import org.papercloud.de.pdfservice.errors.DocumentNotFoundException;
+import org.papercloud.de.pdfservice.service.DocumentStatusService;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Rebuilds the search index from the database while search stays online.
+ * <p>
+ * A new index is created next to the live one and receives every live write from then on,
+ * which catches up documents that change while the rebuild runs. Documents are read in id
+ * order, {@code batchSize} at a time with their tags and pages, and written by up to
+ * {@code writers} concurrent bulk requests, paced to {@code maxDocumentsPerSecond}. Once the
+ * last batch is written the new index replaces the live one.
+ * <p>
+ * After every batch the job stores the highest document id up to which everything has been
+ * written, so a paused, failed or interrupted rebuild continues from there. Documents the new
+ * index rejects are marked as failed indexing and go through the regular indexing retry.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SearchReindexJob implements SmartInitializingSingleton {
+
+    private static final Set<ReindexStatus> RESUMABLE =
+            EnumSet.of(ReindexStatus.RUNNING, ReindexStatus.PAUSED, ReindexStatus.FAILED);
+
+    private final SearchIndexAdmin searchIndexAdmin;
+    private final DocumentRepository documentRepository;
+    private final IndexSourceReader reader;
+    private final SearchReindexJobRepository jobRepository;
+    private final DocumentStatusService documentStatusService;
+    private final SearchReindexConfiguration config;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile boolean pauseRequested;
+
+    /**
+     * Starts a rebuild in the background, or continues the last one if it was paused or failed.
+     */
+    public synchronized ReindexProgressDTO start() {
+        if (running.get()) {
+            throw new SearchRebuildConflictException("A search index rebuild is already running");
+        }
+        SearchReindexJobEntity job = jobRepository.findFirstByOrderByIdDesc()
+                .filter(last -> RESUMABLE.contains(last.getStatus()))
+                .filter(this::reattach)
+                .orElseGet(this::createJob);
+        job.setStatus(ReindexStatus.RUNNING);
+        job.setError(null);
+        job.setUpdatedAt(LocalDateTime.now());
+        job = jobRepository.save(job);
+        launch(job.getId());
+        return toProgress(job);
+    }
+
+    /** Stops the running rebuild after the batches in flight. Live writes keep reaching the new index. */
+    public ReindexProgressDTO pause() {
+        if (!running.get()) {
+            throw new SearchRebuildConflictException("No search index rebuild is running");
+        }
+        pauseRequested = true;
+        return getProgress().orElseThrow();
+    }
+
+    /** Drops a paused or failed rebuild together with its index. */
+    public synchronized ReindexProgressDTO cancel() {
+        if (running.get()) {
+            throw new SearchRebuildConflictException("Pause the running search index rebuild before cancelling it");
+        }
+        SearchReindexJobEntity job = jobRepository.findFirstByOrderByIdDesc()
+                .filter(last -> RESUMABLE.contains(last.getStatus()))
+                .orElseThrow(() -> new SearchRebuildConflictException("No search index rebuild to cancel"));
+        searchIndexAdmin.abortRebuild(job.getTargetIndex());
+        return toProgress(finish(job, ReindexStatus.CANCELLED, null));
+    }
+
+    public Optional<ReindexProgressDTO> getProgress() {
+        return jobRepository.findFirstByOrderByIdDesc().map(SearchReindexJob::toProgress);
+    }
+
+    /**
+     * Reattaches an unfinished rebuild before the web server and event listeners start, so no
+     * live write misses the index being rebuilt.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        Optional<SearchReindexJobEntity> unfinished = jobRepository.findFirstByOrderByIdDesc()
+                .filter(job -> RESUMABLE.contains(job.getStatus()));
+        if (unfinished.isEmpty()) {
+            return;
+        }
+        SearchReindexJobEntity job = unfinished.get();
+        try {
+            if (!reattach(job) || job.getStatus() != ReindexStatus.RUNNING) {
+                return;
+            }
+        } catch (Exception e) {
+            log.warn("Could not resume search index rebuild into '{}': {}", job.getTargetIndex(), e.getMessage());
+            job.setStatus(ReindexStatus.FAILED);
+            job.setError(truncate(e.getMessage()));
+            jobRepository.save(job);
+            return;
+        }
+        if (config.isResumeOnStartup()) {
+            log.info("Resuming search index rebuild into '{}' after document {}", job.getTargetIndex(),
+                    job.getLastDocumentId());
+            launch(job.getId());
+        } else {
+            job.setStatus(ReindexStatus.PAUSED);
+            jobRepository.save(job);
+        }
+    }
+
+    /** Returns false and closes the job when its index is gone, e.g. after a cluster restore. */
+    private boolean reattach(SearchReindexJobEntity job) {
+        if (searchIndexAdmin.resumeRebuild(job.getTargetIndex())) {
+            return true;
+        }
+        log.warn("Index '{}' of search index rebuild {} no longer exists", job.getTargetIndex(), job.getId());
+        finish(job, ReindexStatus.CANCELLED, "Index " + job.getTargetIndex() + " no longer exists");
+        return false;
+    }
+
+    private SearchReindexJobEntity createJob() {
+        String index = searchIndexAdmin.beginRebuild();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            return jobRepository.save(SearchReindexJobEntity.builder()
+                    .targetIndex(index)
+                    .status(ReindexStatus.RUNNING)
+                    .totalDocuments(documentRepository.count())
+                    .startedAt(now)
+                    .updatedAt(now)
+                    .build());
+        } catch (RuntimeException e) {
+            searchIndexAdmin.abortRebuild(index);
+            throw e;
+        }
+    }
+
+    private void launch(Long jobId) {
+        running.set(true);
+        pauseRequested = false;
+        Thread.ofVirtual().name("search-reindex").start(() -> run(jobId));
+    }
+
+    void run(Long jobId) {
+        SearchReindexJobEntity job = jobRepository.findById(jobId).orElseThrow();
+        try {
+            if (!copyDocuments(job)) {
+                finish(job, ReindexStatus.PAUSED, null);
+                log.info("Search index rebuild into '{}' paused after document {}", job.getTargetIndex(),
+                        job.getLastDocumentId());
+                return;
+            }
+            searchIndexAdmin.completeRebuild(job.getTargetIndex());
+            finish(job, ReindexStatus.COMPLETED, null);
+            log.info("Search index rebuild into '{}' completed: {} documents copied, {} failed",
+                    job.getTargetIndex(), job.getProcessedDocuments(), job.getFailedDocuments());
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            log.error("Search index rebuild into '{}' failed after document {}", job.getTargetIndex(),
+                    job.getLastDocumentId(), cause);
+            finish(job, ReindexStatus.FAILED, cause.getMessage());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /** Returns false if the copy was paused before the last document. */
+    private boolean copyDocuments(SearchReindexJobEntity job) throws InterruptedException, ExecutionException {
+        String index = job.getTargetIndex();
+        long cursor = job.getLastDocumentId();
+        long startNanos = System.nanoTime();
+        long copied = 0;
+        Deque<PendingBatch> inFlight = new ArrayDeque<>();
+        Semaphore writers = new Semaphore(Math.max(1, config.getWriters()));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            while (true) {
+                if (pauseRequested) {
+                    checkpoint(job, inFlight, true);
+                    return false;
+                }
+                List<IndexableDocumentDTO> documents = reader.readAfter(cursor, config.getBatchSize());
+                if (documents.isEmpty()) {
+                    break;
+                }
+                cursor = documents.get(documents.size() - 1).getId();
+
+                pace(config.getMaxDocumentsPerSecond(), startNanos, copied);
+                copied += documents.size();
+                writers.acquire();
+                Future<List<Long>> result = executor.submit(() -> {
+                    try {
+                        return searchIndexAdmin.writeRebuildBatch(index, documents);
+                    } finally {
+                        writers.release();
+                    }
+                });
+                inFlight.add(new PendingBatch(cursor, documents.size(), result));
+                checkpoint(job, inFlight, false);
+            }
+            checkpoint(job, inFlight, true);
+        }
+        return true;
+    }
+
+    /**
+     * Records the batches that are done, oldest first. A batch that finished early waits for
+     * the ones before it, so the stored position never skips a batch still in flight.
+     */
+    private void checkpoint(SearchReindexJobEntity job, Deque<PendingBatch> inFlight, boolean waitForAll)
+            throws InterruptedException, ExecutionException {
+        long before = job.getProcessedDocuments();
+        while (!inFlight.isEmpty() && (waitForAll || inFlight.peek().result().isDone())) {
+            PendingBatch batch = inFlight.poll();
+            List<Long> failed = batch.result().get();
+            failed.forEach(documentId -> markFailed(documentId, job.getTargetIndex()));
+            job.setProcessedDocuments(job.getProcessedDocuments() + batch.size());
+            job.setFailedDocuments(job.getFailedDocuments() + failed.size());
+            job.setLastDocumentId(batch.lastDocumentId());
+        }
+        if (job.getProcessedDocuments() == before) {
+            return;
+        }
+        job.setUpdatedAt(LocalDateTime.now());
+        jobRepository.save(job);
+
+        long total = Math.max(1, job.getTotalDocuments());
+        if (before * 10 / total != job.getProcessedDocuments() * 10 / total) {
+            log.info("Search index rebuild into '{}': {} of {} documents copied", job.getTargetIndex(),
+                    job.getProcessedDocuments(), job.getTotalDocuments());
+        }
+    }
+
+    private void markFailed(Long documentId, String index) {
+        try {
+            documentStatusService.markIndexingFailure(documentId, "Could not be copied into index " + index);
+        } catch (DocumentNotFoundException e) {
+            log.debug("Document ID {} was deleted during the search index rebuild", documentId);
+        }
+    }
+
+    /** Sleeps until the documents sent so far fit the rate; a rate of 0 or less does not wait. */
+    static void pace(int rate, long startNanos, long copied) throws InterruptedException {
+        if (rate <= 0) {
+            return;
+        }
+        long dueNanos = startNanos + copied * 1_000_000_000L / rate;
+        long waitNanos = dueNanos - System.nanoTime();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private SearchReindexJobEntity finish(SearchReindexJobEntity job, ReindexStatus status, String error) {
+        LocalDateTime now = LocalDateTime.now();
+        job.setStatus(status);
+        job.setError(truncate(error));
+        job.setUpdatedAt(now);
+        if (status == ReindexStatus.COMPLETED || status == ReindexStatus.CANCELLED) {
+            job.setFinishedAt(now);
+        }
+        return jobRepository.save(job);
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+    }
+
+    private static ReindexProgressDTO toProgress(SearchReindexJobEntity job) {
+        return ReindexProgressDTO.builder()
+                .jobId(job.getId())
+                .index(job.getTargetIndex())
+                .status(job.getStatus())
+                .totalDocuments(job.getTotalDocuments())
+                .processedDocuments(job.getProcessedDocuments())
+                .failedDocuments(job.getFailedDocuments())
+                .lastDocumentId(job.getLastDocumentId())
+                .startedAt(job.getStartedAt())
+                .updatedAt(job.getUpdatedAt())
+                .finishedAt(job.getFinishedAt())
+                .error(job.getError())
+                .build();
+    }
+
+    private record PendingBatch(long lastDocumentId, int size, Future<List<Long>> result) {
+    }
+}
@@ -0,0 +1,57 @@
+package org.papercloud.de.pdfservice.processor;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.papercloud.de.core.events.DocumentEnrichedEvent;
+import org.papercloud.de.core.events.DocumentIndexedEvent;
+import org.papercloud.de.core.events.DocumentMetadataChangedEvent;
+import org.papercloud.de.pdfdatabase.repository.DocumentRepository;
+import org.papercloud.de.pdfservice.service.SearchResultCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Drops the cached search results of a document's owner when the document changes in the
+ * pipeline: new title and tags after enrichment or an edit, and new index contents once the
+ * search adapter has written it. The index write is only searchable after the next refresh,
+ * so the cache holds off storing the owner's results until then; the owner comes with the
+ * event, as it is published for every write of a bulk flush. Changes made directly by
+ * the user, such as uploads and favourites, invalidate the cache where they happen.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SearchResultCacheInvalidator {
+
+    private final DocumentRepository documentRepository;
+    private final SearchResultCache searchResultCache;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleDocumentEnriched(DocumentEnrichedEvent event) {
+        invalidateOwner(event.documentId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleDocumentMetadataChanged(DocumentMetadataChangedEvent event) {
+        invalidateOwner(event.documentId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleDocumentIndexed(DocumentIndexedEvent event) {
+        if (event.username() != null) {
+            searchResultCache.invalidateAfterIndexing(event.username());
+            return;
+        }
+        documentRepository.findOwnerUsername(event.documentId()).ifPresentOrElse(
+                searchResultCache::invalidateAfterIndexing,
+                () -> log.debug("Document ID {} was deleted before its cached search results were dropped",
+                        event.documentId()));
+    }
+
+    private void invalidateOwner(Long documentId) {
+        documentRepository.findOwnerUsername(documentId).ifPresentOrElse(
+                searchResultCache::invalidate,
+                () -> log.debug("Document ID {} was deleted before its cached search results were dropped", documentId));
+    }
+}
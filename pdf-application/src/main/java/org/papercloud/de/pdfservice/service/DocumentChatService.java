@@ -0,0 +1,173 @@
+package org.papercloud.de.pdfservice.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.papercloud.de.core.dto.chat.ChatCitationDTO;
+import org.papercloud.de.core.dto.chat.ChatEventDTO;
+import org.papercloud.de.core.dto.search.VectorMatchDTO;
+import org.papercloud.de.core.ports.outbound.AnswerGenerationService;
+import org.papercloud.de.core.ports.outbound.EmbeddingService;
+import org.papercloud.de.core.ports.outbound.VectorIndex;
+import org.papercloud.de.pdfdatabase.repository.PageRepository;
+import org.papercloud.de.pdfdatabase.repository.PageRepository.PageTextView;
+import org.papercloud.de.pdfservice.config.DocumentChatConfiguration;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Answers questions about a user's own documents (retrieval-augmented generation).
+ * <p>
+ * The question is embedded and matched against the user's page chunks in the vector index.
+ * The best chunks are numbered and packed into a prompt until the token budget is used up,
+ * and the model's answer is streamed back token by token. The stream starts with the
+ * citations so the client can render sources before the first token arrives.
+ */
+@Slf4j
+@Service
+public class DocumentChatService {
+
+    static final String NO_CONTEXT_ANSWER = "I could not find anything about this in your documents.";
+    private static final String PROMPT_HEADER =
+            "Answer the question using only the numbered passages from the user's documents below. "
+                    + "Cite every passage you use by its number in square brackets, e.g. [1]. "
+                    + "If the passages do not contain the answer, say so.\n\n";
+    private static final String PASSAGE_TEMPLATE = "[%d] %s, page %d:\n%s\n\n";
+    private static final String QUESTION_TEMPLATE = "Question: %s\nAnswer:";
+
+    private final EmbeddingService embeddingService;
+    private final VectorIndex vectorIndex;
+    private final PageRepository pageRepository;
+    private final AnswerGenerationService answerGenerationService;
+    private final DocumentChatConfiguration config;
+    private final Timer retrievalTimer;
+
+    public DocumentChatService(EmbeddingService embeddingService,
+                               VectorIndex vectorIndex,
+                               PageRepository pageRepository,
+                               AnswerGenerationService answerGenerationService,
+                               DocumentChatConfiguration config,
+                               MeterRegistry meterRegistry) {
+        this.embeddingService = embeddingService;
+        this.vectorIndex = vectorIndex;
+        this.pageRepository = pageRepository;
+        this.answerGenerationService = answerGenerationService;
+        this.config = config;
+        this.retrievalTimer = Timer.builder("document.chat.retrieval")
+                .description("Time from question to finished prompt, before the LLM is called")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Streams the answer to the question. Errors end the stream with an error event rather
+     * than failing it, since the response is already committed once the citations are sent.
+     */
+    public Flux<ChatEventDTO> chat(String username, String question) {
+        if (question == null || question.isBlank()) {
+            throw new IllegalArgumentException("Question must not be empty");
+        }
+        return Mono.fromCallable(() -> retrievalTimer.record(() -> buildContext(username, question)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(context -> context.citations().isEmpty()
+                        ? Flux.just(ChatEventDTO.citations(List.of()), ChatEventDTO.token(NO_CONTEXT_ANSWER),
+                        ChatEventDTO.done())
+                        : Flux.concat(
+                        Mono.just(ChatEventDTO.citations(context.citations())),
+                        answerGenerationService.streamAnswer(context.prompt()).map(ChatEventDTO::token),
+                        Mono.just(ChatEventDTO.done())))
+                .onErrorResume(error -> {
+                    log.error("Chat answer for user {} failed", username, error);
+                    return Flux.just(ChatEventDTO.error("The answer could not be generated."));
+                });
+    }
+
+    ChatContext buildContext(String username, String question) {
+        float[] query = embeddingService.embed(List.of(question)).get(0);
+        List<VectorMatchDTO> matches = vectorIndex.search(username, query, config.getTopK()).stream()
+                .filter(match -> match.getScore() >= config.getMinScore())
+                .sorted(Comparator.comparingDouble(VectorMatchDTO::getScore).reversed())
+                .toList();
+        if (matches.isEmpty()) {
+            return new ChatContext("", List.of());
+        }
+
+        Map<String, PageTextView> pages = loadPages(matches);
+        String questionPart = QUESTION_TEMPLATE.formatted(question);
+        int remainingChars = (int) (config.getTokenBudget() * config.getCharsPerToken())
+                - PROMPT_HEADER.length() - questionPart.length();
+
+        StringBuilder prompt = new StringBuilder(PROMPT_HEADER);
+        List<ChatCitationDTO> citations = new ArrayList<>();
+        for (VectorMatchDTO match : matches) {
+            PageTextView page = pages.get(pageKey(match.getDocumentId(), match.getPageNumber()));
+            String text = page == null ? null : chunkText(page.getPageText(), match);
+            if (text == null || text.isBlank()) {
+                continue;
+            }
+            int index = citations.size() + 1;
+            String name = page.getDocumentName() != null ? page.getDocumentName() : "Document " + match.getDocumentId();
+            String passage = PASSAGE_TEMPLATE.formatted(index, name, match.getPageNumber(), text);
+            if (passage.length() > remainingChars) {
+                if (!citations.isEmpty()) {
+                    break;
+                }
+                // Always keep the best passage, cut to what fits
+                int overflow = passage.length() - Math.max(0, remainingChars);
+                text = text.substring(0, Math.max(0, text.length() - overflow));
+                passage = PASSAGE_TEMPLATE.formatted(index, name, match.getPageNumber(), text);
+            }
+            prompt.append(passage);
+            remainingChars -= passage.length();
+            citations.add(ChatCitationDTO.builder()
+                    .index(index)
+                    .documentId(match.getDocumentId())
+                    .documentName(name)
+                    .pageNumber(match.getPageNumber())
+                    .snippet(text.length() > config.getSnippetChars()
+                            ? text.substring(0, config.getSnippetChars()) + "..."
+                            : text)
+                    .build());
+        }
+        prompt.append(questionPart);
+        return new ChatContext(prompt.toString(), citations);
+    }
+
+    /** Loads every page the matches point into with a single query. */
+    private Map<String, PageTextView> loadPages(List<VectorMatchDTO> matches) {
+        Set<Long> documentIds = new LinkedHashSet<>();
+        Set<Integer> pageNumbers = new LinkedHashSet<>();
+        matches.forEach(match -> {
+            documentIds.add(match.getDocumentId());
+            pageNumbers.add(match.getPageNumber());
+        });
+        Map<String, PageTextView> pages = new HashMap<>();
+        pageRepository.findPageTexts(documentIds, pageNumbers)
+                .forEach(page -> pages.put(pageKey(page.getDocumentId(), page.getPageNumber()), page));
+        return pages;
+    }
+
+    private static String chunkText(String pageText, VectorMatchDTO match) {
+        if (pageText == null || match.getOffset() >= pageText.length()) {
+            return null;
+        }
+        int end = Math.min(pageText.length(), match.getOffset() + match.getLength());
+        return pageText.substring(match.getOffset(), end).strip();
+    }
+
+    private static String pageKey(Long documentId, int pageNumber) {
+        return documentId + ":" + pageNumber;
+    }
+
+    record ChatContext(String prompt, List<ChatCitationDTO> citations) {
+    }
+}
@@ -0,0 +1,41 @@
+package org.papercloud.de.pdfservice.service;
+
+import org.papercloud.de.core.dto.document.DocumentListSort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position in the document listing: the last document of a page. Clients only see it as an
+ * opaque, URL-safe string and send it back unchanged for the next page.
+ *
+ * @param sort       the order the listing is read in, so a cursor cannot be replayed in another order
+ * @param uploadedAt upload time of the last document returned
+ * @param id         id of the last document returned, which breaks ties in upload time
+ */
+record DocumentListCursor(DocumentListSort sort, LocalDateTime uploadedAt, long id) {
+
+    String encode() {
+        String value = sort + "," + uploadedAt + "," + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token is malformed or belongs to another order
+     */
+    static DocumentListCursor decode(String token, DocumentListSort sort) {
+        DocumentListCursor cursor;
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(",");
+            cursor = new DocumentListCursor(DocumentListSort.valueOf(parts[0]), LocalDateTime.parse(parts[1]),
+                    Long.parseLong(parts[2]));
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid document list cursor");
+        }
+        if (cursor.sort() != sort) {
+            throw new IllegalArgumentException("The document list cursor belongs to a different sort order");
+        }
+        return cursor;
+    }
+}
@@ -5,65 +5,51 @@ import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.papercloud.de.core.dto.search.SearchHitDTO;
 import org.papercloud.de.core.dto.search.SearchResultDTO;
-import org.papercloud.de.pdfdatabase.entity.DocumentPdfEntity;
-import org.papercloud.de.pdfdatabase.entity.PagesPdfEntity;
-import org.papercloud.de.pdfdatabase.repository.DocumentRepository;
 import org.papercloud.de.pdfdatabase.repository.PageRepository;
+import org.papercloud.de.pdfdatabase.repository.PageTextSearchRepository.PageTextMatch;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Page-level text search in the database, without the search index. Matching, ranking and
+ * snippets are left to {@link PageRepository#searchPageText}.
+ */
 @Service
 @RequiredArgsConstructor
 public class DocumentSearchSimpleImpl {
 
-    private final DocumentRepository documentRepository;
+    static final int MAX_PAGE_SIZE = 100;
+
     private final PageRepository pageRepository;
 
     @Transactional(readOnly = true)
-    public SearchResultDTO searchDocumentByText(String searchTerm) {
-        List<PagesPdfEntity> matchingPages = pageRepository.findByExtractedTextContaining(searchTerm);
-
-        List<SearchHitDTO> searchHits = matchingPages.stream()
-                .map(page -> mapToSearchHit(page, searchTerm))
+    public SearchResultDTO searchDocumentByText(String username, String searchTerm, int page, int size) {
+        int pageNumber = Math.max(0, page);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Page<PageTextMatch> matches = pageRepository.searchPageText(username, searchTerm,
+                PageRequest.of(pageNumber, pageSize));
+
+        List<SearchHitDTO> searchHits = matches.stream()
+                .map(this::mapToSearchHit)
                 .toList();
 
         return SearchResultDTO.builder()
                 .hits(searchHits)
-                .totalHits(searchHits.size())
-                .totalPages(1) // Placeholder for future pagination logic
-                .currentPage(1)
+                .totalHits(matches.getTotalElements())
+                .totalPages(matches.getTotalPages())
+                .currentPage(pageNumber)
                 .build();
     }
 
-    private SearchHitDTO mapToSearchHit(PagesPdfEntity page, String searchTerm) {
-        DocumentPdfEntity document = page.getDocument();
-
+    private SearchHitDTO mapToSearchHit(PageTextMatch match) {
         return SearchHitDTO.builder()
-                .documentId(document.getId().toString())
-                .documentName(document.getTitle())
-                .pageNumber(page.getPageNumber())
-                .textSnippet(extractSnippet(page.getPageText(), searchTerm))
+                .documentId(match.documentId().toString())
+                .documentName(match.documentName())
+                .pageNumber(match.pageNumber())
+                .textSnippet(match.snippet())
+                .score(match.rank())
                 .build();
     }
-
-    private String extractSnippet(String text, String searchTerm) {
-        String lowerText = text.toLowerCase();
-        String lowerSearchTerm = searchTerm.toLowerCase();
-
-        int index = lowerText.indexOf(lowerSearchTerm);
-        if (index == -1) return "";
-
-        final int CONTEXT_CHARS = 100;
-
-        int snippetStart = Math.max(0, index - CONTEXT_CHARS);
-        int snippetEnd = Math.min(text.length(), index + searchTerm.length() + CONTEXT_CHARS);
-
-        String snippet = text.substring(snippetStart, snippetEnd);
-
-        if (snippetStart > 0) snippet = "..." + snippet;
-        if (snippetEnd < text.length()) snippet += "...";
-
-        return snippet;
-    }
 }
-
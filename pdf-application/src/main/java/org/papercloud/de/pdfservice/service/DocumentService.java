@@ -5,10 +5,18 @@ import java.io.IOException;
 import java.nio.file.AccessDeniedException;
 
 import org.papercloud.de.core.domain.UploadSource;
+import org.papercloud.de.core.dto.document.BulkTagUpdateDTO;
 import org.papercloud.de.core.dto.document.DocumentDTO;
 import org.papercloud.de.core.dto.document.DocumentDownloadDTO;
 import org.papercloud.de.core.dto.document.DocumentUploadDTO;
 import org.papercloud.de.core.dto.document.DocumentListItemDTO;
+import org.papercloud.de.core.dto.document.DocumentListSort;
+import org.papercloud.de.core.dto.document.DocumentPageDTO;
+import org.papercloud.de.core.dto.document.DocumentMetadataUpdateDTO;
+import org.papercloud.de.core.dto.search.FacetedSearchResultDTO;
+import org.papercloud.de.core.dto.search.SearchMode;
+import org.papercloud.de.core.dto.search.SearchRequestDTO;
+import org.papercloud.de.core.dto.search.SuggestionDTO;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -20,11 +28,52 @@ public interface DocumentService {
 
   DocumentDownloadDTO downloadDocument(String username, Long id) throws AccessDeniedException;
 
+  /**
+   * Lists the user's documents in upload order, one page at a time. Each page seeks past the
+   * last document of the previous one, whose position is carried by the cursor, so deep pages
+   * cost the same as the first.
+   *
+   * @param cursor the {@code nextCursor} of the previous page, or null for the first page
+   * @throws IllegalArgumentException if the size is out of range or the cursor is invalid
+   */
+  DocumentPageDTO listDocuments(String username, DocumentListSort sort, int size, String cursor);
+
+  /** Searches the user's documents; a blank query returns the newest documents. */
   java.util.List<DocumentListItemDTO> searchDocuments(String username, String query);
 
+  java.util.List<DocumentListItemDTO> searchDocuments(String username, String query, SearchMode mode);
+
+  /**
+   * Searches the user's documents, filtered by the tags and year of the request, and returns
+   * the tag and year facets of all matches with the requested page. Pages after the first
+   * are best read with the cursor of the previous result, which costs the same at any
+   * depth; such pages come without facets.
+   */
+  FacetedSearchResultDTO searchWithFacets(String username, SearchRequestDTO request);
+
+  /**
+   * Completes a partially typed query from the titles and tags of the user's documents.
+   * Reads only the search index and returns no suggestions while it is unavailable.
+   */
+  java.util.List<SuggestionDTO> suggest(String username, String prefix, int size);
+
   java.util.List<DocumentListItemDTO> getFavourites(String username);
 
   void addFavourite(Long documentId, String username);
 
   void removeFavourite(Long documentId, String username);
+
+  /**
+   * Changes title and/or tags of several documents of the user at once.
+   *
+   * @return the number of documents that actually changed
+   */
+  int updateMetadata(String username, java.util.List<DocumentMetadataUpdateDTO> updates);
+
+  /**
+   * Adds and removes tags on several documents of the user at once.
+   *
+   * @return the number of documents that actually changed
+   */
+  int updateTags(String username, BulkTagUpdateDTO update);
 }
@@ -6,18 +6,28 @@ import lombok.extern.slf4j.Slf4j;
 import org.papercloud.de.core.domain.AuditActionType;
 import org.papercloud.de.core.domain.Document;
 import org.papercloud.de.core.domain.UploadSource;
+import org.papercloud.de.core.dto.document.BulkTagUpdateDTO;
 import org.papercloud.de.core.dto.document.DocumentDTO;
 import org.papercloud.de.core.dto.document.DocumentDownloadDTO;
 import org.papercloud.de.core.dto.document.DocumentUploadDTO;
 import org.papercloud.de.core.dto.document.DocumentListItemDTO;
+import org.papercloud.de.core.dto.document.DocumentListSort;
+import org.papercloud.de.core.dto.document.DocumentPageDTO;
+import org.papercloud.de.core.dto.document.DocumentMetadataUpdateDTO;
+import org.papercloud.de.core.dto.search.FacetedSearchResultDTO;
+import org.papercloud.de.core.dto.search.SearchHitDTO;
+import org.papercloud.de.core.dto.search.SearchMode;
 import org.papercloud.de.core.dto.search.SearchRequestDTO;
 import org.papercloud.de.core.dto.search.SearchResultDTO;
+import org.papercloud.de.core.dto.search.SuggestionDTO;
+import org.papercloud.de.core.events.DocumentMetadataChangedEvent;
 import org.papercloud.de.core.events.OcrEvent;
 import org.papercloud.de.core.ports.outbound.SearchService;
 import org.papercloud.de.pdfdatabase.entity.DocumentPdfEntity;
 import org.papercloud.de.pdfdatabase.entity.UserEntity;
 import org.papercloud.de.pdfdatabase.entity.UserDocumentFavouriteEntity;
 import org.papercloud.de.pdfdatabase.repository.DocumentRepository;
+import org.papercloud.de.pdfdatabase.repository.DocumentRepository.DocumentListView;
 import org.papercloud.de.pdfdatabase.repository.FavouriteRepository;
 import org.papercloud.de.pdfdatabase.repository.UserRepository;
 import org.papercloud.de.pdfservice.errors.DocumentNotFoundException;
@@ -26,6 +36,8 @@ import org.papercloud.de.pdfservice.errors.InvalidDocumentException;
 import org.papercloud.de.pdfservice.errors.UserAuthenticationException;
 import org.papercloud.de.pdfservice.mapper.DocumentServiceMapper;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -36,9 +48,10 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
 import java.nio.file.AccessDeniedException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -48,14 +61,26 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class DocumentServiceImpl implements DocumentService {
 
+    static final int MAX_BULK_UPDATE_SIZE = 500;
+    static final int MAX_SEARCH_PAGE_SIZE = 100;
+    /** Deepest hit reachable by page number; deeper results are only reachable by cursor. */
+    static final int MAX_SEARCH_OFFSET = 10_000;
+    static final int MAX_LIST_PAGE_SIZE = 100;
+    static final int MAX_SUGGESTIONS = 10;
+    /** Hits returned by the plain search, which has no paging. */
+    private static final int SEARCH_LIST_SIZE = 50;
+    private static final int MAX_TITLE_LENGTH = 255;
+
     private final UserRepository userRepository;
     private final DocumentRepository documentRepository;
     private final FavouriteRepository favouriteRepository;
     private final DocumentServiceMapper documentMapper;
     private final ApplicationEventPublisher publisher;
     private final SearchService searchService;
+    private final SemanticSearchService semanticSearchService;
     private final AuditService auditService;
     private final HttpServletRequest httpServletRequest;
+    private final SearchResultCache searchResultCache;
 
     @Override
     public DocumentDTO processUpload(MultipartFile file, Authentication authentication, UploadSource uploadSource) {
@@ -71,6 +96,7 @@ public class DocumentServiceImpl implements DocumentService {
     @Override
     public DocumentDTO processDocument(DocumentUploadDTO uploadDTO, String username) throws IOException {
         DocumentDTO documentDTO = saveDocToDB(username, uploadDTO);
+        searchResultCache.invalidate(username);
         publisher.publishEvent(new OcrEvent(documentDTO.getId()));
         return documentDTO;
     }
@@ -118,32 +144,55 @@ public class DocumentServiceImpl implements DocumentService {
     @Override
     @Transactional(readOnly = true)
     public List<DocumentListItemDTO> searchDocuments(String username, String query) {
-        Set<Long> favouriteIds = favouriteRepository.findFavouriteDocumentIdsByUsername(username);
+        return searchDocuments(username, query, SearchMode.LEXICAL);
+    }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<DocumentListItemDTO> searchDocuments(String username, String query, SearchMode mode) {
         if (query == null || query.isBlank()) {
-            List<DocumentPdfEntity> documents = documentRepository.findByOwnerUsername(username);
-            return mapToListItems(documents, favouriteIds);
+            return listDocuments(username, DocumentListSort.NEWEST, SEARCH_LIST_SIZE, null).getDocuments();
         }
 
-        try {
-            return searchViaElasticsearch(username, query, favouriteIds);
-        } catch (Exception e) {
-            log.warn("Elasticsearch search failed, falling back to in-memory filtering", e);
-            return searchInMemory(username, query, favouriteIds);
+        SearchResultCache.Key key = SearchResultCache.Key.of(SearchResultCache.View.LIST, query, mode,
+                null, null, 0, SEARCH_LIST_SIZE);
+        return searchResultCache.get(username, key, () -> search(username, query, mode));
+    }
+
+    private List<DocumentListItemDTO> search(String username, String query, SearchMode mode) {
+        Set<Long> favouriteIds = favouriteRepository.findFavouriteDocumentIdsByUsername(username);
+
+        // The search index answers lexical queries from its embedded fallback when Elasticsearch is down
+        if (mode != null && mode != SearchMode.LEXICAL) {
+            try {
+                return searchViaSearchService(username, query, mode, favouriteIds);
+            } catch (Exception e) {
+                log.warn("{} search failed, falling back to lexical search", mode, e);
+            }
         }
+        return searchViaSearchService(username, query, SearchMode.LEXICAL, favouriteIds);
     }
 
-    private List<DocumentListItemDTO> searchViaElasticsearch(String username, String query, Set<Long> favouriteIds) {
+    private List<DocumentListItemDTO> searchViaSearchService(String username, String query, SearchMode mode,
+                                                             Set<Long> favouriteIds) {
         SearchRequestDTO request = SearchRequestDTO.builder()
                 .query(query)
                 .username(username)
                 .page(0)
-                .size(50)
+                .size(SEARCH_LIST_SIZE)
+                .mode(mode)
                 .build();
 
-        SearchResultDTO result = searchService.search(request);
+        SearchResultDTO result = mode == SearchMode.LEXICAL
+                ? searchService.search(request)
+                : semanticSearchService.search(request);
+
+        return toListItems(result.getHits(), favouriteIds);
+    }
 
-        List<Long> documentIds = result.getHits().stream()
+    /** Keeps the order of the hits and drops hits whose document no longer exists. */
+    private List<DocumentListItemDTO> toListItems(List<SearchHitDTO> hits, Set<Long> favouriteIds) {
+        List<Long> documentIds = hits.stream()
                 .map(hit -> Long.parseLong(hit.getDocumentId()))
                 .toList();
 
@@ -166,18 +215,117 @@ public class DocumentServiceImpl implements DocumentService {
                 .toList();
     }
 
-    private List<DocumentListItemDTO> searchInMemory(String username, String query, Set<Long> favouriteIds) {
-        List<DocumentPdfEntity> documents = documentRepository.findByOwnerUsername(username);
-        String q = query.toLowerCase(Locale.ROOT);
-        List<DocumentPdfEntity> filtered = documents.stream()
-                .filter(doc -> {
-                    String filename = doc.getFilename();
-                    String displayTitle = getDisplayTitle(doc);
-                    return displayTitle.toLowerCase(Locale.ROOT).contains(q)
-                            || (filename != null && filename.toLowerCase(Locale.ROOT).contains(q));
-                })
+    @Override
+    @Transactional(readOnly = true)
+    public FacetedSearchResultDTO searchWithFacets(String username, SearchRequestDTO request) {
+        int page = request.getPage() != null ? request.getPage() : 0;
+        int size = request.getSize() != null ? request.getSize() : 20;
+        if (page < 0 || size < 1 || size > MAX_SEARCH_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page must be >= 0 and size between 1 and " + MAX_SEARCH_PAGE_SIZE);
+        }
+        boolean byCursor = request.getCursor() != null && !request.getCursor().isBlank();
+        if (!byCursor && (long) (page + 1) * size > MAX_SEARCH_OFFSET) {
+            throw new IllegalArgumentException("Results beyond " + MAX_SEARCH_OFFSET
+                    + " can only be reached with the cursor of the previous page");
+        }
+        List<String> tags = request.getTags() == null ? List.of() : normalizeTags(request.getTags());
+        if (byCursor) {
+            // A cursor refers to a point in time that expires or is closed independently of the cache
+            return searchWithFacets(username, request.getQuery(), tags, request.getYear(), page, size,
+                    request.getCursor());
+        }
+
+        SearchResultCache.Key key = SearchResultCache.Key.of(SearchResultCache.View.FACETED, request.getQuery(),
+                SearchMode.LEXICAL, tags, request.getYear(), page, size);
+        return searchResultCache.get(username, key,
+                () -> searchWithFacets(username, request.getQuery(), tags, request.getYear(), page, size, null),
+                result -> result.getNextCursor() == null);
+    }
+
+    private FacetedSearchResultDTO searchWithFacets(String username, String query, List<String> tags, Integer year,
+                                                    int page, int size, String cursor) {
+        Set<Long> favouriteIds = favouriteRepository.findFavouriteDocumentIdsByUsername(username);
+
+        SearchRequestDTO lexicalRequest = SearchRequestDTO.builder()
+                .query(query)
+                .tags(tags)
+                .year(year)
+                .username(username)
+                .page(page)
+                .size(size)
+                .mode(SearchMode.LEXICAL)
+                .cursor(cursor)
+                .withCursor(true)
+                .build();
+        SearchResultDTO result = searchService.search(lexicalRequest);
+        return FacetedSearchResultDTO.builder()
+                .documents(toListItems(result.getHits(), favouriteIds))
+                .totalHits(result.getTotalHits())
+                .totalPages(result.getTotalPages())
+                .currentPage(result.getCurrentPage())
+                .tags(result.getTagFacets())
+                .years(result.getYearFacets())
+                .nextCursor(result.getNextCursor())
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DocumentPageDTO listDocuments(String username, DocumentListSort sort, int size, String cursor) {
+        if (size < 1 || size > MAX_LIST_PAGE_SIZE) {
+            throw new IllegalArgumentException("Size must be between 1 and " + MAX_LIST_PAGE_SIZE);
+        }
+        DocumentListSort order = sort != null ? sort : DocumentListSort.NEWEST;
+        DocumentListCursor after = cursor != null && !cursor.isBlank()
+                ? DocumentListCursor.decode(cursor, order)
+                : null;
+
+        // One row more than requested tells whether there is a next page without counting
+        List<DocumentListView> rows = findListPage(username, order, after, PageRequest.of(0, size + 1));
+        boolean hasNext = rows.size() > size;
+        List<DocumentListView> pageRows = hasNext ? rows.subList(0, size) : rows;
+
+        Set<Long> favouriteIds = pageRows.isEmpty()
+                ? Set.of()
+                : favouriteRepository.findFavouriteDocumentIds(username,
+                        pageRows.stream().map(DocumentListView::getId).toList());
+        List<DocumentListItemDTO> documents = pageRows.stream()
+                .map(row -> DocumentListItemDTO.builder()
+                        .id(row.getId())
+                        .title(row.getTitle() != null ? row.getTitle() : "UPLOAD_#" + row.getId())
+                        .pageCount(row.getPageCount())
+                        .isFavourite(favouriteIds.contains(row.getId()))
+                        .build())
                 .toList();
-        return mapToListItems(filtered, favouriteIds);
+
+        DocumentListView last = pageRows.isEmpty() ? null : pageRows.get(pageRows.size() - 1);
+        return DocumentPageDTO.builder()
+                .documents(documents)
+                .nextCursor(hasNext ? new DocumentListCursor(order, last.getUploadedAt(), last.getId()).encode() : null)
+                .build();
+    }
+
+    private List<DocumentListView> findListPage(String username, DocumentListSort sort, DocumentListCursor after,
+                                                Pageable limit) {
+        if (sort == DocumentListSort.OLDEST) {
+            return after == null
+                    ? documentRepository.findOldestListPage(username, limit)
+                    : documentRepository.findListPageAfter(username, after.uploadedAt(), after.id(), limit);
+        }
+        return after == null
+                ? documentRepository.findNewestListPage(username, limit)
+                : documentRepository.findListPageBefore(username, after.uploadedAt(), after.id(), limit);
+    }
+
+    /** Deliberately not transactional: suggestions must not take a database connection. */
+    @Override
+    public List<SuggestionDTO> suggest(String username, String prefix, int size) {
+        try {
+            return searchService.suggest(username, prefix, Math.max(1, Math.min(size, MAX_SUGGESTIONS)));
+        } catch (Exception e) {
+            log.debug("Suggestions unavailable: {}", e.getMessage());
+            return List.of();
+        }
     }
 
     @Override
@@ -208,6 +356,7 @@ public class DocumentServiceImpl implements DocumentService {
                     .document(document)
                     .build();
             favouriteRepository.save(favourite);
+            searchResultCache.invalidate(username);
         }
         recordAuditSafely(documentId, username, AuditActionType.FAVOURITE_ADDED, null, null, null);
     }
@@ -217,9 +366,78 @@ public class DocumentServiceImpl implements DocumentService {
     public void removeFavourite(Long documentId, String username) {
         UserEntity user = findUserOrThrow(username);
         favouriteRepository.deleteByUserIdAndDocumentId(user.getId(), documentId);
+        searchResultCache.invalidate(username);
         recordAuditSafely(documentId, username, AuditActionType.FAVOURITE_REMOVED, null, null, null);
     }
 
+    @Override
+    @Transactional
+    public int updateMetadata(String username, List<DocumentMetadataUpdateDTO> updates) {
+        if (updates == null || updates.isEmpty()) {
+            return 0;
+        }
+        // A list body is not bean-validated per element, so the constraints of the DTO are checked here
+        for (DocumentMetadataUpdateDTO update : updates) {
+            if (update.getDocumentId() == null) {
+                throw new IllegalArgumentException("Document id is required");
+            }
+            if (update.getTitle() != null && update.getTitle().length() > MAX_TITLE_LENGTH) {
+                throw new IllegalArgumentException("Title must be at most " + MAX_TITLE_LENGTH + " characters");
+            }
+        }
+        Map<Long, DocumentPdfEntity> documents = getOwnedDocumentsOrThrow(username, updates.stream()
+                .map(DocumentMetadataUpdateDTO::getDocumentId)
+                .toList());
+
+        Set<DocumentPdfEntity> changed = new LinkedHashSet<>();
+        for (DocumentMetadataUpdateDTO update : updates) {
+            DocumentPdfEntity document = documents.get(update.getDocumentId());
+            if (update.getTitle() != null) {
+                String title = update.getTitle().trim();
+                if (title.isEmpty()) {
+                    throw new IllegalArgumentException("Title must not be blank for document " + document.getId());
+                }
+                if (!title.equals(document.getTitle())) {
+                    document.setTitle(title);
+                    changed.add(document);
+                }
+            }
+            if (update.getTags() != null) {
+                List<String> tags = normalizeTags(update.getTags());
+                if (!tags.equals(currentTags(document))) {
+                    document.setTags(new ArrayList<>(tags));
+                    changed.add(document);
+                }
+            }
+        }
+        return saveChanged(changed);
+    }
+
+    @Override
+    @Transactional
+    public int updateTags(String username, BulkTagUpdateDTO update) {
+        List<String> add = normalizeTags(update.getAdd());
+        List<String> remove = normalizeTags(update.getRemove());
+        if (update.getDocumentIds() == null || update.getDocumentIds().isEmpty()
+                || (add.isEmpty() && remove.isEmpty())) {
+            return 0;
+        }
+        Map<Long, DocumentPdfEntity> documents = getOwnedDocumentsOrThrow(username, update.getDocumentIds());
+
+        Set<DocumentPdfEntity> changed = new LinkedHashSet<>();
+        for (DocumentPdfEntity document : documents.values()) {
+            List<String> current = currentTags(document);
+            Set<String> tags = new LinkedHashSet<>(current);
+            tags.removeAll(remove);
+            tags.addAll(add);
+            if (!List.copyOf(tags).equals(current)) {
+                document.setTags(new ArrayList<>(tags));
+                changed.add(document);
+            }
+        }
+        return saveChanged(changed);
+    }
+
 
     // 🔽 --- Private Helper Methods --- 🔽
 
@@ -255,17 +473,52 @@ public class DocumentServiceImpl implements DocumentService {
                 .orElseThrow(() -> new DocumentNotFoundException("Document not found with id: " + id));
     }
 
-    private List<DocumentListItemDTO> mapToListItems(List<DocumentPdfEntity> documents, Set<Long> favouriteIds) {
-        return documents.stream()
-                .map(doc -> DocumentListItemDTO.builder()
-                        .id(doc.getId())
-                        .title(getDisplayTitle(doc))
-                        .pageCount(getPageCount(doc))
-                        .isFavourite(favouriteIds.contains(doc.getId()))
-                        .build())
+    /** Loads all documents in one query and fails the whole request if any is missing or not the user's. */
+    private Map<Long, DocumentPdfEntity> getOwnedDocumentsOrThrow(String username, List<Long> ids) {
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        if (distinctIds.size() > MAX_BULK_UPDATE_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_UPDATE_SIZE + " documents can be updated at once");
+        }
+        Map<Long, DocumentPdfEntity> documents = documentRepository.findAllById(distinctIds).stream()
+                .collect(Collectors.toMap(DocumentPdfEntity::getId, doc -> doc));
+        for (Long id : distinctIds) {
+            DocumentPdfEntity document = documents.get(id);
+            if (document == null) {
+                throw new DocumentNotFoundException("Document not found with id: " + id);
+            }
+            if (!document.getOwner().getUsername().equals(username)) {
+                throw new org.springframework.security.access.AccessDeniedException(
+                        "You are not allowed to modify document " + id + ".");
+            }
+        }
+        return documents;
+    }
+
+    /** The index picks the change up once the transaction has committed. */
+    private int saveChanged(Set<DocumentPdfEntity> changed) {
+        if (changed.isEmpty()) {
+            return 0;
+        }
+        documentRepository.saveAll(changed);
+        changed.forEach(document -> publisher.publishEvent(new DocumentMetadataChangedEvent(document.getId())));
+        return changed.size();
+    }
+
+    private static List<String> normalizeTags(List<String> tags) {
+        if (tags == null) {
+            return List.of();
+        }
+        return tags.stream()
+                .filter(tag -> tag != null && !tag.isBlank())
+                .map(String::trim)
+                .distinct()
                 .toList();
     }
 
+    private static List<String> currentTags(DocumentPdfEntity document) {
+        return document.getTags() == null ? List.of() : List.copyOf(document.getTags());
+    }
+
     private Authentication resolveAuthentication(Authentication authentication) {
         if (authentication != null) {
             return authentication;
@@ -0,0 +1,181 @@
+package org.papercloud.de.pdfservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.papercloud.de.core.dto.search.SavedSearchDTO;
+import org.papercloud.de.core.dto.search.SearchNotificationDTO;
+import org.papercloud.de.core.ports.outbound.SavedSearchIndex;
+import org.papercloud.de.pdfdatabase.entity.DocumentPdfEntity;
+import org.papercloud.de.pdfdatabase.entity.SavedSearchEntity;
+import org.papercloud.de.pdfdatabase.entity.SearchNotificationEntity;
+import org.papercloud.de.pdfdatabase.entity.UserEntity;
+import org.papercloud.de.pdfdatabase.repository.DocumentRepository;
+import org.papercloud.de.pdfdatabase.repository.SavedSearchRepository;
+import org.papercloud.de.pdfdatabase.repository.SearchNotificationRepository;
+import org.papercloud.de.pdfdatabase.repository.UserRepository;
+import org.papercloud.de.pdfservice.errors.DocumentNotFoundException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Saved searches and the notifications raised when a new document matches one of them.
+ * <p>
+ * The criteria are stored in the database and, as a query, in the search index. Matching a
+ * new document is a single request to the index that only evaluates the owner's saved
+ * searches, so it stays cheap however many searches other users have saved.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SavedSearchService {
+
+    static final int MAX_SAVED_SEARCHES = 50;
+    static final int MAX_NOTIFICATIONS = 100;
+
+    private final SavedSearchRepository savedSearchRepository;
+    private final SearchNotificationRepository notificationRepository;
+    private final DocumentRepository documentRepository;
+    private final UserRepository userRepository;
+    private final SavedSearchIndex savedSearchIndex;
+
+    /**
+     * Saves the search and registers it in the index. The search is rolled back if the index
+     * cannot store it, because it would never produce a notification.
+     */
+    @Transactional
+    public SavedSearchDTO create(String username, SavedSearchDTO request) {
+        String query = request.getQuery() == null || request.getQuery().isBlank() ? null : request.getQuery().trim();
+        List<String> tags = normalizeTags(request.getTags());
+        if (query == null && tags.isEmpty() && request.getYear() == null) {
+            throw new IllegalArgumentException("A saved search needs a query, a tag or a year");
+        }
+        if (savedSearchRepository.countByOwnerUsername(username) >= MAX_SAVED_SEARCHES) {
+            throw new IllegalStateException("At most " + MAX_SAVED_SEARCHES + " searches can be saved");
+        }
+
+        UserEntity owner = userRepository.findByUsername(username)
+                .orElseThrow(() -> new IllegalArgumentException("User not found: " + username));
+        SavedSearchEntity savedSearch = savedSearchRepository.saveAndFlush(SavedSearchEntity.builder()
+                .owner(owner)
+                .name(request.getName().trim())
+                .query(query)
+                .tags(new ArrayList<>(tags))
+                .year(request.getYear())
+                .build());
+
+        savedSearchIndex.saveQuery(savedSearch.getId(), username, query, tags, request.getYear());
+        log.info("User {} saved search {}", username, savedSearch.getId());
+        return toDto(savedSearch);
+    }
+
+    @Transactional(readOnly = true)
+    public List<SavedSearchDTO> list(String username) {
+        return savedSearchRepository.findByOwnerUsernameOrderByCreatedAtDesc(username).stream()
+                .map(SavedSearchService::toDto)
+                .toList();
+    }
+
+    @Transactional
+    public void delete(String username, Long id) {
+        SavedSearchEntity savedSearch = savedSearchRepository.findByIdAndOwnerUsername(id, username)
+                .orElseThrow(() -> new DocumentNotFoundException("Saved search not found with id: " + id));
+        notificationRepository.deleteBySavedSearchId(id);
+        savedSearchRepository.delete(savedSearch);
+        savedSearchIndex.deleteQuery(id);
+    }
+
+    @Transactional(readOnly = true)
+    public List<SearchNotificationDTO> listNotifications(String username, boolean unreadOnly) {
+        return notificationRepository.findForUser(username, unreadOnly, PageRequest.of(0, MAX_NOTIFICATIONS)).stream()
+                .map(SavedSearchService::toDto)
+                .toList();
+    }
+
+    /** Marks the user's notifications as read; IDs of other users' notifications are ignored. */
+    @Transactional
+    public int markRead(String username, List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        return notificationRepository.markRead(username, ids, LocalDateTime.now());
+    }
+
+    /**
+     * Matches a newly indexed document against its owner's saved searches and records a
+     * notification per match. A search that already reported the document is skipped.
+     *
+     * @return the number of new notifications
+     */
+    @Transactional
+    public int matchDocument(Long documentId) {
+        DocumentPdfEntity document = documentRepository.findById(documentId).orElse(null);
+        if (document == null) {
+            return 0;
+        }
+        String username = document.getOwner().getUsername();
+        if (!savedSearchRepository.existsByOwnerUsername(username)) {
+            return 0;
+        }
+
+        int created = 0;
+        for (Long savedSearchId : savedSearchIndex.match(documentId, username)) {
+            if (notificationRepository.existsBySavedSearchIdAndDocumentId(savedSearchId, documentId)) {
+                continue;
+            }
+            SavedSearchEntity savedSearch = savedSearchRepository.findById(savedSearchId).orElse(null);
+            if (savedSearch == null) {
+                // Deleted after the index answered
+                continue;
+            }
+            notificationRepository.save(SearchNotificationEntity.builder()
+                    .savedSearch(savedSearch)
+                    .document(document)
+                    .build());
+            created++;
+        }
+        if (created > 0) {
+            log.debug("Document ID {} matched {} saved searches of {}", documentId, created, username);
+        }
+        return created;
+    }
+
+    private static List<String> normalizeTags(List<String> tags) {
+        if (tags == null) {
+            return List.of();
+        }
+        return tags.stream()
+                .filter(tag -> tag != null && !tag.isBlank())
+                .map(String::trim)
+                .distinct()
+                .toList();
+    }
+
+    private static SavedSearchDTO toDto(SavedSearchEntity entity) {
+        return SavedSearchDTO.builder()
+                .id(entity.getId())
+                .name(entity.getName())
+                .query(entity.getQuery())
+                .tags(entity.getTags() == null ? List.of() : List.copyOf(entity.getTags()))
+                .year(entity.getYear())
+                .createdAt(entity.getCreatedAt())
+                .build();
+    }
+
+    private static SearchNotificationDTO toDto(SearchNotificationEntity entity) {
+        DocumentPdfEntity document = entity.getDocument();
+        return SearchNotificationDTO.builder()
+                .id(entity.getId())
+                .savedSearchId(entity.getSavedSearch().getId())
+                .savedSearchName(entity.getSavedSearch().getName())
+                .documentId(document.getId())
+                .documentTitle(document.getTitle() != null ? document.getTitle() : document.getFilename())
+                .createdAt(entity.getCreatedAt())
+                .read(entity.getReadAt() != null)
+                .build();
+    }
+}
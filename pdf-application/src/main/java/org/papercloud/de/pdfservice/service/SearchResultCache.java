@@ -0,0 +1,309 @@
+package org.papercloud.de.pdfservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.papercloud.de.core.dto.document.DocumentListItemDTO;
+import org.papercloud.de.core.dto.search.FacetBucketDTO;
+import org.papercloud.de.core.dto.search.FacetedSearchResultDTO;
+import org.papercloud.de.core.dto.search.SearchMode;
+import org.papercloud.de.pdfservice.config.SearchResultCacheConfiguration;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Per-user LRU of search result pages, in front of the search index, the favourites query and
+ * the document lookup that a search costs.
+ * <p>
+ * Every user who searches gets a generation that {@link #invalidate} ends whenever something
+ * the user's results depend on changes. A page is only served within the generation it was
+ * computed in, and a page whose computation overlapped the end of its generation is not
+ * stored, so a search racing with a write cannot bring old results back. A generation ends
+ * as well when the user's pages are evicted, so only users with cached pages or a search in
+ * flight are tracked. Cached results are shared and must not be modified.
+ * <p>
+ * The search index only shows a write once it has refreshed. After
+ * {@link #invalidateAfterIndexing} no results of the user are stored until that delay has
+ * passed, since they may still miss the document.
+ */
+@Component
+public class SearchResultCache {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final SearchResultCacheConfiguration config;
+
+    /** Current generation per user; compared by identity. */
+    private final Map<String, Object> generations = new ConcurrentHashMap<>();
+    /** Users whose index writes may not be searchable yet, with the nano time they will be. */
+    private final Map<String, Long> settling = new ConcurrentHashMap<>();
+    private final LinkedHashMap<String, Partition> partitions = new LinkedHashMap<>(16, 0.75f, true);
+    private long entryCount;
+    private long estimatedBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter invalidations;
+
+    public SearchResultCache(SearchResultCacheConfiguration config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.hits = meterRegistry.counter("search.cache.hits");
+        this.misses = meterRegistry.counter("search.cache.misses");
+        this.invalidations = meterRegistry.counter("search.cache.invalidations");
+        Gauge.builder("search.cache.hit.ratio", this, SearchResultCache::hitRatio).register(meterRegistry);
+        Gauge.builder("search.cache.entries", this, SearchResultCache::getEntryCount).register(meterRegistry);
+        Gauge.builder("search.cache.memory", this, SearchResultCache::getEstimatedBytes)
+                .description("Estimated heap used by cached results")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /** Which of the search operations a page belongs to; both may share all other parameters. */
+    public enum View { LIST, FACETED }
+
+    /**
+     * Identifies a result page. The query is compared ignoring case and surrounding or repeated
+     * whitespace, as the index analyzes it; tag filters are compared ignoring their order.
+     */
+    public record Key(View view, String query, SearchMode mode, List<String> tags, Integer year,
+                      int page, int size) {
+
+        public static Key of(View view, String query, SearchMode mode, List<String> tags, Integer year,
+                             int page, int size) {
+            String normalizedQuery = query == null ? "" : WHITESPACE.matcher(query.strip()).replaceAll(" ")
+                    .toLowerCase(Locale.ROOT);
+            List<String> sortedTags = tags == null ? List.of() : tags.stream().sorted().toList();
+            return new Key(view, normalizedQuery, mode == null ? SearchMode.LEXICAL : mode, sortedTags, year,
+                    page, size);
+        }
+    }
+
+    /** Returns the cached page, or loads and caches it. Failures are not cached. */
+    public <T> T get(String username, Key key, Supplier<T> loader) {
+        return get(username, key, loader, result -> true);
+    }
+
+    /**
+     * Returns the cached page, or loads it and caches it if it is {@code cacheable}, e.g. not
+     * when it holds state that expires sooner than the page would.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String username, Key key, Supplier<T> loader, Predicate<? super T> cacheable) {
+        if (!config.isEnabled()) {
+            return loader.get();
+        }
+        Object generation = generations.computeIfAbsent(username, u -> new Object());
+        Object cached = lookup(username, key, generation);
+        if (cached != null) {
+            hits.increment();
+            return (T) cached;
+        }
+        misses.increment();
+        T result = loader.get();
+        if (result != null && cacheable.test(result)) {
+            store(username, key, generation, result);
+        }
+        return result;
+    }
+
+    /**
+     * Drops the user's results. Within a transaction the results are dropped again once it has
+     * committed, since a search in between still reads the data as it was before the change.
+     */
+    public void invalidate(String username) {
+        bump(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(username);
+                }
+            });
+        }
+    }
+
+    /**
+     * Drops the user's results after a document of the user was written to the search index,
+     * and keeps results from being stored until the index has refreshed.
+     */
+    public void invalidateAfterIndexing(String username) {
+        long now = System.nanoTime();
+        settling.values().removeIf(settledAt -> now - settledAt >= 0);
+        settling.put(username, now + TimeUnit.MILLISECONDS.toNanos(config.getIndexRefreshDelayMs()));
+        invalidate(username);
+    }
+
+    private void bump(String username) {
+        synchronized (partitions) {
+            generations.remove(username);
+            Partition partition = partitions.remove(username);
+            if (partition != null) {
+                partition.clear();
+            }
+        }
+        invalidations.increment();
+    }
+
+    private boolean isSettling(String username) {
+        Long settledAt = settling.get(username);
+        if (settledAt == null) {
+            return false;
+        }
+        if (System.nanoTime() - settledAt < 0) {
+            return true;
+        }
+        settling.remove(username, settledAt);
+        return false;
+    }
+
+    private Object lookup(String username, Key key, Object generation) {
+        synchronized (partitions) {
+            Partition partition = partitions.get(username);
+            if (partition == null || partition.generation != generation) {
+                return null;
+            }
+            Entry entry = partition.entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (System.nanoTime() - entry.createdAt >= TimeUnit.MILLISECONDS.toNanos(config.getMaxAgeMs())) {
+                partition.remove(key);
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    private void store(String username, Key key, Object generation, Object value) {
+        if (isSettling(username)) {
+            return;
+        }
+        synchronized (partitions) {
+            if (generations.get(username) != generation) {
+                return;
+            }
+            Partition partition = partitions.get(username);
+            if (partition == null || partition.generation != generation) {
+                if (partition != null) {
+                    partition.clear();
+                }
+                partition = new Partition(generation);
+                partitions.put(username, partition);
+            }
+            partition.put(key, new Entry(value, estimateBytes(key, value), System.nanoTime()));
+
+            Iterator<Map.Entry<String, Partition>> eldest = partitions.entrySet().iterator();
+            while (partitions.size() > config.getMaxUsers() && eldest.hasNext()) {
+                Map.Entry<String, Partition> evicted = eldest.next();
+                evicted.getValue().clear();
+                generations.remove(evicted.getKey(), evicted.getValue().generation);
+                eldest.remove();
+            }
+        }
+    }
+
+    private double hitRatio() {
+        double lookups = hits.count() + misses.count();
+        return lookups == 0 ? 0 : hits.count() / lookups;
+    }
+
+    public long getEntryCount() {
+        synchronized (partitions) {
+            return entryCount;
+        }
+    }
+
+    public long getEstimatedBytes() {
+        synchronized (partitions) {
+            return estimatedBytes;
+        }
+    }
+
+    /** Number of users whose generation is tracked. */
+    int getTrackedUserCount() {
+        return generations.size();
+    }
+
+    /** Rough heap size of an entry: object overhead plus two bytes per character of its strings. */
+    static long estimateBytes(Key key, Object value) {
+        long bytes = 128 + 2L * key.query().length();
+        List<DocumentListItemDTO> documents = List.of();
+        if (value instanceof FacetedSearchResultDTO faceted) {
+            documents = faceted.getDocuments() == null ? List.of() : faceted.getDocuments();
+            bytes += facetBytes(faceted.getTags()) + facetBytes(faceted.getYears());
+            bytes += faceted.getNextCursor() == null ? 0 : 2L * faceted.getNextCursor().length();
+        } else if (value instanceof List<?> list) {
+            documents = list.stream()
+                    .filter(DocumentListItemDTO.class::isInstance)
+                    .map(DocumentListItemDTO.class::cast)
+                    .toList();
+        }
+        for (DocumentListItemDTO document : documents) {
+            bytes += 64 + (document.getTitle() == null ? 0 : 2L * document.getTitle().length());
+        }
+        return bytes;
+    }
+
+    private static long facetBytes(List<FacetBucketDTO> buckets) {
+        if (buckets == null) {
+            return 0;
+        }
+        return buckets.stream()
+                .mapToLong(bucket -> 48 + (bucket.getValue() == null ? 0 : 2L * bucket.getValue().length()))
+                .sum();
+    }
+
+    private record Entry(Object value, long bytes, long createdAt) {
+    }
+
+    /** The pages of one user, computed in {@code generation}. Guarded by {@link #partitions}. */
+    private class Partition {
+
+        private final Object generation;
+        private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        Partition(Object generation) {
+            this.generation = generation;
+        }
+
+        void put(Key key, Entry entry) {
+            remove(key);
+            entries.put(key, entry);
+            entryCount++;
+            estimatedBytes += entry.bytes();
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (entries.size() > config.getMaxEntriesPerUser() && eldest.hasNext()) {
+                Entry evicted = eldest.next();
+                eldest.remove();
+                entryCount--;
+                estimatedBytes -= evicted.bytes();
+            }
+        }
+
+        void remove(Key key) {
+            Entry removed = entries.remove(key);
+            if (removed != null) {
+                entryCount--;
+                estimatedBytes -= removed.bytes();
+            }
+        }
+
+        void clear() {
+            entries.values().forEach(entry -> estimatedBytes -= entry.bytes());
+            entryCount -= entries.size();
+            entries.clear();
+        }
+    }
+}
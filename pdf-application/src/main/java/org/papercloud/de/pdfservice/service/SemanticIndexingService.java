@@ -0,0 +1,112 @@
+package org.papercloud.de.pdfservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.papercloud.de.core.dto.search.ChunkVectorDTO;
+import org.papercloud.de.core.ports.outbound.EmbeddingService;
+import org.papercloud.de.core.ports.outbound.VectorIndex;
+import org.papercloud.de.pdfdatabase.entity.PagesPdfEntity;
+import org.papercloud.de.pdfservice.config.SemanticSearchConfiguration;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits page texts into overlapping chunks, embeds them and stores the vectors in the
+ * user's partition of the vector index.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SemanticIndexingService {
+
+    private final EmbeddingService embeddingService;
+    private final VectorIndex vectorIndex;
+    private final SemanticSearchConfiguration config;
+
+    public void indexDocument(Long documentId, String username, List<PagesPdfEntity> pages) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        List<TextChunk> chunks = new ArrayList<>();
+        for (PagesPdfEntity page : pages) {
+            if (page.getPageText() != null && !page.getPageText().isBlank()) {
+                chunks.addAll(chunk(page.getPageNumber(), page.getPageText()));
+            }
+        }
+
+        List<float[]> vectors = chunks.isEmpty()
+                ? List.of()
+                : embeddingService.embed(chunks.stream().map(TextChunk::text).toList());
+
+        List<ChunkVectorDTO> chunkVectors = new ArrayList<>(chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            TextChunk chunk = chunks.get(i);
+            chunkVectors.add(ChunkVectorDTO.builder()
+                    .pageNumber(chunk.pageNumber())
+                    .offset(chunk.offset())
+                    .length(chunk.text().length())
+                    .vector(vectors.get(i))
+                    .build());
+        }
+        vectorIndex.replaceDocument(username, documentId, chunkVectors);
+        log.debug("Embedded {} chunks of document ID {} with {}", chunks.size(), documentId,
+                embeddingService.getModelName());
+    }
+
+    List<TextChunk> chunk(int pageNumber, String text) {
+        List<TextChunk> chunks = new ArrayList<>();
+        int chunkChars = config.getChunkChars();
+        int start = skipWhitespace(text, 0);
+        while (start < text.length()) {
+            int end = Math.min(text.length(), start + chunkChars);
+            if (end < text.length()) {
+                int boundary = lastWhitespace(text, start + chunkChars / 2, end);
+                if (boundary > start) {
+                    end = boundary;
+                }
+            }
+            String chunkText = text.substring(start, end).stripTrailing();
+            if (!chunkText.isEmpty()) {
+                chunks.add(new TextChunk(pageNumber, start, chunkText));
+            }
+            if (end >= text.length()) {
+                break;
+            }
+            // Overlap starts at a word boundary; without one in range the next chunk starts at the cut
+            int next = nextWordStart(text, Math.max(start + 1, end - config.getChunkOverlap()));
+            start = next < end ? next : skipWhitespace(text, end);
+        }
+        return chunks;
+    }
+
+    private static int lastWhitespace(String text, int from, int to) {
+        for (int i = to; i > from; i--) {
+            if (Character.isWhitespace(text.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int nextWordStart(String text, int from) {
+        int i = from;
+        while (i < text.length() && !Character.isWhitespace(text.charAt(i)) && i > 0
+                && !Character.isWhitespace(text.charAt(i - 1))) {
+            i++;
+        }
+        return skipWhitespace(text, i);
+    }
+
+    private static int skipWhitespace(String text, int from) {
+        int i = from;
+        while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    record TextChunk(int pageNumber, int offset, String text) {
+    }
+}
@@ -0,0 +1,191 @@
+package org.papercloud.de.pdfservice.service;
+
+import lombok.RequiredArgsConstructor;
+import org.papercloud.de.core.dto.search.SearchHitDTO;
+import org.papercloud.de.core.dto.search.SearchMode;
+import org.papercloud.de.core.dto.search.SearchRequestDTO;
+import org.papercloud.de.core.dto.search.SearchResultDTO;
+import org.papercloud.de.core.dto.search.VectorMatchDTO;
+import org.papercloud.de.core.ports.outbound.EmbeddingService;
+import org.papercloud.de.core.ports.outbound.SearchService;
+import org.papercloud.de.core.ports.outbound.VectorIndex;
+import org.papercloud.de.pdfdatabase.entity.DocumentPdfEntity;
+import org.papercloud.de.pdfdatabase.repository.DocumentRepository;
+import org.papercloud.de.pdfdatabase.repository.DocumentRepository.DocumentTagView;
+import org.papercloud.de.pdfdatabase.repository.PageRepository;
+import org.papercloud.de.pdfservice.config.SemanticSearchConfiguration;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Semantic and hybrid document search.
+ * <p>
+ * Semantic mode ranks documents by the best cosine similarity of any of their chunks to the
+ * query embedding. Hybrid mode also runs the lexical search and combines both: each list's
+ * scores are divided by that list's top score, then weighted by {@code semanticWeight}.
+ * A document found by only one side gets zero from the other. Tag and year filters apply to
+ * both sides.
+ */
+@Service
+@RequiredArgsConstructor
+public class SemanticSearchService {
+
+    private static final int SNIPPET_CHARS = 200;
+
+    private final EmbeddingService embeddingService;
+    private final VectorIndex vectorIndex;
+    private final SearchService searchService;
+    private final DocumentRepository documentRepository;
+    private final PageRepository pageRepository;
+    private final SemanticSearchConfiguration config;
+
+    @Transactional(readOnly = true)
+    public SearchResultDTO search(SearchRequestDTO request) {
+        int page = request.getPage() != null ? request.getPage() : 0;
+        int size = request.getSize() != null ? request.getSize() : 10;
+
+        Map<Long, VectorMatchDTO> semantic = semanticMatches(request);
+        Map<Long, String> snippets = chunkSnippets(semantic.values());
+        Map<Long, SearchHitDTO> lexical = request.getMode() == SearchMode.HYBRID
+                ? lexicalHits(request)
+                : Map.of();
+
+        double weight = request.getMode() == SearchMode.HYBRID ? config.getSemanticWeight() : 1.0;
+        double semanticTop = semantic.values().stream().mapToDouble(VectorMatchDTO::getScore).max().orElse(0);
+        double lexicalTop = lexical.values().stream().mapToDouble(SearchHitDTO::getScore).max().orElse(0);
+
+        Map<Long, Double> scores = new LinkedHashMap<>();
+        semantic.forEach((id, match) -> scores.merge(id, weight * normalize(match.getScore(), semanticTop), Double::sum));
+        lexical.forEach((id, hit) -> scores.merge(id, (1 - weight) * normalize(hit.getScore(), lexicalTop), Double::sum));
+
+        List<Long> ranked = scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
+                .map(Map.Entry::getKey)
+                .toList();
+        List<Long> pageIds = ranked.stream().skip((long) page * size).limit(size).toList();
+
+        Map<Long, DocumentPdfEntity> documents = documentRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(DocumentPdfEntity::getId, Function.identity()));
+        List<SearchHitDTO> hits = new ArrayList<>(pageIds.size());
+        for (Long id : pageIds) {
+            hits.add(toHit(id, scores.get(id), semantic.get(id), snippets.get(id), lexical.get(id), documents.get(id)));
+        }
+
+        return SearchResultDTO.builder()
+                .hits(hits)
+                .totalHits(ranked.size())
+                .totalPages((int) Math.ceil((double) ranked.size() / size))
+                .currentPage(page)
+                .build();
+    }
+
+    /** Best matching chunk per document, among the documents that pass the request's filters. */
+    private Map<Long, VectorMatchDTO> semanticMatches(SearchRequestDTO request) {
+        float[] query = embeddingService.embed(List.of(request.getQuery())).get(0);
+        Map<Long, VectorMatchDTO> best = new LinkedHashMap<>();
+        vectorIndex.search(request.getUsername(), query, config.getCandidates()).stream()
+                .sorted(Comparator.comparingDouble(VectorMatchDTO::getScore).reversed())
+                .forEach(match -> best.putIfAbsent(match.getDocumentId(), match));
+        best.keySet().retainAll(matchingFilters(best.keySet(), request.getTags(), request.getYear()));
+        return best;
+    }
+
+    /** The documents that carry every tag and belong to the year, like the lexical filters. */
+    private Set<Long> matchingFilters(Set<Long> documentIds, List<String> tags, Integer year) {
+        List<String> requiredTags = tags == null ? List.of() : tags.stream()
+                .filter(tag -> tag != null && !tag.isBlank())
+                .distinct()
+                .toList();
+        if (documentIds.isEmpty() || (requiredTags.isEmpty() && year == null)) {
+            return documentIds;
+        }
+        Set<Long> matching = year == null
+                ? new HashSet<>(documentIds)
+                : new HashSet<>(documentRepository.findIdsInYear(documentIds, year));
+        if (!requiredTags.isEmpty() && !matching.isEmpty()) {
+            Map<Long, Set<String>> documentTags = documentRepository.findTags(matching).stream()
+                    .collect(Collectors.groupingBy(DocumentTagView::getDocumentId,
+                            Collectors.mapping(DocumentTagView::getTag, Collectors.toSet())));
+            matching.removeIf(id -> !documentTags.getOrDefault(id, Set.of()).containsAll(requiredTags));
+        }
+        return matching;
+    }
+
+    private Map<Long, SearchHitDTO> lexicalHits(SearchRequestDTO request) {
+        SearchRequestDTO lexicalRequest = SearchRequestDTO.builder()
+                .query(request.getQuery())
+                .username(request.getUsername())
+                .year(request.getYear())
+                .tags(request.getTags())
+                .page(0)
+                .size(config.getCandidates())
+                .mode(SearchMode.LEXICAL)
+                .build();
+        Map<Long, SearchHitDTO> hits = new LinkedHashMap<>();
+        searchService.search(lexicalRequest).getHits()
+                .forEach(hit -> hits.putIfAbsent(Long.parseLong(hit.getDocumentId()), hit));
+        return hits;
+    }
+
+    private SearchHitDTO toHit(Long documentId, double score, VectorMatchDTO match, String snippet,
+                               SearchHitDTO lexicalHit, DocumentPdfEntity document) {
+        String name = document == null ? null
+                : document.getTitle() != null ? document.getTitle() : document.getFilename();
+        if (name == null && lexicalHit != null) {
+            name = lexicalHit.getDocumentName();
+        }
+        return SearchHitDTO.builder()
+                .documentId(documentId.toString())
+                .documentName(name)
+                .pageNumber(match != null ? match.getPageNumber() : lexicalHit.getPageNumber())
+                .textSnippet(match != null ? snippet : lexicalHit.getTextSnippet())
+                .score(score)
+                .build();
+    }
+
+    /** Snippet of the best chunk per document, with the pages of all chunks loaded in one query. */
+    private Map<Long, String> chunkSnippets(Collection<VectorMatchDTO> matches) {
+        if (matches.isEmpty()) {
+            return Map.of();
+        }
+        Set<Long> documentIds = new HashSet<>();
+        Set<Integer> pageNumbers = new HashSet<>();
+        matches.forEach(match -> {
+            documentIds.add(match.getDocumentId());
+            pageNumbers.add(match.getPageNumber());
+        });
+        Map<String, String> pageTexts = new HashMap<>();
+        pageRepository.findPageTexts(documentIds, pageNumbers)
+                .forEach(page -> pageTexts.put(page.getDocumentId() + ":" + page.getPageNumber(), page.getPageText()));
+
+        Map<Long, String> snippets = new HashMap<>();
+        matches.forEach(match -> snippets.put(match.getDocumentId(),
+                chunkSnippet(pageTexts.get(match.getDocumentId() + ":" + match.getPageNumber()), match)));
+        return snippets;
+    }
+
+    private static String chunkSnippet(String text, VectorMatchDTO match) {
+        if (text == null || match.getOffset() >= text.length()) {
+            return "";
+        }
+        int end = Math.min(text.length(), match.getOffset() + Math.min(match.getLength(), SNIPPET_CHARS));
+        String snippet = text.substring(match.getOffset(), end);
+        return end < text.length() ? snippet + "..." : snippet;
+    }
+
+    private static double normalize(double score, double top) {
+        return top <= 0 ? 0 : Math.max(0, score) / top;
+    }
+}
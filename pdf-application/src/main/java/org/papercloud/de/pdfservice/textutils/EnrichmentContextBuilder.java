@@ -0,0 +1,146 @@
+package org.papercloud.de.pdfservice.textutils;
+
+import lombok.RequiredArgsConstructor;
+import org.papercloud.de.core.ports.outbound.OcrTextCleaningService;
+import org.papercloud.de.pdfservice.config.EnrichmentContextConfiguration;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the document text sent to the LLM for enrichment.
+ * <p>
+ * If the whole cleaned document fits into the token budget it is sent as is. Otherwise lines
+ * are ranked, with header lines, lines containing dates and subject-like lines first, and the
+ * best lines across all pages are kept in their original order until the budget is spent. The
+ * best line that did not fit is cut to whatever budget is left, so a document of a few very
+ * long lines, as OCR often produces, still sends text.
+ */
+@Service
+@RequiredArgsConstructor
+public class EnrichmentContextBuilder {
+
+    private static final Pattern DATE_PATTERN = Pattern.compile(
+            "\\b\\d{1,2}\\.\\s?\\d{1,2}\\.\\s?(\\d{4}|\\d{2})\\b"
+                    + "|\\b\\d{4}-\\d{2}-\\d{2}\\b"
+                    + "|\\b\\d{1,2}\\.?\\s+(januar|jänner|februar|märz|april|mai|juni|juli|august|september"
+                    + "|oktober|november|dezember|jan|feb|mär|apr|jun|jul|aug|sep|sept|okt|nov|dez)\\.?\\s+\\d{4}\\b",
+            Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+
+    private static final int SUBJECT_SCORE = 5;
+    private static final int DATE_SCORE = 4;
+    private static final int FIRST_PAGE_HEADER_SCORE = 3;
+    private static final int HEADER_SCORE = 1;
+    private static final int FIRST_PAGE_SCORE = 1;
+
+    private final OcrTextCleaningService textCleaningService;
+    private final EnrichmentContextConfiguration config;
+
+    public String buildContext(List<String> pageTexts) {
+        List<Line> lines = collectLines(pageTexts);
+        int budget = config.getTokenBudget();
+
+        if (estimateTokens(lines) <= budget) {
+            return join(lines);
+        }
+
+        List<Line> selected = new ArrayList<>();
+        Line bestSkipped = null;
+        int used = 0;
+        for (Line line : lines.stream()
+                .sorted(Comparator.comparingInt(Line::score).reversed().thenComparingInt(Line::position))
+                .toList()) {
+            int tokens = estimateTokens(line.text());
+            if (used + tokens <= budget) {
+                selected.add(line);
+                used += tokens;
+            } else if (bestSkipped == null) {
+                bestSkipped = line;
+            }
+        }
+        if (bestSkipped != null) {
+            String truncated = truncate(bestSkipped.text(), budget - used);
+            if (!truncated.isEmpty()) {
+                selected.add(new Line(truncated, bestSkipped.position(), bestSkipped.score()));
+            }
+        }
+        selected.sort(Comparator.comparingInt(Line::position));
+        return join(selected);
+    }
+
+    int estimateTokens(String text) {
+        // +1 accounts for the separator between joined lines
+        return (int) Math.ceil((text.length() + 1) / config.getCharsPerToken());
+    }
+
+    /** The longest prefix of the text, ending at a word boundary where possible, that fits the tokens. */
+    private String truncate(String text, int tokens) {
+        int maxChars = (int) Math.floor(tokens * config.getCharsPerToken()) - 1;
+        if (maxChars <= 0) {
+            return "";
+        }
+        String prefix = text.substring(0, Math.min(maxChars, text.length()));
+        int lastSpace = prefix.lastIndexOf(' ');
+        return (lastSpace > 0 ? prefix.substring(0, lastSpace) : prefix).strip();
+    }
+
+    private int estimateTokens(List<Line> lines) {
+        return lines.stream().mapToInt(line -> estimateTokens(line.text())).sum();
+    }
+
+    private List<Line> collectLines(List<String> pageTexts) {
+        List<Line> lines = new ArrayList<>();
+        for (int page = 0; page < pageTexts.size(); page++) {
+            String pageText = pageTexts.get(page);
+            if (pageText == null) {
+                continue;
+            }
+            int lineOnPage = 0;
+            for (String rawLine : pageText.split("\n")) {
+                String cleaned = textCleaningService.cleanOcrText(rawLine);
+                if (cleaned == null || cleaned.isBlank()) {
+                    continue;
+                }
+                lines.add(new Line(cleaned, lines.size(), score(cleaned, page, lineOnPage)));
+                lineOnPage++;
+            }
+        }
+        return lines;
+    }
+
+    private int score(String line, int page, int lineOnPage) {
+        int score = 0;
+        if (isSubjectLine(line)) {
+            score += SUBJECT_SCORE;
+        }
+        if (DATE_PATTERN.matcher(line).find()) {
+            score += DATE_SCORE;
+        }
+        if (lineOnPage < config.getHeaderLines()) {
+            score += page == 0 ? FIRST_PAGE_HEADER_SCORE : HEADER_SCORE;
+        }
+        if (page == 0) {
+            score += FIRST_PAGE_SCORE;
+        }
+        return score;
+    }
+
+    private boolean isSubjectLine(String line) {
+        String lower = line.toLowerCase(Locale.GERMAN);
+        return config.getSubjectPrefixes().stream().anyMatch(lower::startsWith);
+    }
+
+    private String join(List<Line> lines) {
+        return lines.stream()
+                .map(Line::text)
+                .collect(Collectors.joining(" "));
+    }
+
+    private record Line(String text, int position, int score) {
+    }
+}
@@ -0,0 +1,269 @@
+package org.papercloud.de.pdfservice.textutils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.papercloud.de.core.dto.llm.EnrichmentResultDTO;
+import org.papercloud.de.pdfservice.config.RuleExtractionConfiguration;
+import org.springframework.stereotype.Service;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Deterministic metadata extraction that runs before the LLM.
+ * <p>
+ * Finds the document date (numeric {@code dd.MM.yyyy} and German month names), a subject or
+ * document type line, the sender and keyword-based tags, and scores how complete the result
+ * is. Only results at or above the configured confidence threshold are used in place of the LLM.
+ */
+@Slf4j
+@Service
+public class RuleBasedMetadataExtractor {
+
+    public enum Rule {
+        DATE(0.4),
+        SUBJECT(0.35),
+        DOCUMENT_TYPE(0.25),
+        SENDER(0.1),
+        TAGS(0.15);
+
+        private final double weight;
+
+        Rule(double weight) {
+            this.weight = weight;
+        }
+    }
+
+    public record Extraction(EnrichmentResultDTO result, double confidence) {
+    }
+
+    private static final DateTimeFormatter OUTPUT_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+    private static final Pattern NUMERIC_DATE = Pattern.compile("\\b(\\d{1,2})\\.\\s?(\\d{1,2})\\.\\s?(\\d{4}|\\d{2})\\b");
+    private static final Pattern MONTH_NAME_DATE = Pattern.compile(
+            "\\b(\\d{1,2})\\.?\\s+(januar|jänner|februar|märz|maerz|april|mai|juni|juli|august|september"
+                    + "|oktober|november|dezember)\\s+(\\d{4})\\b",
+            Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    private static final Pattern DATE_CONTEXT = Pattern.compile(
+            "\\b(datum|den|vom|date)\\b", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    private static final Pattern SUBJECT_LINE = Pattern.compile(
+            "^(betreff|betr\\.|subject)\\s*:?\\s*(.+)$", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    private static final List<String> MONTHS = List.of(
+            "januar", "februar", "märz", "april", "mai", "juni",
+            "juli", "august", "september", "oktober", "november", "dezember");
+    private static final int MIN_YEAR = 1990;
+    private static final int MAX_TITLE_LENGTH = 120;
+
+    private final RuleExtractionConfiguration config;
+    private final List<Pattern> senderMarkers;
+    private final Map<String, List<Pattern>> tagKeywords;
+    private final Map<Rule, Counter> ruleHits = new EnumMap<>(Rule.class);
+    private final Counter evaluations;
+    private final Counter accepted;
+
+    public RuleBasedMetadataExtractor(RuleExtractionConfiguration config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.senderMarkers = config.getSenderMarkers().stream()
+                .map(RuleBasedMetadataExtractor::wordPattern)
+                .toList();
+        this.tagKeywords = new LinkedHashMap<>();
+        config.getTagKeywords().forEach((tag, keywords) ->
+                tagKeywords.put(tag, keywords.stream().map(RuleBasedMetadataExtractor::wordPattern).toList()));
+        for (Rule rule : Rule.values()) {
+            ruleHits.put(rule, meterRegistry.counter("enrichment.rules.hits", "rule", rule.name().toLowerCase(Locale.ROOT)));
+        }
+        this.evaluations = meterRegistry.counter("enrichment.rules.evaluations");
+        this.accepted = meterRegistry.counter("enrichment.rules.accepted");
+    }
+
+    /**
+     * Returns the rule-based result if it is confident enough to skip the LLM.
+     */
+    public Optional<EnrichmentResultDTO> tryExtract(List<String> pageTexts) {
+        if (!config.isEnabled()) {
+            return Optional.empty();
+        }
+        Extraction extraction = extract(pageTexts);
+        if (extraction.confidence() >= config.getConfidenceThreshold()) {
+            accepted.increment();
+            return Optional.of(extraction.result());
+        }
+        log.debug("Rule-based extraction confidence {} below threshold", extraction.confidence());
+        return Optional.empty();
+    }
+
+    public Extraction extract(List<String> pageTexts) {
+        evaluations.increment();
+        List<String> lines = new ArrayList<>();
+        List<String> headerLines = new ArrayList<>();
+        for (String pageText : pageTexts) {
+            if (pageText == null) {
+                continue;
+            }
+            int lineOnPage = 0;
+            for (String rawLine : pageText.split("\n")) {
+                String line = rawLine.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                lines.add(line);
+                if (lineOnPage++ < config.getHeaderLines()) {
+                    headerLines.add(line);
+                }
+            }
+        }
+
+        double confidence = 0;
+        LocalDate date = findDate(lines);
+        if (date != null) {
+            confidence += hit(Rule.DATE);
+        }
+
+        String sender = findSender(headerLines);
+        if (sender != null) {
+            confidence += hit(Rule.SENDER);
+        }
+
+        String title = findSubject(headerLines);
+        if (title != null) {
+            confidence += hit(Rule.SUBJECT);
+        } else {
+            String documentType = findDocumentType(headerLines);
+            if (documentType != null) {
+                confidence += hit(Rule.DOCUMENT_TYPE);
+                title = sender != null ? documentType + " " + sender : documentType;
+            }
+        }
+
+        List<EnrichmentResultDTO.TagDTO> tags = findTags(String.join("\n", lines));
+        if (!tags.isEmpty()) {
+            confidence += hit(Rule.TAGS);
+        }
+
+        EnrichmentResultDTO result = EnrichmentResultDTO.builder()
+                .title(title)
+                .date_sent(date != null ? date.format(OUTPUT_FORMAT) : null)
+                .tags(tags)
+                .flagFailedEnrichment(false)
+                .build();
+        return new Extraction(result, Math.min(1.0, confidence));
+    }
+
+    private double hit(Rule rule) {
+        ruleHits.get(rule).increment();
+        return rule.weight;
+    }
+
+    private LocalDate findDate(List<String> lines) {
+        LocalDate first = null;
+        for (String line : lines) {
+            LocalDate date = parseDate(line);
+            if (date == null) {
+                continue;
+            }
+            // "Datum: ..." or "Berlin, den ..." is the letter date; earlier dates may be periods or due dates
+            if (DATE_CONTEXT.matcher(line).find()) {
+                return date;
+            }
+            if (first == null) {
+                first = date;
+            }
+        }
+        return first;
+    }
+
+    private LocalDate parseDate(String line) {
+        Matcher numeric = NUMERIC_DATE.matcher(line);
+        while (numeric.find()) {
+            LocalDate date = toDate(numeric.group(1), numeric.group(2), numeric.group(3));
+            if (date != null) {
+                return date;
+            }
+        }
+        Matcher named = MONTH_NAME_DATE.matcher(line);
+        while (named.find()) {
+            String month = named.group(2).toLowerCase(Locale.GERMAN)
+                    .replace("jänner", "januar")
+                    .replace("maerz", "märz");
+            LocalDate date = toDate(named.group(1), String.valueOf(MONTHS.indexOf(month) + 1), named.group(3));
+            if (date != null) {
+                return date;
+            }
+        }
+        return null;
+    }
+
+    private LocalDate toDate(String day, String month, String year) {
+        int fullYear = year.length() == 2 ? 2000 + Integer.parseInt(year) : Integer.parseInt(year);
+        try {
+            LocalDate date = LocalDate.of(fullYear, Integer.parseInt(month), Integer.parseInt(day));
+            boolean plausible = date.getYear() >= MIN_YEAR && !date.isAfter(LocalDate.now().plusYears(1));
+            return plausible ? date : null;
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    private String findSubject(List<String> headerLines) {
+        for (String line : headerLines) {
+            Matcher matcher = SUBJECT_LINE.matcher(line);
+            if (matcher.matches()) {
+                return truncate(matcher.group(2).trim());
+            }
+        }
+        return null;
+    }
+
+    private String findDocumentType(List<String> headerLines) {
+        for (String line : headerLines) {
+            String lower = line.toLowerCase(Locale.GERMAN);
+            for (String type : config.getDocumentTypes()) {
+                if (lower.startsWith(type.toLowerCase(Locale.GERMAN))) {
+                    return type;
+                }
+            }
+        }
+        return null;
+    }
+
+    private String findSender(List<String> headerLines) {
+        for (String line : headerLines) {
+            if (senderMarkers.stream().anyMatch(marker -> marker.matcher(line).find())) {
+                return truncate(line);
+            }
+        }
+        return null;
+    }
+
+    private List<EnrichmentResultDTO.TagDTO> findTags(String text) {
+        List<EnrichmentResultDTO.TagDTO> tags = new ArrayList<>();
+        for (Map.Entry<String, List<Pattern>> entry : tagKeywords.entrySet()) {
+            if (tags.size() >= config.getMaxTags()) {
+                break;
+            }
+            if (entry.getValue().stream().anyMatch(keyword -> keyword.matcher(text).find())) {
+                tags.add(new EnrichmentResultDTO.TagDTO(entry.getKey()));
+            }
+        }
+        return tags;
+    }
+
+    private static String truncate(String value) {
+        return value.length() > MAX_TITLE_LENGTH ? value.substring(0, MAX_TITLE_LENGTH).trim() : value;
+    }
+
+    private static Pattern wordPattern(String word) {
+        return Pattern.compile("(?<![\\p{L}\\p{N}])" + Pattern.quote(word) + "(?![\\p{L}\\p{N}])",
+                Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    }
+}
@@ -1,5 +1,6 @@
 package org.papercloud.de.pdfservice.processor;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,7 +14,11 @@ import org.papercloud.de.pdfdatabase.entity.UserEntity;
 import org.papercloud.de.pdfdatabase.repository.DocumentRepository;
 import org.papercloud.de.pdfdatabase.repository.PageRepository;
 import org.papercloud.de.pdfdatabase.repository.UserJpaRepository;
+import org.papercloud.de.pdfservice.config.EnrichmentContextConfiguration;
+import org.papercloud.de.pdfservice.config.RuleExtractionConfiguration;
 import org.papercloud.de.pdfservice.service.DocumentStatusService;
+import org.papercloud.de.pdfservice.textutils.EnrichmentContextBuilder;
+import org.papercloud.de.pdfservice.textutils.RuleBasedMetadataExtractor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
@@ -66,7 +71,8 @@ class DocumentEnrichmentProcessorImplIT {
 
         enrichmentProcessor = new DocumentEnrichmentProcessorImpl(
                 enrichmentService,
-                textCleaningService,
+                new EnrichmentContextBuilder(textCleaningService, new EnrichmentContextConfiguration()),
+                new RuleBasedMetadataExtractor(new RuleExtractionConfiguration(), new SimpleMeterRegistry()),
                 documentRepository,
                 pageRepository,
                 new DocumentStatusService(documentRepository)
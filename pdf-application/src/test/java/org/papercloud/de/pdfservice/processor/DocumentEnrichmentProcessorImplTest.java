@@ -10,9 +10,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.papercloud.de.core.domain.Document;
+import org.papercloud.de.core.dto.llm.EnrichmentPriority;
 import org.papercloud.de.core.dto.llm.EnrichmentResultDTO;
 import org.papercloud.de.core.ports.outbound.EnrichmentService;
-import org.papercloud.de.core.ports.outbound.OcrTextCleaningService;
 import org.papercloud.de.pdfdatabase.entity.DocumentPdfEntity;
 import org.papercloud.de.pdfdatabase.entity.PagesPdfEntity;
 import org.papercloud.de.pdfdatabase.repository.DocumentRepository;
@@ -21,6 +21,8 @@ import org.papercloud.de.pdfservice.errors.DocumentEnrichmentException;
 import org.papercloud.de.pdfservice.errors.DocumentNotFoundException;
 import org.papercloud.de.pdfservice.errors.InvalidDocumentException;
 import org.papercloud.de.pdfservice.service.DocumentStatusService;
+import org.papercloud.de.pdfservice.textutils.EnrichmentContextBuilder;
+import org.papercloud.de.pdfservice.textutils.RuleBasedMetadataExtractor;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDate;
@@ -32,6 +34,7 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -48,7 +51,10 @@ class DocumentEnrichmentProcessorImplTest {
     private EnrichmentService enrichmentService;
 
     @Mock
-    private OcrTextCleaningService textCleaningService;
+    private EnrichmentContextBuilder contextBuilder;
+
+    @Mock
+    private RuleBasedMetadataExtractor metadataExtractor;
 
     @Mock
     private DocumentRepository documentRepository;
@@ -104,9 +110,9 @@ class DocumentEnrichmentProcessorImplTest {
                     .thenReturn(Optional.of(testDocument));
             when(pageRepository.findByDocumentIdOrderByPageNumber(1L))
                     .thenReturn(List.of(testPage));
-            when(textCleaningService.cleanOcrText("Raw OCR text content"))
+            when(contextBuilder.buildContext(List.of("Raw OCR text content")))
                     .thenReturn(cleanedText);
-            when(enrichmentService.enrichTextAsync(cleanedText))
+            when(enrichmentService.enrichTextAsync(eq(cleanedText), any()))
                     .thenReturn(Mono.just(enrichmentResult));
 
             // Act
@@ -143,8 +149,8 @@ class DocumentEnrichmentProcessorImplTest {
                     .thenReturn(Optional.of(testDocument));
             when(pageRepository.findByDocumentIdOrderByPageNumber(1L))
                     .thenReturn(List.of(testPage));
-            when(textCleaningService.cleanOcrText(any())).thenReturn(cleanedText);
-            when(enrichmentService.enrichTextAsync(cleanedText))
+            when(contextBuilder.buildContext(any())).thenReturn(cleanedText);
+            when(enrichmentService.enrichTextAsync(eq(cleanedText), any()))
                     .thenReturn(Mono.just(enrichmentResult));
 
             // Act
@@ -153,6 +159,65 @@ class DocumentEnrichmentProcessorImplTest {
             // Assert - verify saveAndFlush was called (status is set to ENRICHMENT_IN_PROGRESS before this call)
             verify(documentRepository).saveAndFlush(any(DocumentPdfEntity.class));
         }
+
+        @Test
+        @DisplayName("should request NORMAL priority on first attempt and LOW priority on retries")
+        void should_lowerPriority_when_retryingEnrichment() throws Exception {
+            // Arrange
+            EnrichmentResultDTO enrichmentResult = EnrichmentResultDTO.builder()
+                    .title("Test Title")
+                    .date_sent("01.01.2023")
+                    .tags(Collections.emptyList())
+                    .flagFailedEnrichment(false)
+                    .build();
+
+            when(documentRepository.findById(1L))
+                    .thenReturn(Optional.of(testDocument));
+            when(pageRepository.findByDocumentIdOrderByPageNumber(1L))
+                    .thenReturn(List.of(testPage));
+            when(contextBuilder.buildContext(any())).thenReturn("text");
+            when(enrichmentService.enrichTextAsync(any(), any()))
+                    .thenReturn(Mono.just(enrichmentResult));
+
+            // Act
+            enrichmentProcessor.enrichDocument(1L);
+            testDocument.setStatus(Document.Status.ENRICHMENT_ERROR);
+            testDocument.setEnrichmentRetryCount(2);
+            enrichmentProcessor.enrichDocument(1L);
+
+            // Assert
+            verify(enrichmentService).enrichTextAsync("text", EnrichmentPriority.NORMAL);
+            verify(enrichmentService).enrichTextAsync("text", EnrichmentPriority.LOW);
+        }
+
+        @Test
+        @DisplayName("should use rule-based result and skip LLM when rules are confident")
+        void should_skipLlm_when_rulesConfident() throws Exception {
+            // Arrange
+            EnrichmentResultDTO ruleResult = EnrichmentResultDTO.builder()
+                    .title("Rechnung Stadtwerke")
+                    .date_sent("03.02.2025")
+                    .tags(List.of(new EnrichmentResultDTO.TagDTO("energie")))
+                    .build();
+
+            when(documentRepository.findById(1L))
+                    .thenReturn(Optional.of(testDocument));
+            when(pageRepository.findByDocumentIdOrderByPageNumber(1L))
+                    .thenReturn(List.of(testPage));
+            when(metadataExtractor.tryExtract(List.of("Raw OCR text content")))
+                    .thenReturn(Optional.of(ruleResult));
+
+            // Act
+            enrichmentProcessor.enrichDocument(1L);
+
+            // Assert
+            verify(enrichmentService, never()).enrichTextAsync(any(), any());
+            ArgumentCaptor<DocumentPdfEntity> captor = ArgumentCaptor.forClass(DocumentPdfEntity.class);
+            verify(documentRepository).save(captor.capture());
+            assertThat(captor.getValue().getTitle()).isEqualTo("Rechnung Stadtwerke");
+            assertThat(captor.getValue().getDateOnDocument()).isEqualTo(LocalDate.of(2025, 2, 3));
+            assertThat(captor.getValue().getStatus()).isEqualTo(Document.Status.ENRICHMENT_COMPLETED);
+        }
     }
 
     @Nested
@@ -174,8 +239,8 @@ class DocumentEnrichmentProcessorImplTest {
                     .thenReturn(Optional.of(testDocument));
             when(pageRepository.findByDocumentIdOrderByPageNumber(1L))
                     .thenReturn(List.of(testPage));
-            when(textCleaningService.cleanOcrText(any())).thenReturn("text");
-            when(enrichmentService.enrichTextAsync(any()))
+            when(contextBuilder.buildContext(any())).thenReturn("text");
+            when(enrichmentService.enrichTextAsync(any(), any()))
                     .thenReturn(Mono.just(enrichmentResult));
 
             // Act
@@ -203,8 +268,8 @@ class DocumentEnrichmentProcessorImplTest {
                     .thenReturn(Optional.of(testDocument));
             when(pageRepository.findByDocumentIdOrderByPageNumber(1L))
                     .thenReturn(List.of(testPage));
-            when(textCleaningService.cleanOcrText(any())).thenReturn("text");
-            when(enrichmentService.enrichTextAsync(any()))
+            when(contextBuilder.buildContext(any())).thenReturn("text");
+            when(enrichmentService.enrichTextAsync(any(), any()))
                     .thenReturn(Mono.just(enrichmentResult));
 
             // Act
@@ -229,8 +294,8 @@ class DocumentEnrichmentProcessorImplTest {
                     .thenReturn(Optional.of(testDocument));
             when(pageRepository.findByDocumentIdOrderByPageNumber(1L))
                     .thenReturn(List.of(testPage));
-            when(textCleaningService.cleanOcrText(any())).thenReturn("text");
-            when(enrichmentService.enrichTextAsync(any()))
+            when(contextBuilder.buildContext(any())).thenReturn("text");
+            when(enrichmentService.enrichTextAsync(any(), any()))
                     .thenReturn(Mono.empty());
 
             // Act
@@ -255,8 +320,8 @@ class DocumentEnrichmentProcessorImplTest {
                     .thenReturn(Optional.of(testDocument));
             when(pageRepository.findByDocumentIdOrderByPageNumber(1L))
                     .thenReturn(List.of(testPage));
-            when(textCleaningService.cleanOcrText(any())).thenReturn("text");
-            when(enrichmentService.enrichTextAsync(any()))
+            when(contextBuilder.buildContext(any())).thenReturn("text");
+            when(enrichmentService.enrichTextAsync(any(), any()))
                     .thenReturn(Mono.just(enrichmentResult));
 
             // Act
@@ -280,7 +345,7 @@ class DocumentEnrichmentProcessorImplTest {
                     .isInstanceOf(DocumentEnrichmentException.class)
                     .hasMessageContaining("Document status must be OCR_COMPLETED or ENRICHMENT_ERROR for ID: 1");
 
-            verify(enrichmentService, never()).enrichTextAsync(any());
+            verify(enrichmentService, never()).enrichTextAsync(any(), any());
             verify(documentStatusService).markEnrichmentFailure(1L, "Document status must be OCR_COMPLETED or ENRICHMENT_ERROR for ID: 1");
         }
 
@@ -310,7 +375,7 @@ class DocumentEnrichmentProcessorImplTest {
                     .isInstanceOf(DocumentEnrichmentException.class)
                     .hasCauseInstanceOf(InvalidDocumentException.class);
 
-            verify(enrichmentService, never()).enrichTextAsync(any());
+            verify(enrichmentService, never()).enrichTextAsync(any(), any());
         }
 
         @Test
@@ -321,8 +386,8 @@ class DocumentEnrichmentProcessorImplTest {
                     .thenReturn(Optional.of(testDocument));
             when(pageRepository.findByDocumentIdOrderByPageNumber(1L))
                     .thenReturn(List.of(testPage));
-            when(textCleaningService.cleanOcrText(any())).thenReturn("text");
-            when(enrichmentService.enrichTextAsync(any()))
+            when(contextBuilder.buildContext(any())).thenReturn("text");
+            when(enrichmentService.enrichTextAsync(any(), any()))
                     .thenReturn(Mono.error(new RuntimeException("Enrichment service error")));
 
             // Act & Assert
@@ -340,8 +405,8 @@ class DocumentEnrichmentProcessorImplTest {
                     .thenReturn(Optional.of(testDocument));
             when(pageRepository.findByDocumentIdOrderByPageNumber(1L))
                     .thenReturn(List.of(testPage));
-            when(textCleaningService.cleanOcrText(any())).thenReturn("text");
-            when(enrichmentService.enrichTextAsync(any()))
+            when(contextBuilder.buildContext(any())).thenReturn("text");
+            when(enrichmentService.enrichTextAsync(any(), any()))
                     .thenReturn(Mono.error(new RuntimeException("Timeout")));
 
             // Act & Assert
@@ -371,8 +436,8 @@ class DocumentEnrichmentProcessorImplTest {
                     .thenReturn(Optional.of(testDocument));
             when(pageRepository.findByDocumentIdOrderByPageNumber(1L))
                     .thenReturn(List.of(testPage));
-            when(textCleaningService.cleanOcrText(any())).thenReturn("text");
-            when(enrichmentService.enrichTextAsync(any()))
+            when(contextBuilder.buildContext(any())).thenReturn("text");
+            when(enrichmentService.enrichTextAsync(any(), any()))
                     .thenReturn(Mono.just(enrichmentResult));
 
             // Act
@@ -399,8 +464,8 @@ class DocumentEnrichmentProcessorImplTest {
                     .thenReturn(Optional.of(testDocument));
             when(pageRepository.findByDocumentIdOrderByPageNumber(1L))
                     .thenReturn(List.of(testPage));
-            when(textCleaningService.cleanOcrText(any())).thenReturn("text");
-            when(enrichmentService.enrichTextAsync(any()))
+            when(contextBuilder.buildContext(any())).thenReturn("text");
+            when(enrichmentService.enrichTextAsync(any(), any()))
                     .thenReturn(Mono.just(enrichmentResult));
 
             // Act
@@ -413,8 +478,8 @@ class DocumentEnrichmentProcessorImplTest {
         }
 
         @Test
-        @DisplayName("should handle multiple pages and use only first page")
-        void should_useOnlyFirstPage_when_multiplePages() throws Exception {
+        @DisplayName("should build context from all pages")
+        void should_passAllPagesToContextBuilder_when_multiplePages() throws Exception {
             // Arrange
             PagesPdfEntity page2 = PagesPdfEntity.builder()
                     .id(2L)
@@ -434,17 +499,17 @@ class DocumentEnrichmentProcessorImplTest {
                     .thenReturn(Optional.of(testDocument));
             when(pageRepository.findByDocumentIdOrderByPageNumber(1L))
                     .thenReturn(List.of(testPage, page2));
-            when(textCleaningService.cleanOcrText("Raw OCR text content"))
-                    .thenReturn("Cleaned first page");
-            when(enrichmentService.enrichTextAsync("Cleaned first page"))
+            when(contextBuilder.buildContext(List.of("Raw OCR text content", "Second page text")))
+                    .thenReturn("Selected context");
+            when(enrichmentService.enrichTextAsync(eq("Selected context"), any()))
                     .thenReturn(Mono.just(enrichmentResult));
 
             // Act
             enrichmentProcessor.enrichDocument(1L);
 
             // Assert
-            verify(textCleaningService).cleanOcrText("Raw OCR text content");
-            verify(enrichmentService).enrichTextAsync("Cleaned first page");
+            verify(contextBuilder).buildContext(List.of("Raw OCR text content", "Second page text"));
+            verify(enrichmentService).enrichTextAsync(eq("Selected context"), any());
         }
     }
 }
@@ -11,8 +11,13 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.papercloud.de.core.domain.Document;
 import org.papercloud.de.core.dto.search.IndexableDocumentDTO;
+import org.papercloud.de.core.dto.search.IndexableMetadataDTO;
+import org.papercloud.de.core.dto.search.IndexablePageDTO;
 import org.papercloud.de.core.events.DocumentEnrichedEvent;
+import org.papercloud.de.core.events.DocumentIndexedEvent;
 import org.papercloud.de.core.events.DocumentIndexingEvent;
+import org.papercloud.de.core.events.DocumentIndexingFailedEvent;
+import org.papercloud.de.core.events.DocumentMetadataChangedEvent;
 import org.papercloud.de.core.ports.outbound.SearchService;
 import org.papercloud.de.pdfdatabase.entity.DocumentPdfEntity;
 import org.papercloud.de.pdfdatabase.entity.PagesPdfEntity;
@@ -21,6 +26,8 @@ import org.papercloud.de.pdfdatabase.repository.DocumentRepository;
 import org.papercloud.de.pdfdatabase.repository.PageRepository;
 import org.papercloud.de.pdfservice.errors.DocumentNotFoundException;
 import org.papercloud.de.pdfservice.service.DocumentStatusService;
+import org.papercloud.de.pdfservice.service.SavedSearchService;
+import org.papercloud.de.pdfservice.service.SemanticIndexingService;
 
 import java.time.LocalDate;
 import java.util.Arrays;
@@ -29,7 +36,9 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -53,6 +62,12 @@ class DocumentIndexingListenerTest {
     @Mock
     private DocumentStatusService documentStatusService;
 
+    @Mock
+    private SemanticIndexingService semanticIndexingService;
+
+    @Mock
+    private SavedSearchService savedSearchService;
+
     @InjectMocks
     private DocumentIndexingListener documentIndexingListener;
 
@@ -119,8 +134,8 @@ class DocumentIndexingListenerTest {
         }
 
         @Test
-        @DisplayName("should set status to INDEXING_COMPLETED on success")
-        void should_setStatusToIndexingCompleted_onSuccess() {
+        @DisplayName("should leave completion to the search adapter's outcome event")
+        void should_notCompleteIndexing_when_documentOnlyQueued() {
             // Arrange
             PagesPdfEntity page = createPage(1, "Content");
             when(documentRepository.findById(1L)).thenReturn(Optional.of(testDocument));
@@ -129,11 +144,85 @@ class DocumentIndexingListenerTest {
             // Act
             documentIndexingListener.handleDocumentEnriched(enrichedEvent);
 
+            // Assert
+            verify(searchService).indexDocument(any(IndexableDocumentDTO.class));
+            verify(documentStatusService, never()).updateStatus(1L, Document.Status.INDEXING_COMPLETED);
+        }
+
+        @Test
+        @DisplayName("should set status to INDEXING_COMPLETED when the document was indexed")
+        void should_setStatusToIndexingCompleted_onIndexedEvent() {
+            // Act
+            documentIndexingListener.handleDocumentIndexed(new DocumentIndexedEvent(1L, "alice"));
+
             // Assert
             verify(documentStatusService).updateStatus(1L, Document.Status.INDEXING_COMPLETED);
             verify(documentStatusService).resetIndexingRetry(1L);
         }
 
+        @Test
+        @DisplayName("should match a newly indexed document against saved searches")
+        void should_matchSavedSearches_when_documentNewlyIndexed() {
+            // Arrange
+            when(documentStatusService.getStatus(1L)).thenReturn(Document.Status.INDEXING_IN_PROGRESS);
+
+            // Act
+            documentIndexingListener.handleDocumentIndexed(new DocumentIndexedEvent(1L, "alice"));
+
+            // Assert
+            verify(savedSearchService).matchDocument(1L);
+        }
+
+        @Test
+        @DisplayName("should not match saved searches again after a metadata update")
+        void should_notMatchSavedSearches_when_documentAlreadyCompleted() {
+            // Arrange
+            when(documentStatusService.getStatus(1L)).thenReturn(Document.Status.INDEXING_COMPLETED);
+
+            // Act
+            documentIndexingListener.handleDocumentIndexed(new DocumentIndexedEvent(1L, "alice"));
+
+            // Assert
+            verify(documentStatusService).updateStatus(1L, Document.Status.INDEXING_COMPLETED);
+            verifyNoInteractions(savedSearchService);
+        }
+
+        @Test
+        @DisplayName("should keep the completed status when saved search matching fails")
+        void should_completeIndexing_when_savedSearchMatchingFails() {
+            // Arrange
+            when(documentStatusService.getStatus(1L)).thenReturn(Document.Status.INDEXING_IN_PROGRESS);
+            when(savedSearchService.matchDocument(1L)).thenThrow(new RuntimeException("ES unavailable"));
+
+            // Act & Assert
+            assertThatCode(() -> documentIndexingListener.handleDocumentIndexed(new DocumentIndexedEvent(1L, "alice")))
+                    .doesNotThrowAnyException();
+            verify(documentStatusService).updateStatus(1L, Document.Status.INDEXING_COMPLETED);
+        }
+
+        @Test
+        @DisplayName("should call markIndexingFailure when a bulk item failed")
+        void should_callMarkIndexingFailure_onFailedEvent() {
+            // Act
+            documentIndexingListener.handleDocumentIndexingFailed(
+                    new DocumentIndexingFailedEvent(1L, "mapper_parsing_exception: failed to parse"));
+
+            // Assert
+            verify(documentStatusService).markIndexingFailure(1L, "mapper_parsing_exception: failed to parse");
+        }
+
+        @Test
+        @DisplayName("should ignore outcome events for deleted documents")
+        void should_ignoreOutcome_when_documentDeleted() {
+            // Arrange
+            doThrow(new DocumentNotFoundException("Document not found with ID: 1"))
+                    .when(documentStatusService).markIndexingFailure(any(), any());
+
+            // Act & Assert
+            assertThatCode(() -> documentIndexingListener.handleDocumentIndexingFailed(
+                    new DocumentIndexingFailedEvent(1L, "boom"))).doesNotThrowAnyException();
+        }
+
         @Test
         @DisplayName("should call markIndexingFailure on error")
         void should_callMarkIndexingFailure_onError() {
@@ -168,8 +257,6 @@ class DocumentIndexingListenerTest {
             // Assert
             verify(documentStatusService).updateStatus(1L, Document.Status.INDEXING_IN_PROGRESS);
             verify(searchService).indexDocument(any(IndexableDocumentDTO.class));
-            verify(documentStatusService).updateStatus(1L, Document.Status.INDEXING_COMPLETED);
-            verify(documentStatusService).resetIndexingRetry(1L);
         }
     }
 
@@ -224,6 +311,9 @@ class DocumentIndexingListenerTest {
 
             IndexableDocumentDTO indexedDoc = captor.getValue();
             assertThat(indexedDoc.getFullText()).isEqualTo("Page 1\nPage 3");
+            assertThat(indexedDoc.getPages())
+                    .extracting(IndexablePageDTO::getPageNumber, IndexablePageDTO::getText)
+                    .containsExactly(tuple(1, "Page 1"), tuple(3, "Page 3"));
         }
 
         @Test
@@ -455,6 +545,99 @@ class DocumentIndexingListenerTest {
         }
     }
 
+    @Nested
+    @DisplayName("Semantic Indexing Tests")
+    class SemanticIndexingTests {
+
+        @Test
+        @DisplayName("should embed the pages for the document owner")
+        void should_indexVectors_when_documentIndexed() {
+            // Arrange
+            List<PagesPdfEntity> pages = List.of(createPage(1, "Content"));
+            when(documentRepository.findById(1L)).thenReturn(Optional.of(testDocument));
+            when(pageRepository.findByDocumentIdOrderByPageNumber(1L)).thenReturn(pages);
+
+            // Act
+            documentIndexingListener.handleDocumentEnriched(enrichedEvent);
+
+            // Assert
+            verify(semanticIndexingService).indexDocument(1L, "testuser", pages);
+        }
+
+        @Test
+        @DisplayName("should complete indexing when embedding fails")
+        void should_completeIndexing_when_embeddingFails() {
+            // Arrange
+            when(documentRepository.findById(1L)).thenReturn(Optional.of(testDocument));
+            when(pageRepository.findByDocumentIdOrderByPageNumber(1L)).thenReturn(List.of(createPage(1, "Content")));
+            doThrow(new IllegalStateException("model not found"))
+                    .when(semanticIndexingService).indexDocument(any(), any(), any());
+
+            // Act
+            documentIndexingListener.handleDocumentEnriched(enrichedEvent);
+
+            // Assert
+            verify(searchService).indexDocument(any(IndexableDocumentDTO.class));
+            verify(documentStatusService, never()).markIndexingFailure(any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Metadata Change Tests")
+    class MetadataChangeTests {
+
+        @Test
+        @DisplayName("should send only the metadata when the document is already indexed")
+        void should_updateMetadata_when_documentIndexed() {
+            // Arrange
+            testDocument.setStatus(Document.Status.INDEXING_COMPLETED);
+            when(documentRepository.findById(1L)).thenReturn(Optional.of(testDocument));
+
+            // Act
+            documentIndexingListener.handleDocumentMetadataChanged(new DocumentMetadataChangedEvent(1L));
+
+            // Assert
+            ArgumentCaptor<IndexableMetadataDTO> captor = ArgumentCaptor.forClass(IndexableMetadataDTO.class);
+            verify(searchService).updateMetadata(captor.capture());
+            assertThat(captor.getValue())
+                    .extracting(IndexableMetadataDTO::getFileName, IndexableMetadataDTO::getTags,
+                            IndexableMetadataDTO::getYear, IndexableMetadataDTO::getUsername)
+                    .containsExactly("Test Document Title", List.of("invoice", "business"), 2023, "testuser");
+            verify(pageRepository, never()).findByDocumentIdOrderByPageNumber(any());
+            verify(documentStatusService, never()).updateStatus(any(), any());
+        }
+
+        @Test
+        @DisplayName("should index the whole document when its last indexing failed")
+        void should_indexDocument_when_indexingFailed() {
+            // Arrange
+            testDocument.setStatus(Document.Status.INDEXING_ERROR);
+            when(documentRepository.findById(1L)).thenReturn(Optional.of(testDocument));
+            when(pageRepository.findByDocumentIdOrderByPageNumber(1L)).thenReturn(List.of(createPage(1, "Content")));
+
+            // Act
+            documentIndexingListener.handleDocumentMetadataChanged(new DocumentMetadataChangedEvent(1L));
+
+            // Assert
+            verify(searchService).indexDocument(any(IndexableDocumentDTO.class));
+            verify(searchService, never()).updateMetadata(any());
+        }
+
+        @Test
+        @DisplayName("should leave documents still in the pipeline alone")
+        void should_skipUpdate_when_documentNotIndexedYet() {
+            // Arrange
+            testDocument.setStatus(Document.Status.ENRICHMENT_IN_PROGRESS);
+            when(documentRepository.findById(1L)).thenReturn(Optional.of(testDocument));
+
+            // Act
+            documentIndexingListener.handleDocumentMetadataChanged(new DocumentMetadataChangedEvent(1L));
+
+            // Assert
+            verifyNoInteractions(searchService);
+        }
+    }
+
     @Nested
     @DisplayName("Edge Cases Tests")
     class EdgeCasesTests {
@@ -0,0 +1,135 @@
+package org.papercloud.de.pdfservice.processor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.papercloud.de.core.domain.Document;
+import org.papercloud.de.core.dto.search.IndexableDocumentDTO;
+import org.papercloud.de.core.ports.outbound.SearchIndexMirror;
+import org.papercloud.de.pdfdatabase.repository.DocumentRepository;
+import org.papercloud.de.pdfdatabase.repository.PageRepository;
+import org.papercloud.de.pdfservice.config.SearchReindexConfiguration;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for SearchMirrorBackfill.
+ * Tests when the mirror is backfilled on startup and that every indexed document is copied in batches.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SearchMirrorBackfill")
+class SearchMirrorBackfillTest {
+
+    private static final Document.Status COMPLETED = Document.Status.INDEXING_COMPLETED;
+
+    @Mock
+    private SearchIndexMirror mirror;
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private PageRepository pageRepository;
+
+    private SearchMirrorBackfill backfill;
+
+    @BeforeEach
+    void setUp() {
+        SearchReindexConfiguration config = new SearchReindexConfiguration();
+        config.setBatchSize(2);
+        config.setMaxDocumentsPerSecond(0);
+        backfill = new SearchMirrorBackfill(mirror, documentRepository,
+                new IndexSourceReader(documentRepository, pageRepository), config);
+    }
+
+    private static DocumentRepository.IndexSourceView source(long id) {
+        return new DocumentRepository.IndexSourceView() {
+            public Long getId() { return id; }
+            public String getTitle() { return "Doc " + id; }
+            public String getFilename() { return "doc" + id + ".pdf"; }
+            public String getContentType() { return "application/pdf"; }
+            public LocalDate getDateOnDocument() { return LocalDate.of(2023, 5, 1); }
+            public String getUsername() { return "alice"; }
+        };
+    }
+
+    @Test
+    @DisplayName("should leave the mirror alone when it holds every indexed document")
+    void should_skipBackfill_when_mirrorComplete() {
+        // Arrange
+        when(mirror.countDocuments()).thenReturn(3L);
+        when(documentRepository.countByStatus(COMPLETED)).thenReturn(3L);
+
+        // Act
+        backfill.afterSingletonsInstantiated();
+
+        // Assert
+        verify(mirror, never()).beginBackfill();
+    }
+
+    @Test
+    @DisplayName("should not fail startup when the mirror cannot be read")
+    void should_skipBackfill_when_mirrorUnreadable() {
+        // Arrange
+        when(mirror.countDocuments()).thenThrow(new RuntimeException("index corrupt"));
+
+        // Act
+        backfill.afterSingletonsInstantiated();
+
+        // Assert
+        verify(mirror, never()).beginBackfill();
+    }
+
+    @Test
+    @DisplayName("should copy every indexed document in batches and end the backfill")
+    @SuppressWarnings("unchecked")
+    void should_copyAllDocuments_when_running() {
+        // Arrange
+        when(documentRepository.findIndexSourcesWithStatus(eq(0L), eq(COMPLETED), any(Pageable.class))).thenReturn(List.of(source(1), source(2)));
+        when(documentRepository.findIndexSourcesWithStatus(eq(2L), eq(COMPLETED), any(Pageable.class))).thenReturn(List.of(source(3)));
+        when(documentRepository.findIndexSourcesWithStatus(eq(3L), eq(COMPLETED), any(Pageable.class))).thenReturn(List.of());
+        when(mirror.writeBackfillBatch(anyList())).thenReturn(List.of());
+
+        // Act
+        backfill.run();
+
+        // Assert
+        ArgumentCaptor<List<IndexableDocumentDTO>> batches = ArgumentCaptor.forClass(List.class);
+        InOrder order = inOrder(mirror);
+        order.verify(mirror, times(2)).writeBackfillBatch(batches.capture());
+        order.verify(mirror).endBackfill();
+        assertThat(batches.getAllValues()).extracting(List::size).containsExactly(2, 1);
+        assertThat(batches.getAllValues().get(1).get(0).getId()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("should end the backfill when a batch fails")
+    void should_endBackfill_when_writeFails() {
+        // Arrange
+        when(documentRepository.findIndexSourcesWithStatus(eq(0L), eq(COMPLETED), any(Pageable.class))).thenReturn(List.of(source(1)));
+        when(mirror.writeBackfillBatch(anyList())).thenThrow(new RuntimeException("disk full"));
+
+        // Act
+        backfill.run();
+
+        // Assert
+        verify(mirror).endBackfill();
+    }
+}
@@ -0,0 +1,212 @@
+package org.papercloud.de.pdfservice.processor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.papercloud.de.core.domain.ReindexStatus;
+import org.papercloud.de.core.dto.search.IndexableDocumentDTO;
+import org.papercloud.de.core.ports.outbound.SearchIndexAdmin;
+import org.papercloud.de.pdfdatabase.entity.SearchReindexJobEntity;
+import org.papercloud.de.pdfdatabase.repository.DocumentRepository;
+import org.papercloud.de.pdfdatabase.repository.PageRepository;
+import org.papercloud.de.pdfdatabase.repository.SearchReindexJobRepository;
+import org.papercloud.de.pdfservice.config.SearchReindexConfiguration;
+import org.papercloud.de.pdfservice.service.DocumentStatusService;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for SearchReindexJob.
+ * Tests the batch copy, the stored progress and how a rebuild resumes after a restart.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SearchReindexJob")
+class SearchReindexJobTest {
+
+    private static final String INDEX = "documents-2";
+
+    @Mock
+    private SearchIndexAdmin searchIndexAdmin;
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private PageRepository pageRepository;
+
+    @Mock
+    private SearchReindexJobRepository jobRepository;
+
+    @Mock
+    private DocumentStatusService documentStatusService;
+
+    private SearchReindexConfiguration config;
+    private SearchReindexJob reindexJob;
+    private SearchReindexJobEntity job;
+
+    @BeforeEach
+    void setUp() {
+        config = new SearchReindexConfiguration();
+        config.setBatchSize(2);
+        config.setWriters(1);
+        config.setMaxDocumentsPerSecond(0);
+        reindexJob = new SearchReindexJob(searchIndexAdmin, documentRepository,
+                new IndexSourceReader(documentRepository, pageRepository), jobRepository, documentStatusService, config);
+        job = SearchReindexJobEntity.builder()
+                .id(1L).targetIndex(INDEX).status(ReindexStatus.RUNNING).totalDocuments(3).build();
+    }
+
+    private static DocumentRepository.IndexSourceView source(long id) {
+        return new DocumentRepository.IndexSourceView() {
+            public Long getId() { return id; }
+            public String getTitle() { return "Doc " + id; }
+            public String getFilename() { return "doc" + id + ".pdf"; }
+            public String getContentType() { return "application/pdf"; }
+            public LocalDate getDateOnDocument() { return LocalDate.of(2023, 5, 1); }
+            public String getUsername() { return "alice"; }
+        };
+    }
+
+    private void givenDocuments() {
+        when(jobRepository.findById(1L)).thenReturn(Optional.of(job));
+        when(jobRepository.save(any(SearchReindexJobEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(documentRepository.findIndexSources(eq(0L), any(Pageable.class))).thenReturn(List.of(source(1), source(2)));
+        when(documentRepository.findIndexSources(eq(2L), any(Pageable.class))).thenReturn(List.of(source(3)));
+        lenient().when(documentRepository.findIndexSources(eq(3L), any(Pageable.class))).thenReturn(List.of());
+    }
+
+    @Nested
+    @DisplayName("Copying documents")
+    class CopyTests {
+
+        @Test
+        @DisplayName("should copy every batch and swap the index when done")
+        @SuppressWarnings("unchecked")
+        void should_completeRebuild_when_allBatchesWritten() {
+            // Arrange
+            givenDocuments();
+            when(searchIndexAdmin.writeRebuildBatch(eq(INDEX), anyList())).thenReturn(List.of());
+
+            // Act
+            reindexJob.run(1L);
+
+            // Assert
+            ArgumentCaptor<List<IndexableDocumentDTO>> batches = ArgumentCaptor.forClass(List.class);
+            verify(searchIndexAdmin, times(2)).writeRebuildBatch(eq(INDEX), batches.capture());
+            assertThat(batches.getAllValues()).extracting(List::size).containsExactly(2, 1);
+            assertThat(batches.getAllValues().get(0).get(0).getUsername()).isEqualTo("alice");
+            assertThat(batches.getAllValues().get(0).get(0).getYear()).isEqualTo(2023);
+            verify(searchIndexAdmin).completeRebuild(INDEX);
+            assertThat(job.getStatus()).isEqualTo(ReindexStatus.COMPLETED);
+            assertThat(job.getProcessedDocuments()).isEqualTo(3);
+            assertThat(job.getLastDocumentId()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("should hand documents the index rejects to the indexing retry")
+        void should_markIndexingFailure_when_documentRejected() {
+            // Arrange
+            givenDocuments();
+            when(searchIndexAdmin.writeRebuildBatch(eq(INDEX), anyList())).thenReturn(List.of(2L), List.of());
+
+            // Act
+            reindexJob.run(1L);
+
+            // Assert
+            verify(documentStatusService).markIndexingFailure(eq(2L), anyString());
+            assertThat(job.getFailedDocuments()).isEqualTo(1);
+            assertThat(job.getStatus()).isEqualTo(ReindexStatus.COMPLETED);
+        }
+
+        @Test
+        @DisplayName("should keep the last completed batch as resume point when a write fails")
+        void should_keepProgress_when_writeFails() {
+            // Arrange
+            givenDocuments();
+            when(searchIndexAdmin.writeRebuildBatch(eq(INDEX), anyList()))
+                    .thenReturn(List.of())
+                    .thenThrow(new RuntimeException("cluster unavailable"));
+
+            // Act
+            reindexJob.run(1L);
+
+            // Assert
+            assertThat(job.getStatus()).isEqualTo(ReindexStatus.FAILED);
+            assertThat(job.getLastDocumentId()).isEqualTo(2);
+            assertThat(job.getError()).isEqualTo("cluster unavailable");
+            verify(searchIndexAdmin, never()).completeRebuild(anyString());
+        }
+    }
+
+    @Nested
+    @DisplayName("Startup")
+    class StartupTests {
+
+        @Test
+        @DisplayName("should close an unfinished rebuild whose index is gone")
+        void should_cancelJob_when_indexMissing() {
+            // Arrange
+            when(jobRepository.findFirstByOrderByIdDesc()).thenReturn(Optional.of(job));
+            when(jobRepository.save(any(SearchReindexJobEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(searchIndexAdmin.resumeRebuild(INDEX)).thenReturn(false);
+
+            // Act
+            reindexJob.afterSingletonsInstantiated();
+
+            // Assert
+            assertThat(job.getStatus()).isEqualTo(ReindexStatus.CANCELLED);
+            verify(documentRepository, never()).findIndexSources(anyLong(), any(Pageable.class));
+        }
+
+        @Test
+        @DisplayName("should reattach live writes but stay paused when resuming is disabled")
+        void should_pauseJob_when_resumeOnStartupDisabled() {
+            // Arrange
+            config.setResumeOnStartup(false);
+            when(jobRepository.findFirstByOrderByIdDesc()).thenReturn(Optional.of(job));
+            when(jobRepository.save(any(SearchReindexJobEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(searchIndexAdmin.resumeRebuild(INDEX)).thenReturn(true);
+
+            // Act
+            reindexJob.afterSingletonsInstantiated();
+
+            // Assert
+            verify(searchIndexAdmin).resumeRebuild(INDEX);
+            assertThat(job.getStatus()).isEqualTo(ReindexStatus.PAUSED);
+        }
+
+        @Test
+        @DisplayName("should leave finished rebuilds alone")
+        void should_doNothing_when_lastJobCompleted() {
+            // Arrange
+            job.setStatus(ReindexStatus.COMPLETED);
+            when(jobRepository.findFirstByOrderByIdDesc()).thenReturn(Optional.of(job));
+
+            // Act
+            reindexJob.afterSingletonsInstantiated();
+
+            // Assert
+            verify(searchIndexAdmin, never()).resumeRebuild(anyString());
+        }
+    }
+}
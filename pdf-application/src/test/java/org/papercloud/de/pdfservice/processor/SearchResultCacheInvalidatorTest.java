@@ -0,0 +1,76 @@
+package org.papercloud.de.pdfservice.processor;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.papercloud.de.core.events.DocumentIndexedEvent;
+import org.papercloud.de.core.events.DocumentMetadataChangedEvent;
+import org.papercloud.de.pdfdatabase.repository.DocumentRepository;
+import org.papercloud.de.pdfservice.service.SearchResultCache;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for SearchResultCacheInvalidator.
+ * Tests which invalidation each pipeline event triggers for the document's owner.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SearchResultCacheInvalidator")
+class SearchResultCacheInvalidatorTest {
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private SearchResultCache searchResultCache;
+
+    @InjectMocks
+    private SearchResultCacheInvalidator invalidator;
+
+    @Test
+    @DisplayName("should hold off caching until the index has refreshed when a document was indexed")
+    void should_invalidateAfterIndexing_when_documentIndexed() {
+        // Act
+        invalidator.handleDocumentIndexed(new DocumentIndexedEvent(7L, "alice"));
+
+        // Assert
+        verify(searchResultCache).invalidateAfterIndexing("alice");
+        verify(searchResultCache, never()).invalidate(any());
+        verify(documentRepository, never()).findOwnerUsername(anyLong());
+    }
+
+    @Test
+    @DisplayName("should look up the owner when the indexed event does not name it")
+    void should_lookUpOwner_when_indexedEventWithoutUsername() {
+        // Arrange
+        when(documentRepository.findOwnerUsername(7L)).thenReturn(Optional.of("alice"));
+
+        // Act
+        invalidator.handleDocumentIndexed(new DocumentIndexedEvent(7L, null));
+
+        // Assert
+        verify(searchResultCache).invalidateAfterIndexing("alice");
+    }
+
+    @Test
+    @DisplayName("should drop the owner's results when a document's metadata changed")
+    void should_invalidate_when_metadataChanged() {
+        // Arrange
+        when(documentRepository.findOwnerUsername(7L)).thenReturn(Optional.of("alice"));
+
+        // Act
+        invalidator.handleDocumentMetadataChanged(new DocumentMetadataChangedEvent(7L));
+
+        // Assert
+        verify(searchResultCache).invalidate("alice");
+    }
+}
@@ -0,0 +1,246 @@
+package org.papercloud.de.pdfservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.papercloud.de.core.dto.chat.ChatCitationDTO;
+import org.papercloud.de.core.dto.chat.ChatEventDTO;
+import org.papercloud.de.core.dto.search.VectorMatchDTO;
+import org.papercloud.de.core.ports.outbound.AnswerGenerationService;
+import org.papercloud.de.core.ports.outbound.EmbeddingService;
+import org.papercloud.de.core.ports.outbound.VectorIndex;
+import org.papercloud.de.pdfdatabase.repository.PageRepository;
+import org.papercloud.de.pdfdatabase.repository.PageRepository.PageTextView;
+import org.papercloud.de.pdfservice.config.DocumentChatConfiguration;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for DocumentChatService.
+ * Tests retrieval, token budgeting of the prompt and the order of streamed events.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DocumentChatService")
+class DocumentChatServiceTest {
+
+    private static final float[] QUERY_VECTOR = {1f, 0f};
+
+    @Mock
+    private EmbeddingService embeddingService;
+
+    @Mock
+    private VectorIndex vectorIndex;
+
+    @Mock
+    private PageRepository pageRepository;
+
+    @Mock
+    private AnswerGenerationService answerGenerationService;
+
+    private DocumentChatConfiguration config;
+    private DocumentChatService service;
+
+    @BeforeEach
+    void setUp() {
+        config = new DocumentChatConfiguration();
+        service = new DocumentChatService(embeddingService, vectorIndex, pageRepository, answerGenerationService,
+                config, new SimpleMeterRegistry());
+    }
+
+    private static VectorMatchDTO match(long documentId, int page, int offset, int length, double score) {
+        return VectorMatchDTO.builder().documentId(documentId).pageNumber(page).offset(offset).length(length)
+                .score(score).build();
+    }
+
+    private static PageTextView page(long documentId, String name, int pageNumber, String text) {
+        return new PageTextView() {
+            public Long getDocumentId() {
+                return documentId;
+            }
+
+            public String getDocumentName() {
+                return name;
+            }
+
+            public int getPageNumber() {
+                return pageNumber;
+            }
+
+            public String getPageText() {
+                return text;
+            }
+        };
+    }
+
+    private void givenMatches(VectorMatchDTO... matches) {
+        when(embeddingService.embed(List.of("when is the rent due?"))).thenReturn(List.of(QUERY_VECTOR));
+        when(vectorIndex.search(eq("alice"), eq(QUERY_VECTOR), anyInt())).thenReturn(List.of(matches));
+    }
+
+    @Nested
+    @DisplayName("Prompt building")
+    class PromptTests {
+
+        @Test
+        @DisplayName("should number passages by score and cite their page")
+        void should_numberPassagesByScore_when_matchesFound() {
+            // Arrange
+            givenMatches(match(1L, 2, 0, 13, 0.4), match(2L, 1, 5, 11, 0.9));
+            when(pageRepository.findPageTexts(anyCollection(), anyCollection())).thenReturn(List.of(
+                    page(1L, "Lease", 2, "Rent is due monthly."),
+                    page(2L, "Letter", 1, "Dear tenant, pay by the 3rd."),
+                    page(1L, "Lease", 1, "unrelated")));
+
+            // Act
+            DocumentChatService.ChatContext context = service.buildContext("alice", "when is the rent due?");
+
+            // Assert
+            assertThat(context.citations()).extracting(ChatCitationDTO::getIndex, ChatCitationDTO::getDocumentId,
+                            ChatCitationDTO::getPageNumber)
+                    .containsExactly(
+                            tuple(1, 2L, 1),
+                            tuple(2, 1L, 2));
+            assertThat(context.prompt())
+                    .contains("[1] Letter, page 1:\ntenant, pay")
+                    .contains("[2] Lease, page 2:\nRent is due m")
+                    .endsWith("Question: when is the rent due?\nAnswer:");
+        }
+
+        @Test
+        @DisplayName("should stop adding passages once the token budget is used up")
+        void should_dropPassages_when_budgetExceeded() {
+            // Arrange
+            config.setTokenBudget(150);
+            config.setCharsPerToken(4);
+            String longText = "x".repeat(200);
+            givenMatches(match(1L, 1, 0, 200, 0.9), match(2L, 1, 0, 200, 0.8));
+            when(pageRepository.findPageTexts(anyCollection(), anyCollection())).thenReturn(List.of(
+                    page(1L, "A", 1, longText), page(2L, "B", 1, longText)));
+
+            // Act
+            DocumentChatService.ChatContext context = service.buildContext("alice", "when is the rent due?");
+
+            // Assert
+            assertThat(context.citations()).hasSize(1);
+            assertThat(context.prompt().length()).isLessThanOrEqualTo(600);
+        }
+
+        @Test
+        @DisplayName("should cut the best passage when it alone exceeds the budget")
+        void should_truncateFirstPassage_when_tooLong() {
+            // Arrange
+            config.setTokenBudget(100);
+            config.setCharsPerToken(4);
+            givenMatches(match(1L, 1, 0, 1000, 0.9));
+            when(pageRepository.findPageTexts(anyCollection(), anyCollection())).thenReturn(List.of(
+                    page(1L, "A", 1, "y".repeat(1000))));
+
+            // Act
+            DocumentChatService.ChatContext context = service.buildContext("alice", "when is the rent due?");
+
+            // Assert
+            assertThat(context.citations()).hasSize(1);
+            assertThat(context.prompt()).contains("[1] A, page 1:\nyyy");
+            assertThat(context.prompt().length()).isLessThanOrEqualTo(400);
+        }
+
+        @Test
+        @DisplayName("should skip matches below the minimum score")
+        void should_skipMatches_when_belowMinScore() {
+            // Arrange
+            config.setMinScore(0.5);
+            givenMatches(match(1L, 1, 0, 10, 0.2));
+
+            // Act
+            DocumentChatService.ChatContext context = service.buildContext("alice", "when is the rent due?");
+
+            // Assert
+            assertThat(context.citations()).isEmpty();
+            verifyNoInteractions(pageRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("Streaming")
+    class StreamingTests {
+
+        @Test
+        @DisplayName("should send citations first, then tokens, then done")
+        void should_streamCitationsTokensDone_when_contextFound() {
+            // Arrange
+            givenMatches(match(1L, 1, 0, 20, 0.9));
+            when(pageRepository.findPageTexts(anyCollection(), anyCollection())).thenReturn(List.of(
+                    page(1L, "Lease", 1, "Rent is due monthly.")));
+            when(answerGenerationService.streamAnswer(anyString())).thenReturn(Flux.just("Monthly", " [1]"));
+
+            // Act & Assert
+            StepVerifier.create(service.chat("alice", "when is the rent due?"))
+                    .assertNext(event -> {
+                        assertThat(event.getType()).isEqualTo(ChatEventDTO.Type.CITATIONS);
+                        assertThat(event.getCitations()).hasSize(1);
+                    })
+                    .assertNext(event -> assertThat(event.getText()).isEqualTo("Monthly"))
+                    .assertNext(event -> assertThat(event.getText()).isEqualTo(" [1]"))
+                    .assertNext(event -> assertThat(event.getType()).isEqualTo(ChatEventDTO.Type.DONE))
+                    .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("should answer without the LLM when nothing relevant is found")
+        void should_skipLlm_when_noContext() {
+            // Arrange
+            givenMatches();
+
+            // Act & Assert
+            StepVerifier.create(service.chat("alice", "when is the rent due?"))
+                    .assertNext(event -> assertThat(event.getCitations()).isEmpty())
+                    .assertNext(event -> assertThat(event.getText()).isEqualTo(DocumentChatService.NO_CONTEXT_ANSWER))
+                    .assertNext(event -> assertThat(event.getType()).isEqualTo(ChatEventDTO.Type.DONE))
+                    .verifyComplete();
+            verifyNoInteractions(answerGenerationService);
+        }
+
+        @Test
+        @DisplayName("should end with an error event when generation fails mid-stream")
+        void should_emitErrorEvent_when_generationFails() {
+            // Arrange
+            givenMatches(match(1L, 1, 0, 20, 0.9));
+            when(pageRepository.findPageTexts(anyCollection(), anyCollection())).thenReturn(List.of(
+                    page(1L, "Lease", 1, "Rent is due monthly.")));
+            when(answerGenerationService.streamAnswer(any())).thenReturn(
+                    Flux.concat(Flux.just("Mon"), Flux.error(new IllegalStateException("boom"))));
+
+            // Act & Assert
+            StepVerifier.create(service.chat("alice", "when is the rent due?"))
+                    .expectNextMatches(event -> event.getType() == ChatEventDTO.Type.CITATIONS)
+                    .expectNextMatches(event -> "Mon".equals(event.getText()))
+                    .expectNextMatches(event -> event.getType() == ChatEventDTO.Type.ERROR)
+                    .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("should reject an empty question")
+        void should_throw_when_questionBlank() {
+            assertThatThrownBy(() -> service.chat("alice", " "))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.papercloud.de.pdfservice.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -9,31 +10,44 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.papercloud.de.core.domain.Document;
 import org.papercloud.de.core.domain.UploadSource;
+import org.papercloud.de.core.dto.document.BulkTagUpdateDTO;
 import org.papercloud.de.core.dto.document.DocumentDTO;
+import org.papercloud.de.core.dto.document.DocumentMetadataUpdateDTO;
 import org.papercloud.de.core.dto.document.DocumentDownloadDTO;
 import org.papercloud.de.core.dto.document.DocumentUploadDTO;
+import org.papercloud.de.core.dto.search.FacetBucketDTO;
+import org.papercloud.de.core.dto.search.FacetedSearchResultDTO;
 import org.papercloud.de.core.dto.search.SearchHitDTO;
+import org.papercloud.de.core.dto.search.SearchMode;
 import org.papercloud.de.core.dto.search.SearchRequestDTO;
 import org.papercloud.de.core.dto.search.SearchResultDTO;
+import org.papercloud.de.core.dto.search.SuggestionDTO;
+import org.papercloud.de.core.events.DocumentMetadataChangedEvent;
 import org.papercloud.de.core.events.OcrEvent;
 import org.papercloud.de.core.ports.outbound.SearchService;
 import org.papercloud.de.core.dto.document.DocumentListItemDTO;
+import org.papercloud.de.core.dto.document.DocumentListSort;
+import org.papercloud.de.core.dto.document.DocumentPageDTO;
 import org.papercloud.de.pdfdatabase.entity.DocumentPdfEntity;
-import org.papercloud.de.pdfdatabase.entity.PagesPdfEntity;
 import org.papercloud.de.pdfdatabase.entity.UserDocumentFavouriteEntity;
 import org.papercloud.de.pdfdatabase.entity.UserEntity;
 import org.papercloud.de.pdfdatabase.repository.DocumentRepository;
+import org.papercloud.de.pdfdatabase.repository.DocumentRepository.DocumentListView;
 import org.papercloud.de.pdfdatabase.repository.FavouriteRepository;
 import org.papercloud.de.pdfdatabase.repository.UserRepository;
+import org.papercloud.de.pdfservice.config.SearchResultCacheConfiguration;
 import org.papercloud.de.pdfservice.errors.DocumentNotFoundException;
 import org.papercloud.de.pdfservice.errors.DocumentUploadException;
 import org.papercloud.de.pdfservice.errors.InvalidDocumentException;
 import org.papercloud.de.pdfservice.errors.UserAuthenticationException;
 import org.papercloud.de.pdfservice.mapper.DocumentServiceMapper;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.core.Authentication;
@@ -41,6 +55,7 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.nio.file.AccessDeniedException;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -48,11 +63,14 @@ import java.util.Set;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 /**
@@ -81,12 +99,19 @@ class DocumentServiceImplTest {
     @Mock
     private SearchService searchService;
 
+    @Mock
+    private SemanticSearchService semanticSearchService;
+
     @Mock
     private AuditService auditService;
 
     @Mock
     private HttpServletRequest httpServletRequest;
 
+    @Spy
+    private SearchResultCache searchResultCache =
+            new SearchResultCache(new SearchResultCacheConfiguration(), new SimpleMeterRegistry());
+
     @InjectMocks
     private DocumentServiceImpl documentService;
 
@@ -94,6 +119,38 @@ class DocumentServiceImplTest {
     private DocumentPdfEntity testDocument;
     private DocumentDTO testDocumentDTO;
 
+    private static DocumentListView listRow(Long id, String title, int pageCount) {
+        return listRow(id, title, pageCount, LocalDateTime.of(2024, 1, 1, 0, 0));
+    }
+
+    private static DocumentListView listRow(Long id, LocalDateTime uploadedAt) {
+        return listRow(id, "Document " + id, 1, uploadedAt);
+    }
+
+    private static DocumentListView listRow(Long id, String title, int pageCount, LocalDateTime uploadedAt) {
+        return new DocumentListView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getTitle() {
+                return title;
+            }
+
+            @Override
+            public LocalDateTime getUploadedAt() {
+                return uploadedAt;
+            }
+
+            @Override
+            public int getPageCount() {
+                return pageCount;
+            }
+        };
+    }
+
     @BeforeEach
     void setUp() {
         testUser = UserEntity.builder()
@@ -377,10 +434,8 @@ class DocumentServiceImplTest {
         @Test
         @DisplayName("should use UPLOAD_# title when document has no enriched title")
         void should_useUploadTitle_when_noEnrichedTitle() {
-            DocumentPdfEntity doc = DocumentPdfEntity.builder()
-                    .id(42L).filename("report.pdf").title(null).owner(testUser).build();
-            when(documentRepository.findByOwnerUsername("testuser")).thenReturn(List.of(doc));
-            when(favouriteRepository.findFavouriteDocumentIdsByUsername("testuser")).thenReturn(Set.of());
+            when(documentRepository.findNewestListPage(eq("testuser"), any())).thenReturn(List.of(listRow(42L, null, 0)));
+            when(favouriteRepository.findFavouriteDocumentIds(eq("testuser"), any())).thenReturn(Set.of());
 
             List<DocumentListItemDTO> result = documentService.searchDocuments("testuser", null);
 
@@ -391,10 +446,9 @@ class DocumentServiceImplTest {
         @Test
         @DisplayName("should use enriched title when available")
         void should_useEnrichedTitle_when_available() {
-            DocumentPdfEntity doc = DocumentPdfEntity.builder()
-                    .id(1L).filename("report.pdf").title("Tax Report 2024").owner(testUser).build();
-            when(documentRepository.findByOwnerUsername("testuser")).thenReturn(List.of(doc));
-            when(favouriteRepository.findFavouriteDocumentIdsByUsername("testuser")).thenReturn(Set.of());
+            when(documentRepository.findNewestListPage(eq("testuser"), any()))
+                    .thenReturn(List.of(listRow(1L, "Tax Report 2024", 0)));
+            when(favouriteRepository.findFavouriteDocumentIds(eq("testuser"), any())).thenReturn(Set.of());
 
             List<DocumentListItemDTO> result = documentService.searchDocuments("testuser", null);
 
@@ -403,18 +457,10 @@ class DocumentServiceImplTest {
         }
 
         @Test
-        @DisplayName("should populate page count from pages list")
+        @DisplayName("should populate page count from the listing")
         void should_populatePageCount() {
-            DocumentPdfEntity doc = DocumentPdfEntity.builder()
-                    .id(1L).filename("report.pdf").owner(testUser)
-                    .pages(List.of(
-                            PagesPdfEntity.builder().id(1L).pageNumber(1).build(),
-                            PagesPdfEntity.builder().id(2L).pageNumber(2).build(),
-                            PagesPdfEntity.builder().id(3L).pageNumber(3).build()
-                    ))
-                    .build();
-            when(documentRepository.findByOwnerUsername("testuser")).thenReturn(List.of(doc));
-            when(favouriteRepository.findFavouriteDocumentIdsByUsername("testuser")).thenReturn(Set.of());
+            when(documentRepository.findNewestListPage(eq("testuser"), any())).thenReturn(List.of(listRow(1L, null, 3)));
+            when(favouriteRepository.findFavouriteDocumentIds(eq("testuser"), any())).thenReturn(Set.of());
 
             List<DocumentListItemDTO> result = documentService.searchDocuments("testuser", null);
 
@@ -423,51 +469,30 @@ class DocumentServiceImplTest {
         }
 
         @Test
-        @DisplayName("should return zero page count when pages is null")
-        void should_returnZeroPageCount_when_pagesNull() {
-            DocumentPdfEntity doc = DocumentPdfEntity.builder()
-                    .id(1L).filename("report.pdf").owner(testUser).pages(null).build();
-            when(documentRepository.findByOwnerUsername("testuser")).thenReturn(List.of(doc));
-            when(favouriteRepository.findFavouriteDocumentIdsByUsername("testuser")).thenReturn(Set.of());
-
-            List<DocumentListItemDTO> result = documentService.searchDocuments("testuser", null);
-
-            assertThat(result.get(0).getPageCount()).isEqualTo(0);
-        }
-
-        @Test
-        @DisplayName("should filter by display title in fallback mode")
-        void should_filterByDisplayTitle() {
-            when(searchService.search(any(SearchRequestDTO.class)))
-                    .thenThrow(new RuntimeException("ES unavailable"));
-
-            DocumentPdfEntity doc1 = DocumentPdfEntity.builder()
-                    .id(42L).filename("a.pdf").title(null).owner(testUser).build();
-            DocumentPdfEntity doc2 = DocumentPdfEntity.builder()
-                    .id(99L).filename("b.pdf").title(null).owner(testUser).build();
-            when(documentRepository.findByOwnerUsername("testuser")).thenReturn(List.of(doc1, doc2));
-            when(favouriteRepository.findFavouriteDocumentIdsByUsername("testuser")).thenReturn(Set.of());
+        @DisplayName("should read only the newest page of documents when the query is blank")
+        void should_readNewestPageOnly_when_queryBlank() {
+            ArgumentCaptor<Pageable> limit = ArgumentCaptor.forClass(Pageable.class);
+            when(documentRepository.findNewestListPage(eq("testuser"), limit.capture())).thenReturn(List.of());
 
-            List<DocumentListItemDTO> result = documentService.searchDocuments("testuser", "upload_#42");
+            List<DocumentListItemDTO> result = documentService.searchDocuments("testuser", " ");
 
-            assertThat(result).hasSize(1);
-            assertThat(result.get(0).getId()).isEqualTo(42L);
+            assertThat(result).isEmpty();
+            assertThat(limit.getValue().getPageSize()).isEqualTo(51);
+            verify(documentRepository, never()).findByOwnerUsername(any());
+            verifyNoInteractions(favouriteRepository, searchService);
         }
 
         @Test
-        @DisplayName("should filter by filename in fallback mode")
-        void should_filterByFilename() {
+        @DisplayName("should propagate the failure when the search index fails")
+        void should_propagateFailure_when_searchIndexFails() {
             when(searchService.search(any(SearchRequestDTO.class)))
-                    .thenThrow(new RuntimeException("ES unavailable"));
-
-            DocumentPdfEntity doc = DocumentPdfEntity.builder()
-                    .id(1L).filename("invoice-2024.pdf").title(null).owner(testUser).build();
-            when(documentRepository.findByOwnerUsername("testuser")).thenReturn(List.of(doc));
+                    .thenThrow(new RuntimeException("Search unavailable"));
             when(favouriteRepository.findFavouriteDocumentIdsByUsername("testuser")).thenReturn(Set.of());
 
-            List<DocumentListItemDTO> result = documentService.searchDocuments("testuser", "invoice");
-
-            assertThat(result).hasSize(1);
+            assertThatThrownBy(() -> documentService.searchDocuments("testuser", "invoice"))
+                    .isInstanceOf(RuntimeException.class)
+                    .hasMessage("Search unavailable");
+            verify(documentRepository, never()).findByOwnerUsername(any());
         }
 
         @Test
@@ -502,20 +527,67 @@ class DocumentServiceImplTest {
         }
 
         @Test
-        @DisplayName("should fall back to in-memory search when Elasticsearch fails")
-        void should_fallBackToInMemory_when_elasticsearchFails() {
-            when(searchService.search(any(SearchRequestDTO.class)))
-                    .thenThrow(new RuntimeException("ES connection failed"));
+        @DisplayName("should answer a repeated query from the cache until the user's documents change")
+        void should_serveFromCache_when_queryRepeated() {
+            SearchResultDTO esResult = SearchResultDTO.builder()
+                    .hits(List.of(SearchHitDTO.builder().documentId("1").build()))
+                    .totalHits(1).totalPages(1).currentPage(0).build();
+            when(searchService.search(any(SearchRequestDTO.class))).thenReturn(esResult);
             when(favouriteRepository.findFavouriteDocumentIdsByUsername("testuser")).thenReturn(Set.of());
+            when(documentRepository.findAllById(List.of(1L))).thenReturn(List.of(testDocument));
+
+            List<DocumentListItemDTO> first = documentService.searchDocuments("testuser", "Tax  return");
+            List<DocumentListItemDTO> repeated = documentService.searchDocuments("testuser", " tax return ");
+            searchResultCache.invalidate("testuser");
+            documentService.searchDocuments("testuser", "tax return");
 
+            assertThat(repeated).isSameAs(first);
+            verify(searchService, times(2)).search(any(SearchRequestDTO.class));
+            verify(favouriteRepository, times(2)).findFavouriteDocumentIdsByUsername("testuser");
+        }
+
+        @Test
+        @DisplayName("should route hybrid queries to the semantic search")
+        void should_useSemanticSearch_when_modeHybrid() {
+            SearchResultDTO hybridResult = SearchResultDTO.builder()
+                    .hits(List.of(SearchHitDTO.builder().documentId("1").documentName("Doc A").build()))
+                    .totalHits(1).totalPages(1).currentPage(0).build();
+            when(semanticSearchService.search(any(SearchRequestDTO.class))).thenReturn(hybridResult);
+            when(favouriteRepository.findFavouriteDocumentIdsByUsername("testuser")).thenReturn(Set.of());
+            DocumentPdfEntity doc = DocumentPdfEntity.builder()
+                    .id(1L).filename("a.pdf").title("Doc A").owner(testUser).build();
+            when(documentRepository.findAllById(List.of(1L))).thenReturn(List.of(doc));
+
+            List<DocumentListItemDTO> result = documentService.searchDocuments("testuser", "electricity bill",
+                    SearchMode.HYBRID);
+
+            assertThat(result).extracting(DocumentListItemDTO::getId).containsExactly(1L);
+            ArgumentCaptor<SearchRequestDTO> request = ArgumentCaptor.forClass(SearchRequestDTO.class);
+            verify(semanticSearchService).search(request.capture());
+            assertThat(request.getValue().getMode()).isEqualTo(SearchMode.HYBRID);
+            verify(searchService, never()).search(any());
+        }
+
+        @Test
+        @DisplayName("should fall back to lexical search when semantic search fails")
+        void should_fallBackToLexical_when_semanticSearchFails() {
+            when(semanticSearchService.search(any(SearchRequestDTO.class)))
+                    .thenThrow(new RuntimeException("Embeddings unavailable"));
+            when(searchService.search(any(SearchRequestDTO.class))).thenReturn(SearchResultDTO.builder()
+                    .hits(List.of(SearchHitDTO.builder().documentId("1").documentName("Invoice 2024").build()))
+                    .totalHits(1).totalPages(1).currentPage(0).build());
+            when(favouriteRepository.findFavouriteDocumentIdsByUsername("testuser")).thenReturn(Set.of());
             DocumentPdfEntity doc = DocumentPdfEntity.builder()
                     .id(1L).filename("invoice-2024.pdf").title("Invoice 2024").owner(testUser).build();
-            when(documentRepository.findByOwnerUsername("testuser")).thenReturn(List.of(doc));
+            when(documentRepository.findAllById(List.of(1L))).thenReturn(List.of(doc));
 
-            List<DocumentListItemDTO> result = documentService.searchDocuments("testuser", "invoice");
+            List<DocumentListItemDTO> result = documentService.searchDocuments("testuser", "invoice",
+                    SearchMode.HYBRID);
 
-            assertThat(result).hasSize(1);
-            assertThat(result.get(0).getTitle()).isEqualTo("Invoice 2024");
+            assertThat(result).extracting(DocumentListItemDTO::getTitle).containsExactly("Invoice 2024");
+            ArgumentCaptor<SearchRequestDTO> request = ArgumentCaptor.forClass(SearchRequestDTO.class);
+            verify(searchService).search(request.capture());
+            assertThat(request.getValue().getMode()).isEqualTo(SearchMode.LEXICAL);
         }
 
         @Test
@@ -557,12 +629,9 @@ class DocumentServiceImplTest {
         @Test
         @DisplayName("should mark favourited documents in search results")
         void should_markFavouritedDocuments() {
-            DocumentPdfEntity doc1 = DocumentPdfEntity.builder()
-                    .id(1L).filename("a.pdf").owner(testUser).build();
-            DocumentPdfEntity doc2 = DocumentPdfEntity.builder()
-                    .id(2L).filename("b.pdf").owner(testUser).build();
-            when(documentRepository.findByOwnerUsername("testuser")).thenReturn(List.of(doc1, doc2));
-            when(favouriteRepository.findFavouriteDocumentIdsByUsername("testuser")).thenReturn(Set.of(1L));
+            when(documentRepository.findNewestListPage(eq("testuser"), any()))
+                    .thenReturn(List.of(listRow(1L, "a", 0), listRow(2L, "b", 0)));
+            when(favouriteRepository.findFavouriteDocumentIds("testuser", List.of(1L, 2L))).thenReturn(Set.of(1L));
 
             List<DocumentListItemDTO> result = documentService.searchDocuments("testuser", null);
 
@@ -572,6 +641,370 @@ class DocumentServiceImplTest {
         }
     }
 
+    @Nested
+    @DisplayName("ListDocuments Tests")
+    class ListDocumentsTests {
+
+        private final LocalDateTime noon = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+        @Test
+        @DisplayName("should return a next cursor when more documents follow")
+        void should_returnNextCursor_when_moreDocumentsFollow() {
+            // Arrange
+            when(documentRepository.findNewestListPage(eq("testuser"), eq(PageRequest.of(0, 3))))
+                    .thenReturn(List.of(listRow(9L, noon), listRow(8L, noon), listRow(7L, noon.minusDays(1))));
+            when(favouriteRepository.findFavouriteDocumentIds("testuser", List.of(9L, 8L))).thenReturn(Set.of(8L));
+
+            // Act
+            DocumentPageDTO page = documentService.listDocuments("testuser", DocumentListSort.NEWEST, 2, null);
+
+            // Assert
+            assertThat(page.getDocuments()).extracting(DocumentListItemDTO::getId).containsExactly(9L, 8L);
+            assertThat(page.getDocuments()).extracting(DocumentListItemDTO::getIsFavourite).containsExactly(false, true);
+            assertThat(page.getNextCursor()).isNotBlank();
+        }
+
+        @Test
+        @DisplayName("should continue after the last document of the previous page")
+        void should_seekPastLastDocument_when_cursorGiven() {
+            // Arrange
+            String cursor = new DocumentListCursor(DocumentListSort.NEWEST, noon, 8L).encode();
+            when(documentRepository.findListPageBefore("testuser", noon, 8L, PageRequest.of(0, 3)))
+                    .thenReturn(List.of(listRow(7L, noon.minusDays(1))));
+            when(favouriteRepository.findFavouriteDocumentIds("testuser", List.of(7L))).thenReturn(Set.of());
+
+            // Act
+            DocumentPageDTO page = documentService.listDocuments("testuser", DocumentListSort.NEWEST, 2, cursor);
+
+            // Assert
+            assertThat(page.getDocuments()).extracting(DocumentListItemDTO::getId).containsExactly(7L);
+            assertThat(page.getNextCursor()).isNull();
+            verify(documentRepository, never()).findNewestListPage(any(), any());
+        }
+
+        @Test
+        @DisplayName("should read the oldest documents first when sorted by oldest")
+        void should_seekForward_when_sortedOldestFirst() {
+            // Arrange
+            String cursor = new DocumentListCursor(DocumentListSort.OLDEST, noon, 3L).encode();
+            when(documentRepository.findListPageAfter("testuser", noon, 3L, PageRequest.of(0, 11))).thenReturn(List.of());
+
+            // Act
+            DocumentPageDTO page = documentService.listDocuments("testuser", DocumentListSort.OLDEST, 10, cursor);
+
+            // Assert
+            assertThat(page.getDocuments()).isEmpty();
+            assertThat(page.getNextCursor()).isNull();
+            verifyNoInteractions(favouriteRepository);
+        }
+
+        @Test
+        @DisplayName("should reject page sizes outside the limits")
+        void should_throwException_when_sizeOutOfRange() {
+            // Act & Assert
+            assertThatThrownBy(() -> documentService.listDocuments("testuser", DocumentListSort.NEWEST, 0, null))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> documentService.listDocuments("testuser", DocumentListSort.NEWEST,
+                    DocumentServiceImpl.MAX_LIST_PAGE_SIZE + 1, null))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verifyNoInteractions(documentRepository);
+        }
+
+        @Test
+        @DisplayName("should reject malformed cursors and cursors of another sort order")
+        void should_throwException_when_cursorInvalid() {
+            // Arrange
+            String newestCursor = new DocumentListCursor(DocumentListSort.NEWEST, noon, 8L).encode();
+
+            // Act & Assert
+            assertThatThrownBy(() -> documentService.listDocuments("testuser", DocumentListSort.NEWEST, 10, "not-a-cursor"))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Invalid document list cursor");
+            assertThatThrownBy(() -> documentService.listDocuments("testuser", DocumentListSort.OLDEST, 10, newestCursor))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("different sort order");
+            verifyNoInteractions(documentRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("Faceted Search Tests")
+    class FacetedSearchTests {
+
+        @Test
+        @DisplayName("should pass the filters to the search index and return its facets")
+        void should_returnIndexFacets_when_searchSucceeds() {
+            // Arrange
+            testDocument.setTitle("Tax 2023");
+            when(favouriteRepository.findFavouriteDocumentIdsByUsername("testuser")).thenReturn(Set.of());
+            when(searchService.search(any(SearchRequestDTO.class))).thenReturn(SearchResultDTO.builder()
+                    .hits(List.of(SearchHitDTO.builder().documentId("1").build()))
+                    .totalHits(1)
+                    .totalPages(1)
+                    .tagFacets(List.of(new FacetBucketDTO("tax", 1)))
+                    .yearFacets(List.of(new FacetBucketDTO("2023", 1)))
+                    .build());
+            when(documentRepository.findAllById(List.of(1L))).thenReturn(List.of(testDocument));
+
+            // Act
+            FacetedSearchResultDTO result = documentService.searchWithFacets("testuser", SearchRequestDTO.builder()
+                    .query("tax").tags(List.of(" tax ", "")).year(2023).build());
+
+            // Assert
+            ArgumentCaptor<SearchRequestDTO> request = ArgumentCaptor.forClass(SearchRequestDTO.class);
+            verify(searchService).search(request.capture());
+            assertThat(request.getValue().getTags()).containsExactly("tax");
+            assertThat(request.getValue().getYear()).isEqualTo(2023);
+            assertThat(request.getValue().getUsername()).isEqualTo("testuser");
+            assertThat(request.getValue().isWithCursor()).isTrue();
+            assertThat(result.getDocuments()).extracting(DocumentListItemDTO::getTitle).containsExactly("Tax 2023");
+            assertThat(result.getTags()).extracting(FacetBucketDTO::getValue).containsExactly("tax");
+            assertThat(result.getYears()).extracting(FacetBucketDTO::getValue).containsExactly("2023");
+        }
+
+        @Test
+        @DisplayName("should propagate the failure when the search index fails")
+        void should_propagateFailure_when_searchFails() {
+            // Arrange
+            when(favouriteRepository.findFavouriteDocumentIdsByUsername("testuser")).thenReturn(Set.of());
+            when(searchService.search(any(SearchRequestDTO.class))).thenThrow(new RuntimeException("Search unavailable"));
+
+            // Act & Assert
+            assertThatThrownBy(() -> documentService.searchWithFacets("testuser",
+                    SearchRequestDTO.builder().tags(List.of("tax")).build()))
+                    .isInstanceOf(RuntimeException.class)
+                    .hasMessage("Search unavailable");
+            verify(documentRepository, never()).findByOwnerUsername(any());
+        }
+
+        @Test
+        @DisplayName("should reject page sizes above the limit")
+        void should_throwException_when_pageSizeTooLarge() {
+            // Act & Assert
+            assertThatThrownBy(() -> documentService.searchWithFacets("testuser", SearchRequestDTO.builder()
+                    .size(DocumentServiceImpl.MAX_SEARCH_PAGE_SIZE + 1).build()))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verify(searchService, never()).search(any());
+        }
+
+        @Test
+        @DisplayName("should reject page numbers beyond the offset limit")
+        void should_throwException_when_pageTooDeep() {
+            // Act & Assert
+            assertThatThrownBy(() -> documentService.searchWithFacets("testuser", SearchRequestDTO.builder()
+                    .page(DocumentServiceImpl.MAX_SEARCH_OFFSET / 20).size(20).build()))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("cursor");
+            verify(searchService, never()).search(any());
+        }
+
+        @Test
+        @DisplayName("should pass the cursor through and return the next one")
+        void should_passCursor_when_cursorGiven() {
+            // Arrange
+            when(favouriteRepository.findFavouriteDocumentIdsByUsername("testuser")).thenReturn(Set.of());
+            when(searchService.search(any(SearchRequestDTO.class))).thenReturn(SearchResultDTO.builder()
+                    .hits(List.of())
+                    .totalHits(40_000)
+                    .currentPage(600)
+                    .nextCursor("next")
+                    .build());
+
+            // Act
+            FacetedSearchResultDTO result = documentService.searchWithFacets("testuser", SearchRequestDTO.builder()
+                    .query("tax").page(0).size(20).cursor("current").build());
+
+            // Assert
+            ArgumentCaptor<SearchRequestDTO> request = ArgumentCaptor.forClass(SearchRequestDTO.class);
+            verify(searchService).search(request.capture());
+            assertThat(request.getValue().getCursor()).isEqualTo("current");
+            assertThat(result.getNextCursor()).isEqualTo("next");
+            assertThat(result.getCurrentPage()).isEqualTo(600);
+        }
+
+        @Test
+        @DisplayName("should not cache pages that carry or were read through a cursor")
+        void should_notCache_when_cursorInvolved() {
+            // Arrange
+            when(favouriteRepository.findFavouriteDocumentIdsByUsername("testuser")).thenReturn(Set.of());
+            when(searchService.search(any(SearchRequestDTO.class))).thenReturn(SearchResultDTO.builder()
+                    .hits(List.of())
+                    .totalHits(40)
+                    .nextCursor("next")
+                    .build());
+            SearchRequestDTO firstPage = SearchRequestDTO.builder().query("tax").page(0).size(20).build();
+            SearchRequestDTO byCursor = SearchRequestDTO.builder().query("tax").page(0).size(20).cursor("current").build();
+
+            // Act
+            documentService.searchWithFacets("testuser", firstPage);
+            documentService.searchWithFacets("testuser", firstPage);
+            documentService.searchWithFacets("testuser", byCursor);
+            documentService.searchWithFacets("testuser", byCursor);
+
+            // Assert
+            verify(searchService, times(4)).search(any(SearchRequestDTO.class));
+            assertThat(searchResultCache.getEntryCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("should propagate a failure while paging with a cursor")
+        void should_propagateFailure_when_cursorPageFails() {
+            // Arrange
+            when(favouriteRepository.findFavouriteDocumentIdsByUsername("testuser")).thenReturn(Set.of());
+            when(searchService.search(any(SearchRequestDTO.class))).thenThrow(new RuntimeException("ES unavailable"));
+
+            // Act & Assert
+            assertThatThrownBy(() -> documentService.searchWithFacets("testuser", SearchRequestDTO.builder()
+                    .query("tax").cursor("current").build()))
+                    .isInstanceOf(RuntimeException.class)
+                    .hasMessage("ES unavailable");
+            verify(documentRepository, never()).findByOwnerUsername(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Suggest Tests")
+    class SuggestTests {
+
+        @Test
+        @DisplayName("should cap the number of suggestions and never read the database")
+        void should_capSize_when_suggesting() {
+            // Arrange
+            List<SuggestionDTO> suggestions = List.of(
+                    new SuggestionDTO(SuggestionDTO.Kind.DOCUMENT, "Tax Report", 1L));
+            when(searchService.suggest("testuser", "ta", DocumentServiceImpl.MAX_SUGGESTIONS)).thenReturn(suggestions);
+
+            // Act
+            List<SuggestionDTO> result = documentService.suggest("testuser", "ta", 1000);
+
+            // Assert
+            assertThat(result).isEqualTo(suggestions);
+            verifyNoInteractions(documentRepository, favouriteRepository);
+        }
+
+        @Test
+        @DisplayName("should return no suggestions when the search index fails")
+        void should_returnEmpty_when_searchFails() {
+            // Arrange
+            when(searchService.suggest(any(), any(), anyInt())).thenThrow(new RuntimeException("ES unavailable"));
+
+            // Act & Assert
+            assertThat(documentService.suggest("testuser", "ta", 5)).isEmpty();
+            verifyNoInteractions(documentRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("Bulk Metadata Update Tests")
+    class BulkMetadataUpdateTests {
+
+        @Test
+        @DisplayName("should save changed documents and publish one metadata event each")
+        void should_publishMetadataEvent_when_titleChanged() {
+            // Arrange
+            testDocument.setTitle("Old");
+            when(documentRepository.findAllById(any())).thenReturn(List.of(testDocument));
+
+            // Act
+            int updated = documentService.updateMetadata("testuser", List.of(
+                    DocumentMetadataUpdateDTO.builder().documentId(1L).title("  New  ").tags(List.of(" tax ", "", "tax")).build()));
+
+            // Assert
+            assertThat(updated).isEqualTo(1);
+            assertThat(testDocument.getTitle()).isEqualTo("New");
+            assertThat(testDocument.getTags()).containsExactly("tax");
+            verify(documentRepository).saveAll(Set.of(testDocument));
+            verify(publisher).publishEvent(new DocumentMetadataChangedEvent(1L));
+        }
+
+        @Test
+        @DisplayName("should skip documents whose metadata did not change")
+        void should_notPublish_when_nothingChanged() {
+            // Arrange
+            testDocument.setTitle("Same");
+            when(documentRepository.findAllById(any())).thenReturn(List.of(testDocument));
+
+            // Act
+            int updated = documentService.updateMetadata("testuser", List.of(
+                    DocumentMetadataUpdateDTO.builder().documentId(1L).title("Same").build()));
+
+            // Assert
+            assertThat(updated).isZero();
+            verify(documentRepository, never()).saveAll(any());
+            verify(publisher, never()).publishEvent(any());
+        }
+
+        @Test
+        @DisplayName("should reject the whole request when one document belongs to another user")
+        void should_throwAccessDenied_when_documentNotOwned() {
+            // Arrange
+            DocumentPdfEntity foreign = DocumentPdfEntity.builder()
+                    .id(2L)
+                    .owner(UserEntity.builder().id(2L).username("other").build())
+                    .build();
+            when(documentRepository.findAllById(any())).thenReturn(List.of(testDocument, foreign));
+
+            // Act & Assert
+            assertThatThrownBy(() -> documentService.updateTags("testuser", BulkTagUpdateDTO.builder()
+                    .documentIds(List.of(1L, 2L)).add(List.of("tax")).build()))
+                    .isInstanceOf(org.springframework.security.access.AccessDeniedException.class);
+            verify(documentRepository, never()).saveAll(any());
+            verify(publisher, never()).publishEvent(any());
+        }
+
+        @Test
+        @DisplayName("should throw when a document does not exist")
+        void should_throwNotFound_when_documentMissing() {
+            // Arrange
+            when(documentRepository.findAllById(any())).thenReturn(List.of());
+
+            // Act & Assert
+            assertThatThrownBy(() -> documentService.updateMetadata("testuser", List.of(
+                    DocumentMetadataUpdateDTO.builder().documentId(999L).title("New").build())))
+                    .isInstanceOf(DocumentNotFoundException.class)
+                    .hasMessageContaining("999");
+        }
+
+        @Test
+        @DisplayName("should add and remove tags on every listed document")
+        void should_addAndRemoveTags_when_bulkTagUpdate() {
+            // Arrange
+            testDocument.setTags(new java.util.ArrayList<>(List.of("invoice", "draft")));
+            DocumentPdfEntity second = DocumentPdfEntity.builder()
+                    .id(2L)
+                    .owner(testUser)
+                    .tags(new java.util.ArrayList<>(List.of("tax")))
+                    .build();
+            when(documentRepository.findAllById(any())).thenReturn(List.of(testDocument, second));
+
+            // Act
+            int updated = documentService.updateTags("testuser", BulkTagUpdateDTO.builder()
+                    .documentIds(List.of(1L, 2L)).add(List.of("tax")).remove(List.of("draft")).build());
+
+            // Assert
+            assertThat(updated).isEqualTo(1);
+            assertThat(testDocument.getTags()).containsExactly("invoice", "tax");
+            assertThat(second.getTags()).containsExactly("tax");
+            verify(publisher).publishEvent(new DocumentMetadataChangedEvent(1L));
+            verify(publisher, never()).publishEvent(new DocumentMetadataChangedEvent(2L));
+        }
+
+        @Test
+        @DisplayName("should reject requests above the bulk size limit")
+        void should_throwException_when_tooManyDocuments() {
+            // Arrange
+            List<Long> ids = java.util.stream.LongStream.rangeClosed(1, DocumentServiceImpl.MAX_BULK_UPDATE_SIZE + 1)
+                    .boxed()
+                    .toList();
+
+            // Act & Assert
+            assertThatThrownBy(() -> documentService.updateTags("testuser",
+                    BulkTagUpdateDTO.builder().documentIds(ids).add(List.of("tax")).build()))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verify(documentRepository, never()).findAllById(any());
+        }
+    }
+
     @Nested
     @DisplayName("Favourites Tests")
     class FavouritesTests {
@@ -601,6 +1034,7 @@ class DocumentServiceImplTest {
             verify(favouriteRepository).save(captor.capture());
             assertThat(captor.getValue().getUser()).isEqualTo(testUser);
             assertThat(captor.getValue().getDocument()).isEqualTo(testDocument);
+            verify(searchResultCache).invalidate("testuser");
         }
 
         @Test
@@ -611,6 +1045,7 @@ class DocumentServiceImplTest {
             documentService.removeFavourite(1L, "testuser");
 
             verify(favouriteRepository).deleteByUserIdAndDocumentId(1L, 1L);
+            verify(searchResultCache).invalidate("testuser");
         }
 
         @Test
@@ -0,0 +1,211 @@
+package org.papercloud.de.pdfservice.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.papercloud.de.core.dto.search.SavedSearchDTO;
+import org.papercloud.de.core.ports.outbound.SavedSearchIndex;
+import org.papercloud.de.pdfdatabase.entity.DocumentPdfEntity;
+import org.papercloud.de.pdfdatabase.entity.SavedSearchEntity;
+import org.papercloud.de.pdfdatabase.entity.SearchNotificationEntity;
+import org.papercloud.de.pdfdatabase.entity.UserEntity;
+import org.papercloud.de.pdfdatabase.repository.DocumentRepository;
+import org.papercloud.de.pdfdatabase.repository.SavedSearchRepository;
+import org.papercloud.de.pdfdatabase.repository.SearchNotificationRepository;
+import org.papercloud.de.pdfdatabase.repository.UserRepository;
+import org.papercloud.de.pdfservice.errors.DocumentNotFoundException;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SavedSearchService")
+class SavedSearchServiceTest {
+
+    @Mock
+    private SavedSearchRepository savedSearchRepository;
+
+    @Mock
+    private SearchNotificationRepository notificationRepository;
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SavedSearchIndex savedSearchIndex;
+
+    @InjectMocks
+    private SavedSearchService savedSearchService;
+
+    private final UserEntity owner = UserEntity.builder().id(1L).username("alice").build();
+
+    @Nested
+    @DisplayName("create")
+    class CreateTests {
+
+        @Test
+        @DisplayName("should store the search and its query with normalized criteria")
+        void should_storeSearchAndQuery_when_requestValid() {
+            // Arrange
+            when(userRepository.findByUsername("alice")).thenReturn(Optional.of(owner));
+            when(savedSearchRepository.saveAndFlush(any(SavedSearchEntity.class))).thenAnswer(invocation -> {
+                SavedSearchEntity entity = invocation.getArgument(0);
+                entity.setId(7L);
+                return entity;
+            });
+            SavedSearchDTO request = SavedSearchDTO.builder()
+                    .name(" Invoices ")
+                    .query(" invoice ")
+                    .tags(List.of(" tax", "tax", " "))
+                    .year(2024)
+                    .build();
+
+            // Act
+            SavedSearchDTO result = savedSearchService.create("alice", request);
+
+            // Assert
+            assertThat(result.getId()).isEqualTo(7L);
+            assertThat(result.getName()).isEqualTo("Invoices");
+            assertThat(result.getTags()).containsExactly("tax");
+            verify(savedSearchIndex).saveQuery(7L, "alice", "invoice", List.of("tax"), 2024);
+        }
+
+        @Test
+        @DisplayName("should reject a search without any criterion")
+        void should_reject_when_noCriterion() {
+            // Arrange
+            SavedSearchDTO request = SavedSearchDTO.builder().name("Everything").query("  ").build();
+
+            // Act & Assert
+            assertThatThrownBy(() -> savedSearchService.create("alice", request))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verifyNoInteractions(savedSearchIndex);
+        }
+
+        @Test
+        @DisplayName("should reject a search over the per-user limit")
+        void should_reject_when_limitReached() {
+            // Arrange
+            when(savedSearchRepository.countByOwnerUsername("alice"))
+                    .thenReturn((long) SavedSearchService.MAX_SAVED_SEARCHES);
+            SavedSearchDTO request = SavedSearchDTO.builder().name("Invoices").query("invoice").build();
+
+            // Act & Assert
+            assertThatThrownBy(() -> savedSearchService.create("alice", request))
+                    .isInstanceOf(IllegalStateException.class);
+            verify(savedSearchRepository, never()).saveAndFlush(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("delete")
+    class DeleteTests {
+
+        @Test
+        @DisplayName("should remove the search, its notifications and its query")
+        void should_removeEverything_when_searchOwned() {
+            // Arrange
+            SavedSearchEntity savedSearch = SavedSearchEntity.builder().id(7L).owner(owner).name("Invoices").build();
+            when(savedSearchRepository.findByIdAndOwnerUsername(7L, "alice")).thenReturn(Optional.of(savedSearch));
+
+            // Act
+            savedSearchService.delete("alice", 7L);
+
+            // Assert
+            verify(notificationRepository).deleteBySavedSearchId(7L);
+            verify(savedSearchRepository).delete(savedSearch);
+            verify(savedSearchIndex).deleteQuery(7L);
+        }
+
+        @Test
+        @DisplayName("should throw when the search belongs to someone else")
+        void should_throw_when_searchNotOwned() {
+            // Arrange
+            when(savedSearchRepository.findByIdAndOwnerUsername(7L, "bob")).thenReturn(Optional.empty());
+
+            // Act & Assert
+            assertThatThrownBy(() -> savedSearchService.delete("bob", 7L))
+                    .isInstanceOf(DocumentNotFoundException.class);
+            verifyNoInteractions(savedSearchIndex);
+        }
+    }
+
+    @Nested
+    @DisplayName("matchDocument")
+    class MatchDocumentTests {
+
+        private final DocumentPdfEntity document = DocumentPdfEntity.builder().id(42L).owner(owner).build();
+
+        @Test
+        @DisplayName("should record one notification per new match")
+        void should_recordNotifications_when_documentMatches() {
+            // Arrange
+            SavedSearchEntity invoices = SavedSearchEntity.builder().id(7L).owner(owner).name("Invoices").build();
+            when(documentRepository.findById(42L)).thenReturn(Optional.of(document));
+            when(savedSearchRepository.existsByOwnerUsername("alice")).thenReturn(true);
+            when(savedSearchIndex.match(42L, "alice")).thenReturn(List.of(7L, 8L));
+            when(notificationRepository.existsBySavedSearchIdAndDocumentId(7L, 42L)).thenReturn(false);
+            when(notificationRepository.existsBySavedSearchIdAndDocumentId(8L, 42L)).thenReturn(true);
+            when(savedSearchRepository.findById(7L)).thenReturn(Optional.of(invoices));
+
+            // Act
+            int created = savedSearchService.matchDocument(42L);
+
+            // Assert
+            assertThat(created).isEqualTo(1);
+            ArgumentCaptor<SearchNotificationEntity> captor = ArgumentCaptor.forClass(SearchNotificationEntity.class);
+            verify(notificationRepository).save(captor.capture());
+            assertThat(captor.getValue().getSavedSearch()).isSameAs(invoices);
+            assertThat(captor.getValue().getDocument()).isSameAs(document);
+        }
+
+        @Test
+        @DisplayName("should not query the index when the owner has no saved searches")
+        void should_skipIndex_when_ownerHasNoSavedSearches() {
+            // Arrange
+            when(documentRepository.findById(42L)).thenReturn(Optional.of(document));
+            when(savedSearchRepository.existsByOwnerUsername("alice")).thenReturn(false);
+
+            // Act
+            int created = savedSearchService.matchDocument(42L);
+
+            // Assert
+            assertThat(created).isZero();
+            verify(savedSearchIndex, never()).match(anyLong(), anyString());
+        }
+    }
+
+    @Nested
+    @DisplayName("markRead")
+    class MarkReadTests {
+
+        @Test
+        @DisplayName("should not touch the database for an empty list")
+        void should_returnZero_when_noIds() {
+            // Act
+            int updated = savedSearchService.markRead("alice", List.of());
+
+            // Assert
+            assertThat(updated).isZero();
+            verifyNoInteractions(notificationRepository);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package org.papercloud.de.pdfservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.papercloud.de.core.dto.document.DocumentListItemDTO;
+import org.papercloud.de.core.dto.search.SearchMode;
+import org.papercloud.de.pdfservice.config.SearchResultCacheConfiguration;
+import org.papercloud.de.pdfservice.service.SearchResultCache.Key;
+import org.papercloud.de.pdfservice.service.SearchResultCache.View;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for SearchResultCache.
+ * Tests key normalization, version-based invalidation, bounds and metrics.
+ */
+@DisplayName("SearchResultCache")
+class SearchResultCacheTest {
+
+    private SearchResultCacheConfiguration config;
+    private SimpleMeterRegistry meterRegistry;
+    private SearchResultCache cache;
+
+    private final List<DocumentListItemDTO> result = List.of(DocumentListItemDTO.builder().id(1L).title("Tax").build());
+
+    @BeforeEach
+    void setUp() {
+        config = new SearchResultCacheConfiguration();
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new SearchResultCache(config, meterRegistry);
+    }
+
+    private static Key key(String query) {
+        return Key.of(View.LIST, query, SearchMode.LEXICAL, null, null, 0, 50);
+    }
+
+    /** Returns the cached page, or an empty list if the lookup had to search. */
+    private List<DocumentListItemDTO> lookup(String username, Key key) {
+        return cache.get(username, key, List::of);
+    }
+
+    @Nested
+    @DisplayName("Lookups")
+    class LookupTests {
+
+        @Test
+        @DisplayName("should load a page once and count hits and misses")
+        void should_loadOnce_when_queryRepeated() {
+            // Arrange
+            AtomicInteger loads = new AtomicInteger();
+
+            // Act
+            cache.get("alice", key("Tax  Return"), () -> {
+                loads.incrementAndGet();
+                return result;
+            });
+            List<DocumentListItemDTO> cached = cache.get("alice", key(" tax return"), () -> {
+                loads.incrementAndGet();
+                return List.of();
+            });
+
+            // Assert
+            assertThat(cached).isSameAs(result);
+            assertThat(loads).hasValue(1);
+            assertThat(meterRegistry.get("search.cache.hits").counter().count()).isEqualTo(1);
+            assertThat(meterRegistry.get("search.cache.misses").counter().count()).isEqualTo(1);
+            assertThat(meterRegistry.get("search.cache.hit.ratio").gauge().value()).isEqualTo(0.5);
+        }
+
+        @Test
+        @DisplayName("should tell pages apart by filters, page and view")
+        void should_separateEntries_when_parametersDiffer() {
+            // Arrange
+            Key tagged = Key.of(View.FACETED, "tax", SearchMode.LEXICAL, List.of("b", "a"), 2024, 0, 20);
+
+            // Act & Assert
+            assertThat(tagged).isEqualTo(Key.of(View.FACETED, "TAX", null, List.of("a", "b"), 2024, 0, 20));
+            assertThat(tagged).isNotEqualTo(Key.of(View.FACETED, "tax", SearchMode.LEXICAL, List.of("a"), 2024, 0, 20));
+            assertThat(tagged).isNotEqualTo(Key.of(View.FACETED, "tax", SearchMode.LEXICAL, List.of("a", "b"), 2024, 1, 20));
+            assertThat(key("tax")).isNotEqualTo(Key.of(View.FACETED, "tax", SearchMode.LEXICAL, null, null, 0, 50));
+        }
+
+        @Test
+        @DisplayName("should not cache a failed search")
+        void should_notCache_when_loaderFails() {
+            // Act
+            assertThatThrownBy(() -> cache.get("alice", key("tax"), () -> {
+                throw new IllegalStateException("Search unavailable");
+            })).isInstanceOf(IllegalStateException.class);
+
+            // Assert
+            assertThat(cache.get("alice", key("tax"), () -> result)).isSameAs(result);
+            assertThat(cache.getEntryCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should not cache a page that is not cacheable")
+        void should_notCache_when_resultNotCacheable() {
+            // Act
+            cache.get("alice", key("tax"), () -> result, page -> page.isEmpty());
+
+            // Assert
+            assertThat(cache.getEntryCount()).isZero();
+            assertThat(lookup("alice", key("tax"))).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should always search when disabled")
+        void should_bypassCache_when_disabled() {
+            // Arrange
+            config.setEnabled(false);
+
+            // Act
+            cache.get("alice", key("tax"), () -> result);
+
+            // Assert
+            assertThat(lookup("alice", key("tax"))).isEmpty();
+            assertThat(cache.getEntryCount()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Invalidation")
+    class InvalidationTests {
+
+        @Test
+        @DisplayName("should drop only the invalidated user's pages")
+        void should_dropUserPages_when_invalidated() {
+            // Arrange
+            cache.get("alice", key("tax"), () -> result);
+            cache.get("bob", key("tax"), () -> result);
+
+            // Act
+            cache.invalidate("alice");
+
+            // Assert
+            assertThat(lookup("alice", key("tax"))).isEmpty();
+            assertThat(lookup("bob", key("tax"))).isSameAs(result);
+        }
+
+        @Test
+        @DisplayName("should not store a page whose search overlapped an invalidation")
+        void should_discardResult_when_invalidatedDuringSearch() {
+            // Act
+            cache.get("alice", key("tax"), () -> {
+                cache.invalidate("alice");
+                return result;
+            });
+
+            // Assert
+            assertThat(cache.getEntryCount()).isZero();
+            assertThat(lookup("alice", key("tax"))).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should not cache a page searched before the index has refreshed after a write")
+        void should_notCache_when_searchedBeforeIndexRefresh() {
+            // Arrange
+            cache.get("alice", key("tax"), () -> result);
+
+            // Act
+            cache.invalidateAfterIndexing("alice");
+            cache.get("alice", key("tax"), () -> result);
+
+            // Assert
+            assertThat(cache.getEntryCount()).isZero();
+            assertThat(lookup("alice", key("tax"))).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should cache again once the index has refreshed after a write")
+        void should_cache_when_searchedAfterIndexRefresh() {
+            // Arrange
+            config.setIndexRefreshDelayMs(0);
+            cache.invalidateAfterIndexing("alice");
+
+            // Act
+            cache.get("alice", key("tax"), () -> result);
+
+            // Assert
+            assertThat(lookup("alice", key("tax"))).isSameAs(result);
+        }
+
+        @Test
+        @DisplayName("should search again once a page has reached its maximum age")
+        void should_reload_when_entryExpired() {
+            // Arrange
+            config.setMaxAgeMs(0);
+            cache.get("alice", key("tax"), () -> result);
+
+            // Act & Assert
+            assertThat(lookup("alice", key("tax"))).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Bounds")
+    class BoundsTests {
+
+        @Test
+        @DisplayName("should evict the least recently used page of a user and track memory")
+        void should_evictEldestPage_when_userLimitReached() {
+            // Arrange
+            config.setMaxEntriesPerUser(2);
+
+            // Act
+            cache.get("alice", key("a"), () -> result);
+            cache.get("alice", key("b"), () -> result);
+            lookup("alice", key("a"));
+            cache.get("alice", key("c"), () -> result);
+
+            // Assert
+            assertThat(cache.getEntryCount()).isEqualTo(2);
+            assertThat(lookup("alice", key("a"))).isSameAs(result);
+            assertThat(lookup("alice", key("b"))).isEmpty();
+            assertThat(meterRegistry.get("search.cache.memory").gauge().value()).isPositive();
+        }
+
+        @Test
+        @DisplayName("should drop the user who searched least recently")
+        void should_evictEldestUser_when_userLimitReached() {
+            // Arrange
+            config.setMaxUsers(1);
+
+            // Act
+            cache.get("alice", key("tax"), () -> result);
+            cache.get("bob", key("tax"), () -> result);
+
+            // Assert
+            assertThat(cache.getEntryCount()).isEqualTo(1);
+            assertThat(cache.getTrackedUserCount()).isEqualTo(1);
+            assertThat(lookup("alice", key("tax"))).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should release the estimated memory of dropped pages")
+        void should_releaseMemory_when_invalidated() {
+            // Arrange
+            cache.get("alice", key("tax"), () -> result);
+
+            // Act
+            cache.invalidate("alice");
+
+            // Assert
+            assertThat(cache.getEstimatedBytes()).isZero();
+        }
+    }
+}
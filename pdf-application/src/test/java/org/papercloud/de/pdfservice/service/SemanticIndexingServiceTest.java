@@ -0,0 +1,144 @@
+package org.papercloud.de.pdfservice.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.papercloud.de.core.dto.search.ChunkVectorDTO;
+import org.papercloud.de.core.ports.outbound.EmbeddingService;
+import org.papercloud.de.core.ports.outbound.VectorIndex;
+import org.papercloud.de.pdfdatabase.entity.PagesPdfEntity;
+import org.papercloud.de.pdfservice.config.SemanticSearchConfiguration;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for SemanticIndexingService.
+ * Tests chunking of page texts and storing of the chunk embeddings.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SemanticIndexingService")
+class SemanticIndexingServiceTest {
+
+    @Mock
+    private EmbeddingService embeddingService;
+
+    @Mock
+    private VectorIndex vectorIndex;
+
+    private SemanticSearchConfiguration config;
+    private SemanticIndexingService service;
+
+    @BeforeEach
+    void setUp() {
+        config = new SemanticSearchConfiguration();
+        config.setChunkChars(40);
+        config.setChunkOverlap(10);
+        service = new SemanticIndexingService(embeddingService, vectorIndex, config);
+    }
+
+    private static PagesPdfEntity page(int number, String text) {
+        return PagesPdfEntity.builder().pageNumber(number).pageText(text).build();
+    }
+
+    @Nested
+    @DisplayName("chunk")
+    class ChunkTests {
+
+        @Test
+        @DisplayName("should keep short page text in one chunk")
+        void should_returnSingleChunk_when_textShort() {
+            List<SemanticIndexingService.TextChunk> chunks = service.chunk(1, "  Rechnung Nr. 42  ");
+
+            assertThat(chunks).containsExactly(new SemanticIndexingService.TextChunk(1, 2, "Rechnung Nr. 42"));
+        }
+
+        @Test
+        @DisplayName("should split long text at word boundaries with overlap")
+        void should_splitAtWhitespace_when_textLong() {
+            // Arrange
+            String text = "alpha bravo charlie delta echo foxtrot golf hotel india juliet kilo lima mike";
+
+            // Act
+            List<SemanticIndexingService.TextChunk> chunks = service.chunk(3, text);
+
+            // Assert
+            assertThat(chunks).hasSizeGreaterThan(1);
+            assertThat(chunks).allSatisfy(chunk -> {
+                assertThat(chunk.text().length()).isLessThanOrEqualTo(40);
+                assertThat(text.substring(chunk.offset(), chunk.offset() + chunk.text().length()))
+                        .isEqualTo(chunk.text());
+                assertThat(chunk.text()).doesNotStartWith(" ").doesNotEndWith(" ");
+                assertThat(chunk.pageNumber()).isEqualTo(3);
+            });
+            assertThat(chunks.get(chunks.size() - 1).text()).endsWith("mike");
+            // consecutive chunks overlap
+            assertThat(chunks.get(1).offset()).isLessThan(chunks.get(0).offset() + chunks.get(0).text().length());
+        }
+
+        @Test
+        @DisplayName("should always make progress on text without whitespace")
+        void should_terminate_when_noWhitespace() {
+            List<SemanticIndexingService.TextChunk> chunks = service.chunk(1, "x".repeat(100));
+
+            assertThat(chunks).isNotEmpty();
+            assertThat(chunks.get(chunks.size() - 1).offset() + chunks.get(chunks.size() - 1).text().length())
+                    .isEqualTo(100);
+        }
+    }
+
+    @Nested
+    @DisplayName("indexDocument")
+    class IndexDocumentTests {
+
+        @Test
+        @DisplayName("should store one vector per chunk with page and offset")
+        @SuppressWarnings("unchecked")
+        void should_storeChunkVectors_when_pagesHaveText() {
+            // Arrange
+            when(embeddingService.embed(anyList()))
+                    .thenReturn(List.of(new float[]{1f, 0f}, new float[]{0f, 1f}));
+
+            // Act
+            service.indexDocument(5L, "alice", List.of(page(1, "Erste Seite"), page(2, "  "), page(3, "Dritte")));
+
+            // Assert
+            ArgumentCaptor<List<ChunkVectorDTO>> captor = ArgumentCaptor.forClass(List.class);
+            verify(vectorIndex).replaceDocument(eq("alice"), eq(5L), captor.capture());
+            assertThat(captor.getValue()).extracting(ChunkVectorDTO::getPageNumber).containsExactly(1, 3);
+            assertThat(captor.getValue().get(0).getLength()).isEqualTo("Erste Seite".length());
+            assertThat(captor.getValue().get(1).getVector()).containsExactly(0f, 1f);
+        }
+
+        @Test
+        @DisplayName("should clear vectors without calling the model when there is no text")
+        void should_storeNoVectors_when_pagesEmpty() {
+            service.indexDocument(5L, "alice", List.of(page(1, null)));
+
+            verify(embeddingService, never()).embed(anyList());
+            verify(vectorIndex).replaceDocument("alice", 5L, List.of());
+        }
+
+        @Test
+        @DisplayName("should do nothing when disabled")
+        void should_skip_when_disabled() {
+            config.setEnabled(false);
+
+            service.indexDocument(5L, "alice", List.of(page(1, "Text")));
+
+            verifyNoInteractions(embeddingService, vectorIndex);
+        }
+    }
+}
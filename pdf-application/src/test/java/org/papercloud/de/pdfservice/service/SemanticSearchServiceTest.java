@@ -0,0 +1,211 @@
+package org.papercloud.de.pdfservice.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.papercloud.de.core.dto.search.SearchHitDTO;
+import org.papercloud.de.core.dto.search.SearchMode;
+import org.papercloud.de.core.dto.search.SearchRequestDTO;
+import org.papercloud.de.core.dto.search.SearchResultDTO;
+import org.papercloud.de.core.dto.search.VectorMatchDTO;
+import org.papercloud.de.core.ports.outbound.EmbeddingService;
+import org.papercloud.de.core.ports.outbound.SearchService;
+import org.papercloud.de.core.ports.outbound.VectorIndex;
+import org.papercloud.de.pdfdatabase.entity.DocumentPdfEntity;
+import org.papercloud.de.pdfdatabase.repository.DocumentRepository;
+import org.papercloud.de.pdfdatabase.repository.DocumentRepository.DocumentTagView;
+import org.papercloud.de.pdfdatabase.repository.PageRepository;
+import org.papercloud.de.pdfdatabase.repository.PageRepository.PageTextView;
+import org.papercloud.de.pdfservice.config.SemanticSearchConfiguration;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for SemanticSearchService.
+ * Tests semantic ranking, hybrid score fusion, paging and snippets.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SemanticSearchService")
+class SemanticSearchServiceTest {
+
+    private static final float[] QUERY_VECTOR = {1f, 0f};
+
+    @Mock
+    private EmbeddingService embeddingService;
+
+    @Mock
+    private VectorIndex vectorIndex;
+
+    @Mock
+    private SearchService searchService;
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private PageRepository pageRepository;
+
+    private SemanticSearchService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new SemanticSearchService(embeddingService, vectorIndex, searchService, documentRepository,
+                pageRepository, new SemanticSearchConfiguration());
+        when(embeddingService.embed(List.of("strom"))).thenReturn(List.of(QUERY_VECTOR));
+        lenient().when(documentRepository.findAllById(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return ids.stream()
+                    .map(id -> DocumentPdfEntity.builder().id(id).title("Doc " + id).build())
+                    .toList();
+        });
+        lenient().when(pageRepository.findPageTexts(anyCollection(), anyCollection())).thenReturn(List.of());
+    }
+
+    private static SearchRequestDTO request(SearchMode mode) {
+        return SearchRequestDTO.builder().query("strom").username("alice").mode(mode).page(0).size(10).build();
+    }
+
+    private static VectorMatchDTO match(long documentId, int page, double score) {
+        return VectorMatchDTO.builder().documentId(documentId).pageNumber(page).offset(0).length(20).score(score).build();
+    }
+
+    private static PageTextView pageText(long documentId, int pageNumber, String text) {
+        PageTextView page = mock(PageTextView.class);
+        when(page.getDocumentId()).thenReturn(documentId);
+        when(page.getPageNumber()).thenReturn(pageNumber);
+        when(page.getPageText()).thenReturn(text);
+        return page;
+    }
+
+    private static DocumentTagView tag(long documentId, String tag) {
+        DocumentTagView view = mock(DocumentTagView.class);
+        when(view.getDocumentId()).thenReturn(documentId);
+        when(view.getTag()).thenReturn(tag);
+        return view;
+    }
+
+    private static SearchHitDTO lexicalHit(long documentId, double score) {
+        return SearchHitDTO.builder().documentId(String.valueOf(documentId)).documentName("Doc " + documentId)
+                .textSnippet("lexical").score(score).build();
+    }
+
+    @Test
+    @DisplayName("should rank documents by their best chunk in semantic mode")
+    void should_rankByBestChunk_when_semanticMode() {
+        // Arrange
+        when(vectorIndex.search(eq("alice"), eq(QUERY_VECTOR), anyInt()))
+                .thenReturn(List.of(match(1L, 1, 0.5), match(2L, 4, 0.9), match(1L, 2, 0.7)));
+        PageTextView page = pageText(2L, 4, "Ihre Stromrechnung für März");
+        when(pageRepository.findPageTexts(anyCollection(), anyCollection())).thenReturn(List.of(page));
+
+        // Act
+        SearchResultDTO result = service.search(request(SearchMode.SEMANTIC));
+
+        // Assert
+        assertThat(result.getHits()).extracting(SearchHitDTO::getDocumentId).containsExactly("2", "1");
+        assertThat(result.getHits().get(0).getPageNumber()).isEqualTo(4);
+        assertThat(result.getHits().get(0).getTextSnippet()).isEqualTo("Ihre Stromrechnung f...");
+        assertThat(result.getHits().get(1).getPageNumber()).isEqualTo(2);
+        assertThat(result.getTotalHits()).isEqualTo(2);
+        verify(pageRepository).findPageTexts(anyCollection(), anyCollection());
+        verifyNoInteractions(searchService);
+    }
+
+    @Test
+    @DisplayName("should drop semantic matches outside the tag and year filters")
+    void should_applyFilters_when_semanticMatchesOutsideFilter() {
+        // Arrange
+        when(vectorIndex.search(eq("alice"), eq(QUERY_VECTOR), anyInt()))
+                .thenReturn(List.of(match(1L, 1, 0.9), match(2L, 1, 0.8), match(3L, 1, 0.7)));
+        when(documentRepository.findIdsInYear(Set.of(1L, 2L, 3L), 2024)).thenReturn(Set.of(2L, 3L));
+        List<DocumentTagView> tags = List.of(tag(2L, "strom"), tag(3L, "strom"), tag(3L, "steuer"));
+        when(documentRepository.findTags(Set.of(2L, 3L))).thenReturn(tags);
+        SearchRequestDTO request = request(SearchMode.SEMANTIC);
+        request.setTags(List.of("strom", "steuer"));
+        request.setYear(2024);
+
+        // Act
+        SearchResultDTO result = service.search(request);
+
+        // Assert
+        assertThat(result.getHits()).extracting(SearchHitDTO::getDocumentId).containsExactly("3");
+        assertThat(result.getTotalHits()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should not look up filters when the request has none")
+    void should_skipFilterLookup_when_noFilters() {
+        // Arrange
+        when(vectorIndex.search(eq("alice"), eq(QUERY_VECTOR), anyInt())).thenReturn(List.of(match(1L, 1, 0.9)));
+
+        // Act
+        service.search(request(SearchMode.SEMANTIC));
+
+        // Assert
+        verify(documentRepository, never()).findIdsInYear(anyCollection(), anyInt());
+        verify(documentRepository, never()).findTags(anyCollection());
+    }
+
+    @Test
+    @DisplayName("should combine normalized lexical and semantic scores in hybrid mode")
+    void should_fuseScores_when_hybridMode() {
+        // Arrange - doc 1 is best lexically, doc 2 semantically, doc 3 is decent on both
+        when(vectorIndex.search(eq("alice"), eq(QUERY_VECTOR), anyInt()))
+                .thenReturn(List.of(match(2L, 1, 0.8), match(3L, 1, 0.7)));
+        when(searchService.search(any(SearchRequestDTO.class))).thenReturn(SearchResultDTO.builder()
+                .hits(List.of(lexicalHit(1L, 10.0), lexicalHit(3L, 9.0), lexicalHit(2L, 2.0)))
+                .totalHits(3).totalPages(1).currentPage(0).build());
+
+        // Act
+        SearchResultDTO result = service.search(request(SearchMode.HYBRID));
+
+        // Assert
+        assertThat(result.getHits()).extracting(SearchHitDTO::getDocumentId).containsExactly("3", "2", "1");
+        assertThat(result.getHits().get(0).getScore()).isCloseTo(0.5 * 0.7 / 0.8 + 0.5 * 0.9, within(1e-9));
+        assertThat(result.getHits().get(1).getScore()).isCloseTo(0.5 + 0.5 * 0.2, within(1e-9));
+        assertThat(result.getHits().get(2).getTextSnippet()).isEqualTo("lexical");
+
+        ArgumentCaptor<SearchRequestDTO> lexicalRequest = ArgumentCaptor.forClass(SearchRequestDTO.class);
+        verify(searchService).search(lexicalRequest.capture());
+        assertThat(lexicalRequest.getValue().getMode()).isEqualTo(SearchMode.LEXICAL);
+        assertThat(lexicalRequest.getValue().getSize()).isEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("should page through the fused ranking")
+    void should_returnRequestedPage_when_pageGiven() {
+        // Arrange
+        when(vectorIndex.search(eq("alice"), eq(QUERY_VECTOR), anyInt()))
+                .thenReturn(List.of(match(1L, 1, 0.9), match(2L, 1, 0.8), match(3L, 1, 0.7)));
+        SearchRequestDTO request = request(SearchMode.SEMANTIC);
+        request.setPage(1);
+        request.setSize(2);
+
+        // Act
+        SearchResultDTO result = service.search(request);
+
+        // Assert
+        assertThat(result.getHits()).extracting(SearchHitDTO::getDocumentId).containsExactly("3");
+        assertThat(result.getTotalPages()).isEqualTo(2);
+        assertThat(result.getCurrentPage()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,124 @@
+package org.papercloud.de.pdfservice.textutils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.papercloud.de.pdfservice.config.EnrichmentContextConfiguration;
+import org.papercloud.de.pdfservice.config.TextCleaningConfiguration;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for EnrichmentContextBuilder.
+ * Tests token budgeting and line selection across pages.
+ */
+@DisplayName("EnrichmentContextBuilder Tests")
+class EnrichmentContextBuilderTest {
+
+    private EnrichmentContextConfiguration config;
+    private EnrichmentContextBuilder builder;
+
+    @BeforeEach
+    void setUp() {
+        config = new EnrichmentContextConfiguration();
+        config.setHeaderLines(2);
+        builder = new EnrichmentContextBuilder(new ConfigurableTextCleaningService(new TextCleaningConfiguration()), config);
+    }
+
+    private static String filler(String prefix, int lines) {
+        return IntStream.range(0, lines)
+                .mapToObj(i -> prefix + " body line number " + i + " with some ordinary words")
+                .collect(Collectors.joining("\n"));
+    }
+
+    @Test
+    @DisplayName("should keep all pages in order when within budget")
+    void should_keepAllText_when_withinBudget() {
+        // Arrange
+        List<String> pages = List.of("Stadtwerke Musterstadt\nRechnung Nr. 42", "Seite 2\nBetrag 12,00 EUR");
+
+        // Act
+        String context = builder.buildContext(pages);
+
+        // Assert
+        assertThat(context).isEqualTo("Stadtwerke Musterstadt Rechnung Nr. 42 Seite 2 Betrag 12,00 EUR");
+    }
+
+    @Test
+    @DisplayName("should stay within the token budget")
+    void should_respectBudget_when_documentIsLarge() {
+        // Arrange
+        config.setTokenBudget(100);
+        List<String> pages = List.of(filler("first", 40), filler("second", 40));
+
+        // Act
+        String context = builder.buildContext(pages);
+
+        // Assert
+        assertThat(builder.estimateTokens(context)).isLessThanOrEqualTo(100);
+        assertThat(context).isNotBlank();
+    }
+
+    @Test
+    @DisplayName("should pick date and subject lines from later pages over body text")
+    void should_preferDateAndSubjectLines_when_overBudget() {
+        // Arrange
+        config.setTokenBudget(80);
+        String firstPage = "Versicherung AG\nKundenservice\n" + filler("first", 30);
+        String secondPage = filler("second", 10) + "\nBetreff: Beitragsanpassung\nHamburg, den 14. März 2024\n"
+                + filler("third", 10);
+
+        // Act
+        String context = builder.buildContext(List.of(firstPage, secondPage));
+
+        // Assert
+        assertThat(context).startsWith("Versicherung AG Kundenservice");
+        assertThat(context).contains("Betreff: Beitragsanpassung", "Hamburg, den 14. März 2024");
+        assertThat(context).doesNotContain("second body line number 5");
+        assertThat(context.indexOf("Betreff")).isLessThan(context.indexOf("Hamburg"));
+    }
+
+    @Test
+    @DisplayName("should recognise numeric dates")
+    void should_selectNumericDateLine_when_overBudget() {
+        // Arrange
+        config.setTokenBudget(40);
+        String page = "Absender GmbH\nKundennummer 123\n" + filler("body", 20) + "\nDatum: 03.02.2025";
+
+        // Act
+        String context = builder.buildContext(List.of(page));
+
+        // Assert
+        assertThat(context).contains("Datum: 03.02.2025");
+    }
+
+    @Test
+    @DisplayName("should cut a single line longer than the budget instead of dropping it")
+    void should_truncateLine_when_singleLineExceedsBudget() {
+        // Arrange
+        config.setTokenBudget(50);
+        String page = "Rechnung Nr. 42 vom 03.02.2025 " + filler("ocr", 40).replace("\n", " ");
+
+        // Act
+        String context = builder.buildContext(List.of(page));
+
+        // Assert
+        assertThat(context).startsWith("Rechnung Nr. 42 vom 03.02.2025");
+        assertThat(builder.estimateTokens(context)).isLessThanOrEqualTo(50);
+        assertThat(builder.estimateTokens(context)).isGreaterThan(40);
+    }
+
+    @Test
+    @DisplayName("should return empty context for blank pages")
+    void should_returnEmpty_when_pagesBlank() {
+        // Act
+        String context = builder.buildContext(List.of("", "   "));
+
+        // Assert
+        assertThat(context).isEmpty();
+    }
+}
@@ -0,0 +1,173 @@
+package org.papercloud.de.pdfservice.textutils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.papercloud.de.core.dto.llm.EnrichmentResultDTO;
+import org.papercloud.de.pdfservice.config.RuleExtractionConfiguration;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for RuleBasedMetadataExtractor.
+ * Tests date, subject, sender and tag rules, confidence scoring and hit metrics.
+ */
+@DisplayName("RuleBasedMetadataExtractor Tests")
+class RuleBasedMetadataExtractorTest {
+
+    private static final String INVOICE = """
+            Stadtwerke Musterstadt GmbH
+            Postfach 12 34, 12345 Musterstadt
+            Rechnung Nr. 2025-0042
+            Abrechnungszeitraum 01.01.2024 - 31.12.2024
+            Musterstadt, den 03.02.2025
+            Ihr Zählerstand wurde erfasst. Der Abschlag für Strom bleibt unverändert.
+            """;
+
+    private RuleExtractionConfiguration config;
+    private SimpleMeterRegistry meterRegistry;
+    private RuleBasedMetadataExtractor extractor;
+
+    @BeforeEach
+    void setUp() {
+        config = new RuleExtractionConfiguration();
+        meterRegistry = new SimpleMeterRegistry();
+        extractor = new RuleBasedMetadataExtractor(config, meterRegistry);
+    }
+
+    @Nested
+    @DisplayName("Rules")
+    class RuleTests {
+
+        @Test
+        @DisplayName("should prefer letter date over period dates")
+        void should_pickLetterDate_when_lineHasDateContext() {
+            // Act
+            RuleBasedMetadataExtractor.Extraction extraction = extractor.extract(List.of(INVOICE));
+
+            // Assert
+            assertThat(extraction.result().getDate_sent()).isEqualTo("03.02.2025");
+        }
+
+        @Test
+        @DisplayName("should parse German month names")
+        void should_parseDate_when_germanMonthName() {
+            // Act
+            RuleBasedMetadataExtractor.Extraction extraction =
+                    extractor.extract(List.of("Hamburg, 14. März 2024\nSehr geehrte Damen und Herren"));
+
+            // Assert
+            assertThat(extraction.result().getDate_sent()).isEqualTo("14.03.2024");
+        }
+
+        @Test
+        @DisplayName("should ignore impossible dates")
+        void should_skipDate_when_invalid() {
+            // Act
+            RuleBasedMetadataExtractor.Extraction extraction = extractor.extract(List.of("Version 31.02.2024 und 1.2.3"));
+
+            // Assert
+            assertThat(extraction.result().getDate_sent()).isNull();
+        }
+
+        @Test
+        @DisplayName("should build title from document type and sender")
+        void should_buildTitle_when_documentTypeAndSenderFound() {
+            // Act
+            RuleBasedMetadataExtractor.Extraction extraction = extractor.extract(List.of(INVOICE));
+
+            // Assert
+            assertThat(extraction.result().getTitle()).isEqualTo("Rechnung Stadtwerke Musterstadt GmbH");
+        }
+
+        @Test
+        @DisplayName("should use subject line as title")
+        void should_useSubject_when_subjectLinePresent() {
+            // Act
+            RuleBasedMetadataExtractor.Extraction extraction =
+                    extractor.extract(List.of("Muster Versicherung AG\nBetreff: Beitragsanpassung 2025\nDatum: 01.12.2024"));
+
+            // Assert
+            assertThat(extraction.result().getTitle()).isEqualTo("Beitragsanpassung 2025");
+        }
+
+        @Test
+        @DisplayName("should assign tags from keyword dictionaries")
+        void should_assignTags_when_keywordsPresent() {
+            // Act
+            RuleBasedMetadataExtractor.Extraction extraction = extractor.extract(List.of(INVOICE));
+
+            // Assert
+            assertThat(extraction.result().getTagNames()).containsExactly("rechnung", "energie");
+        }
+
+        @Test
+        @DisplayName("should not match keywords inside other words")
+        void should_notMatchTag_when_keywordIsPartOfWord() {
+            // Act
+            RuleBasedMetadataExtractor.Extraction extraction = extractor.extract(List.of("Sehr geehrte Damen\nAgenda"));
+
+            // Assert
+            assertThat(extraction.result().getTagNames()).isEmpty();
+            assertThat(extraction.confidence()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Confidence")
+    class ConfidenceTests {
+
+        @Test
+        @DisplayName("should return result when confidence reaches threshold")
+        void should_returnResult_when_confident() {
+            // Act
+            Optional<EnrichmentResultDTO> result = extractor.tryExtract(List.of(INVOICE));
+
+            // Assert
+            assertThat(result).isPresent();
+            assertThat(meterRegistry.counter("enrichment.rules.accepted").count()).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("should return empty when confidence is below threshold")
+        void should_returnEmpty_when_notConfident() {
+            // Act
+            Optional<EnrichmentResultDTO> result = extractor.tryExtract(List.of("Liebe Oma,\nvielen Dank für das Paket."));
+
+            // Assert
+            assertThat(result).isEmpty();
+            assertThat(meterRegistry.counter("enrichment.rules.evaluations").count()).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("should return empty when disabled")
+        void should_returnEmpty_when_disabled() {
+            // Arrange
+            config.setEnabled(false);
+
+            // Act
+            Optional<EnrichmentResultDTO> result = extractor.tryExtract(List.of(INVOICE));
+
+            // Assert
+            assertThat(result).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should count hits per rule")
+        void should_countRuleHits_when_extracting() {
+            // Act
+            extractor.extract(List.of(INVOICE));
+            extractor.extract(List.of("Hamburg, 14. März 2024"));
+
+            // Assert
+            assertThat(meterRegistry.counter("enrichment.rules.hits", "rule", "date").count()).isEqualTo(2.0);
+            assertThat(meterRegistry.counter("enrichment.rules.hits", "rule", "document_type").count()).isEqualTo(1.0);
+            assertThat(meterRegistry.counter("enrichment.rules.hits", "rule", "subject").count()).isZero();
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package org.papercloud.de.core.domain;
+
+public enum ReindexStatus {
+    RUNNING,
+    PAUSED,
+    FAILED,
+    COMPLETED,
+    CANCELLED
+}
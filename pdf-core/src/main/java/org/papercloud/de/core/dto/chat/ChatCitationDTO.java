@@ -0,0 +1,22 @@
+package org.papercloud.de.core.dto.chat;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A page passage that was given to the model as context. {@code index} is the number the
+ * answer uses to cite it, e.g. {@code [2]}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatCitationDTO {
+    private int index;
+    private Long documentId;
+    private String documentName;
+    private int pageNumber;
+    private String snippet;
+}
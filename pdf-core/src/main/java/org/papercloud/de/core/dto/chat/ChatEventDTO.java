@@ -0,0 +1,46 @@
+package org.papercloud.de.core.dto.chat;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One event of a streamed chat answer. A stream starts with the citations, continues with
+ * answer tokens and ends with either a done or an error event.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatEventDTO {
+
+    public enum Type {
+        CITATIONS,
+        TOKEN,
+        DONE,
+        ERROR
+    }
+
+    private Type type;
+    private String text;
+    private List<ChatCitationDTO> citations;
+
+    public static ChatEventDTO citations(List<ChatCitationDTO> citations) {
+        return ChatEventDTO.builder().type(Type.CITATIONS).citations(citations).build();
+    }
+
+    public static ChatEventDTO token(String text) {
+        return ChatEventDTO.builder().type(Type.TOKEN).text(text).build();
+    }
+
+    public static ChatEventDTO done() {
+        return ChatEventDTO.builder().type(Type.DONE).build();
+    }
+
+    public static ChatEventDTO error(String message) {
+        return ChatEventDTO.builder().type(Type.ERROR).text(message).build();
+    }
+}
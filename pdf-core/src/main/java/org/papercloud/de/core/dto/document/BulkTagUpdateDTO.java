@@ -0,0 +1,21 @@
+package org.papercloud.de.core.dto.document;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/** Tags to add to and remove from every listed document. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTagUpdateDTO {
+    @NotEmpty(message = "At least one document id is required")
+    private List<Long> documentIds;
+    private List<String> add;
+    private List<String> remove;
+}
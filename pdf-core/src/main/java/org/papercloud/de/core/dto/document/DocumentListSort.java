@@ -0,0 +1,7 @@
+package org.papercloud.de.core.dto.document;
+
+/** Order of the document listing; documents uploaded at the same time are ordered by id. */
+public enum DocumentListSort {
+    NEWEST,
+    OLDEST
+}
@@ -0,0 +1,23 @@
+package org.papercloud.de.core.dto.document;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/** New title and/or tags of one document; a null field is left unchanged. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentMetadataUpdateDTO {
+    @NotNull(message = "Document id is required")
+    private Long documentId;
+    @Size(max = 255, message = "Title must be at most 255 characters")
+    private String title;
+    private List<String> tags;
+}
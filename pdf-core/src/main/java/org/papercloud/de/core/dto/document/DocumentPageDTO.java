@@ -0,0 +1,15 @@
+package org.papercloud.de.core.dto.document;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/** One page of the user's documents. */
+@Data
+@Builder
+public class DocumentPageDTO {
+    private List<DocumentListItemDTO> documents;
+    /** Pass as {@code cursor} to get the next page; null on the last page. */
+    private String nextCursor;
+}
@@ -0,0 +1,11 @@
+package org.papercloud.de.core.dto.llm;
+
+/**
+ * Scheduling priority of an enrichment request.
+ * Adapters with limited capacity serve higher priorities first.
+ */
+public enum EnrichmentPriority {
+    HIGH,
+    NORMAL,
+    LOW
+}
@@ -0,0 +1,21 @@
+package org.papercloud.de.core.dto.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Embedding of one chunk of a page. {@code offset} and {@code length} locate the chunk
+ * within the page text.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChunkVectorDTO {
+    private int pageNumber;
+    private int offset;
+    private int length;
+    private float[] vector;
+}
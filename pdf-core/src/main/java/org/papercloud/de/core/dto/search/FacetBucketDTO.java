@@ -0,0 +1,16 @@
+package org.papercloud.de.core.dto.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** One value of a facet and the number of matching documents that have it. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetBucketDTO {
+    private String value;
+    private long count;
+}
@@ -0,0 +1,21 @@
+package org.papercloud.de.core.dto.search;
+
+import lombok.Builder;
+import lombok.Data;
+import org.papercloud.de.core.dto.document.DocumentListItemDTO;
+
+import java.util.List;
+
+/** One page of documents together with the tag and year facets of all matches. */
+@Data
+@Builder
+public class FacetedSearchResultDTO {
+    private List<DocumentListItemDTO> documents;
+    private long totalHits;
+    private int totalPages;
+    private int currentPage;
+    private List<FacetBucketDTO> tags;
+    private List<FacetBucketDTO> years;
+    /** Pass as {@code cursor} to get the next page; null on the last page. */
+    private String nextCursor;
+}
@@ -18,5 +18,7 @@ public class IndexableDocumentDTO {
     private List<String> tags;
     private int year;
     private String fullText;
+    /** The non-blank pages, indexed separately so hits can be highlighted per page. */
+    private List<IndexablePageDTO> pages;
     private String username;
 }
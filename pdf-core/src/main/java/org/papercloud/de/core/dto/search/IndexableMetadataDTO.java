@@ -0,0 +1,21 @@
+package org.papercloud.de.core.dto.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/** The fields of an {@link IndexableDocumentDTO} that can change without its text. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IndexableMetadataDTO {
+    private Long id;
+    private String fileName;
+    private List<String> tags;
+    private int year;
+    private String username;
+}
@@ -0,0 +1,15 @@
+package org.papercloud.de.core.dto.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IndexablePageDTO {
+    private int pageNumber;
+    private String text;
+}
@@ -0,0 +1,31 @@
+package org.papercloud.de.core.dto.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.papercloud.de.core.domain.ReindexStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a search index rebuild. Documents are copied in id order, so
+ * {@code lastDocumentId} is where an interrupted rebuild picks up again.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReindexProgressDTO {
+    private Long jobId;
+    private String index;
+    private ReindexStatus status;
+    private long totalDocuments;
+    private long processedDocuments;
+    private long failedDocuments;
+    private Long lastDocumentId;
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
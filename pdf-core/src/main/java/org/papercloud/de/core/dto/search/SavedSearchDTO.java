@@ -0,0 +1,28 @@
+package org.papercloud.de.core.dto.search;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/** A search the user wants to be alerted about when a new document matches it. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SavedSearchDTO {
+    private Long id;
+    @NotBlank(message = "Name is required")
+    @Size(max = 100, message = "Name must be at most 100 characters")
+    private String name;
+    @Size(max = 500, message = "Query must be at most 500 characters")
+    private String query;
+    private List<String> tags;
+    private Integer year;
+    private LocalDateTime createdAt;
+}
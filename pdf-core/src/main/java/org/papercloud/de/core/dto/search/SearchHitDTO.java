@@ -10,4 +10,5 @@ public class SearchHitDTO {
     private String documentName;
     private int pageNumber;
     private String textSnippet;
+    private double score;
 }
@@ -0,0 +1,13 @@
+package org.papercloud.de.core.dto.search;
+
+/**
+ * How a search query is matched against documents.
+ */
+public enum SearchMode {
+    /** Full-text match on the indexed words. */
+    LEXICAL,
+    /** Nearest neighbours of the query embedding among the page chunk embeddings. */
+    SEMANTIC,
+    /** Weighted combination of the lexical and semantic scores. */
+    HYBRID
+}
@@ -0,0 +1,23 @@
+package org.papercloud.de.core.dto.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/** A new document that matched one of the user's saved searches. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchNotificationDTO {
+    private Long id;
+    private Long savedSearchId;
+    private String savedSearchName;
+    private Long documentId;
+    private String documentTitle;
+    private LocalDateTime createdAt;
+    private boolean read;
+}
@@ -18,4 +18,12 @@ public class SearchRequestDTO {
     private String username;
     private Integer page;
     private Integer size;
+    private SearchMode mode;
+    /** Opaque cursor from a previous result; takes the place of {@code page} when set. */
+    private String cursor;
+    /**
+     * Whether the result should carry a cursor for the following page. Costs a point in time
+     * on the search index, so only set it when the caller pages on.
+     */
+    private boolean withCursor;
 }
@@ -12,4 +12,12 @@ public class SearchResultDTO {
     private long totalHits;
     private int totalPages;
     private int currentPage;
+    /** Most frequent tags among all matches, not only the current page; empty if not computed. */
+    @Builder.Default
+    private List<FacetBucketDTO> tagFacets = List.of();
+    /** Number of matches per document year, in ascending year order; empty if not computed. */
+    @Builder.Default
+    private List<FacetBucketDTO> yearFacets = List.of();
+    /** Cursor for the next page, or null on the last page or when not supported. */
+    private String nextCursor;
 }
@@ -0,0 +1,24 @@
+package org.papercloud.de.core.dto.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** A completion for a partially typed query: a document title or a tag. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionDTO {
+
+    public enum Kind {
+        DOCUMENT,
+        TAG
+    }
+
+    private Kind kind;
+    private String text;
+    /** Set for {@link Kind#DOCUMENT} suggestions only. */
+    private Long documentId;
+}
@@ -0,0 +1,21 @@
+package org.papercloud.de.core.dto.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A page chunk returned by a nearest-neighbour query, with its cosine similarity to the query.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VectorMatchDTO {
+    private Long documentId;
+    private int pageNumber;
+    private int offset;
+    private int length;
+    private double score;
+}
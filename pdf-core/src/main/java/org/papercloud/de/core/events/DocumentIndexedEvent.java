@@ -0,0 +1,4 @@
+package org.papercloud.de.core.events;
+
+/** The search index holds the document's latest contents; {@code username} is its owner. */
+public record DocumentIndexedEvent(Long documentId, String username) {}
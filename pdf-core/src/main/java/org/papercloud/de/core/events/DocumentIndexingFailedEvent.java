@@ -0,0 +1,3 @@
+package org.papercloud.de.core.events;
+
+public record DocumentIndexingFailedEvent(Long documentId, String reason) {}
@@ -0,0 +1,4 @@
+package org.papercloud.de.core.events;
+
+/** Title, tags or date of a document changed; its page text did not. */
+public record DocumentMetadataChangedEvent(Long documentId) {}
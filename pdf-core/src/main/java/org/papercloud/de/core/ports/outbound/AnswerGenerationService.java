@@ -0,0 +1,18 @@
+package org.papercloud.de.core.ports.outbound;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Port interface for generating free-text answers with an LLM.
+ * Implementations stream the answer as it is generated.
+ */
+public interface AnswerGenerationService {
+
+    /**
+     * Generates an answer to the given prompt.
+     *
+     * @param prompt the complete prompt, including any retrieved context
+     * @return the answer in the fragments the model emits them, in order
+     */
+    Flux<String> streamAnswer(String prompt);
+}
@@ -0,0 +1,25 @@
+package org.papercloud.de.core.ports.outbound;
+
+import java.util.List;
+
+/**
+ * Port interface for computing text embeddings.
+ * Implementations may call an embedding model or compute embeddings locally.
+ */
+public interface EmbeddingService {
+
+    /**
+     * Computes one embedding per text, in the order of the input.
+     *
+     * @param texts the texts to embed
+     * @return the embeddings; all of the same dimension
+     */
+    List<float[]> embed(List<String> texts);
+
+    /**
+     * Identifies the model behind the embeddings. Vectors from different models are not comparable.
+     *
+     * @return the model name
+     */
+    String getModelName();
+}
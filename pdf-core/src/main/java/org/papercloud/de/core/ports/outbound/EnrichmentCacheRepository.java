@@ -0,0 +1,16 @@
+package org.papercloud.de.core.ports.outbound;
+
+import org.papercloud.de.core.dto.llm.EnrichmentResultDTO;
+
+import java.util.Optional;
+
+/**
+ * Port interface for the persistent tier of the enrichment result cache.
+ * Keys are opaque hashes built by the enrichment adapter.
+ */
+public interface EnrichmentCacheRepository {
+
+    Optional<EnrichmentResultDTO> findByCacheKey(String cacheKey);
+
+    void save(String cacheKey, EnrichmentResultDTO result);
+}
@@ -1,5 +1,6 @@
 package org.papercloud.de.core.ports.outbound;
 
+import org.papercloud.de.core.dto.llm.EnrichmentPriority;
 import org.papercloud.de.core.dto.llm.EnrichmentResultDTO;
 import reactor.core.publisher.Mono;
 
@@ -17,4 +18,16 @@ public interface EnrichmentService {
      * @return a Mono containing the enrichment result
      */
     Mono<EnrichmentResultDTO> enrichTextAsync(String plainText);
+
+    /**
+     * Enriches the given text with an explicit scheduling priority.
+     * Implementations without a request queue may ignore the priority.
+     *
+     * @param plainText the text to enrich
+     * @param priority  the scheduling priority of this request
+     * @return a Mono containing the enrichment result
+     */
+    default Mono<EnrichmentResultDTO> enrichTextAsync(String plainText, EnrichmentPriority priority) {
+        return enrichTextAsync(plainText);
+    }
 }
@@ -0,0 +1,39 @@
+package org.papercloud.de.core.ports.outbound;
+
+import java.util.List;
+
+/**
+ * Port interface for matching new documents against saved searches.
+ * <p>
+ * Saved searches are stored as queries and a document is matched against all of them in a
+ * single request, instead of running every saved search once per new document.
+ */
+public interface SavedSearchIndex {
+
+    /**
+     * Stores or replaces the query of a saved search. At least one criterion has to be set.
+     *
+     * @param savedSearchId the ID of the saved search
+     * @param username      the owner; the query only ever matches this user's documents
+     * @param query         words that all have to appear in the text or title; may be null
+     * @param tags          tags that all have to be present; may be empty
+     * @param year          the year of the document; may be null
+     */
+    void saveQuery(Long savedSearchId, String username, String query, List<String> tags, Integer year);
+
+    /**
+     * Removes the query of a saved search.
+     *
+     * @param savedSearchId the ID of the saved search
+     */
+    void deleteQuery(Long savedSearchId);
+
+    /**
+     * Matches an indexed document against the saved searches of its owner.
+     *
+     * @param documentId the ID of a document in the search index
+     * @param username   the owner of the document
+     * @return the IDs of the saved searches the document matches
+     */
+    List<Long> match(Long documentId, String username);
+}
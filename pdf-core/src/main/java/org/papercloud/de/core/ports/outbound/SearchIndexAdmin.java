@@ -0,0 +1,56 @@
+package org.papercloud.de.core.ports.outbound;
+
+import org.papercloud.de.core.dto.search.IndexableDocumentDTO;
+
+import java.util.List;
+
+/**
+ * Port interface for rebuilding the search index without taking search offline.
+ * <p>
+ * A rebuild creates a new index with the current mapping next to the live one. From then on
+ * every write sent through {@link SearchService} reaches both indices, so documents that
+ * change while the rebuild copies the database are caught up without a second pass. Once
+ * the copy is done the new index replaces the live one in a single step.
+ */
+public interface SearchIndexAdmin {
+
+    /**
+     * Creates a new index and starts sending live writes to it as well.
+     *
+     * @return the name of the new index
+     * @throws SearchRebuildConflictException if another rebuild is already running
+     */
+    String beginRebuild();
+
+    /**
+     * Resumes sending live writes to an index from an interrupted rebuild.
+     *
+     * @param index the name returned by {@link #beginRebuild()}
+     * @return false if the index no longer exists and the rebuild has to start over
+     */
+    boolean resumeRebuild(String index);
+
+    /**
+     * Writes documents into the index being rebuilt. A document that already received a
+     * live write is left alone, since the live write is at least as recent.
+     *
+     * @param index     the index being rebuilt
+     * @param documents the documents to write
+     * @return the IDs of the documents that could not be written
+     */
+    List<Long> writeRebuildBatch(String index, List<IndexableDocumentDTO> documents);
+
+    /**
+     * Makes the rebuilt index the live one and drops the indices it replaces.
+     *
+     * @param index the index being rebuilt
+     */
+    void completeRebuild(String index);
+
+    /**
+     * Stops sending live writes to the rebuilt index and deletes it.
+     *
+     * @param index the index being rebuilt
+     */
+    void abortRebuild(String index);
+}
@@ -0,0 +1,39 @@
+package org.papercloud.de.core.ports.outbound;
+
+import org.papercloud.de.core.dto.search.IndexableDocumentDTO;
+
+import java.util.List;
+
+/**
+ * Port interface for the local copy of the search index that answers searches while the
+ * search engine is unavailable.
+ * <p>
+ * Live writes reach the mirror through {@link SearchService}. Documents indexed before the
+ * mirror existed, or by another instance with its own mirror, are copied in from the
+ * database by a backfill, which leaves documents that received a live write meanwhile alone.
+ */
+public interface SearchIndexMirror {
+
+    /**
+     * @return the number of documents in the mirror
+     */
+    long countDocuments();
+
+    /**
+     * Starts tracking live writes so that {@link #writeBackfillBatch} does not overwrite them.
+     */
+    void beginBackfill();
+
+    /**
+     * Writes documents into the mirror unless they received a live write since the backfill began.
+     *
+     * @param documents the documents to write
+     * @return the IDs of the documents that could not be written
+     */
+    List<Long> writeBackfillBatch(List<IndexableDocumentDTO> documents);
+
+    /**
+     * Stops tracking live writes and makes the copied documents durable.
+     */
+    void endBackfill();
+}
@@ -0,0 +1,12 @@
+package org.papercloud.de.core.ports.outbound;
+
+/**
+ * Thrown when a search index rebuild is started, paused or cancelled while the rebuild is not
+ * in a state that allows it, e.g. when another rebuild is already running.
+ */
+public class SearchRebuildConflictException extends IllegalStateException {
+
+    public SearchRebuildConflictException(String message) {
+        super(message);
+    }
+}
@@ -3,6 +3,10 @@ package org.papercloud.de.core.ports.outbound;
 import org.papercloud.de.core.dto.search.SearchRequestDTO;
 import org.papercloud.de.core.dto.search.SearchResultDTO;
 import org.papercloud.de.core.dto.search.IndexableDocumentDTO;
+import org.papercloud.de.core.dto.search.IndexableMetadataDTO;
+import org.papercloud.de.core.dto.search.SuggestionDTO;
+
+import java.util.List;
 
 /**
  * Port interface for document search and indexing.
@@ -12,11 +16,22 @@ public interface SearchService {
 
     /**
      * Indexes a document for full-text search.
+     * Implementations may buffer the operation; the outcome is then published as a
+     * {@code DocumentIndexedEvent} or {@code DocumentIndexingFailedEvent}.
      *
      * @param document the document to index
      */
     void indexDocument(IndexableDocumentDTO document);
 
+    /**
+     * Updates title, tags and year of an indexed document without re-sending its text.
+     * The outcome is published like that of {@link #indexDocument}; a document that is not
+     * in the index fails.
+     *
+     * @param metadata the new metadata of the document
+     */
+    void updateMetadata(IndexableMetadataDTO metadata);
+
     /**
      * Searches for documents matching the given request.
      *
@@ -25,10 +40,22 @@ public interface SearchService {
      */
     SearchResultDTO search(SearchRequestDTO request);
 
+    /**
+     * Completes a partially typed query from the titles and tags of the user's documents.
+     * Meant to be called on every keystroke, so it only reads the search index.
+     *
+     * @param username the owner of the documents
+     * @param prefix   what the user typed so far
+     * @param size     the maximum number of document and of tag suggestions
+     * @return document suggestions first, then tag suggestions
+     */
+    List<SuggestionDTO> suggest(String username, String prefix, int size);
+
     /**
      * Deletes a document from the search index.
      *
      * @param documentId the ID of the document to delete
+     * @param username   the owner of the document, used to route the delete
      */
-    void deleteDocument(Long documentId);
+    void deleteDocument(Long documentId, String username);
 }
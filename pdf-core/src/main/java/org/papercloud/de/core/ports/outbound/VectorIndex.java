@@ -0,0 +1,40 @@
+package org.papercloud.de.core.ports.outbound;
+
+import org.papercloud.de.core.dto.search.ChunkVectorDTO;
+import org.papercloud.de.core.dto.search.VectorMatchDTO;
+
+import java.util.List;
+
+/**
+ * Port interface for nearest-neighbour search over page chunk embeddings.
+ * Vectors are partitioned by user; a query only sees the vectors of its own user.
+ */
+public interface VectorIndex {
+
+    /**
+     * Replaces all vectors of a document with the given chunks.
+     *
+     * @param username   the owner of the document
+     * @param documentId the ID of the document
+     * @param chunks     the chunk embeddings of the document
+     */
+    void replaceDocument(String username, Long documentId, List<ChunkVectorDTO> chunks);
+
+    /**
+     * Returns the chunks most similar to the query vector.
+     *
+     * @param username the user whose vectors are searched
+     * @param query    the query embedding
+     * @param limit    the maximum number of matches
+     * @return the matches, most similar first
+     */
+    List<VectorMatchDTO> search(String username, float[] query, int limit);
+
+    /**
+     * Removes all vectors of a document.
+     *
+     * @param username   the owner of the document
+     * @param documentId the ID of the document
+     */
+    void deleteDocument(String username, Long documentId);
+}
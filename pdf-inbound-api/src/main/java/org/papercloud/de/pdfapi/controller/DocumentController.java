@@ -2,13 +2,24 @@ package org.papercloud.de.pdfapi.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.papercloud.de.core.domain.UploadSource;
 import org.papercloud.de.core.dto.audit.AuditEntryDTO;
+import org.papercloud.de.core.dto.chat.ChatEventDTO;
+import org.papercloud.de.core.dto.document.BulkTagUpdateDTO;
 import org.papercloud.de.core.dto.document.DocumentDTO;
 import org.papercloud.de.core.dto.document.DocumentDownloadDTO;
 import org.papercloud.de.core.dto.document.DocumentListItemDTO;
+import org.papercloud.de.core.dto.document.DocumentListSort;
+import org.papercloud.de.core.dto.document.DocumentMetadataUpdateDTO;
+import org.papercloud.de.core.dto.document.DocumentPageDTO;
+import org.papercloud.de.core.dto.search.FacetedSearchResultDTO;
+import org.papercloud.de.core.dto.search.SearchMode;
+import org.papercloud.de.core.dto.search.SearchRequestDTO;
+import org.papercloud.de.core.dto.search.SuggestionDTO;
 import org.papercloud.de.pdfservice.service.AuditService;
+import org.papercloud.de.pdfservice.service.DocumentChatService;
 import org.papercloud.de.pdfservice.service.DocumentService;
 import org.papercloud.de.pdfservice.textutils.FolderScannerService;
 import org.slf4j.Logger;
@@ -16,12 +27,15 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Flux;
 
 import java.nio.file.AccessDeniedException;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 @RestController
@@ -34,6 +48,7 @@ public class DocumentController {
     private final DocumentService documentService;
     private final FolderScannerService folderScannerService;
     private final AuditService auditService;
+    private final DocumentChatService documentChatService;
 
     @Operation(summary = "Upload a PDF document")
     @PostMapping("/upload")
@@ -71,13 +86,71 @@ public class DocumentController {
                 .body(document.getContent());
     }
 
-    @Operation(summary = "Search documents")
+    @Operation(summary = "List documents by upload time. "
+            + "Pass the nextCursor of a page as cursor to get the following page")
+    @GetMapping
+    public ResponseEntity<DocumentPageDTO> listDocuments(
+            @RequestParam(value = "sort", defaultValue = "NEWEST") DocumentListSort sort,
+            @RequestParam(value = "size", defaultValue = "50") int size,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            Authentication authentication
+    ) {
+        return ResponseEntity.ok(documentService.listDocuments(authentication.getName(), sort, size, cursor));
+    }
+
+    @Operation(summary = "Search documents; without a query the newest 50 documents are returned")
     @GetMapping("/search")
     public ResponseEntity<List<DocumentListItemDTO>> searchDocuments(
             @RequestParam(value = "q", required = false) String query,
+            @RequestParam(value = "mode", defaultValue = "LEXICAL") SearchMode mode,
             Authentication authentication
     ) {
-        return ResponseEntity.ok(documentService.searchDocuments(authentication.getName(), query));
+        return ResponseEntity.ok(documentService.searchDocuments(authentication.getName(), query, mode));
+    }
+
+    @Operation(summary = "Search documents filtered by tags and year, with tag and year facets. "
+            + "Pass the nextCursor of a result as cursor to get the following page")
+    @GetMapping("/search/faceted")
+    public ResponseEntity<FacetedSearchResultDTO> searchWithFacets(
+            @RequestParam(value = "q", required = false) String query,
+            @RequestParam(value = "tags", required = false) List<String> tags,
+            @RequestParam(value = "year", required = false) Integer year,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            Authentication authentication
+    ) {
+        SearchRequestDTO request = SearchRequestDTO.builder()
+                .query(query)
+                .tags(tags)
+                .year(year)
+                .page(page)
+                .size(size)
+                .cursor(cursor)
+                .build();
+        return ResponseEntity.ok(documentService.searchWithFacets(authentication.getName(), request));
+    }
+
+    @Operation(summary = "Suggest document titles and tags for a partially typed query")
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDTO>> suggest(
+            @RequestParam("q") String prefix,
+            @RequestParam(value = "size", defaultValue = "5") int size,
+            Authentication authentication
+    ) {
+        return ResponseEntity.ok(documentService.suggest(authentication.getName(), prefix, size));
+    }
+
+    @Operation(summary = "Ask a question about your documents; the answer is streamed as server-sent events")
+    @GetMapping(value = "/chat", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ChatEventDTO>> chat(
+            @RequestParam("q") String question,
+            Authentication authentication
+    ) {
+        return documentChatService.chat(authentication.getName(), question)
+                .map(event -> ServerSentEvent.builder(event)
+                        .event(event.getType().name().toLowerCase(Locale.ROOT))
+                        .build());
     }
 
     @Operation(summary = "List favourite documents")
@@ -100,6 +173,22 @@ public class DocumentController {
         return ResponseEntity.noContent().build();
     }
 
+    @Operation(summary = "Change title and/or tags of several documents")
+    @PatchMapping("/metadata")
+    public ResponseEntity<Map<String, Integer>> updateMetadata(
+            @RequestBody List<DocumentMetadataUpdateDTO> updates, Authentication authentication) {
+        int updated = documentService.updateMetadata(authentication.getName(), updates);
+        return ResponseEntity.ok(Map.of("updated", updated));
+    }
+
+    @Operation(summary = "Add and remove tags on several documents")
+    @PostMapping("/tags")
+    public ResponseEntity<Map<String, Integer>> updateTags(
+            @Valid @RequestBody BulkTagUpdateDTO update, Authentication authentication) {
+        int updated = documentService.updateTags(authentication.getName(), update);
+        return ResponseEntity.ok(Map.of("updated", updated));
+    }
+
     @Operation(summary = "Get audit log for a document")
     @GetMapping("/{id}/audit")
     public ResponseEntity<List<AuditEntryDTO>> getAuditLog(
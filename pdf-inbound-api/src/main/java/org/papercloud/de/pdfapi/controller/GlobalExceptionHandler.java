@@ -2,6 +2,7 @@ package org.papercloud.de.pdfapi.controller;
 
 import java.util.Map;
 
+import org.papercloud.de.core.ports.outbound.SearchRebuildConflictException;
 import org.papercloud.de.pdfservice.errors.DocumentNotFoundException;
 import org.papercloud.de.pdfservice.errors.DocumentUploadException;
 import org.papercloud.de.pdfservice.errors.InvalidDocumentException;
@@ -71,6 +72,11 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(Map.of("error", exception.getMessage()));
     }
 
+    @ExceptionHandler(SearchRebuildConflictException.class)
+    public ResponseEntity<Map<String, String>> handleSearchRebuildConflict(SearchRebuildConflictException exception) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", exception.getMessage()));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleMethodArgumentNotValid(MethodArgumentNotValidException exception) {
         String message = exception.getBindingResult().getFieldErrors().stream()
@@ -0,0 +1,59 @@
+package org.papercloud.de.pdfapi.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.papercloud.de.core.dto.search.SavedSearchDTO;
+import org.papercloud.de.core.dto.search.SearchNotificationDTO;
+import org.papercloud.de.pdfservice.service.SavedSearchService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/saved-searches")
+@Tag(name = "Saved Searches", description = "APIs for saved searches and the notifications they raise for new documents")
+@RequiredArgsConstructor
+public class SavedSearchController {
+
+    private final SavedSearchService savedSearchService;
+
+    @Operation(summary = "List your saved searches")
+    @GetMapping
+    public ResponseEntity<List<SavedSearchDTO>> list(Authentication authentication) {
+        return ResponseEntity.ok(savedSearchService.list(authentication.getName()));
+    }
+
+    @Operation(summary = "Save a search to be notified about new documents that match it")
+    @PostMapping
+    public ResponseEntity<SavedSearchDTO> create(@Valid @RequestBody SavedSearchDTO request, Authentication authentication) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(savedSearchService.create(authentication.getName(), request));
+    }
+
+    @Operation(summary = "Delete a saved search and its notifications")
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable("id") Long id, Authentication authentication) {
+        savedSearchService.delete(authentication.getName(), id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "List new documents that matched your saved searches")
+    @GetMapping("/notifications")
+    public ResponseEntity<List<SearchNotificationDTO>> listNotifications(
+            @RequestParam(value = "unread", defaultValue = "false") boolean unreadOnly,
+            Authentication authentication
+    ) {
+        return ResponseEntity.ok(savedSearchService.listNotifications(authentication.getName(), unreadOnly));
+    }
+
+    @Operation(summary = "Mark notifications as read")
+    @PostMapping("/notifications/read")
+    public ResponseEntity<Map<String, Integer>> markRead(@RequestBody List<Long> ids, Authentication authentication) {
+        return ResponseEntity.ok(Map.of("updated", savedSearchService.markRead(authentication.getName(), ids)));
+    }
+}
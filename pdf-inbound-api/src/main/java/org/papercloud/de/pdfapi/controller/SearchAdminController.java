@@ -0,0 +1,44 @@
+package org.papercloud.de.pdfapi.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.papercloud.de.core.dto.search.ReindexProgressDTO;
+import org.papercloud.de.pdfservice.processor.SearchReindexJob;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/search")
+@Tag(name = "Search Administration", description = "APIs for maintaining the search index")
+@RequiredArgsConstructor
+public class SearchAdminController {
+
+    private final SearchReindexJob searchReindexJob;
+
+    @Operation(summary = "Rebuild the search index from the database, or resume the last rebuild")
+    @PostMapping("/reindex")
+    public ResponseEntity<ReindexProgressDTO> startReindex() {
+        return ResponseEntity.accepted().body(searchReindexJob.start());
+    }
+
+    @Operation(summary = "Get the progress of the latest search index rebuild")
+    @GetMapping("/reindex")
+    public ResponseEntity<ReindexProgressDTO> getReindexProgress() {
+        return searchReindexJob.getProgress()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Pause the running search index rebuild")
+    @PostMapping("/reindex/pause")
+    public ResponseEntity<ReindexProgressDTO> pauseReindex() {
+        return ResponseEntity.ok(searchReindexJob.pause());
+    }
+
+    @Operation(summary = "Cancel a paused or failed search index rebuild and delete its index")
+    @DeleteMapping("/reindex")
+    public ResponseEntity<ReindexProgressDTO> cancelReindex() {
+        return ResponseEntity.ok(searchReindexJob.cancel());
+    }
+}
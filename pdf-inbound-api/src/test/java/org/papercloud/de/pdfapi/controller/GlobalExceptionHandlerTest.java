@@ -4,6 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.papercloud.de.core.ports.outbound.SearchRebuildConflictException;
 import org.papercloud.de.pdfservice.errors.DocumentNotFoundException;
 import org.papercloud.de.pdfservice.errors.DocumentUploadException;
 import org.papercloud.de.pdfservice.errors.InvalidDocumentException;
@@ -13,6 +14,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
 import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 import java.util.Map;
@@ -221,6 +223,39 @@ class GlobalExceptionHandlerTest {
         }
     }
 
+    @Nested
+    @DisplayName("SearchRebuildConflictException handling")
+    class SearchRebuildConflictExceptionTests {
+
+        @Test
+        @DisplayName("should return 409 CONFLICT with error message")
+        void handleSearchRebuildConflict_shouldReturnConflict() {
+            // Arrange
+            SearchRebuildConflictException exception =
+                    new SearchRebuildConflictException("A search index rebuild is already running");
+
+            // Act
+            ResponseEntity<Map<String, String>> response = exceptionHandler.handleSearchRebuildConflict(exception);
+
+            // Assert
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+            assertThat(response.getBody()).containsEntry("error", "A search index rebuild is already running");
+        }
+
+        @Test
+        @DisplayName("should leave other IllegalStateExceptions to the generic handler")
+        void illegalState_shouldResolveToFallback() {
+            // Arrange
+            ExceptionHandlerMethodResolver resolver = new ExceptionHandlerMethodResolver(GlobalExceptionHandler.class);
+
+            // Act & Assert
+            assertThat(resolver.resolveMethod(new IllegalStateException("Timeout on blocking read")).getName())
+                    .isEqualTo("handleFallback");
+            assertThat(resolver.resolveMethod(new SearchRebuildConflictException("conflict")).getName())
+                    .isEqualTo("handleSearchRebuildConflict");
+        }
+    }
+
     @Nested
     @DisplayName("Generic Exception handling")
     class GenericExceptionTests {
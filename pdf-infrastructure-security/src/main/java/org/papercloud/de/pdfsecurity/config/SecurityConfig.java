@@ -46,7 +46,9 @@ public class SecurityConfig {
                     .requestMatchers("/api/documents/ping").permitAll()
                     // 2c. All other /api/documents/** endpoints require a valid JWT
                     .requestMatchers("/api/documents/**").authenticated()
-                    // 2d. (Catch-all) any other request also needs authentication
+                    // 2d. Index maintenance is limited to administrators
+                    .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                    // 2e. (Catch-all) any other request also needs authentication
                     .anyRequest().authenticated()
             )
 
@@ -0,0 +1,53 @@
+package org.papercloud.de.pdfdatabase.adapter;
+
+import lombok.RequiredArgsConstructor;
+import org.papercloud.de.core.dto.llm.EnrichmentResultDTO;
+import org.papercloud.de.core.ports.outbound.EnrichmentCacheRepository;
+import org.papercloud.de.pdfdatabase.entity.EnrichmentCacheEntity;
+import org.papercloud.de.pdfdatabase.repository.EnrichmentCacheJpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * PostgreSQL/JPA implementation of the EnrichmentCacheRepository port.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PostgresEnrichmentCacheRepository implements EnrichmentCacheRepository {
+
+    private static final String TAG_SEPARATOR = "\n";
+
+    private final EnrichmentCacheJpaRepository jpaRepository;
+
+    @Override
+    public Optional<EnrichmentResultDTO> findByCacheKey(String cacheKey) {
+        return jpaRepository.findById(cacheKey)
+                .map(this::toDto);
+    }
+
+    @Override
+    public void save(String cacheKey, EnrichmentResultDTO result) {
+        jpaRepository.save(EnrichmentCacheEntity.builder()
+                .cacheKey(cacheKey)
+                .title(result.getTitle())
+                .dateSent(result.getDate_sent())
+                .tags(String.join(TAG_SEPARATOR, result.getTagNames()))
+                .build());
+    }
+
+    private EnrichmentResultDTO toDto(EnrichmentCacheEntity entity) {
+        List<EnrichmentResultDTO.TagDTO> tags = entity.getTags() == null || entity.getTags().isEmpty()
+                ? List.of()
+                : Arrays.stream(entity.getTags().split(TAG_SEPARATOR))
+                        .map(EnrichmentResultDTO.TagDTO::new)
+                        .toList();
+        return EnrichmentResultDTO.builder()
+                .title(entity.getTitle())
+                .date_sent(entity.getDateSent())
+                .tags(tags)
+                .build();
+    }
+}
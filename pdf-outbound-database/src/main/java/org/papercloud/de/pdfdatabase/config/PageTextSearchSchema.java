@@ -0,0 +1,56 @@
+package org.papercloud.de.pdfdatabase.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Adds the full-text search column and index on PostgreSQL, which Hibernate's schema
+ * generation cannot express. {@code text_search} is generated from {@code page_text}, so it
+ * never needs to be written by the application.
+ * <p>
+ * Both statements are idempotent. Adding the column rewrites {@code document_pages} once,
+ * holding a lock on the table until every existing page is tokenized.
+ */
+@Slf4j
+@Configuration
+public class PageTextSearchSchema {
+
+  /** Text search configuration; 'simple' lowercases without stemming, like the search index. */
+  public static final String TEXT_SEARCH_CONFIG = "simple";
+
+  private static final String ADD_COLUMN = "ALTER TABLE document_pages ADD COLUMN IF NOT EXISTS text_search tsvector "
+      + "GENERATED ALWAYS AS (to_tsvector('" + TEXT_SEARCH_CONFIG + "', coalesce(page_text, ''))) STORED";
+
+  private static final String CREATE_INDEX = "CREATE INDEX IF NOT EXISTS idx_document_pages_text_search "
+      + "ON document_pages USING GIN (text_search)";
+
+  @Bean
+  public CommandLineRunner initPageTextSearch(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager) {
+    return args -> {
+      if (!supportsTextSearch(entityManagerFactory)) {
+        log.info("Database has no text search support, page search falls back to pattern matching");
+        return;
+      }
+      new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+        jdbcTemplate.execute(ADD_COLUMN);
+        jdbcTemplate.execute(CREATE_INDEX);
+      });
+    };
+  }
+
+  /** True if the database is PostgreSQL, the only one the {@code text_search} column is created on. */
+  public static boolean supportsTextSearch(EntityManagerFactory entityManagerFactory) {
+    return entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+        .getJdbcServices()
+        .getDialect() instanceof PostgreSQLDialect;
+  }
+}
@@ -11,7 +11,10 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "documents")
+@Table(name = "documents", indexes = {
+    // Keyset pagination of a user's documents by upload time
+    @Index(name = "idx_documents_owner_uploaded", columnList = "user_id, uploadedAt, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
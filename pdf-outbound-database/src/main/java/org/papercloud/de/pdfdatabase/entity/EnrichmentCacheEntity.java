@@ -0,0 +1,34 @@
+package org.papercloud.de.pdfdatabase.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "enrichment_cache")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EnrichmentCacheEntity {
+
+    @Id
+    @Column(name = "cache_key", length = 64)
+    private String cacheKey;
+
+    @Column(length = 512)
+    private String title;
+
+    @Column(name = "date_sent", length = 20)
+    private String dateSent;
+
+    /** Tag names, one per line. */
+    @Column(columnDefinition = "TEXT")
+    private String tags;
+
+    @Builder.Default
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -0,0 +1,46 @@
+package org.papercloud.de.pdfdatabase.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A saved search of a user. The search index holds the same criteria as a query that new
+ * documents are matched against.
+ */
+@Entity
+@Table(name = "saved_searches")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SavedSearchEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private UserEntity owner;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @Column(length = 500)
+    private String query;
+
+    @ElementCollection
+    @CollectionTable(name = "saved_search_tags", joinColumns = @JoinColumn(name = "saved_search_id"))
+    @Column(name = "tag")
+    private List<String> tags;
+
+    @Column(name = "document_year")
+    private Integer year;
+
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -0,0 +1,50 @@
+package org.papercloud.de.pdfdatabase.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.papercloud.de.core.domain.ReindexStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * A rebuild of the search index. {@code lastDocumentId} is the highest document id up to
+ * which every document has been copied, so the job can resume from there.
+ */
+@Entity
+@Table(name = "search_reindex_jobs")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SearchReindexJobEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "target_index", nullable = false)
+    private String targetIndex;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReindexStatus status;
+
+    @Builder.Default
+    private long lastDocumentId = 0;
+
+    private long totalDocuments;
+
+    private long processedDocuments;
+
+    private long failedDocuments;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime finishedAt;
+
+    @Column(length = 1000)
+    private String error;
+}
@@ -1,13 +1,18 @@
 package org.papercloud.de.pdfdatabase.repository;
 
+import org.papercloud.de.core.domain.Document;
 import org.papercloud.de.pdfdatabase.entity.DocumentPdfEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 
 public interface DocumentRepository extends JpaRepository<DocumentPdfEntity, Long> {
@@ -16,6 +21,97 @@ public interface DocumentRepository extends JpaRepository<DocumentPdfEntity, Lon
 
     java.util.List<DocumentPdfEntity> findByOwnerUsername(String username);
 
+    /**
+     * The next documents after the given id, in id order, with only the fields the search
+     * index needs. Seeking by id instead of an offset keeps every batch equally cheap.
+     */
+    @Query("""
+            select d.id as id, d.title as title, d.filename as filename, d.contentType as contentType,
+                   d.dateOnDocument as dateOnDocument, o.username as username
+            from DocumentPdfEntity d join d.owner o
+            where d.id > :afterId
+            order by d.id asc
+            """)
+    List<IndexSourceView> findIndexSources(@Param("afterId") long afterId, Pageable pageable);
+
+    /** Like {@link #findIndexSources}, but only documents with the given status. */
+    @Query("""
+            select d.id as id, d.title as title, d.filename as filename, d.contentType as contentType,
+                   d.dateOnDocument as dateOnDocument, o.username as username
+            from DocumentPdfEntity d join d.owner o
+            where d.id > :afterId
+              and d.status = :status
+            order by d.id asc
+            """)
+    List<IndexSourceView> findIndexSourcesWithStatus(@Param("afterId") long afterId,
+                                                     @Param("status") Document.Status status,
+                                                     Pageable pageable);
+
+    @Query("select d.id as documentId, t as tag from DocumentPdfEntity d join d.tags t where d.id in :documentIds")
+    List<DocumentTagView> findTags(@Param("documentIds") Collection<Long> documentIds);
+
+    /**
+     * The given documents that belong to the year, counting a document without a date as one of
+     * the current year, as the search index does.
+     */
+    @Query("""
+            select d.id from DocumentPdfEntity d
+            where d.id in :documentIds
+              and year(coalesce(d.dateOnDocument, current_date)) = :year
+            """)
+    Set<Long> findIdsInYear(@Param("documentIds") Collection<Long> documentIds, @Param("year") int year);
+
+    long countByStatus(Document.Status status);
+
+    @Query("select o.username from DocumentPdfEntity d join d.owner o where d.id = :id")
+    Optional<String> findOwnerUsername(@Param("id") Long id);
+
+    /**
+     * The user's newest documents, newest first. Together with {@link #findListPageBefore} this
+     * pages by seeking on (uploadedAt, id) through {@code idx_documents_owner_uploaded}, so
+     * every page costs the same however deep it is.
+     */
+    @Query("""
+            select d.id as id, d.title as title, d.uploadedAt as uploadedAt, size(d.pages) as pageCount
+            from DocumentPdfEntity d join d.owner o
+            where o.username = :username
+            order by d.uploadedAt desc, d.id desc
+            """)
+    List<DocumentListView> findNewestListPage(@Param("username") String username, Pageable pageable);
+
+    /** The user's documents uploaded before the given position, newest first. */
+    @Query("""
+            select d.id as id, d.title as title, d.uploadedAt as uploadedAt, size(d.pages) as pageCount
+            from DocumentPdfEntity d join d.owner o
+            where o.username = :username
+              and (d.uploadedAt < :uploadedAt or (d.uploadedAt = :uploadedAt and d.id < :id))
+            order by d.uploadedAt desc, d.id desc
+            """)
+    List<DocumentListView> findListPageBefore(@Param("username") String username,
+                                              @Param("uploadedAt") LocalDateTime uploadedAt,
+                                              @Param("id") long id, Pageable pageable);
+
+    /** The user's oldest documents, oldest first. */
+    @Query("""
+            select d.id as id, d.title as title, d.uploadedAt as uploadedAt, size(d.pages) as pageCount
+            from DocumentPdfEntity d join d.owner o
+            where o.username = :username
+            order by d.uploadedAt asc, d.id asc
+            """)
+    List<DocumentListView> findOldestListPage(@Param("username") String username, Pageable pageable);
+
+    /** The user's documents uploaded after the given position, oldest first. */
+    @Query("""
+            select d.id as id, d.title as title, d.uploadedAt as uploadedAt, size(d.pages) as pageCount
+            from DocumentPdfEntity d join d.owner o
+            where o.username = :username
+              and (d.uploadedAt > :uploadedAt or (d.uploadedAt = :uploadedAt and d.id > :id))
+            order by d.uploadedAt asc, d.id asc
+            """)
+    List<DocumentListView> findListPageAfter(@Param("username") String username,
+                                             @Param("uploadedAt") LocalDateTime uploadedAt,
+                                             @Param("id") long id, Pageable pageable);
+
     @Query("""
             select d from DocumentPdfEntity d
             where d.status = org.papercloud.de.core.domain.Document.Status.OCR_ERROR
@@ -54,4 +150,34 @@ public interface DocumentRepository extends JpaRepository<DocumentPdfEntity, Lon
             @Param("maxAttempts") int maxAttempts,
             Pageable pageable
     );
+
+    interface IndexSourceView {
+        Long getId();
+
+        String getTitle();
+
+        String getFilename();
+
+        String getContentType();
+
+        LocalDate getDateOnDocument();
+
+        String getUsername();
+    }
+
+    interface DocumentListView {
+        Long getId();
+
+        String getTitle();
+
+        LocalDateTime getUploadedAt();
+
+        int getPageCount();
+    }
+
+    interface DocumentTagView {
+        Long getDocumentId();
+
+        String getTag();
+    }
 }
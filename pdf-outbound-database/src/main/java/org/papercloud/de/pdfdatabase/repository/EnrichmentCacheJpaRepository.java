@@ -0,0 +1,7 @@
+package org.papercloud.de.pdfdatabase.repository;
+
+import org.papercloud.de.pdfdatabase.entity.EnrichmentCacheEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface EnrichmentCacheJpaRepository extends JpaRepository<EnrichmentCacheEntity, String> {
+}
@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -22,4 +23,10 @@ public interface FavouriteRepository extends JpaRepository<UserDocumentFavourite
 
     @Query("SELECT f.document.id FROM UserDocumentFavouriteEntity f WHERE f.user.username = :username")
     Set<Long> findFavouriteDocumentIdsByUsername(@Param("username") String username);
+
+    /** The subset of the given documents that the user has favourited. */
+    @Query("SELECT f.document.id FROM UserDocumentFavouriteEntity f "
+            + "WHERE f.user.username = :username AND f.document.id IN :documentIds")
+    Set<Long> findFavouriteDocumentIds(@Param("username") String username,
+                                       @Param("documentIds") Collection<Long> documentIds);
 }
@@ -1,27 +1,46 @@
 package org.papercloud.de.pdfdatabase.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import org.papercloud.de.pdfdatabase.entity.PagesPdfEntity;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-public interface PageRepository extends JpaRepository<PagesPdfEntity, Long> {
+public interface PageRepository extends JpaRepository<PagesPdfEntity, Long>, PageTextSearchRepository {
 
   List<PagesPdfEntity> findByDocumentId(Long documentId);
 
   List<PagesPdfEntity> findByDocumentIdOrderByPageNumber(Long id);
 
-  @Query("SELECT p FROM PagesPdfEntity p WHERE p.pageText LIKE %:searchTerm%")
-  List<PagesPdfEntity> findByExtractedTextContaining(@Param("searchTerm") String searchTerm);
+  Optional<PagesPdfEntity> findByDocumentIdAndPageNumber(Long documentId, int pageNumber);
 
-  // More advanced version with pagination
-  @Query("SELECT p FROM PagesPdfEntity p WHERE p.pageText LIKE %:searchTerm%")
-  Page<PagesPdfEntity> findByExtractedTextContaining(@Param("searchTerm") String searchTerm, Pageable pageable);
+  /**
+   * Page texts with their document name, without loading the documents themselves. Returns
+   * every combination of the given ids and page numbers that exists.
+   */
+  @Query("SELECT d.id AS documentId, COALESCE(d.title, d.filename) AS documentName, "
+      + "p.pageNumber AS pageNumber, p.pageText AS pageText "
+      + "FROM PagesPdfEntity p JOIN p.document d "
+      + "WHERE d.id IN :documentIds AND p.pageNumber IN :pageNumbers")
+  List<PageTextView> findPageTexts(@Param("documentIds") Collection<Long> documentIds,
+      @Param("pageNumbers") Collection<Integer> pageNumbers);
 
-  // Count matches per document
-  @Query("SELECT p.document.id, COUNT(p) FROM PagesPdfEntity p WHERE p.pageText LIKE %:searchTerm% GROUP BY p.document.id")
-  List<Object[]> countPageMatchesPerDocument(@Param("searchTerm") String searchTerm);
+  /** All page texts of the given documents, ordered by document and page. */
+  @Query("SELECT d.id AS documentId, COALESCE(d.title, d.filename) AS documentName, "
+      + "p.pageNumber AS pageNumber, p.pageText AS pageText "
+      + "FROM PagesPdfEntity p JOIN p.document d "
+      + "WHERE d.id IN :documentIds ORDER BY d.id, p.pageNumber")
+  List<PageTextView> findPageTextsByDocumentIds(@Param("documentIds") Collection<Long> documentIds);
+
+  interface PageTextView {
+    Long getDocumentId();
+
+    String getDocumentName();
+
+    int getPageNumber();
+
+    String getPageText();
+  }
 }
@@ -0,0 +1,26 @@
+package org.papercloud.de.pdfdatabase.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Full-text search over page texts, limited to the documents of one user.
+ * <p>
+ * On PostgreSQL the query runs against the generated {@code text_search} column and its GIN
+ * index (see {@link org.papercloud.de.pdfdatabase.config.PageTextSearchSchema}): the query is
+ * parsed with {@code websearch_to_tsquery}, pages are ranked with {@code ts_rank} and snippets
+ * come from {@code ts_headline}. Other databases fall back to case-insensitive matching of
+ * every query word, ordered by document and page.
+ */
+public interface PageTextSearchRepository {
+
+  /** Matching pages, best first; empty for a blank query. */
+  Page<PageTextMatch> searchPageText(String username, String query, Pageable pageable);
+
+  /**
+   * @param snippet text around the match with matched words wrapped in {@code <em>}
+   * @param rank    relevance of the page; 0 when the database cannot rank
+   */
+  record PageTextMatch(Long documentId, String documentName, int pageNumber, String snippet, double rank) {
+  }
+}
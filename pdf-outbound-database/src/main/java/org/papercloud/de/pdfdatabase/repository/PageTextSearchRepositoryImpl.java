@@ -0,0 +1,176 @@
+package org.papercloud.de.pdfdatabase.repository;
+
+import static org.papercloud.de.pdfdatabase.config.PageTextSearchSchema.TEXT_SEARCH_CONFIG;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import org.papercloud.de.pdfdatabase.config.PageTextSearchSchema;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Implements {@link PageTextSearchRepository} with native PostgreSQL text search, or JPQL
+ * pattern matching on databases without it.
+ */
+class PageTextSearchRepositoryImpl implements PageTextSearchRepository {
+
+  private static final String TS_QUERY = "websearch_to_tsquery('" + TEXT_SEARCH_CONFIG + "', :query)";
+
+  private static final String HEADLINE_OPTIONS = "StartSel=<em>, StopSel=</em>, MinWords=15, MaxWords=35, MaxFragments=1";
+
+  private static final String PG_MATCHES = "FROM document_pages p "
+      + "JOIN documents d ON d.id = p.document_id "
+      + "JOIN users u ON u.id = d.user_id "
+      + "WHERE u.username = :username AND p.text_search @@ " + TS_QUERY;
+
+  /** Headlines are built for the requested page of matches only, not for every match. */
+  private static final String PG_SEARCH = "WITH ranked AS ("
+      + "SELECT p.id, ts_rank(p.text_search, " + TS_QUERY + ") AS rank " + PG_MATCHES
+      + " ORDER BY rank DESC, p.id LIMIT :limit OFFSET :offset) "
+      + "SELECT d.id, COALESCE(d.title, d.filename), p.page_number, "
+      + "ts_headline('" + TEXT_SEARCH_CONFIG + "', p.page_text, " + TS_QUERY + ", '" + HEADLINE_OPTIONS + "'), r.rank "
+      + "FROM ranked r JOIN document_pages p ON p.id = r.id JOIN documents d ON d.id = p.document_id "
+      + "ORDER BY r.rank DESC, p.id";
+
+  private static final String PG_COUNT = "SELECT COUNT(*) " + PG_MATCHES;
+
+  private static final String JPQL_MATCHES = "FROM PagesPdfEntity p JOIN p.document d "
+      + "WHERE d.owner.username = :username";
+
+  private static final int SNIPPET_CONTEXT_CHARS = 100;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  private Boolean textSearch;
+
+  @Override
+  public Page<PageTextMatch> searchPageText(String username, String query, Pageable pageable) {
+    if (query == null || query.isBlank()) {
+      return Page.empty(pageable);
+    }
+    return usesTextSearch() ? searchWithTextSearch(username, query, pageable) : searchWithPatterns(username, query, pageable);
+  }
+
+  private Page<PageTextMatch> searchWithTextSearch(String username, String query, Pageable pageable) {
+    long total = ((Number) entityManager.createNativeQuery(PG_COUNT)
+        .setParameter("username", username)
+        .setParameter("query", query)
+        .getSingleResult()).longValue();
+    if (total == 0 || pageable.getOffset() >= total) {
+      return new PageImpl<>(List.of(), pageable, total);
+    }
+
+    List<?> rows = entityManager.createNativeQuery(PG_SEARCH)
+        .setParameter("username", username)
+        .setParameter("query", query)
+        .setParameter("limit", pageable.getPageSize())
+        .setParameter("offset", pageable.getOffset())
+        .getResultList();
+    List<PageTextMatch> matches = new ArrayList<>(rows.size());
+    for (Object row : rows) {
+      Object[] columns = (Object[]) row;
+      matches.add(new PageTextMatch(((Number) columns[0]).longValue(), (String) columns[1],
+          ((Number) columns[2]).intValue(), (String) columns[3], ((Number) columns[4]).doubleValue()));
+    }
+    return new PageImpl<>(matches, pageable, total);
+  }
+
+  private Page<PageTextMatch> searchWithPatterns(String username, String query, Pageable pageable) {
+    List<String> words = words(query);
+    if (words.isEmpty()) {
+      return Page.empty(pageable);
+    }
+    String conditions = patternConditions(words);
+
+    long total = (Long) withPatterns(entityManager.createQuery("SELECT COUNT(p) " + JPQL_MATCHES + conditions), words)
+        .setParameter("username", username)
+        .getSingleResult();
+    if (total == 0 || pageable.getOffset() >= total) {
+      return new PageImpl<>(List.of(), pageable, total);
+    }
+
+    List<?> rows = withPatterns(entityManager.createQuery(
+        "SELECT d.id, COALESCE(d.title, d.filename), p.pageNumber, p.pageText " + JPQL_MATCHES + conditions
+            + " ORDER BY d.id, p.pageNumber"), words)
+        .setParameter("username", username)
+        .setFirstResult((int) pageable.getOffset())
+        .setMaxResults(pageable.getPageSize())
+        .getResultList();
+    List<PageTextMatch> matches = new ArrayList<>(rows.size());
+    for (Object row : rows) {
+      Object[] columns = (Object[]) row;
+      matches.add(new PageTextMatch((Long) columns[0], (String) columns[1], (Integer) columns[2],
+          snippet((String) columns[3], words), 0));
+    }
+    return new PageImpl<>(matches, pageable, total);
+  }
+
+  private boolean usesTextSearch() {
+    if (textSearch == null) {
+      textSearch = PageTextSearchSchema.supportsTextSearch(entityManager.getEntityManagerFactory());
+    }
+    return textSearch;
+  }
+
+  /** Lowercased words a page must all contain; quotes, excluded words and {@code or} are ignored. */
+  static List<String> words(String query) {
+    return Arrays.stream(query.toLowerCase(Locale.ROOT).split("[\\s\"]+"))
+        .filter(word -> !word.isEmpty() && !word.startsWith("-") && !word.equals("or"))
+        .distinct()
+        .toList();
+  }
+
+  private static String patternConditions(List<String> words) {
+    StringBuilder conditions = new StringBuilder();
+    for (int i = 0; i < words.size(); i++) {
+      conditions.append(" AND LOWER(p.pageText) LIKE :word").append(i).append(" ESCAPE '!'");
+    }
+    return conditions.toString();
+  }
+
+  private static Query withPatterns(Query query, List<String> words) {
+    for (int i = 0; i < words.size(); i++) {
+      String escaped = words.get(i).replace("!", "!!").replace("%", "!%").replace("_", "!_");
+      query.setParameter("word" + i, "%" + escaped + "%");
+    }
+    return query;
+  }
+
+  /** Text around the first occurrence of the first word found, with that word highlighted. */
+  static String snippet(String text, List<String> words) {
+    if (text == null) {
+      return "";
+    }
+    for (String word : words) {
+      int index = indexOfIgnoreCase(text, word);
+      if (index < 0) {
+        continue;
+      }
+      int start = Math.max(0, index - SNIPPET_CONTEXT_CHARS);
+      int end = Math.min(text.length(), index + word.length() + SNIPPET_CONTEXT_CHARS);
+      return (start > 0 ? "..." : "")
+          + text.substring(start, index)
+          + "<em>" + text.substring(index, index + word.length()) + "</em>"
+          + text.substring(index + word.length(), end)
+          + (end < text.length() ? "..." : "");
+    }
+    return "";
+  }
+
+  /** Compares in place instead of lowercasing a copy of the whole page. */
+  private static int indexOfIgnoreCase(String text, String word) {
+    for (int i = 0; i + word.length() <= text.length(); i++) {
+      if (text.regionMatches(true, i, word, 0, word.length())) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
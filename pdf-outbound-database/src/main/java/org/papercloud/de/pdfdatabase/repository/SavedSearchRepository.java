@@ -0,0 +1,18 @@
+package org.papercloud.de.pdfdatabase.repository;
+
+import org.papercloud.de.pdfdatabase.entity.SavedSearchEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface SavedSearchRepository extends JpaRepository<SavedSearchEntity, Long> {
+
+    List<SavedSearchEntity> findByOwnerUsernameOrderByCreatedAtDesc(String username);
+
+    Optional<SavedSearchEntity> findByIdAndOwnerUsername(Long id, String username);
+
+    boolean existsByOwnerUsername(String username);
+
+    long countByOwnerUsername(String username);
+}
@@ -0,0 +1,42 @@
+package org.papercloud.de.pdfdatabase.repository;
+
+import org.papercloud.de.pdfdatabase.entity.SearchNotificationEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface SearchNotificationRepository extends JpaRepository<SearchNotificationEntity, Long> {
+
+    boolean existsBySavedSearchIdAndDocumentId(Long savedSearchId, Long documentId);
+
+    @Query("""
+            select n from SearchNotificationEntity n
+            join fetch n.savedSearch s
+            join fetch n.document d
+            where s.owner.username = :username
+              and (:unreadOnly = false or n.readAt is null)
+            order by n.createdAt desc, n.id desc
+            """)
+    List<SearchNotificationEntity> findForUser(@Param("username") String username,
+                                               @Param("unreadOnly") boolean unreadOnly,
+                                               Pageable pageable);
+
+    @Modifying
+    @Query("""
+            update SearchNotificationEntity n set n.readAt = :readAt
+            where n.id in :ids and n.readAt is null
+              and n.savedSearch.id in (select s.id from SavedSearchEntity s where s.owner.username = :username)
+            """)
+    int markRead(@Param("username") String username, @Param("ids") Collection<Long> ids,
+                 @Param("readAt") LocalDateTime readAt);
+
+    @Modifying
+    @Query("delete from SearchNotificationEntity n where n.savedSearch.id = :savedSearchId")
+    void deleteBySavedSearchId(@Param("savedSearchId") Long savedSearchId);
+}
@@ -0,0 +1,11 @@
+package org.papercloud.de.pdfdatabase.repository;
+
+import org.papercloud.de.pdfdatabase.entity.SearchReindexJobEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface SearchReindexJobRepository extends JpaRepository<SearchReindexJobEntity, Long> {
+
+    Optional<SearchReindexJobEntity> findFirstByOrderByIdDesc();
+}
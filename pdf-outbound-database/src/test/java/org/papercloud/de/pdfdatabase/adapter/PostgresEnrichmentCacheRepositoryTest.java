@@ -0,0 +1,77 @@
+package org.papercloud.de.pdfdatabase.adapter;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.papercloud.de.core.dto.llm.EnrichmentResultDTO;
+import org.papercloud.de.pdfdatabase.entity.EnrichmentCacheEntity;
+import org.papercloud.de.pdfdatabase.repository.EnrichmentCacheJpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PostgresEnrichmentCacheRepositoryTest {
+
+    @Mock
+    private EnrichmentCacheJpaRepository jpaRepository;
+
+    @InjectMocks
+    private PostgresEnrichmentCacheRepository repository;
+
+    @Test
+    void save_shouldStoreTagNamesLineSeparated() {
+        EnrichmentResultDTO result = EnrichmentResultDTO.builder()
+                .title("Invoice")
+                .date_sent("01.02.2026")
+                .tags(List.of(new EnrichmentResultDTO.TagDTO("bill"), new EnrichmentResultDTO.TagDTO("tax")))
+                .build();
+
+        repository.save("abc", result);
+
+        ArgumentCaptor<EnrichmentCacheEntity> captor = ArgumentCaptor.forClass(EnrichmentCacheEntity.class);
+        verify(jpaRepository).save(captor.capture());
+        assertEquals("abc", captor.getValue().getCacheKey());
+        assertEquals("Invoice", captor.getValue().getTitle());
+        assertEquals("01.02.2026", captor.getValue().getDateSent());
+        assertEquals("bill\ntax", captor.getValue().getTags());
+    }
+
+    @Test
+    void findByCacheKey_found_shouldMapTags() {
+        EnrichmentCacheEntity entity = EnrichmentCacheEntity.builder()
+                .cacheKey("abc").title("Invoice").dateSent("01.02.2026").tags("bill\ntax").build();
+        when(jpaRepository.findById("abc")).thenReturn(Optional.of(entity));
+
+        Optional<EnrichmentResultDTO> result = repository.findByCacheKey("abc");
+
+        assertTrue(result.isPresent());
+        assertEquals("Invoice", result.get().getTitle());
+        assertEquals(List.of("bill", "tax"), result.get().getTagNames());
+        assertFalse(result.get().isFlagFailedEnrichment());
+    }
+
+    @Test
+    void findByCacheKey_emptyTags_shouldReturnEmptyTagList() {
+        EnrichmentCacheEntity entity = EnrichmentCacheEntity.builder().cacheKey("abc").title("Invoice").tags("").build();
+        when(jpaRepository.findById("abc")).thenReturn(Optional.of(entity));
+
+        Optional<EnrichmentResultDTO> result = repository.findByCacheKey("abc");
+
+        assertTrue(result.isPresent());
+        assertTrue(result.get().getTags().isEmpty());
+    }
+
+    @Test
+    void findByCacheKey_notFound_shouldReturnEmpty() {
+        when(jpaRepository.findById("missing")).thenReturn(Optional.empty());
+
+        assertTrue(repository.findByCacheKey("missing").isEmpty());
+    }
+}
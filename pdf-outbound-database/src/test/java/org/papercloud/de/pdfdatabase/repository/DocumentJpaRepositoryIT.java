@@ -12,6 +12,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
@@ -51,6 +52,9 @@ class DocumentJpaRepositoryIT {
     @Autowired
     private PageRepository pageRepository;
 
+    @Autowired
+    private DocumentRepository documentRepository;
+
     @Autowired
     private TestEntityManager entityManager;
 
@@ -184,6 +188,71 @@ class DocumentJpaRepositoryIT {
         }
     }
 
+    @Nested
+    @DisplayName("Index source operations")
+    class IndexSourceTests {
+
+        @Test
+        @DisplayName("should return the documents after the cursor in id order with their owner")
+        void findIndexSources_afterCursor_returnsNextDocumentsInIdOrder() {
+            // Arrange
+            DocumentPdfEntity first = createAndSaveDocument("first.pdf", "First");
+            DocumentPdfEntity second = createAndSaveDocument("second.pdf", "Second");
+            DocumentPdfEntity third = createAndSaveDocument("third.pdf", "Third");
+            entityManager.flush();
+            entityManager.clear();
+
+            // Act
+            List<DocumentRepository.IndexSourceView> sources =
+                    documentRepository.findIndexSources(first.getId(), PageRequest.of(0, 10));
+
+            // Assert
+            assertThat(sources).extracting(DocumentRepository.IndexSourceView::getId)
+                    .containsExactly(second.getId(), third.getId());
+            assertThat(sources).extracting(DocumentRepository.IndexSourceView::getUsername)
+                    .containsOnly("testuser");
+        }
+
+        @Test
+        @DisplayName("should return and count only the documents with the requested status")
+        void findIndexSourcesWithStatus_mixedStatuses_returnsOnlyMatchingDocuments() {
+            // Arrange
+            DocumentPdfEntity indexed = createTestDocument("indexed.pdf", "Indexed");
+            indexed.setStatus(Document.Status.INDEXING_COMPLETED);
+            documentJpaRepository.save(indexed);
+            createAndSaveDocument("uploaded.pdf", "Uploaded");
+            entityManager.flush();
+            entityManager.clear();
+
+            // Act
+            List<DocumentRepository.IndexSourceView> sources = documentRepository.findIndexSourcesWithStatus(
+                    0, Document.Status.INDEXING_COMPLETED, PageRequest.of(0, 10));
+
+            // Assert
+            assertThat(sources).extracting(DocumentRepository.IndexSourceView::getId)
+                    .containsExactly(indexed.getId());
+            assertThat(documentRepository.countByStatus(Document.Status.INDEXING_COMPLETED)).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should return the tags of the requested documents")
+        void findTags_documentsWithTags_returnsTagsPerDocument() {
+            // Arrange
+            DocumentPdfEntity document = createTestDocument("tagged.pdf", "Tagged");
+            document.setTags(new ArrayList<>(List.of("invoice", "tax")));
+            document = documentJpaRepository.save(document);
+            entityManager.flush();
+            entityManager.clear();
+
+            // Act
+            List<DocumentRepository.DocumentTagView> tags = documentRepository.findTags(List.of(document.getId()));
+
+            // Assert
+            assertThat(tags).extracting(DocumentRepository.DocumentTagView::getTag)
+                    .containsExactlyInAnyOrder("invoice", "tax");
+        }
+    }
+
     @Nested
     @DisplayName("findByOwnerUsername operations")
     class FindByOwnerUsernameTests {
@@ -269,6 +338,61 @@ class DocumentJpaRepositoryIT {
         }
     }
 
+    @Nested
+    @DisplayName("Keyset listing operations")
+    class KeysetListingTests {
+
+        @Test
+        @DisplayName("should page through documents by upload time and id without skipping ties")
+        void listPages_sameUploadTime_shouldReturnEveryDocumentOnce() {
+            // Arrange
+            LocalDateTime noon = LocalDateTime.of(2024, 3, 1, 12, 0);
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                DocumentPdfEntity document = createTestDocument("doc" + i + ".pdf", "Doc " + i);
+                document.setUploadedAt(i < 3 ? noon : noon.plusDays(i));
+                ids.add(documentJpaRepository.save(document).getId());
+            }
+            entityManager.flush();
+            entityManager.clear();
+
+            // Act
+            List<DocumentRepository.DocumentListView> first =
+                    documentRepository.findNewestListPage("testuser", PageRequest.of(0, 3));
+            DocumentRepository.DocumentListView last = first.get(2);
+            List<DocumentRepository.DocumentListView> second = documentRepository.findListPageBefore(
+                    "testuser", last.getUploadedAt(), last.getId(), PageRequest.of(0, 3));
+
+            // Assert
+            assertThat(first).extracting(DocumentRepository.DocumentListView::getId)
+                    .containsExactly(ids.get(4), ids.get(3), ids.get(2));
+            assertThat(second).extracting(DocumentRepository.DocumentListView::getId)
+                    .containsExactly(ids.get(1), ids.get(0));
+        }
+
+        @Test
+        @DisplayName("should list the oldest documents first and continue after the cursor")
+        void listPages_oldestFirst_shouldSeekForward() {
+            // Arrange
+            DocumentPdfEntity older = createTestDocument("older.pdf", "Older");
+            older.setUploadedAt(LocalDateTime.of(2023, 1, 1, 0, 0));
+            older = documentJpaRepository.save(older);
+            DocumentPdfEntity newer = createAndSaveDocument("newer.pdf", "Newer");
+            entityManager.flush();
+            entityManager.clear();
+
+            // Act
+            List<DocumentRepository.DocumentListView> first =
+                    documentRepository.findOldestListPage("testuser", PageRequest.of(0, 1));
+            List<DocumentRepository.DocumentListView> second = documentRepository.findListPageAfter(
+                    "testuser", first.get(0).getUploadedAt(), first.get(0).getId(), PageRequest.of(0, 1));
+
+            // Assert
+            assertThat(first).extracting(DocumentRepository.DocumentListView::getId).containsExactly(older.getId());
+            assertThat(second).extracting(DocumentRepository.DocumentListView::getId).containsExactly(newer.getId());
+        }
+    }
+
     @Nested
     @DisplayName("existsByFilenameAndOwnerUsername operations")
     class ExistsByFilenameAndOwnerUsernameTests {
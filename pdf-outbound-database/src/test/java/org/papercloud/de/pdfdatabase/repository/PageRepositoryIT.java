@@ -5,6 +5,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.papercloud.de.core.domain.Document;
+import org.papercloud.de.pdfdatabase.config.PageTextSearchSchema;
 import org.papercloud.de.pdfdatabase.entity.DocumentPdfEntity;
 import org.papercloud.de.pdfdatabase.entity.PagesPdfEntity;
 import org.papercloud.de.pdfdatabase.entity.UserEntity;
@@ -12,9 +13,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ActiveProfiles;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
@@ -28,9 +29,10 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 /**
  * Integration tests for PageRepository using real PostgreSQL database via TestContainers.
- * Tests repository operations, query methods, ordering, and search functionality with encrypted text.
+ * Tests repository operations, query methods, ordering, and full-text search over page texts.
  */
 @DataJpaTest
+@Import(PageTextSearchSchema.class)
 @Testcontainers
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 @ActiveProfiles("test")
@@ -313,117 +315,151 @@ class PageRepositoryIT {
     }
 
     @Nested
-    @DisplayName("findByExtractedTextContaining operations - Note: searches on encrypted data")
-    class FindByExtractedTextContainingTests {
+    @DisplayName("searchPageText operations")
+    class SearchPageTextTests {
+
+        private DocumentPdfEntity otherDocument;
 
         @BeforeEach
         void setUpSearchData() {
             createAndSavePage(1, "The quick brown fox jumps over the lazy dog");
             createAndSavePage(2, "Lorem ipsum dolor sit amet consectetur adipiscing elit");
             createAndSavePage(3, "Java programming language is powerful and versatile");
-            createAndSavePage(4, "Spring Boot makes Java development easier");
+            createAndSavePage(4, "Spring Boot makes Java development easier with Java starters");
             createAndSavePage(5, "The lazy cat sleeps all day");
 
-            // Create another document with pages
-            DocumentPdfEntity document2 = DocumentPdfEntity.builder()
+            UserEntity otherUser = userJpaRepository.save(UserEntity.builder()
+                    .username("otheruser")
+                    .email("other@example.com")
+                    .password("password123")
+                    .enabled(true)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+            otherDocument = documentJpaRepository.save(DocumentPdfEntity.builder()
                     .filename("document2.pdf")
                     .title("Second Document")
                     .contentType("application/pdf")
                     .status(Document.Status.UPLOADED)
                     .uploadedAt(LocalDateTime.now())
-                    .owner(testUser)
-                    .build();
-            document2 = documentJpaRepository.save(document2);
-
-            PagesPdfEntity page = PagesPdfEntity.builder()
+                    .owner(otherUser)
+                    .build());
+            pageRepository.save(PagesPdfEntity.builder()
                     .pageNumber(1)
                     .pageText("Another document with Java content")
-                    .document(document2)
-                    .build();
-            pageRepository.save(page);
+                    .document(otherDocument)
+                    .build());
 
             entityManager.flush();
             entityManager.clear();
         }
 
         @Test
-        @DisplayName("should return no results when searching encrypted text (limitation)")
-        void findByExtractedTextContaining_encryptedText_returnsNoResults() {
-            // Note: pageText is encrypted at rest using EncryptedStringConverter.
-            // Database LIKE queries search the encrypted ciphertext, not plaintext.
-            // This means text searches will not find matches in the encrypted data.
-            // A search index (e.g., Elasticsearch) would be needed for full-text search.
+        @DisplayName("should only return pages of the user's documents")
+        void searchPageText_otherUsersPages_areExcluded() {
+            // Act
+            Page<PageTextSearchRepository.PageTextMatch> matches =
+                    pageRepository.searchPageText("testuser", "java", PageRequest.of(0, 10));
+
+            // Assert
+            assertThat(matches.getTotalElements()).isEqualTo(2);
+            assertThat(matches.getContent()).extracting(PageTextSearchRepository.PageTextMatch::documentId)
+                    .containsOnly(testDocument.getId());
+        }
 
+        @Test
+        @DisplayName("should rank pages with more occurrences first and highlight the matches")
+        void searchPageText_multipleMatches_rankedWithHeadline() {
             // Act
-            List<PagesPdfEntity> pages = pageRepository.findByExtractedTextContaining("lazy");
+            Page<PageTextSearchRepository.PageTextMatch> matches =
+                    pageRepository.searchPageText("testuser", "java", PageRequest.of(0, 10));
 
-            // Assert - no matches because we're searching encrypted text
-            assertThat(pages).isEmpty();
+            // Assert
+            PageTextSearchRepository.PageTextMatch best = matches.getContent().get(0);
+            assertThat(best.pageNumber()).isEqualTo(4);
+            assertThat(best.documentName()).isEqualTo("Test Document");
+            assertThat(best.snippet()).contains("<em>Java</em>");
+            assertThat(best.rank()).isGreaterThan(matches.getContent().get(1).rank());
         }
 
         @Test
-        @DisplayName("should verify query method exists and returns results format")
-        void findByExtractedTextContaining_methodExists_returnsListFormat() {
-            // This test verifies the query method is properly defined,
-            // even though it won't find matches in encrypted text.
-            // In a production system, text search would use a separate search index.
+        @DisplayName("should require every word and support web search syntax")
+        void searchPageText_webSearchQuery_matchesAllWords() {
+            // Act
+            List<Integer> bothWords = pageRepository.searchPageText("testuser", "lazy dog", PageRequest.of(0, 10))
+                    .map(PageTextSearchRepository.PageTextMatch::pageNumber).getContent();
+            List<Integer> excluded = pageRepository.searchPageText("testuser", "lazy -dog", PageRequest.of(0, 10))
+                    .map(PageTextSearchRepository.PageTextMatch::pageNumber).getContent();
 
+            // Assert
+            assertThat(bothWords).containsExactly(1);
+            assertThat(excluded).containsExactly(5);
+        }
+
+        @Test
+        @DisplayName("should page through matches and report the total")
+        void searchPageText_pagination_returnsRequestedPage() {
             // Act
-            List<PagesPdfEntity> pages = pageRepository.findByExtractedTextContaining("any search term");
+            Page<PageTextSearchRepository.PageTextMatch> second =
+                    pageRepository.searchPageText("testuser", "the", PageRequest.of(1, 1));
 
-            // Assert - method works but returns empty due to encryption
-            assertThat(pages).isNotNull();
-            assertThat(pages).isEmpty();
+            // Assert
+            assertThat(second.getContent()).hasSize(1);
+            assertThat(second.getTotalElements()).isEqualTo(2);
+            assertThat(second.getTotalPages()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("should return nothing for a blank query")
+        void searchPageText_blankQuery_returnsEmpty() {
+            // Act & Assert
+            assertThat(pageRepository.searchPageText("testuser", " ", PageRequest.of(0, 10))).isEmpty();
         }
     }
 
     @Nested
-    @DisplayName("findByExtractedTextContaining with pagination - Note: limited by encryption")
-    class FindByExtractedTextContainingWithPaginationTests {
+    @DisplayName("findPageTexts operations")
+    class FindPageTextsTests {
 
         @Test
-        @DisplayName("should support pagination API even though encryption limits search")
-        void findByExtractedTextContaining_pagination_methodSignatureWorks() {
-            // Note: This verifies the pagination API exists and works structurally,
-            // even though encrypted text search won't return matches.
-
+        @DisplayName("should return requested pages with the document title")
+        void findPageTexts_existingPages_returnsTextsWithTitle() {
             // Arrange
-            for (int i = 1; i <= 5; i++) {
-                createAndSavePage(i, "Page " + i + " test content");
-            }
+            createAndSavePage(1, "First page");
+            createAndSavePage(2, "Second page");
+            createAndSavePage(3, "Third page");
             entityManager.flush();
             entityManager.clear();
 
-            Pageable pageable = PageRequest.of(0, 3);
-
             // Act
-            Page<PagesPdfEntity> pageResult = pageRepository.findByExtractedTextContaining("test", pageable);
+            List<PageRepository.PageTextView> results =
+                    pageRepository.findPageTexts(List.of(testDocument.getId()), List.of(1, 3));
 
-            // Assert - method works, returns empty due to encryption
-            assertThat(pageResult).isNotNull();
-            assertThat(pageResult.getContent()).isEmpty();
-            assertThat(pageResult.getTotalElements()).isEqualTo(0);
+            // Assert
+            assertThat(results).hasSize(2);
+            assertThat(results).extracting(PageRepository.PageTextView::getPageText)
+                    .containsExactlyInAnyOrder("First page", "Third page");
+            assertThat(results).extracting(PageRepository.PageTextView::getDocumentName)
+                    .containsOnly("Test Document");
         }
-    }
-
-    @Nested
-    @DisplayName("countPageMatchesPerDocument operations - Note: limited by encryption")
-    class CountPageMatchesPerDocumentTests {
 
         @Test
-        @DisplayName("should execute count query even though encryption prevents matches")
-        void countPageMatchesPerDocument_encryptedData_returnsEmpty() {
+        @DisplayName("should return every page of the requested documents in page order")
+        void findPageTextsByDocumentIds_existingPages_returnsAllPagesInOrder() {
             // Arrange
-            createAndSavePage(1, "This is an important document");
-            createAndSavePage(2, "More important details");
+            createAndSavePage(2, "Second page");
+            createAndSavePage(1, "First page");
             entityManager.flush();
             entityManager.clear();
 
             // Act
-            List<Object[]> results = pageRepository.countPageMatchesPerDocument("important");
+            List<PageRepository.PageTextView> results =
+                    pageRepository.findPageTextsByDocumentIds(List.of(testDocument.getId()));
 
-            // Assert - query executes but finds no matches due to encryption
-            assertThat(results).isEmpty();
+            // Assert
+            assertThat(results).extracting(PageRepository.PageTextView::getPageNumber)
+                    .containsExactly(1, 2);
+            assertThat(results).extracting(PageRepository.PageTextView::getDocumentId)
+                    .containsOnly(testDocument.getId());
         }
     }
 
@@ -0,0 +1,75 @@
+package org.papercloud.de.pdfdatabase.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the pattern-matching fallback of PageTextSearchRepositoryImpl.
+ * Tests how queries are split into words and how snippets are cut from page texts.
+ */
+@DisplayName("PageTextSearchRepositoryImpl")
+class PageTextSearchRepositoryImplTest {
+
+    @Nested
+    @DisplayName("words")
+    class WordsTests {
+
+        @Test
+        @DisplayName("should lowercase words and ignore the web search operators")
+        void words_webSearchSyntax_returnsRequiredWords() {
+            // Act
+            List<String> words = PageTextSearchRepositoryImpl.words("\"Tax Return\" or Invoice -draft tax");
+
+            // Assert
+            assertThat(words).containsExactly("tax", "return", "invoice");
+        }
+
+        @Test
+        @DisplayName("should return no words for a query of excluded words only")
+        void words_onlyExcludedWords_returnsEmpty() {
+            // Act & Assert
+            assertThat(PageTextSearchRepositoryImpl.words("-draft -copy")).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("snippet")
+    class SnippetTests {
+
+        @Test
+        @DisplayName("should highlight the match and mark cut text with ellipses")
+        void snippet_termInMiddle_returnsHighlightedContext() {
+            // Arrange
+            String text = "a".repeat(150) + "Target" + "z".repeat(150);
+
+            // Act
+            String snippet = PageTextSearchRepositoryImpl.snippet(text, List.of("target"));
+
+            // Assert
+            assertThat(snippet).isEqualTo("..." + "a".repeat(100) + "<em>Target</em>" + "z".repeat(100) + "...");
+        }
+
+        @Test
+        @DisplayName("should return short texts whole")
+        void snippet_shortText_returnsWholeText() {
+            // Act
+            String snippet = PageTextSearchRepositoryImpl.snippet("This is a short text", List.of("missing", "short"));
+
+            // Assert
+            assertThat(snippet).isEqualTo("This is a <em>short</em> text");
+        }
+
+        @Test
+        @DisplayName("should return an empty snippet when no word occurs")
+        void snippet_noWordFound_returnsEmpty() {
+            // Act & Assert
+            assertThat(PageTextSearchRepositoryImpl.snippet("Some text", List.of("missing"))).isEmpty();
+            assertThat(PageTextSearchRepositoryImpl.snippet(null, List.of("missing"))).isEmpty();
+        }
+    }
+}
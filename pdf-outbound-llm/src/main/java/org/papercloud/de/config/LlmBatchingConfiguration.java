@@ -0,0 +1,22 @@
+package org.papercloud.de.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Micro-batching of enrichment requests into a single multi-document prompt.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "llm.batching")
+@Data
+public class LlmBatchingConfiguration {
+    private boolean enabled = true;
+    private int maxBatchSize = 4;
+    /** How long the first pending document waits for others before the batch is sent anyway. */
+    private Duration maxWait = Duration.ofMillis(200);
+    /** Upper bound for the combined text length of one batch; larger texts are sent on their own. */
+    private int maxBatchChars = 8000;
+}
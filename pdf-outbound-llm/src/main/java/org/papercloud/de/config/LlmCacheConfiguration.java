@@ -0,0 +1,17 @@
+package org.papercloud.de.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings for the enrichment result cache in front of the LLM.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "llm.cache")
+@Data
+public class LlmCacheConfiguration {
+    private boolean enabled = true;
+    /** Capacity of the in-memory LRU tier; the persistent tier is unbounded. */
+    private int maxEntries = 1000;
+}
@@ -0,0 +1,21 @@
+package org.papercloud.de.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Models used for enrichment, cheapest first. A result that fails the plausibility checks
+ * is retried right away with the next model in the list.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "llm.cascade")
+@Data
+public class LlmCascadeConfiguration {
+    private List<String> models = new ArrayList<>(List.of("qwen2.5:0.5b"));
+    /** Dates before this year are treated as implausible model output. */
+    private int minPlausibleYear = 1990;
+}
@@ -0,0 +1,22 @@
+package org.papercloud.de.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Free-text answers for chat over documents. Answers are interactive, so they are queued
+ * ahead of background enrichment in the concurrency limiter.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "llm.chat")
+@Data
+public class LlmChatConfiguration {
+    private String model = "qwen2.5:0.5b";
+    /** Upper bound until the first token arrives, which includes loading the model. */
+    private Duration firstTokenTimeout = Duration.ofMinutes(1);
+    /** Upper bound for the gap between two tokens. */
+    private Duration tokenTimeout = Duration.ofSeconds(30);
+}
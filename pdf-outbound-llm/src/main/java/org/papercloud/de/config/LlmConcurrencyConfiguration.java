@@ -0,0 +1,27 @@
+package org.papercloud.de.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Tuning knobs for the adaptive limiter in front of the Ollama generate endpoint.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "llm.concurrency")
+@Data
+public class LlmConcurrencyConfiguration {
+    private int initialLimit = 2;
+    private int minLimit = 1;
+    private int maxLimit = 8;
+    /** A sample counts as congested once its latency exceeds the baseline by this factor. */
+    private double latencyTolerance = 2.0;
+    /** Multiplicative decrease applied on congestion, timeouts and connection errors. */
+    private double backoffRatio = 0.9;
+    /** Number of samples after which the no-load baseline latency is re-measured. */
+    private int baselineWindow = 100;
+    private int maxQueueSize = 200;
+    private Duration maxQueueWait = Duration.ofMinutes(1);
+}
@@ -0,0 +1,25 @@
+package org.papercloud.de.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Embeddings for semantic search. {@code provider} selects the Ollama model or the local
+ * hashing stub, which needs no model and is meant for tests and offline development.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "llm.embeddings")
+@Data
+public class LlmEmbeddingConfiguration {
+    /** {@code ollama} or {@code hashing}. */
+    private String provider = "ollama";
+    private String model = "nomic-embed-text";
+    /** Texts sent per {@code /api/embed} call. */
+    private int batchSize = 16;
+    private Duration timeout = Duration.ofMinutes(2);
+    /** Vector size of the hashing stub. */
+    private int hashingDimensions = 256;
+}
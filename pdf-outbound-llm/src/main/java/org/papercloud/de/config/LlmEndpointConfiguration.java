@@ -0,0 +1,41 @@
+package org.papercloud.de.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pool of Ollama endpoints that enrichment calls are balanced across.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "llm.endpoints")
+@Data
+public class LlmEndpointConfiguration {
+    private List<String> urls = new ArrayList<>(List.of("http://192.168.2.107:11434"));
+    /** Weight of the newest sample in the per-endpoint latency average. */
+    private double ewmaAlpha = 0.3;
+    /** Consecutive failures after which an endpoint is taken out of rotation. */
+    private int failureThreshold = 3;
+    private Duration ejectionDuration = Duration.ofSeconds(30);
+    /** Interval of the active health check, in milliseconds. */
+    private long healthCheckIntervalMs = 15_000;
+    private Duration healthCheckTimeout = Duration.ofSeconds(5);
+    /** Added to the cost of endpoints that do not have the requested model loaded. */
+    private Duration coldStartPenalty = Duration.ofSeconds(30);
+    private Hedging hedging = new Hedging();
+
+    @Data
+    public static class Hedging {
+        /** Off by default: a hedge duplicates GPU work on a second box. */
+        private boolean enabled = false;
+        /** Latency percentile after which a second request is started. */
+        private double percentile = 0.95;
+        private Duration minDelay = Duration.ofSeconds(2);
+        /** Hedging starts once this many latency samples have been collected. */
+        private int minSamples = 20;
+    }
+}
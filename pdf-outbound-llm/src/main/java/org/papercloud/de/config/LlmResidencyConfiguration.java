@@ -0,0 +1,30 @@
+package org.papercloud.de.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps enrichment models loaded on the Ollama endpoints. The {@code keep_alive} sent with
+ * each request grows with the number of pending LLM calls, so the model stays resident while
+ * there is a backlog and is released again once the pipeline is idle.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "llm.residency")
+@Data
+public class LlmResidencyConfiguration {
+    private boolean enabled = true;
+    /** Models loaded on every endpoint at startup; the first cascade model when empty. */
+    private List<String> preloadModels = new ArrayList<>();
+    /** keep_alive while no other LLM calls are pending (Ollama's own default). */
+    private Duration idleKeepAlive = Duration.ofMinutes(5);
+    /** Added to the keep_alive for every pending LLM call. */
+    private Duration keepAlivePerPendingCall = Duration.ofMinutes(1);
+    private Duration maxKeepAlive = Duration.ofHours(1);
+    /** Interval of the {@code /api/ps} residency refresh, in milliseconds. */
+    private long refreshIntervalMs = 60_000;
+}
@@ -25,8 +25,8 @@ public class WebClientConfig {
                         .addHandlerLast(new WriteTimeoutHandler(600, TimeUnit.SECONDS))
                 );
 
+        // Base URLs are set per endpoint by LlmEndpointPool
         return WebClient.builder()
-                .baseUrl("http://192.168.2.107:11434")
                 .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .build();
     }
@@ -0,0 +1,54 @@
+package org.papercloud.de.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.papercloud.de.config.LlmChatConfiguration;
+import org.papercloud.de.core.dto.llm.EnrichmentPriority;
+import org.papercloud.de.core.ports.outbound.AnswerGenerationService;
+import org.papercloud.de.service.concurrency.AdaptiveConcurrencyLimiter;
+import org.papercloud.de.service.internal.OllamaGenerateChunk;
+import org.papercloud.de.service.routing.ModelResidencyManager;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Ollama implementation of the AnswerGenerationService port.
+ * The NDJSON chunks of a generate call are passed on one by one as they are decoded, so the
+ * caller sees each token as soon as Ollama emits it.
+ */
+@Slf4j
+@Service
+public class OllamaAnswerGenerationServiceImpl implements AnswerGenerationService {
+
+    private final LlmChatConfiguration config;
+    private final ModelResidencyManager residencyManager;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    public OllamaAnswerGenerationServiceImpl(LlmChatConfiguration config,
+                                             ModelResidencyManager residencyManager,
+                                             AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        this.config = config;
+        this.residencyManager = residencyManager;
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    @Override
+    public Flux<String> streamAnswer(String prompt) {
+        String model = config.getModel();
+        return concurrencyLimiter.executeMany(EnrichmentPriority.HIGH, () ->
+                        residencyManager.executeMany(model, (client, keepAlive) -> client.post()
+                                .uri("/api/generate")
+                                .bodyValue(Map.of("model", model, "prompt", prompt, "keep_alive", keepAlive))
+                                .retrieve()
+                                .bodyToFlux(OllamaGenerateChunk.class)
+                                .timeout(Mono.delay(config.getFirstTokenTimeout()),
+                                        chunk -> Mono.delay(config.getTokenTimeout()))
+                                .takeUntil(OllamaGenerateChunk::done)))
+                .mapNotNull(OllamaGenerateChunk::response)
+                .filter(token -> !token.isEmpty())
+                .doOnSubscribe(sub -> log.debug("Streaming answer from model {}", model))
+                .doOnError(error -> log.warn("Answer stream from model {} failed: {}", model, error.getMessage()));
+    }
+}
@@ -1,15 +1,24 @@
 package org.papercloud.de.service;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.papercloud.de.config.LlmBatchingConfiguration;
+import org.papercloud.de.core.dto.llm.EnrichmentPriority;
 import org.papercloud.de.core.dto.llm.EnrichmentResultDTO;
 import org.papercloud.de.core.ports.outbound.EnrichmentService;
+import org.papercloud.de.service.batch.EnrichmentBatcher;
+import org.papercloud.de.service.cache.EnrichmentResultCache;
+import org.papercloud.de.service.cascade.ModelCascade;
+import org.papercloud.de.service.concurrency.AdaptiveConcurrencyLimiter;
+import org.papercloud.de.service.internal.JsonCompletionTracker;
 import org.papercloud.de.service.internal.LlmResponseProcessingService;
+import org.papercloud.de.service.internal.OllamaGenerateChunk;
+import org.papercloud.de.service.routing.ModelResidencyManager;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -18,27 +27,59 @@ import java.util.Map;
  * This adapter communicates with an Ollama LLM instance.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class OllamaEnrichmentServiceImpl implements EnrichmentService {
 
-    private static final String MODEL_NAME = "qwen2.5:0.5b";
+    /** Part of the cache key; bump whenever the prompts change in a way that affects results. */
+    private static final String PROMPT_VERSION = "1";
     private static final String PROMPT_TEMPLATE =
             "Give me a json-format with title, date_sent with Format DD.MM.YYYY and 5 tags for this text: \"%s\"";
+    private static final String BATCH_PROMPT_TEMPLATE =
+            "Give me a json-array with one object per document below. Each object must contain the id of the document, "
+                    + "title, date_sent with Format DD.MM.YYYY and 5 tags for the text of that document.\n%s";
+    private static final String BATCH_DOCUMENT_TEMPLATE = "Document id %s: \"%s\"\n";
     private static final Duration OLLAMA_TIMEOUT = Duration.ofMinutes(10);
 
-    private final WebClient webClient;
+    private final ModelResidencyManager residencyManager;
     private final LlmResponseProcessingService llmResponseProcessingService;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final EnrichmentBatcher batcher;
+    private final EnrichmentResultCache resultCache;
+    private final ModelCascade modelCascade;
+
+    public OllamaEnrichmentServiceImpl(ModelResidencyManager residencyManager,
+                                       LlmResponseProcessingService llmResponseProcessingService,
+                                       AdaptiveConcurrencyLimiter concurrencyLimiter,
+                                       LlmBatchingConfiguration batchingConfiguration,
+                                       EnrichmentResultCache resultCache,
+                                       ModelCascade modelCascade,
+                                       MeterRegistry meterRegistry) {
+        this.residencyManager = residencyManager;
+        this.llmResponseProcessingService = llmResponseProcessingService;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.batcher = new EnrichmentBatcher(batchingConfiguration, this::enrichBatchAsync, this::enrichSingleAsync,
+                meterRegistry);
+        this.resultCache = resultCache;
+        this.modelCascade = modelCascade;
+    }
 
     @Override
     public Mono<EnrichmentResultDTO> enrichTextAsync(String plainText) {
+        return enrichTextAsync(plainText, EnrichmentPriority.NORMAL);
+    }
+
+    @Override
+    public Mono<EnrichmentResultDTO> enrichTextAsync(String plainText, EnrichmentPriority priority) {
+        String models = String.join(",", modelCascade.getModels());
+        String cacheKey = EnrichmentResultCache.key(plainText, models, PROMPT_VERSION);
+        return resultCache.get(cacheKey, () -> batcher.submit(plainText, priority));
+    }
+
+    private Mono<EnrichmentResultDTO> enrichSingleAsync(String plainText, EnrichmentPriority priority) {
         String prompt = buildPrompt(plainText);
         log.debug("OLLAMA prompt: {}", prompt);
 
-        return sendPromptToModelAsync(prompt)
-                // ignore null / blank body
-                .filter(responseBody -> responseBody != null && !responseBody.isBlank())
-                .flatMap(this::mapResponseToEnrichmentResult)
+        return modelCascade.run(model -> requestEnrichment(model, prompt, priority))
                 .doOnSuccess(response -> log.info("OLLAMA response: {}", response))
                 // no Body (404 etc.) → fallback
                 .switchIfEmpty(Mono.just(getFallbackResult()))
@@ -49,32 +90,70 @@ public class OllamaEnrichmentServiceImpl implements EnrichmentService {
                 });
     }
 
-    private Mono<EnrichmentResultDTO> mapResponseToEnrichmentResult(String responseBody) {
-        return Mono.fromCallable(() -> {
-                    String json = llmResponseProcessingService.extractJsonResponse(responseBody);
-                    return llmResponseProcessingService.extractEmbeddedJson(json);
-                })
+    private Mono<EnrichmentResultDTO> requestEnrichment(String model, String prompt, EnrichmentPriority priority) {
+        return sendPromptToModelAsync(model, prompt, JsonCompletionTracker.OBJECT, priority)
+                // ignore null / blank body
+                .filter(responseText -> responseText != null && !responseText.isBlank())
+                .flatMap(this::mapResponseToEnrichmentResult);
+    }
+
+    private Mono<Map<String, EnrichmentResultDTO>> enrichBatchAsync(Map<String, String> textsById,
+                                                                    EnrichmentPriority priority) {
+        String prompt = buildBatchPrompt(textsById);
+        log.debug("OLLAMA batch prompt: {}", prompt);
+
+        // Batches always use the cheapest model. Missing or implausible entries are dropped so
+        // the batcher retries them as single requests, which run through the full cascade.
+        return sendPromptToModelAsync(modelCascade.firstModel(), prompt, JsonCompletionTracker.OBJECT_OR_ARRAY, priority)
+                .filter(responseText -> !responseText.isBlank())
+                .map(responseText -> {
+                    String array = llmResponseProcessingService.extractEmbeddedJsonArray(responseText);
+                    Map<String, EnrichmentResultDTO> results = new HashMap<>(
+                            llmResponseProcessingService.parseBatchEnrichmentResult(array));
+                    results.values().removeIf(result -> !modelCascade.isPlausible(result));
+                    return results;
+                });
+    }
+
+    private Mono<EnrichmentResultDTO> mapResponseToEnrichmentResult(String responseText) {
+        return Mono.fromCallable(() -> llmResponseProcessingService.extractEmbeddedJson(responseText))
                 .flatMap(json ->
                         Mono.justOrEmpty(llmResponseProcessingService.parseEnrichmentResult(json))
                 );
     }
 
-    private Mono<String> sendPromptToModelAsync(String prompt) {
-        return webClient.post()
-                .uri("/api/generate")
-                .bodyValue(Map.of("model", MODEL_NAME, "prompt", prompt))
-                .retrieve()
-                .bodyToMono(String.class)
-                .timeout(OLLAMA_TIMEOUT)
-                .doOnSubscribe(sub -> log.info("Calling OLLAMA (reactive)..."))
+    private Mono<String> sendPromptToModelAsync(String model, String prompt, String jsonOpeningChars,
+                                                EnrichmentPriority priority) {
+        return concurrencyLimiter.execute(priority, () -> streamResponseText(model, prompt, jsonOpeningChars))
+                .doOnSubscribe(sub -> log.info("Calling OLLAMA model {} (reactive)...", model))
                 .doOnSuccess(resp -> log.info("OLLAMA response received."))
-                // ANY client error (404, timeout, etc.) → log & emit empty()
+                // ANY client error (404, timeout, queue full, etc.) → log & emit empty()
                 .onErrorResume(e -> {
                     log.error("Failed to call Ollama model", e);
                     return Mono.empty();
                 });
     }
 
+    /**
+     * Streams the NDJSON chunks of a generate call and concatenates their response tokens.
+     * The stream is cancelled as soon as the first JSON value in the output is closed, which
+     * aborts the remaining generation on the Ollama side. Every attempt, including a hedged
+     * one running next to the first, collects its tokens in its own tracker.
+     */
+    private Mono<String> streamResponseText(String model, String prompt, String jsonOpeningChars) {
+        return residencyManager.execute(model, (client, keepAlive) -> {
+            JsonCompletionTracker tracker = new JsonCompletionTracker(jsonOpeningChars);
+            return client.post()
+                    .uri("/api/generate")
+                    .bodyValue(Map.of("model", model, "prompt", prompt, "keep_alive", keepAlive))
+                    .retrieve()
+                    .bodyToFlux(OllamaGenerateChunk.class)
+                    .takeUntil(chunk -> tracker.append(chunk.response()) || chunk.done())
+                    .then(Mono.fromSupplier(tracker::text))
+                    .timeout(OLLAMA_TIMEOUT);
+        });
+    }
+
     private EnrichmentResultDTO getFallbackResult() {
         return EnrichmentResultDTO.builder()
                 .title("Unknown Title")
@@ -87,4 +166,10 @@ public class OllamaEnrichmentServiceImpl implements EnrichmentService {
     private String buildPrompt(String plainText) {
         return PROMPT_TEMPLATE.formatted(plainText);
     }
+
+    private String buildBatchPrompt(Map<String, String> textsById) {
+        StringBuilder documents = new StringBuilder();
+        textsById.forEach((id, text) -> documents.append(BATCH_DOCUMENT_TEMPLATE.formatted(id, text)));
+        return BATCH_PROMPT_TEMPLATE.formatted(documents);
+    }
 }
@@ -2,6 +2,7 @@ package org.papercloud.de.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.papercloud.de.core.dto.llm.EnrichmentResultDTO;
@@ -11,6 +12,8 @@ import org.springframework.stereotype.Service;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.StringReader;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -21,6 +24,9 @@ import java.util.stream.Collectors;
 @Slf4j
 public class OllamaResponseProcessingServiceImpl implements LlmResponseProcessingService {
 
+    private static final Pattern BACKTICK_OBJECT_PATTERN = Pattern.compile("```\\s*(\\{.*?\\})\\s*```", Pattern.DOTALL);
+    private static final Pattern BACKTICK_ARRAY_PATTERN = Pattern.compile("```(?:json)?\\s*(\\[.*?\\])\\s*```", Pattern.DOTALL);
+
     private final ObjectMapper objectMapper;
 
     @Override
@@ -66,6 +72,58 @@ public class OllamaResponseProcessingServiceImpl implements LlmResponseProcessin
         }
     }
 
+    @Override
+    public String extractEmbeddedJsonArray(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            return "";
+        }
+
+        Matcher matcher = BACKTICK_ARRAY_PATTERN.matcher(text);
+        if (matcher.find()) {
+            return matcher.group(1).trim();
+        }
+
+        int firstBracket = text.indexOf('[');
+        int lastBracket = text.lastIndexOf(']');
+        if (firstBracket != -1 && lastBracket > firstBracket) {
+            return text.substring(firstBracket, lastBracket + 1).trim();
+        }
+
+        // Some models answer with an object keyed by document id instead of an array
+        return extractOutermostJsonBlock(text);
+    }
+
+    @Override
+    public Map<String, EnrichmentResultDTO> parseBatchEnrichmentResult(String json) {
+        Map<String, EnrichmentResultDTO> results = new LinkedHashMap<>();
+        try {
+            JsonNode root = objectMapper.readTree(json);
+            if (root == null) {
+                return results;
+            }
+            if (root.isArray()) {
+                for (JsonNode element : root) {
+                    JsonNode id = element.get("id");
+                    if (element.isObject() && id != null && !id.asText().isBlank()) {
+                        ObjectNode fields = ((ObjectNode) element).deepCopy();
+                        fields.remove("id");
+                        results.put(id.asText(), objectMapper.treeToValue(fields, EnrichmentResultDTO.class));
+                    }
+                }
+            } else if (root.isObject()) {
+                for (Map.Entry<String, JsonNode> entry : root.properties()) {
+                    if (entry.getValue().isObject()) {
+                        results.put(entry.getKey(), objectMapper.treeToValue(entry.getValue(), EnrichmentResultDTO.class));
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to parse batch enrichment result JSON", e);
+            return Map.of();
+        }
+        return results;
+    }
+
     private String extractResponseFromLine(String line) {
         try {
             JsonNode node = objectMapper.readTree(line);
@@ -78,8 +136,7 @@ public class OllamaResponseProcessingServiceImpl implements LlmResponseProcessin
     }
 
     private String extractFromTripleBackticks(String text) {
-        Pattern tripleBacktickPattern = Pattern.compile("```\\s*(\\{.*?\\})\\s*```", Pattern.DOTALL);
-        Matcher matcher = tripleBacktickPattern.matcher(text);
+        Matcher matcher = BACKTICK_OBJECT_PATTERN.matcher(text);
 
         return matcher.find() ? matcher.group(1).trim() : "";
     }
@@ -0,0 +1,181 @@
+package org.papercloud.de.service.batch;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.papercloud.de.config.LlmBatchingConfiguration;
+import org.papercloud.de.core.dto.llm.EnrichmentPriority;
+import org.papercloud.de.core.dto.llm.EnrichmentResultDTO;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects enrichment requests that arrive within a short window and sends them as one
+ * multi-document prompt. Documents the batch response does not cover are retried one by one.
+ */
+@Slf4j
+public class EnrichmentBatcher {
+
+    /**
+     * Enriches several texts at once. The returned map is keyed by the ids of the input map;
+     * missing entries are treated as failed for that document.
+     */
+    @FunctionalInterface
+    public interface BatchCall {
+        Mono<Map<String, EnrichmentResultDTO>> enrich(Map<String, String> textsById, EnrichmentPriority priority);
+    }
+
+    @FunctionalInterface
+    public interface SingleCall {
+        Mono<EnrichmentResultDTO> enrich(String text, EnrichmentPriority priority);
+    }
+
+    private final LlmBatchingConfiguration config;
+    private final BatchCall batchCall;
+    private final SingleCall singleCall;
+    private final Scheduler scheduler;
+
+    private final Counter batchCounter;
+    private final Counter fallbackCounter;
+    private final DistributionSummary batchSize;
+
+    private final Object lock = new Object();
+    private List<Pending> pending = new ArrayList<>();
+    private int pendingChars;
+    private Disposable flushTimer;
+
+    public EnrichmentBatcher(LlmBatchingConfiguration config, BatchCall batchCall, SingleCall singleCall,
+                             MeterRegistry meterRegistry) {
+        this(config, batchCall, singleCall, meterRegistry, Schedulers.parallel());
+    }
+
+    EnrichmentBatcher(LlmBatchingConfiguration config, BatchCall batchCall, SingleCall singleCall,
+                      MeterRegistry meterRegistry, Scheduler scheduler) {
+        this.config = config;
+        this.batchCall = batchCall;
+        this.singleCall = singleCall;
+        this.scheduler = scheduler;
+        this.batchCounter = meterRegistry.counter("llm.batching.batches");
+        this.fallbackCounter = meterRegistry.counter("llm.batching.fallbacks");
+        this.batchSize = DistributionSummary.builder("llm.batching.size").register(meterRegistry);
+    }
+
+    public Mono<EnrichmentResultDTO> submit(String text, EnrichmentPriority priority) {
+        if (!config.isEnabled() || config.getMaxBatchSize() <= 1 || text.length() > config.getMaxBatchChars()) {
+            return singleCall.enrich(text, priority);
+        }
+
+        return Mono.create(sink -> {
+            Pending request = new Pending(text, priority, sink);
+            List<List<Pending>> ready = new ArrayList<>(2);
+
+            synchronized (lock) {
+                if (!pending.isEmpty() && pendingChars + text.length() > config.getMaxBatchChars()) {
+                    ready.add(drain());
+                }
+                pending.add(request);
+                pendingChars += text.length();
+                if (pending.size() >= config.getMaxBatchSize()) {
+                    ready.add(drain());
+                } else if (flushTimer == null) {
+                    flushTimer = scheduler.schedule(this::flushOnTimer,
+                            config.getMaxWait().toMillis(), TimeUnit.MILLISECONDS);
+                }
+            }
+
+            sink.onCancel(() -> withdraw(request));
+            ready.forEach(this::dispatch);
+        });
+    }
+
+    private void flushOnTimer() {
+        List<Pending> batch;
+        synchronized (lock) {
+            flushTimer = null;
+            batch = drain();
+        }
+        dispatch(batch);
+    }
+
+    private void withdraw(Pending request) {
+        synchronized (lock) {
+            if (pending.remove(request)) {
+                pendingChars -= request.text().length();
+            }
+        }
+    }
+
+    /** Must be called while holding {@link #lock}. */
+    private List<Pending> drain() {
+        List<Pending> batch = pending;
+        pending = new ArrayList<>();
+        pendingChars = 0;
+        if (flushTimer != null) {
+            flushTimer.dispose();
+            flushTimer = null;
+        }
+        return batch;
+    }
+
+    private void dispatch(List<Pending> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (batch.size() == 1) {
+            enrichSingly(batch.get(0));
+            return;
+        }
+
+        Map<String, String> textsById = new LinkedHashMap<>();
+        Map<String, Pending> requestsById = new LinkedHashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            String id = String.valueOf(i + 1);
+            textsById.put(id, batch.get(i).text());
+            requestsById.put(id, batch.get(i));
+        }
+        // One slow LOW request must not drag a HIGH one to the back of the LLM queue
+        EnrichmentPriority priority = batch.stream()
+                .map(Pending::priority)
+                .min(Comparator.naturalOrder())
+                .orElse(EnrichmentPriority.NORMAL);
+
+        batchCounter.increment();
+        batchSize.record(batch.size());
+        log.debug("Sending enrichment batch of {} documents", batch.size());
+
+        batchCall.enrich(textsById, priority)
+                .onErrorResume(e -> {
+                    log.warn("Batch enrichment failed, falling back to single-document requests", e);
+                    return Mono.empty();
+                })
+                .defaultIfEmpty(Map.of())
+                .subscribe(results -> requestsById.forEach((id, request) -> {
+                    EnrichmentResultDTO result = results.get(id);
+                    if (result != null) {
+                        request.sink().success(result);
+                    } else {
+                        fallbackCounter.increment();
+                        enrichSingly(request);
+                    }
+                }));
+    }
+
+    private void enrichSingly(Pending request) {
+        singleCall.enrich(request.text(), request.priority())
+                .subscribe(request.sink()::success, request.sink()::error, request.sink()::success);
+    }
+
+    private record Pending(String text, EnrichmentPriority priority, MonoSink<EnrichmentResultDTO> sink) {
+    }
+}
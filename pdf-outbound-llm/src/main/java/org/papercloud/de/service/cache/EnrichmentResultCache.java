@@ -0,0 +1,155 @@
+package org.papercloud.de.service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.papercloud.de.config.LlmCacheConfiguration;
+import org.papercloud.de.core.dto.llm.EnrichmentResultDTO;
+import org.papercloud.de.core.ports.outbound.EnrichmentCacheRepository;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Two-tier cache for enrichment results: an in-memory LRU backed by the
+ * {@link EnrichmentCacheRepository}. Concurrent lookups for the same key share a single
+ * in-flight load, so identical texts reach the LLM at most once at a time.
+ * <p>
+ * Fallback results ({@code flagFailedEnrichment}) are never cached.
+ */
+@Slf4j
+@Component
+public class EnrichmentResultCache {
+
+    private final LlmCacheConfiguration config;
+    private final EnrichmentCacheRepository repository;
+
+    private final Map<String, EnrichmentResultDTO> memory;
+    private final Map<String, Mono<EnrichmentResultDTO>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter memoryHits;
+    private final Counter storeHits;
+    private final Counter misses;
+    private final Counter coalesced;
+
+    public EnrichmentResultCache(LlmCacheConfiguration config, EnrichmentCacheRepository repository,
+                                 MeterRegistry meterRegistry) {
+        this.config = config;
+        this.repository = repository;
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, EnrichmentResultDTO> eldest) {
+                return size() > config.getMaxEntries();
+            }
+        };
+        this.memoryHits = meterRegistry.counter("llm.cache.hits", "tier", "memory");
+        this.storeHits = meterRegistry.counter("llm.cache.hits", "tier", "store");
+        this.misses = meterRegistry.counter("llm.cache.misses");
+        this.coalesced = meterRegistry.counter("llm.cache.coalesced");
+    }
+
+    /**
+     * Builds the cache key for a text. Changing the model or the prompt version yields a new key,
+     * so stale results are simply never looked up again.
+     */
+    public static String key(String text, String model, String promptVersion) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(model.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(promptVersion.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public Mono<EnrichmentResultDTO> get(String key, Supplier<Mono<EnrichmentResultDTO>> loader) {
+        if (!config.isEnabled()) {
+            return Mono.defer(loader);
+        }
+        return Mono.defer(() -> {
+            EnrichmentResultDTO cached = getFromMemory(key);
+            if (cached != null) {
+                memoryHits.increment();
+                return Mono.just(cached);
+            }
+
+            boolean[] created = new boolean[1];
+            Mono<EnrichmentResultDTO> shared = inFlight.computeIfAbsent(key, k -> {
+                created[0] = true;
+                // Remove before the result is emitted, so a lookup right after completion
+                // goes through the memory tier instead of replaying an uncached result
+                return load(k, loader)
+                        .doOnTerminate(() -> inFlight.remove(k))
+                        .cache();
+            });
+            if (!created[0]) {
+                coalesced.increment();
+            }
+            return shared;
+        });
+    }
+
+    private Mono<EnrichmentResultDTO> load(String key, Supplier<Mono<EnrichmentResultDTO>> loader) {
+        return Mono.fromCallable(() -> repository.findByCacheKey(key))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(Mono::justOrEmpty)
+                .doOnNext(result -> storeHits.increment())
+                .onErrorResume(e -> {
+                    log.warn("Enrichment cache lookup failed for key {}", key, e);
+                    return Mono.empty();
+                })
+                .switchIfEmpty(Mono.defer(() -> {
+                    misses.increment();
+                    return Mono.defer(loader).flatMap(result -> persist(key, result));
+                }))
+                .doOnNext(result -> {
+                    if (!result.isFlagFailedEnrichment()) {
+                        putInMemory(key, result);
+                    }
+                });
+    }
+
+    private Mono<EnrichmentResultDTO> persist(String key, EnrichmentResultDTO result) {
+        if (result.isFlagFailedEnrichment()) {
+            return Mono.just(result);
+        }
+        return Mono.fromRunnable(() -> repository.save(key, result))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(e -> {
+                    log.warn("Failed to persist enrichment cache entry {}", key, e);
+                    return Mono.empty();
+                })
+                .thenReturn(result);
+    }
+
+    private EnrichmentResultDTO getFromMemory(String key) {
+        synchronized (memory) {
+            return memory.get(key);
+        }
+    }
+
+    private void putInMemory(String key, EnrichmentResultDTO result) {
+        synchronized (memory) {
+            memory.put(key, result);
+        }
+    }
+
+    public int getMemorySize() {
+        synchronized (memory) {
+            return memory.size();
+        }
+    }
+}
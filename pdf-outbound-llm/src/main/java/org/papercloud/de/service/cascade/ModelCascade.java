@@ -0,0 +1,127 @@
+package org.papercloud.de.service.cascade;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.papercloud.de.config.LlmCascadeConfiguration;
+import org.papercloud.de.core.dto.llm.EnrichmentResultDTO;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Runs an enrichment call against the configured models from smallest to largest and stops at
+ * the first result that passes the schema and plausibility checks.
+ * <p>
+ * Usage and latency are recorded per model as {@code llm.cascade.results} (tagged with the
+ * outcome) and {@code llm.cascade.latency}.
+ */
+@Slf4j
+@Component
+public class ModelCascade {
+
+    private static final DateTimeFormatter DATE_FORMAT =
+            DateTimeFormatter.ofPattern("dd.MM.uuuu").withResolverStyle(ResolverStyle.STRICT);
+    private static final String FALLBACK_TITLE = "Unknown Title";
+
+    private final LlmCascadeConfiguration config;
+    private final MeterRegistry meterRegistry;
+
+    public ModelCascade(LlmCascadeConfiguration config, MeterRegistry meterRegistry) {
+        if (config.getModels() == null || config.getModels().isEmpty()) {
+            throw new IllegalArgumentException("llm.cascade.models must contain at least one model");
+        }
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public List<String> getModels() {
+        return config.getModels();
+    }
+
+    public String firstModel() {
+        return config.getModels().get(0);
+    }
+
+    /**
+     * Calls the models in order. The last model's result is returned even if implausible;
+     * the returned Mono is empty only if no model produced a result at all.
+     */
+    public Mono<EnrichmentResultDTO> run(Function<String, Mono<EnrichmentResultDTO>> callForModel) {
+        return runTier(callForModel, 0);
+    }
+
+    public boolean isPlausible(EnrichmentResultDTO result) {
+        if (result == null || result.isFlagFailedEnrichment()) {
+            return false;
+        }
+        if (result.getTitle() == null || result.getTitle().isBlank() || FALLBACK_TITLE.equals(result.getTitle())) {
+            return false;
+        }
+        if (result.getTags() == null || result.getTagNames().stream().allMatch(tag -> tag == null || tag.isBlank())) {
+            return false;
+        }
+        return isPlausibleDate(result.getDate_sent());
+    }
+
+    private boolean isPlausibleDate(String date) {
+        if (date == null) {
+            return false;
+        }
+        try {
+            LocalDate parsed = LocalDate.parse(date.trim(), DATE_FORMAT);
+            return parsed.getYear() >= config.getMinPlausibleYear() && !parsed.isAfter(LocalDate.now().plusYears(1));
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    private Mono<EnrichmentResultDTO> runTier(Function<String, Mono<EnrichmentResultDTO>> callForModel, int tier) {
+        String model = config.getModels().get(tier);
+        boolean lastTier = tier == config.getModels().size() - 1;
+
+        return Mono.defer(() -> {
+                    long start = System.nanoTime();
+                    return callForModel.apply(model)
+                            .doFinally(signal -> latency(model).record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+                })
+                .onErrorResume(e -> {
+                    log.warn("Enrichment with model {} failed", model, e);
+                    return Mono.empty();
+                })
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(result -> {
+                    if (result.isPresent() && isPlausible(result.get())) {
+                        count(model, "accepted");
+                        return Mono.just(result.get());
+                    }
+                    if (lastTier) {
+                        count(model, "failed");
+                        return Mono.justOrEmpty(result);
+                    }
+                    count(model, "escalated");
+                    log.info("Result of model {} failed plausibility checks, escalating to {}",
+                            model, config.getModels().get(tier + 1));
+                    return runTier(callForModel, tier + 1);
+                });
+    }
+
+    private Timer latency(String model) {
+        return Timer.builder("llm.cascade.latency")
+                .tag("model", model)
+                .register(meterRegistry);
+    }
+
+    private void count(String model, String outcome) {
+        meterRegistry.counter("llm.cascade.results", "model", model, "outcome", outcome).increment();
+    }
+}
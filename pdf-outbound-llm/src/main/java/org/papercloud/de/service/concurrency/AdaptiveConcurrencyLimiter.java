@@ -0,0 +1,279 @@
+package org.papercloud.de.service.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.papercloud.de.config.LlmConcurrencyConfiguration;
+import org.papercloud.de.core.dto.llm.EnrichmentPriority;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Latency-driven AIMD limiter for calls to the LLM backend.
+ * <p>
+ * The limit grows by roughly one slot per window of successful calls whose latency stays
+ * close to the measured no-load baseline, and shrinks multiplicatively when latency climbs
+ * past {@code latencyTolerance × baseline} or a call times out. Calls over the limit wait in
+ * a priority queue; when the queue is full or a call waits too long it is rejected with
+ * {@link LlmCapacityExceededException}.
+ */
+@Slf4j
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    enum Outcome {
+        SUCCESS,
+        DROPPED,
+        IGNORED
+    }
+
+    private final LlmConcurrencyConfiguration config;
+    private final Counter rejections;
+    private final Timer latency;
+
+    private final Object lock = new Object();
+    private final PriorityQueue<Waiter> queue = new PriorityQueue<>(
+            Comparator.comparing(Waiter::priority).thenComparingLong(Waiter::sequence));
+    /** Waiters that hold a slot but have not been signalled yet, in grant order. */
+    private final Deque<Waiter> grantedWaiters = new ArrayDeque<>();
+    private final AtomicInteger signalling = new AtomicInteger();
+    private long sequence;
+    private double limit;
+    private int inFlight;
+    private long baselineNanos = Long.MAX_VALUE;
+    private long windowMinNanos = Long.MAX_VALUE;
+    private int samplesInWindow;
+
+    public AdaptiveConcurrencyLimiter(LlmConcurrencyConfiguration config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.limit = Math.max(config.getMinLimit(), Math.min(config.getMaxLimit(), config.getInitialLimit()));
+
+        Gauge.builder("llm.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current number of allowed in-flight LLM calls")
+                .register(meterRegistry);
+        Gauge.builder("llm.concurrency.in_flight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .register(meterRegistry);
+        Gauge.builder("llm.concurrency.queue.size", this, AdaptiveConcurrencyLimiter::getQueueSize)
+                .register(meterRegistry);
+        this.rejections = Counter.builder("llm.concurrency.rejections")
+                .description("LLM calls rejected because the queue was full or the wait timed out")
+                .register(meterRegistry);
+        this.latency = Timer.builder("llm.concurrency.latency")
+                .description("Latency of LLM calls that passed the limiter")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the given call once a slot is free. The supplier is invoked lazily, so no request
+     * is sent while the call is still queued.
+     */
+    public <T> Mono<T> execute(EnrichmentPriority priority, Supplier<Mono<T>> call) {
+        return acquire(priority)
+                .flatMap(permit -> {
+                    long start = System.nanoTime();
+                    return Mono.defer(call)
+                            .doOnSuccess(value -> permit.release(Outcome.SUCCESS, System.nanoTime() - start))
+                            .doOnError(error -> permit.release(classify(error), System.nanoTime() - start))
+                            .doOnCancel(() -> permit.release(Outcome.IGNORED, 0));
+                });
+    }
+
+    /**
+     * Runs a streaming call once a slot is free and holds the slot until the stream ends.
+     * The duration of a stream depends on how much it emits, so it never feeds the latency
+     * baseline; only timeouts and overload responses lower the limit.
+     */
+    public <T> Flux<T> executeMany(EnrichmentPriority priority, Supplier<Flux<T>> call) {
+        return acquire(priority)
+                .flatMapMany(permit -> Flux.defer(call)
+                        .doOnComplete(() -> permit.release(Outcome.IGNORED, 0))
+                        .doOnError(error -> permit.release(classify(error), 0))
+                        .doOnCancel(() -> permit.release(Outcome.IGNORED, 0)));
+    }
+
+    public double getLimit() {
+        synchronized (lock) {
+            return limit;
+        }
+    }
+
+    public int getInFlight() {
+        synchronized (lock) {
+            return inFlight;
+        }
+    }
+
+    public int getQueueSize() {
+        synchronized (lock) {
+            return queue.size();
+        }
+    }
+
+    private Mono<Permit> acquire(EnrichmentPriority priority) {
+        EnrichmentPriority effectivePriority = priority != null ? priority : EnrichmentPriority.NORMAL;
+        Mono<Permit> permit = Mono.create(sink -> {
+            Permit granted = null;
+            Waiter waiter = null;
+            boolean rejected = false;
+
+            synchronized (lock) {
+                if (queue.isEmpty() && inFlight < effectiveLimit()) {
+                    inFlight++;
+                    granted = new Permit();
+                } else if (queue.size() >= config.getMaxQueueSize()) {
+                    rejected = true;
+                } else {
+                    waiter = new Waiter(effectivePriority, sequence++, sink, new Permit());
+                    queue.add(waiter);
+                }
+            }
+
+            if (granted != null) {
+                sink.success(granted);
+            } else if (rejected) {
+                rejections.increment();
+                sink.error(new LlmCapacityExceededException("LLM request queue is full"));
+            } else {
+                Waiter queued = waiter;
+                sink.onCancel(() -> cancel(queued));
+            }
+        });
+
+        return permit
+                .timeout(config.getMaxQueueWait())
+                .onErrorMap(TimeoutException.class, e -> {
+                    rejections.increment();
+                    return new LlmCapacityExceededException("Timed out waiting for a free LLM slot");
+                });
+    }
+
+    private void cancel(Waiter waiter) {
+        boolean wasQueued;
+        synchronized (lock) {
+            wasQueued = queue.remove(waiter);
+        }
+        if (!wasQueued) {
+            // Granted concurrently with the cancellation; hand the slot back.
+            waiter.permit().release(Outcome.IGNORED, 0);
+        }
+    }
+
+    void onSample(Outcome outcome, long latencyNanos) {
+        synchronized (lock) {
+            int inFlightBefore = inFlight;
+            inFlight--;
+            switch (outcome) {
+                case SUCCESS -> adjustForLatency(latencyNanos, inFlightBefore);
+                case DROPPED -> decrease();
+                case IGNORED -> { }
+            }
+            while (!queue.isEmpty() && inFlight < effectiveLimit()) {
+                inFlight++;
+                grantedWaiters.add(queue.poll());
+            }
+        }
+        if (outcome == Outcome.SUCCESS) {
+            latency.record(latencyNanos, TimeUnit.NANOSECONDS);
+        }
+        signalGranted();
+    }
+
+    /**
+     * Signals granted waiters in order. A call that completes synchronously re-enters
+     * {@link #onSample}; its grants are appended and signalled by the outer loop so that
+     * queue order is preserved.
+     */
+    private void signalGranted() {
+        if (signalling.getAndIncrement() != 0) {
+            return;
+        }
+        do {
+            Waiter next;
+            while ((next = pollGranted()) != null) {
+                next.sink().success(next.permit());
+            }
+        } while (signalling.decrementAndGet() != 0);
+    }
+
+    private Waiter pollGranted() {
+        synchronized (lock) {
+            return grantedWaiters.poll();
+        }
+    }
+
+    private void adjustForLatency(long latencyNanos, int inFlightBefore) {
+        updateBaseline(latencyNanos);
+        if (latencyNanos > baselineNanos * config.getLatencyTolerance()) {
+            decrease();
+        } else if (inFlightBefore >= effectiveLimit()) {
+            // Only grow when the current limit was actually saturated.
+            limit = Math.min(config.getMaxLimit(), limit + 1.0 / limit);
+        }
+    }
+
+    private void decrease() {
+        double previous = limit;
+        limit = Math.max(config.getMinLimit(), limit * config.getBackoffRatio());
+        if ((int) previous != (int) limit) {
+            log.info("LLM concurrency limit lowered to {}", (int) limit);
+        }
+    }
+
+    private void updateBaseline(long latencyNanos) {
+        baselineNanos = Math.min(baselineNanos, latencyNanos);
+        windowMinNanos = Math.min(windowMinNanos, latencyNanos);
+        if (++samplesInWindow >= config.getBaselineWindow()) {
+            // Let the baseline drift upwards when the workload itself got slower.
+            baselineNanos = windowMinNanos;
+            windowMinNanos = Long.MAX_VALUE;
+            samplesInWindow = 0;
+        }
+    }
+
+    private int effectiveLimit() {
+        return Math.max(config.getMinLimit(), (int) limit);
+    }
+
+    private Outcome classify(Throwable error) {
+        if (error instanceof TimeoutException || error instanceof WebClientRequestException) {
+            return Outcome.DROPPED;
+        }
+        if (error instanceof WebClientResponseException responseException) {
+            HttpStatus status = HttpStatus.resolve(responseException.getStatusCode().value());
+            if (status == HttpStatus.SERVICE_UNAVAILABLE || status == HttpStatus.TOO_MANY_REQUESTS) {
+                return Outcome.DROPPED;
+            }
+        }
+        return Outcome.IGNORED;
+    }
+
+    private record Waiter(EnrichmentPriority priority, long sequence, MonoSink<Permit> sink, Permit permit) {
+    }
+
+    private final class Permit {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        void release(Outcome outcome, long latencyNanos) {
+            if (released.compareAndSet(false, true)) {
+                onSample(outcome, latencyNanos);
+            }
+        }
+    }
+}
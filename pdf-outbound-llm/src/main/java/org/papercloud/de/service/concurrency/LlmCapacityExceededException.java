@@ -0,0 +1,7 @@
+package org.papercloud.de.service.concurrency;
+
+public class LlmCapacityExceededException extends RuntimeException {
+    public LlmCapacityExceededException(String message) {
+        super(message);
+    }
+}
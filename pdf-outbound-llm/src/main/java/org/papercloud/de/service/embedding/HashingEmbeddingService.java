@@ -0,0 +1,61 @@
+package org.papercloud.de.service.embedding;
+
+import org.papercloud.de.config.LlmEmbeddingConfiguration;
+import org.papercloud.de.core.ports.outbound.EmbeddingService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Model-free EmbeddingService stub based on feature hashing.
+ * Each word and word bigram is hashed into a signed bucket, so texts sharing words end up
+ * close to each other. There is no understanding of meaning beyond shared vocabulary.
+ */
+@Service
+@ConditionalOnProperty(prefix = "llm.embeddings", name = "provider", havingValue = "hashing")
+public class HashingEmbeddingService implements EmbeddingService {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final int dimensions;
+
+    public HashingEmbeddingService(LlmEmbeddingConfiguration config) {
+        this.dimensions = config.getHashingDimensions();
+    }
+
+    @Override
+    public List<float[]> embed(List<String> texts) {
+        return texts.stream().map(this::embed).toList();
+    }
+
+    @Override
+    public String getModelName() {
+        return "hashing-" + dimensions;
+    }
+
+    float[] embed(String text) {
+        float[] vector = new float[dimensions];
+        String[] words = NON_WORD.split(text.toLowerCase(Locale.ROOT));
+        String previous = null;
+        for (String word : words) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            add(vector, word, 1f);
+            if (previous != null) {
+                add(vector, previous + " " + word, 0.5f);
+            }
+            previous = word;
+        }
+        return vector;
+    }
+
+    private void add(float[] vector, String feature, float weight) {
+        int hash = feature.hashCode() * 0x9E3779B9;
+        int bucket = Math.floorMod(hash, dimensions);
+        vector[bucket] += (hash >>> 31) == 0 ? weight : -weight;
+    }
+}
@@ -0,0 +1,66 @@
+package org.papercloud.de.service.embedding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.papercloud.de.config.LlmEmbeddingConfiguration;
+import org.papercloud.de.core.ports.outbound.EmbeddingService;
+import org.papercloud.de.service.internal.OllamaEmbedResponse;
+import org.papercloud.de.service.routing.ModelResidencyManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ollama implementation of the EmbeddingService port.
+ * Calls go through the endpoint pool but bypass the adaptive concurrency limiter: embedding
+ * calls are an order of magnitude faster than generation and would skew its latency baseline.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "llm.embeddings", name = "provider", havingValue = "ollama", matchIfMissing = true)
+public class OllamaEmbeddingServiceImpl implements EmbeddingService {
+
+    private final LlmEmbeddingConfiguration config;
+    private final ModelResidencyManager residencyManager;
+
+    public OllamaEmbeddingServiceImpl(LlmEmbeddingConfiguration config, ModelResidencyManager residencyManager) {
+        this.config = config;
+        this.residencyManager = residencyManager;
+    }
+
+    @Override
+    public List<float[]> embed(List<String> texts) {
+        List<float[]> embeddings = new ArrayList<>(texts.size());
+        for (int start = 0; start < texts.size(); start += config.getBatchSize()) {
+            List<String> batch = texts.subList(start, Math.min(texts.size(), start + config.getBatchSize()));
+            embeddings.addAll(embedBatch(batch));
+        }
+        return embeddings;
+    }
+
+    @Override
+    public String getModelName() {
+        return config.getModel();
+    }
+
+    private List<float[]> embedBatch(List<String> batch) {
+        String model = config.getModel();
+        OllamaEmbedResponse response = residencyManager.execute(model, (client, keepAlive) -> client.post()
+                        .uri("/api/embed")
+                        .bodyValue(Map.of("model", model, "input", batch, "keep_alive", keepAlive))
+                        .retrieve()
+                        .bodyToMono(OllamaEmbedResponse.class)
+                        .timeout(config.getTimeout()))
+                .block();
+
+        if (response == null || response.embeddings() == null || response.embeddings().size() != batch.size()) {
+            throw new IllegalStateException("Ollama returned "
+                    + (response == null || response.embeddings() == null ? 0 : response.embeddings().size())
+                    + " embeddings for " + batch.size() + " texts");
+        }
+        log.debug("Embedded {} texts with {}", batch.size(), model);
+        return response.embeddings();
+    }
+}
@@ -0,0 +1,81 @@
+package org.papercloud.de.service.internal;
+
+/**
+ * Accumulates streamed model output and detects when the first top-level JSON value is closed,
+ * so generation can be cancelled instead of waiting for trailing prose or backticks.
+ * <p>
+ * Braces and brackets inside JSON strings are ignored. Text before the first opening
+ * character is kept but not tracked.
+ */
+public final class JsonCompletionTracker {
+
+    /** Track the first JSON object. */
+    public static final String OBJECT = "{";
+    /** Track the first JSON object or array, whichever opens first. */
+    public static final String OBJECT_OR_ARRAY = "{[";
+
+    private final String openingChars;
+    private final StringBuilder text = new StringBuilder();
+    private int depth;
+    private boolean started;
+    private boolean inString;
+    private boolean escaped;
+    private boolean complete;
+
+    public JsonCompletionTracker(String openingChars) {
+        this.openingChars = openingChars;
+    }
+
+    /**
+     * Appends a token and returns whether the outer JSON value is complete. Tokens arriving
+     * after completion are ignored.
+     */
+    public boolean append(String token) {
+        if (complete || token == null || token.isEmpty()) {
+            return complete;
+        }
+
+        int from = text.length();
+        text.append(token);
+        for (int i = from; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (!started) {
+                if (openingChars.indexOf(c) >= 0) {
+                    started = true;
+                    depth = 1;
+                }
+                continue;
+            }
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                }
+                continue;
+            }
+            switch (c) {
+                case '"' -> inString = true;
+                case '{', '[' -> depth++;
+                case '}', ']' -> depth--;
+                default -> { }
+            }
+            if (depth == 0) {
+                complete = true;
+                text.setLength(i + 1);
+                break;
+            }
+        }
+        return complete;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public String text() {
+        return text.toString();
+    }
+}
@@ -2,6 +2,7 @@ package org.papercloud.de.service.internal;
 
 import org.papercloud.de.core.dto.llm.EnrichmentResultDTO;
 
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -12,4 +13,6 @@ public interface LlmResponseProcessingService {
     String extractJsonResponse(String responseBody);
     String extractEmbeddedJson(String text);
     Optional<EnrichmentResultDTO> parseEnrichmentResult(String json);
+    String extractEmbeddedJsonArray(String text);
+    Map<String, EnrichmentResultDTO> parseBatchEnrichmentResult(String json);
 }
@@ -0,0 +1,12 @@
+package org.papercloud.de.service.internal;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+
+/**
+ * Response of Ollama's {@code /api/embed} endpoint: one embedding per input, in input order.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record OllamaEmbedResponse(List<float[]> embeddings) {
+}
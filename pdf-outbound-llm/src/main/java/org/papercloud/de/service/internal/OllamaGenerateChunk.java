@@ -0,0 +1,17 @@
+package org.papercloud.de.service.internal;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * One line of the NDJSON stream returned by Ollama's {@code /api/generate} endpoint.
+ * {@code loadDuration} is only set on the final chunk and is the time in nanoseconds spent
+ * loading the model.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record OllamaGenerateChunk(String response, boolean done, @JsonProperty("load_duration") Long loadDuration) {
+
+    public OllamaGenerateChunk(String response, boolean done) {
+        this(response, done, null);
+    }
+}
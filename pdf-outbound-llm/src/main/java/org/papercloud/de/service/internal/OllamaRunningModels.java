@@ -0,0 +1,17 @@
+package org.papercloud.de.service.internal;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Response of Ollama's {@code /api/ps} endpoint: the models currently loaded into memory.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record OllamaRunningModels(List<Model> models) {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Model(String name, @JsonProperty("expires_at") String expiresAt) {
+    }
+}
@@ -0,0 +1,131 @@
+package org.papercloud.de.service.routing;
+
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * One Ollama box in the {@link LlmEndpointPool} together with its load and health state.
+ */
+public class LlmEndpoint {
+
+    private final String baseUrl;
+    private final WebClient client;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    /** Loaded models and the nanoTime at which Ollama will unload them. */
+    private final Map<String, Long> residentUntilNanos = new ConcurrentHashMap<>();
+
+    private double ewmaLatencyNanos;
+    private int consecutiveFailures;
+    private boolean ejected;
+    private long ejectedUntilNanos;
+    private volatile boolean activeHealthy = true;
+
+    public LlmEndpoint(String baseUrl, WebClient client) {
+        this.baseUrl = baseUrl;
+        this.client = client;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public WebClient getClient() {
+        return client;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public synchronized double getEwmaLatencyNanos() {
+        return ewmaLatencyNanos;
+    }
+
+    public boolean isActiveHealthy() {
+        return activeHealthy;
+    }
+
+    synchronized boolean isAvailable(long nowNanos) {
+        return activeHealthy && (!ejected || nowNanos - ejectedUntilNanos >= 0);
+    }
+
+    synchronized long getEjectedUntilNanos() {
+        return ejectedUntilNanos;
+    }
+
+    /**
+     * Expected cost of sending one more request here. Endpoints without samples cost nothing,
+     * so new or recovered boxes get traffic right away.
+     */
+    synchronized double cost() {
+        return ewmaLatencyNanos * (inFlight.get() + 1);
+    }
+
+    void requestStarted() {
+        inFlight.incrementAndGet();
+    }
+
+    void requestFinished() {
+        inFlight.decrementAndGet();
+    }
+
+    synchronized void recordSuccess(long latencyNanos, double alpha) {
+        ewmaLatencyNanos = ewmaLatencyNanos == 0
+                ? latencyNanos
+                : alpha * latencyNanos + (1 - alpha) * ewmaLatencyNanos;
+        consecutiveFailures = 0;
+    }
+
+    /** Clears the failure streak without a latency sample, for calls whose duration says nothing about load. */
+    synchronized void recordHealthy() {
+        consecutiveFailures = 0;
+    }
+
+    /** Returns true if this failure took the endpoint out of rotation. */
+    synchronized boolean recordFailure(int threshold, long ejectionNanos, long nowNanos) {
+        consecutiveFailures++;
+        if (consecutiveFailures >= threshold) {
+            consecutiveFailures = 0;
+            ejected = true;
+            ejectedUntilNanos = nowNanos + ejectionNanos;
+            return true;
+        }
+        return false;
+    }
+
+    void setActiveHealthy(boolean activeHealthy) {
+        this.activeHealthy = activeHealthy;
+    }
+
+    public boolean isResident(String model, long nowNanos) {
+        Long until = residentUntilNanos.get(normalize(model));
+        return until != null && nowNanos - until < 0;
+    }
+
+    public Set<String> getResidentModels(long nowNanos) {
+        return residentUntilNanos.entrySet().stream()
+                .filter(entry -> nowNanos - entry.getValue() < 0)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    public void markResident(String model, long untilNanos) {
+        residentUntilNanos.put(normalize(model), untilNanos);
+    }
+
+    /** Replaces the tracked models with what the endpoint reported as loaded. */
+    public void replaceResidentModels(Map<String, Long> untilNanosByModel) {
+        residentUntilNanos.clear();
+        untilNanosByModel.forEach(this::markResident);
+    }
+
+    /** Ollama reports untagged models with the implicit {@code :latest} tag. */
+    private static String normalize(String model) {
+        return model.contains(":") ? model : model + ":latest";
+    }
+}
@@ -0,0 +1,214 @@
+package org.papercloud.de.service.routing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.papercloud.de.config.LlmEndpointConfiguration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Balances LLM calls across the configured Ollama endpoints.
+ * <p>
+ * Each call goes to the available endpoint with the lowest {@code ewmaLatency × (inFlight + 1)},
+ * plus a cold-start penalty when the endpoint does not have the requested model loaded.
+ * Endpoints leave the rotation after repeated connection errors, timeouts or 5xx responses
+ * (passive check) or a failed {@code /api/tags} probe (active check). If every endpoint is
+ * out of rotation the one that is due back first is used anyway. Optionally a slow call is
+ * hedged to a second endpoint once it exceeds a latency percentile, and the first answer wins.
+ */
+@Slf4j
+@Component
+public class LlmEndpointPool {
+
+    private static final int LATENCY_WINDOW = 256;
+
+    private final LlmEndpointConfiguration config;
+    private final List<LlmEndpoint> endpoints;
+    private final Counter hedges;
+
+    private final long[] latencyWindow = new long[LATENCY_WINDOW];
+    private int latencyCount;
+    private int latencyIndex;
+
+    @Autowired
+    public LlmEndpointPool(LlmEndpointConfiguration config, WebClient webClient, MeterRegistry meterRegistry) {
+        this(config, config.getUrls().stream()
+                .map(url -> new LlmEndpoint(url, webClient.mutate().baseUrl(url).build()))
+                .toList(), meterRegistry);
+    }
+
+    public LlmEndpointPool(LlmEndpointConfiguration config, List<LlmEndpoint> endpoints, MeterRegistry meterRegistry) {
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("llm.endpoints.urls must contain at least one endpoint");
+        }
+        this.config = config;
+        this.endpoints = List.copyOf(endpoints);
+        for (LlmEndpoint endpoint : this.endpoints) {
+            Gauge.builder("llm.endpoint.in_flight", endpoint, LlmEndpoint::getInFlight)
+                    .tag("endpoint", endpoint.getBaseUrl())
+                    .register(meterRegistry);
+            Gauge.builder("llm.endpoint.latency.ewma", endpoint, e -> e.getEwmaLatencyNanos() / 1_000_000)
+                    .tag("endpoint", endpoint.getBaseUrl())
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+            Gauge.builder("llm.endpoint.available", endpoint, e -> e.isAvailable(System.nanoTime()) ? 1 : 0)
+                    .tag("endpoint", endpoint.getBaseUrl())
+                    .register(meterRegistry);
+        }
+        this.hedges = meterRegistry.counter("llm.endpoint.hedges");
+    }
+
+    public List<LlmEndpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Runs the call against the least-loaded endpoint, hedging it to a second endpoint if enabled.
+     *
+     * @param model the model the call needs, used to prefer endpoints that have it loaded; may be null
+     */
+    public <T> Mono<T> execute(String model, Function<LlmEndpoint, Mono<T>> call) {
+        return Mono.defer(() -> {
+            LlmEndpoint primary = select(model, null);
+            Mono<T> primaryCall = attempt(primary, call);
+
+            Duration hedgeDelay = hedgeDelay();
+            if (hedgeDelay == null || endpoints.size() < 2) {
+                return primaryCall;
+            }
+
+            Mono<T> hedgedCall = Mono.delay(hedgeDelay)
+                    .then(Mono.defer(() -> {
+                        LlmEndpoint secondary = select(model, primary);
+                        if (secondary == null) {
+                            return Mono.<T>empty();
+                        }
+                        hedges.increment();
+                        log.debug("Hedging LLM call from {} to {}", primary.getBaseUrl(), secondary.getBaseUrl());
+                        return attempt(secondary, call);
+                    }));
+            return Mono.firstWithValue(primaryCall, hedgedCall);
+        });
+    }
+
+    /**
+     * Runs a streaming call against the least-loaded endpoint. Streams are neither hedged nor
+     * timed: their duration depends on the length of the output, not on the endpoint's load.
+     */
+    public <T> Flux<T> executeMany(String model, Function<LlmEndpoint, Flux<T>> call) {
+        return Flux.defer(() -> {
+            LlmEndpoint endpoint = select(model, null);
+            endpoint.requestStarted();
+            return call.apply(endpoint)
+                    .doOnComplete(endpoint::recordHealthy)
+                    .doOnError(error -> recordFailure(endpoint, error))
+                    .doFinally(signal -> endpoint.requestFinished());
+        });
+    }
+
+    /**
+     * Probes every endpoint. An endpoint that does not answer is skipped until a later probe succeeds.
+     */
+    @Scheduled(fixedDelayString = "${llm.endpoints.health-check-interval-ms:15000}")
+    public void checkHealth() {
+        endpoints.forEach(endpoint -> endpoint.getClient().get()
+                .uri("/api/tags")
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(config.getHealthCheckTimeout())
+                .map(response -> true)
+                .onErrorReturn(false)
+                .subscribe(healthy -> updateActiveHealth(endpoint, healthy)));
+    }
+
+    void updateActiveHealth(LlmEndpoint endpoint, boolean healthy) {
+        if (endpoint.isActiveHealthy() != healthy) {
+            log.info("LLM endpoint {} is now {}", endpoint.getBaseUrl(), healthy ? "healthy" : "unhealthy");
+        }
+        endpoint.setActiveHealthy(healthy);
+    }
+
+    LlmEndpoint select(String model, LlmEndpoint excluded) {
+        long now = System.nanoTime();
+        LlmEndpoint best = endpoints.stream()
+                .filter(endpoint -> endpoint != excluded && endpoint.isAvailable(now))
+                .min(Comparator.<LlmEndpoint>comparingDouble(endpoint -> cost(endpoint, model, now))
+                        .thenComparingInt(LlmEndpoint::getInFlight))
+                .orElse(null);
+        if (best != null || excluded != null) {
+            return best;
+        }
+        // Nothing in rotation: degrade to the endpoint that is due back first rather than failing outright
+        return endpoints.stream()
+                .min(Comparator.comparingLong(LlmEndpoint::getEjectedUntilNanos))
+                .orElseThrow();
+    }
+
+    private double cost(LlmEndpoint endpoint, String model, long nowNanos) {
+        boolean cold = model != null && !endpoint.isResident(model, nowNanos);
+        return endpoint.cost() + (cold ? config.getColdStartPenalty().toNanos() : 0);
+    }
+
+    private <T> Mono<T> attempt(LlmEndpoint endpoint, Function<LlmEndpoint, Mono<T>> call) {
+        return Mono.defer(() -> {
+            endpoint.requestStarted();
+            long start = System.nanoTime();
+            return call.apply(endpoint)
+                    .doOnSuccess(value -> {
+                        long latency = System.nanoTime() - start;
+                        endpoint.recordSuccess(latency, config.getEwmaAlpha());
+                        recordLatency(latency);
+                    })
+                    .doOnError(error -> recordFailure(endpoint, error))
+                    .doFinally(signal -> endpoint.requestFinished());
+        });
+    }
+
+    private void recordFailure(LlmEndpoint endpoint, Throwable error) {
+        if (isEndpointFailure(error) && endpoint.recordFailure(config.getFailureThreshold(),
+                config.getEjectionDuration().toNanos(), System.nanoTime())) {
+            log.warn("LLM endpoint {} taken out of rotation for {}", endpoint.getBaseUrl(),
+                    config.getEjectionDuration());
+        }
+    }
+
+    private boolean isEndpointFailure(Throwable error) {
+        return error instanceof WebClientRequestException
+                || error instanceof TimeoutException
+                || (error instanceof WebClientResponseException response && response.getStatusCode().is5xxServerError());
+    }
+
+    private synchronized void recordLatency(long latencyNanos) {
+        latencyWindow[latencyIndex] = latencyNanos;
+        latencyIndex = (latencyIndex + 1) % LATENCY_WINDOW;
+        latencyCount = Math.min(latencyCount + 1, LATENCY_WINDOW);
+    }
+
+    /** Returns null while hedging is disabled or there are too few samples. */
+    synchronized Duration hedgeDelay() {
+        LlmEndpointConfiguration.Hedging hedging = config.getHedging();
+        if (!hedging.isEnabled() || latencyCount < hedging.getMinSamples()) {
+            return null;
+        }
+        long[] samples = Arrays.copyOf(latencyWindow, latencyCount);
+        Arrays.sort(samples);
+        int index = (int) Math.min(samples.length - 1, Math.ceil(hedging.getPercentile() * samples.length) - 1);
+        Duration percentile = Duration.ofNanos(samples[Math.max(0, index)]);
+        return percentile.compareTo(hedging.getMinDelay()) < 0 ? hedging.getMinDelay() : percentile;
+    }
+}
@@ -0,0 +1,233 @@
+package org.papercloud.de.service.routing;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.papercloud.de.config.LlmResidencyConfiguration;
+import org.papercloud.de.service.cascade.ModelCascade;
+import org.papercloud.de.service.concurrency.AdaptiveConcurrencyLimiter;
+import org.papercloud.de.service.internal.OllamaGenerateChunk;
+import org.papercloud.de.service.internal.OllamaRunningModels;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+
+/**
+ * Keeps enrichment models resident on the Ollama endpoints.
+ * <p>
+ * Configured models are loaded on every endpoint when the application starts. Each request
+ * carries a {@code keep_alive} sized to the current LLM backlog, and the models loaded per
+ * endpoint are tracked from successful calls and a periodic {@code /api/ps} refresh. The
+ * {@link LlmEndpointPool} uses that to prefer endpoints that already have the model loaded.
+ * Requests that hit an endpoint without the model are counted and timed as cold starts.
+ */
+@Slf4j
+@Component
+public class ModelResidencyManager {
+
+    private final LlmResidencyConfiguration config;
+    private final LlmEndpointPool endpointPool;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final ModelCascade modelCascade;
+    private final MeterRegistry meterRegistry;
+
+    public ModelResidencyManager(LlmResidencyConfiguration config,
+                                 LlmEndpointPool endpointPool,
+                                 AdaptiveConcurrencyLimiter concurrencyLimiter,
+                                 ModelCascade modelCascade,
+                                 MeterRegistry meterRegistry) {
+        this.config = config;
+        this.endpointPool = endpointPool;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.modelCascade = modelCascade;
+        this.meterRegistry = meterRegistry;
+
+        for (LlmEndpoint endpoint : endpointPool.getEndpoints()) {
+            Gauge.builder("llm.residency.resident_models", endpoint,
+                            e -> e.getResidentModels(System.nanoTime()).size())
+                    .tag("endpoint", endpoint.getBaseUrl())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Runs a call that needs the given model on the best endpoint for it. The call receives
+     * the endpoint's client and the {@code keep_alive} value to send with the request.
+     */
+    public <T> Mono<T> execute(String model, BiFunction<WebClient, String, Mono<T>> call) {
+        return Mono.defer(() -> {
+            Duration keepAlive = keepAlive();
+            return endpointPool.execute(model, endpoint -> {
+                boolean cold = !endpoint.isResident(model, System.nanoTime());
+                long start = System.nanoTime();
+                return call.apply(endpoint.getClient(), formatKeepAlive(keepAlive))
+                        .doOnSuccess(value -> {
+                            long now = System.nanoTime();
+                            endpoint.markResident(model, now + keepAlive.toNanos());
+                            recordRequest(model, cold, now - start);
+                        });
+            });
+        });
+    }
+
+    /**
+     * Streaming variant of {@link #execute}. The model counts as resident once the first
+     * element arrives, and a cold start is timed up to that first element.
+     */
+    public <T> Flux<T> executeMany(String model, BiFunction<WebClient, String, Flux<T>> call) {
+        return Flux.defer(() -> {
+            Duration keepAlive = keepAlive();
+            return endpointPool.executeMany(model, endpoint -> {
+                boolean cold = !endpoint.isResident(model, System.nanoTime());
+                long start = System.nanoTime();
+                AtomicBoolean first = new AtomicBoolean(true);
+                return call.apply(endpoint.getClient(), formatKeepAlive(keepAlive))
+                        .doOnNext(value -> {
+                            if (first.compareAndSet(true, false)) {
+                                long now = System.nanoTime();
+                                endpoint.markResident(model, now + keepAlive.toNanos());
+                                recordRequest(model, cold, now - start);
+                            }
+                        });
+            });
+        });
+    }
+
+    /**
+     * keep_alive for the next request: the idle value plus a share per pending LLM call, so
+     * models are not unloaded between calls while a backlog is being worked off.
+     */
+    Duration keepAlive() {
+        if (!config.isEnabled()) {
+            return config.getIdleKeepAlive();
+        }
+        int pending = concurrencyLimiter.getQueueSize() + concurrencyLimiter.getInFlight();
+        Duration keepAlive = config.getIdleKeepAlive().plus(config.getKeepAlivePerPendingCall().multipliedBy(pending));
+        return keepAlive.compareTo(config.getMaxKeepAlive()) > 0 ? config.getMaxKeepAlive() : keepAlive;
+    }
+
+    /**
+     * Loads the preload models on every endpoint. Ollama loads a model when it receives a
+     * generate request without a prompt and answers once loading has finished.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        List<String> models = config.getPreloadModels().isEmpty()
+                ? List.of(modelCascade.firstModel())
+                : config.getPreloadModels();
+        for (LlmEndpoint endpoint : endpointPool.getEndpoints()) {
+            for (String model : models) {
+                warmUp(endpoint, model).subscribe();
+            }
+        }
+    }
+
+    Mono<Void> warmUp(LlmEndpoint endpoint, String model) {
+        Duration keepAlive = keepAlive();
+        return endpoint.getClient().post()
+                .uri("/api/generate")
+                .bodyValue(Map.of("model", model, "keep_alive", formatKeepAlive(keepAlive)))
+                .retrieve()
+                .bodyToMono(OllamaGenerateChunk.class)
+                .doOnNext(response -> {
+                    endpoint.markResident(model, System.nanoTime() + keepAlive.toNanos());
+                    if (response.loadDuration() != null) {
+                        loadTimer(model).record(response.loadDuration(), TimeUnit.NANOSECONDS);
+                    }
+                    log.info("Preloaded model {} on {}", model, endpoint.getBaseUrl());
+                })
+                .doOnError(error -> log.warn("Could not preload model {} on {}: {}",
+                        model, endpoint.getBaseUrl(), error.getMessage()))
+                .onErrorComplete()
+                .then();
+    }
+
+    /**
+     * Replaces the tracked residency with what each endpoint reports as loaded, which also
+     * catches models that were unloaded early or loaded by other clients.
+     */
+    @Scheduled(fixedDelayString = "${llm.residency.refresh-interval-ms:60000}")
+    public void refreshResidency() {
+        endpointPool.getEndpoints().forEach(endpoint -> refreshResidency(endpoint).subscribe());
+    }
+
+    Mono<Void> refreshResidency(LlmEndpoint endpoint) {
+        return endpoint.getClient().get()
+                .uri("/api/ps")
+                .retrieve()
+                .bodyToMono(OllamaRunningModels.class)
+                .doOnNext(running -> endpoint.replaceResidentModels(residentUntil(running)))
+                .doOnError(error -> log.debug("Could not refresh loaded models on {}: {}",
+                        endpoint.getBaseUrl(), error.getMessage()))
+                .onErrorComplete()
+                .then();
+    }
+
+    private Map<String, Long> residentUntil(OllamaRunningModels running) {
+        Map<String, Long> untilNanos = new HashMap<>();
+        if (running.models() == null) {
+            return untilNanos;
+        }
+        long now = System.nanoTime();
+        Instant wallNow = Instant.now();
+        for (OllamaRunningModels.Model model : running.models()) {
+            Duration remaining = remaining(model.expiresAt(), wallNow);
+            untilNanos.put(model.name(), now + remaining.toNanos());
+        }
+        return untilNanos;
+    }
+
+    /** Falls back to the idle keep_alive when Ollama reports no or an unparsable expiry. */
+    private Duration remaining(String expiresAt, Instant now) {
+        if (expiresAt == null) {
+            return config.getIdleKeepAlive();
+        }
+        try {
+            return Duration.between(now, OffsetDateTime.parse(expiresAt).toInstant());
+        } catch (DateTimeParseException e) {
+            return config.getIdleKeepAlive();
+        }
+    }
+
+    private void recordRequest(String model, boolean cold, long latencyNanos) {
+        meterRegistry.counter("llm.residency.requests", "model", model, "residency", cold ? "cold" : "warm")
+                .increment();
+        if (cold) {
+            Timer.builder("llm.residency.cold_start")
+                    .description("Latency of LLM calls that had to wait for the model to load")
+                    .tag("model", model)
+                    .register(meterRegistry)
+                    .record(latencyNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer loadTimer(String model) {
+        return Timer.builder("llm.residency.load")
+                .description("Model load time reported by Ollama during warm-up")
+                .tag("model", model)
+                .register(meterRegistry);
+    }
+
+    private static String formatKeepAlive(Duration keepAlive) {
+        return keepAlive.toSeconds() + "s";
+    }
+}
@@ -0,0 +1,124 @@
+package org.papercloud.de.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.papercloud.de.config.LlmCascadeConfiguration;
+import org.papercloud.de.config.LlmChatConfiguration;
+import org.papercloud.de.config.LlmConcurrencyConfiguration;
+import org.papercloud.de.config.LlmEndpointConfiguration;
+import org.papercloud.de.config.LlmResidencyConfiguration;
+import org.papercloud.de.service.cascade.ModelCascade;
+import org.papercloud.de.service.concurrency.AdaptiveConcurrencyLimiter;
+import org.papercloud.de.service.internal.OllamaGenerateChunk;
+import org.papercloud.de.service.routing.LlmEndpoint;
+import org.papercloud.de.service.routing.LlmEndpointPool;
+import org.papercloud.de.service.routing.ModelResidencyManager;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for OllamaAnswerGenerationServiceImpl.
+ * Tests token streaming and release of the concurrency slot.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OllamaAnswerGenerationServiceImpl")
+class OllamaAnswerGenerationServiceImplTest {
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private WebClient webClient;
+
+    @Mock
+    private WebClient.RequestBodySpec requestBodySpec;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private WebClient.RequestHeadersSpec<?> requestHeadersSpec;
+
+    private AdaptiveConcurrencyLimiter limiter;
+    private OllamaAnswerGenerationServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        LlmEndpointPool pool = new LlmEndpointPool(new LlmEndpointConfiguration(),
+                List.of(new LlmEndpoint("http://test", webClient)), meterRegistry);
+        limiter = new AdaptiveConcurrencyLimiter(new LlmConcurrencyConfiguration(), meterRegistry);
+        ModelResidencyManager residencyManager = new ModelResidencyManager(new LlmResidencyConfiguration(), pool,
+                limiter, new ModelCascade(new LlmCascadeConfiguration(), meterRegistry), meterRegistry);
+        service = new OllamaAnswerGenerationServiceImpl(new LlmChatConfiguration(), residencyManager, limiter);
+
+        when(webClient.post().uri("/api/generate")).thenReturn(requestBodySpec);
+        when(requestBodySpec.bodyValue(any())).thenAnswer(invocation -> requestHeadersSpec);
+    }
+
+    @Test
+    @DisplayName("should emit each token as soon as its chunk arrives")
+    void should_emitTokensIncrementally_when_chunksStream() {
+        // Arrange
+        Sinks.Many<OllamaGenerateChunk> chunks = Sinks.many().unicast().onBackpressureBuffer();
+        when(requestHeadersSpec.retrieve().bodyToFlux(OllamaGenerateChunk.class)).thenReturn(chunks.asFlux());
+
+        // Act & Assert
+        StepVerifier.create(service.streamAnswer("prompt"))
+                .then(() -> chunks.tryEmitNext(new OllamaGenerateChunk("Hello", false)))
+                .expectNext("Hello")
+                .then(() -> chunks.tryEmitNext(new OllamaGenerateChunk(" world", false)))
+                .expectNext(" world")
+                .then(() -> chunks.tryEmitNext(new OllamaGenerateChunk("", true)))
+                .verifyComplete();
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("should send the prompt with keep_alive to the chat model")
+    @SuppressWarnings("unchecked")
+    void should_sendPrompt_when_streaming() {
+        // Arrange
+        when(requestHeadersSpec.retrieve().bodyToFlux(OllamaGenerateChunk.class))
+                .thenReturn(Flux.just(new OllamaGenerateChunk("ok", true)));
+
+        // Act
+        service.streamAnswer("What is due?").blockLast();
+
+        // Assert
+        ArgumentCaptor<Object> body = ArgumentCaptor.forClass(Object.class);
+        verify(requestBodySpec).bodyValue(body.capture());
+        assertThat((Map<String, Object>) body.getValue())
+                .containsEntry("model", "qwen2.5:0.5b")
+                .containsEntry("prompt", "What is due?")
+                .containsKey("keep_alive");
+    }
+
+    @Test
+    @DisplayName("should release the slot when the client cancels the stream")
+    void should_releaseSlot_when_cancelled() {
+        // Arrange
+        Sinks.Many<OllamaGenerateChunk> chunks = Sinks.many().unicast().onBackpressureBuffer();
+        when(requestHeadersSpec.retrieve().bodyToFlux(OllamaGenerateChunk.class)).thenReturn(chunks.asFlux());
+
+        // Act & Assert
+        StepVerifier.create(service.streamAnswer("prompt"))
+                .then(() -> chunks.tryEmitNext(new OllamaGenerateChunk("Hi", false)))
+                .expectNext("Hi")
+                .then(() -> assertThat(limiter.getInFlight()).isEqualTo(1))
+                .thenCancel()
+                .verify();
+        assertThat(limiter.getInFlight()).isZero();
+    }
+}
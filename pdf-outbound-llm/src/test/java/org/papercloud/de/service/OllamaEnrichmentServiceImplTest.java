@@ -1,5 +1,6 @@
 package org.papercloud.de.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -9,10 +10,25 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.papercloud.de.config.LlmBatchingConfiguration;
+import org.papercloud.de.config.LlmCacheConfiguration;
+import org.papercloud.de.config.LlmCascadeConfiguration;
+import org.papercloud.de.config.LlmConcurrencyConfiguration;
+import org.papercloud.de.config.LlmEndpointConfiguration;
+import org.papercloud.de.config.LlmResidencyConfiguration;
 import org.papercloud.de.core.dto.llm.EnrichmentResultDTO;
+import org.papercloud.de.core.ports.outbound.EnrichmentCacheRepository;
+import org.papercloud.de.service.cache.EnrichmentResultCache;
+import org.papercloud.de.service.cascade.ModelCascade;
+import org.papercloud.de.service.concurrency.AdaptiveConcurrencyLimiter;
 import org.papercloud.de.service.internal.LlmResponseProcessingService;
+import org.papercloud.de.service.internal.OllamaGenerateChunk;
+import org.papercloud.de.service.routing.LlmEndpoint;
+import org.papercloud.de.service.routing.LlmEndpointPool;
+import org.papercloud.de.service.routing.ModelResidencyManager;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
@@ -20,6 +36,7 @@ import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
@@ -39,6 +56,9 @@ class OllamaEnrichmentServiceImplTest {
     @Mock
     private LlmResponseProcessingService llmResponseProcessingService;
 
+    @Mock
+    private EnrichmentCacheRepository enrichmentCacheRepository;
+
     @Mock
     private WebClient.RequestBodyUriSpec requestBodyUriSpec;
 
@@ -54,11 +74,34 @@ class OllamaEnrichmentServiceImplTest {
     @Captor
     private ArgumentCaptor<Map<String, Object>> bodyCaptor;
 
+    private LlmCascadeConfiguration cascadeConfiguration;
     private OllamaEnrichmentServiceImpl service;
 
     @BeforeEach
     void setUp() {
-        service = new OllamaEnrichmentServiceImpl(webClient, llmResponseProcessingService);
+        cascadeConfiguration = new LlmCascadeConfiguration();
+        createService();
+    }
+
+    private void createService() {
+        createService(new LlmEndpointPool(new LlmEndpointConfiguration(),
+                List.of(new LlmEndpoint("http://test", webClient)), new SimpleMeterRegistry()));
+    }
+
+    private void createService(LlmEndpointPool endpointPool) {
+        AdaptiveConcurrencyLimiter limiter =
+                new AdaptiveConcurrencyLimiter(new LlmConcurrencyConfiguration(), new SimpleMeterRegistry());
+        LlmBatchingConfiguration batching = new LlmBatchingConfiguration();
+        batching.setEnabled(false);
+        LlmCacheConfiguration caching = new LlmCacheConfiguration();
+        caching.setEnabled(false);
+        EnrichmentResultCache cache =
+                new EnrichmentResultCache(caching, enrichmentCacheRepository, new SimpleMeterRegistry());
+        ModelCascade cascade = new ModelCascade(cascadeConfiguration, new SimpleMeterRegistry());
+        ModelResidencyManager residencyManager = new ModelResidencyManager(new LlmResidencyConfiguration(),
+                endpointPool, limiter, cascade, new SimpleMeterRegistry());
+        service = new OllamaEnrichmentServiceImpl(residencyManager, llmResponseProcessingService, limiter, batching, cache,
+                cascade, new SimpleMeterRegistry());
     }
 
     @Nested
@@ -70,7 +113,9 @@ class OllamaEnrichmentServiceImplTest {
         void should_returnEnrichmentResult_when_successfulEnrichment() {
             // Arrange
             String plainText = "This is a test document about finances.";
-            String ollamaResponseBody = "{\"response\":\"Test response\"}";
+            Flux<OllamaGenerateChunk> chunks = Flux.just(
+                    new OllamaGenerateChunk("Test ", false),
+                    new OllamaGenerateChunk("response", true));
             String extractedJson = "{\"title\":\"Finance Report\",\"date_sent\":\"08.02.2026\",\"tags\":[{\"name\":\"finance\"}]}";
             EnrichmentResultDTO expectedResult = EnrichmentResultDTO.builder()
                     .title("Finance Report")
@@ -82,10 +127,8 @@ class OllamaEnrichmentServiceImplTest {
             when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
             when(requestBodySpec.bodyValue(any())).thenReturn(requestHeadersSpec);
             when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-            when(responseSpec.bodyToMono(String.class)).thenReturn(Mono.just(ollamaResponseBody));
+            when(responseSpec.bodyToFlux(OllamaGenerateChunk.class)).thenReturn(chunks);
 
-            when(llmResponseProcessingService.extractJsonResponse(ollamaResponseBody))
-                    .thenReturn("Test response");
             when(llmResponseProcessingService.extractEmbeddedJson("Test response"))
                     .thenReturn(extractedJson);
             when(llmResponseProcessingService.parseEnrichmentResult(extractedJson))
@@ -114,9 +157,9 @@ class OllamaEnrichmentServiceImplTest {
             when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
             when(requestBodySpec.bodyValue(bodyCaptor.capture())).thenReturn(requestHeadersSpec);
             when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-            when(responseSpec.bodyToMono(String.class)).thenReturn(Mono.just("{}"));
+            when(responseSpec.bodyToFlux(OllamaGenerateChunk.class))
+                    .thenReturn(Flux.just(new OllamaGenerateChunk("{}", true)));
 
-            when(llmResponseProcessingService.extractJsonResponse(any())).thenReturn("");
             when(llmResponseProcessingService.extractEmbeddedJson(any())).thenReturn("");
             when(llmResponseProcessingService.parseEnrichmentResult(any())).thenReturn(Optional.empty());
 
@@ -139,9 +182,9 @@ class OllamaEnrichmentServiceImplTest {
             when(requestBodyUriSpec.uri("/api/generate")).thenReturn(requestBodySpec);
             when(requestBodySpec.bodyValue(any())).thenReturn(requestHeadersSpec);
             when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-            when(responseSpec.bodyToMono(String.class)).thenReturn(Mono.just("{}"));
+            when(responseSpec.bodyToFlux(OllamaGenerateChunk.class))
+                    .thenReturn(Flux.just(new OllamaGenerateChunk("{}", true)));
 
-            when(llmResponseProcessingService.extractJsonResponse(any())).thenReturn("");
             when(llmResponseProcessingService.extractEmbeddedJson(any())).thenReturn("");
             when(llmResponseProcessingService.parseEnrichmentResult(any())).thenReturn(Optional.empty());
 
@@ -153,6 +196,117 @@ class OllamaEnrichmentServiceImplTest {
         }
     }
 
+    @Nested
+    @DisplayName("enrichTextAsync - Model Cascade")
+    class ModelCascadeTests {
+
+        @Test
+        @DisplayName("should retry with the next model when the first result is implausible")
+        void should_escalateToNextModel_when_resultImplausible() {
+            // Arrange
+            cascadeConfiguration.setModels(List.of("small", "large"));
+            createService();
+            EnrichmentResultDTO implausible = EnrichmentResultDTO.builder()
+                    .title("Invoice").date_sent("99.99.9999").tags(List.of(new EnrichmentResultDTO.TagDTO("bill"))).build();
+            EnrichmentResultDTO plausible = EnrichmentResultDTO.builder()
+                    .title("Invoice").date_sent("01.02.2025").tags(List.of(new EnrichmentResultDTO.TagDTO("bill"))).build();
+
+            when(webClient.post()).thenReturn(requestBodyUriSpec);
+            when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
+            when(requestBodySpec.bodyValue(bodyCaptor.capture())).thenReturn(requestHeadersSpec);
+            when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+            when(responseSpec.bodyToFlux(OllamaGenerateChunk.class))
+                    .thenReturn(Flux.just(new OllamaGenerateChunk("small", true)))
+                    .thenReturn(Flux.just(new OllamaGenerateChunk("large", true)));
+            when(llmResponseProcessingService.extractEmbeddedJson(anyString())).thenAnswer(inv -> inv.getArgument(0));
+            when(llmResponseProcessingService.parseEnrichmentResult("small")).thenReturn(Optional.of(implausible));
+            when(llmResponseProcessingService.parseEnrichmentResult("large")).thenReturn(Optional.of(plausible));
+
+            // Act
+            EnrichmentResultDTO result = service.enrichTextAsync("Test").block();
+
+            // Assert
+            assertThat(result.getDate_sent()).isEqualTo("01.02.2025");
+            assertThat(bodyCaptor.getAllValues()).extracting(body -> body.get("model"))
+                    .containsExactly("small", "large");
+        }
+    }
+
+    @Nested
+    @DisplayName("enrichTextAsync - Streaming")
+    class StreamingTests {
+
+        @Test
+        @DisplayName("should cancel the stream once the JSON object is closed")
+        void should_cancelStream_when_jsonObjectClosed() {
+            // Arrange
+            AtomicBoolean cancelled = new AtomicBoolean();
+            Flux<OllamaGenerateChunk> chunks = Flux.just(
+                            new OllamaGenerateChunk("Sure: {\"title\":", false),
+                            new OllamaGenerateChunk("\"A {b}\"}", false),
+                            new OllamaGenerateChunk(" and some trailing prose", false),
+                            new OllamaGenerateChunk("", true))
+                    .doOnCancel(() -> cancelled.set(true));
+            EnrichmentResultDTO parsed = EnrichmentResultDTO.builder().title("A {b}").tags(List.of()).build();
+
+            when(webClient.post()).thenReturn(requestBodyUriSpec);
+            when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
+            when(requestBodySpec.bodyValue(any())).thenReturn(requestHeadersSpec);
+            when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+            when(responseSpec.bodyToFlux(OllamaGenerateChunk.class)).thenReturn(chunks);
+
+            when(llmResponseProcessingService.extractEmbeddedJson("Sure: {\"title\":\"A {b}\"}"))
+                    .thenReturn("{\"title\":\"A {b}\"}");
+            when(llmResponseProcessingService.parseEnrichmentResult("{\"title\":\"A {b}\"}"))
+                    .thenReturn(Optional.of(parsed));
+
+            // Act
+            EnrichmentResultDTO result = service.enrichTextAsync("Test").block();
+
+            // Assert
+            assertThat(result.getTitle()).isEqualTo("A {b}");
+            assertThat(cancelled).isTrue();
+        }
+
+        @Test
+        @DisplayName("should keep the tokens of a hedged stream apart from the slow primary stream")
+        void should_notMixTokens_when_hedgedStreamsRunConcurrently() {
+            // Arrange - one sample on "first" makes the idle "second" the primary and "first" the hedge
+            LlmEndpointConfiguration endpoints = new LlmEndpointConfiguration();
+            endpoints.getHedging().setEnabled(true);
+            endpoints.getHedging().setMinSamples(1);
+            endpoints.getHedging().setMinDelay(Duration.ofMillis(50));
+            AtomicBoolean primaryStarted = new AtomicBoolean();
+            Flux<OllamaGenerateChunk> hedged = Flux.just(
+                    new OllamaGenerateChunk("{\"title\":\"Hedged\"}", false),
+                    new OllamaGenerateChunk("", true));
+            Flux<OllamaGenerateChunk> primary = Flux.concat(
+                    Flux.just(new OllamaGenerateChunk("{\"title\":\"Prim", false))
+                            .doOnSubscribe(sub -> primaryStarted.set(true)),
+                    Mono.delay(Duration.ofSeconds(2)).thenReturn(new OllamaGenerateChunk("ary\"}", true)));
+            LlmEndpoint first = new LlmEndpoint("http://first", streamingClient(hedged));
+            LlmEndpoint second = new LlmEndpoint("http://second", streamingClient(primary));
+            LlmEndpointPool endpointPool = new LlmEndpointPool(endpoints, List.of(first, second),
+                    new SimpleMeterRegistry());
+            endpointPool.execute(null, endpoint -> Mono.just("warm-up")).block();
+            createService(endpointPool);
+
+            when(llmResponseProcessingService.extractEmbeddedJson(anyString()))
+                    .thenAnswer(invocation -> invocation.getArgument(0));
+            when(llmResponseProcessingService.parseEnrichmentResult(anyString()))
+                    .thenAnswer(invocation -> "{\"title\":\"Hedged\"}".equals(invocation.getArgument(0))
+                            ? Optional.of(EnrichmentResultDTO.builder().title("Hedged").tags(List.of()).build())
+                            : Optional.empty());
+
+            // Act
+            EnrichmentResultDTO result = service.enrichTextAsync("Test").block();
+
+            // Assert
+            assertThat(primaryStarted).isTrue();
+            assertThat(result.getTitle()).isEqualTo("Hedged");
+        }
+    }
+
     @Nested
     @DisplayName("enrichTextAsync - Error Handling")
     class ErrorHandlingTests {
@@ -167,8 +321,8 @@ class OllamaEnrichmentServiceImplTest {
             when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
             when(requestBodySpec.bodyValue(any())).thenReturn(requestHeadersSpec);
             when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-            when(responseSpec.bodyToMono(String.class))
-                    .thenReturn(Mono.error(new WebClientResponseException(500, "Internal Server Error", null, null, null)));
+            when(responseSpec.bodyToFlux(OllamaGenerateChunk.class))
+                    .thenReturn(Flux.error(new WebClientResponseException(500, "Internal Server Error", null, null, null)));
 
             // Act
             Mono<EnrichmentResultDTO> result = service.enrichTextAsync(plainText);
@@ -193,7 +347,7 @@ class OllamaEnrichmentServiceImplTest {
             when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
             when(requestBodySpec.bodyValue(any())).thenReturn(requestHeadersSpec);
             when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-            when(responseSpec.bodyToMono(String.class)).thenReturn(Mono.empty());
+            when(responseSpec.bodyToFlux(OllamaGenerateChunk.class)).thenReturn(Flux.empty());
 
             // Act
             Mono<EnrichmentResultDTO> result = service.enrichTextAsync(plainText);
@@ -214,7 +368,8 @@ class OllamaEnrichmentServiceImplTest {
             when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
             when(requestBodySpec.bodyValue(any())).thenReturn(requestHeadersSpec);
             when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-            when(responseSpec.bodyToMono(String.class)).thenReturn(Mono.just("   "));
+            when(responseSpec.bodyToFlux(OllamaGenerateChunk.class))
+                    .thenReturn(Flux.just(new OllamaGenerateChunk("   ", true)));
 
             // Act
             Mono<EnrichmentResultDTO> result = service.enrichTextAsync(plainText);
@@ -230,15 +385,15 @@ class OllamaEnrichmentServiceImplTest {
         void should_returnFallback_when_responseProcessingFails() {
             // Arrange
             String plainText = "Test";
-            String ollamaResponseBody = "{\"response\":\"Some response\"}";
 
             when(webClient.post()).thenReturn(requestBodyUriSpec);
             when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
             when(requestBodySpec.bodyValue(any())).thenReturn(requestHeadersSpec);
             when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-            when(responseSpec.bodyToMono(String.class)).thenReturn(Mono.just(ollamaResponseBody));
+            when(responseSpec.bodyToFlux(OllamaGenerateChunk.class))
+                    .thenReturn(Flux.just(new OllamaGenerateChunk("Some response", true)));
 
-            when(llmResponseProcessingService.extractJsonResponse(ollamaResponseBody))
+            when(llmResponseProcessingService.extractEmbeddedJson("Some response"))
                     .thenThrow(new RuntimeException("Processing error"));
 
             // Act
@@ -255,17 +410,15 @@ class OllamaEnrichmentServiceImplTest {
         void should_returnFallback_when_parseReturnsEmpty() {
             // Arrange
             String plainText = "Test";
-            String ollamaResponseBody = "{\"response\":\"response\"}";
 
             when(webClient.post()).thenReturn(requestBodyUriSpec);
             when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
             when(requestBodySpec.bodyValue(any())).thenReturn(requestHeadersSpec);
             when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-            when(responseSpec.bodyToMono(String.class)).thenReturn(Mono.just(ollamaResponseBody));
+            when(responseSpec.bodyToFlux(OllamaGenerateChunk.class))
+                    .thenReturn(Flux.just(new OllamaGenerateChunk("response", true)));
 
-            when(llmResponseProcessingService.extractJsonResponse(ollamaResponseBody))
-                    .thenReturn("extracted");
-            when(llmResponseProcessingService.extractEmbeddedJson("extracted"))
+            when(llmResponseProcessingService.extractEmbeddedJson("response"))
                     .thenReturn("json");
             when(llmResponseProcessingService.parseEnrichmentResult("json"))
                     .thenReturn(Optional.empty());
@@ -296,7 +449,7 @@ class OllamaEnrichmentServiceImplTest {
             when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
             when(requestBodySpec.bodyValue(any())).thenReturn(requestHeadersSpec);
             when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-            when(responseSpec.bodyToMono(String.class)).thenReturn(Mono.error(new RuntimeException()));
+            when(responseSpec.bodyToFlux(OllamaGenerateChunk.class)).thenReturn(Flux.error(new RuntimeException()));
 
             // Act
             Mono<EnrichmentResultDTO> result = service.enrichTextAsync(plainText);
@@ -312,4 +465,19 @@ class OllamaEnrichmentServiceImplTest {
                     .verifyComplete();
         }
     }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static WebClient streamingClient(Flux<OllamaGenerateChunk> chunks) {
+        WebClient client = mock(WebClient.class);
+        WebClient.RequestBodyUriSpec uriSpec = mock(WebClient.RequestBodyUriSpec.class);
+        WebClient.RequestBodySpec bodySpec = mock(WebClient.RequestBodySpec.class);
+        WebClient.RequestHeadersSpec headersSpec = mock(WebClient.RequestHeadersSpec.class);
+        WebClient.ResponseSpec response = mock(WebClient.ResponseSpec.class);
+        when(client.post()).thenReturn(uriSpec);
+        when(uriSpec.uri(anyString())).thenReturn(bodySpec);
+        when(bodySpec.bodyValue(any())).thenReturn(headersSpec);
+        when(headersSpec.retrieve()).thenReturn(response);
+        when(response.bodyToFlux(OllamaGenerateChunk.class)).thenReturn(chunks);
+        return client;
+    }
 }
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.papercloud.de.core.dto.llm.EnrichmentResultDTO;
 
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -337,6 +338,91 @@ class OllamaResponseProcessingServiceImplTest {
             assertThat(result.get().isFlagFailedEnrichment()).isTrue();
         }
     }
+
+    @Nested
+    @DisplayName("Batch enrichment results")
+    class BatchEnrichmentTests {
+
+        @Test
+        @DisplayName("should extract array between triple backticks")
+        void should_extractArray_when_tripleBackticks() {
+            // Arrange
+            String text = "Here you go:\n```json\n[{\"id\":\"1\"}]\n```";
+
+            // Act
+            String result = service.extractEmbeddedJsonArray(text);
+
+            // Assert
+            assertThat(result).isEqualTo("[{\"id\":\"1\"}]");
+        }
+
+        @Test
+        @DisplayName("should extract raw array when no backticks")
+        void should_extractRawArray_when_noBackticks() {
+            // Arrange
+            String text = "Result: [{\"id\":\"1\"},{\"id\":\"2\"}] done";
+
+            // Act
+            String result = service.extractEmbeddedJsonArray(text);
+
+            // Assert
+            assertThat(result).isEqualTo("[{\"id\":\"1\"},{\"id\":\"2\"}]");
+        }
+
+        @Test
+        @DisplayName("should split array into results keyed by id")
+        void should_splitResults_when_arrayWithIds() {
+            // Arrange
+            String json = "[{\"id\":\"1\",\"title\":\"Invoice\",\"date_sent\":\"01.02.2026\",\"tags\":[{\"name\":\"bill\"}]},"
+                    + "{\"id\":2,\"title\":\"Letter\",\"date_sent\":\"03.02.2026\",\"tags\":[]}]";
+
+            // Act
+            Map<String, EnrichmentResultDTO> result = service.parseBatchEnrichmentResult(json);
+
+            // Assert
+            assertThat(result).containsOnlyKeys("1", "2");
+            assertThat(result.get("1").getTitle()).isEqualTo("Invoice");
+            assertThat(result.get("1").getTagNames()).containsExactly("bill");
+            assertThat(result.get("2").getDate_sent()).isEqualTo("03.02.2026");
+        }
+
+        @Test
+        @DisplayName("should accept object keyed by document id")
+        void should_splitResults_when_objectKeyedById() {
+            // Arrange
+            String json = "{\"1\":{\"title\":\"Invoice\",\"date_sent\":\"01.02.2026\"}}";
+
+            // Act
+            Map<String, EnrichmentResultDTO> result = service.parseBatchEnrichmentResult(json);
+
+            // Assert
+            assertThat(result).containsOnlyKeys("1");
+            assertThat(result.get("1").getTitle()).isEqualTo("Invoice");
+        }
+
+        @Test
+        @DisplayName("should skip array entries without id")
+        void should_skipEntry_when_idMissing() {
+            // Arrange
+            String json = "[{\"title\":\"No id\"},{\"id\":\"2\",\"title\":\"Letter\"}]";
+
+            // Act
+            Map<String, EnrichmentResultDTO> result = service.parseBatchEnrichmentResult(json);
+
+            // Assert
+            assertThat(result).containsOnlyKeys("2");
+        }
+
+        @Test
+        @DisplayName("should return empty map when JSON is invalid")
+        void should_returnEmptyMap_when_invalidJson() {
+            // Act
+            Map<String, EnrichmentResultDTO> result = service.parseBatchEnrichmentResult("[{\"id\":");
+
+            // Assert
+            assertThat(result).isEmpty();
+        }
+    }
 }
 
 
@@ -0,0 +1,223 @@
+package org.papercloud.de.service.batch;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.papercloud.de.config.LlmBatchingConfiguration;
+import org.papercloud.de.core.dto.llm.EnrichmentPriority;
+import org.papercloud.de.core.dto.llm.EnrichmentResultDTO;
+import reactor.core.publisher.Mono;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for EnrichmentBatcher.
+ * Tests batch formation, result routing and fallback to single-document requests.
+ */
+@DisplayName("EnrichmentBatcher")
+class EnrichmentBatcherTest {
+
+    private LlmBatchingConfiguration config;
+    private SimpleMeterRegistry meterRegistry;
+    private VirtualTimeScheduler scheduler;
+
+    private final List<Map<String, String>> batchCalls = new CopyOnWriteArrayList<>();
+    private final List<String> singleCalls = new CopyOnWriteArrayList<>();
+    private final AtomicReference<EnrichmentPriority> batchPriority = new AtomicReference<>();
+
+    @BeforeEach
+    void setUp() {
+        config = new LlmBatchingConfiguration();
+        config.setMaxBatchSize(3);
+        config.setMaxWait(Duration.ofMillis(200));
+        config.setMaxBatchChars(100);
+        meterRegistry = new SimpleMeterRegistry();
+        scheduler = VirtualTimeScheduler.create();
+    }
+
+    private EnrichmentBatcher batcher(Map<String, EnrichmentResultDTO> batchResult) {
+        return new EnrichmentBatcher(config,
+                (textsById, priority) -> {
+                    batchCalls.add(textsById);
+                    batchPriority.set(priority);
+                    return batchResult == null ? Mono.error(new IllegalStateException("boom")) : Mono.just(batchResult);
+                },
+                (text, priority) -> {
+                    singleCalls.add(text);
+                    return Mono.just(result("single " + text));
+                },
+                meterRegistry, scheduler);
+    }
+
+    private static EnrichmentResultDTO result(String title) {
+        return EnrichmentResultDTO.builder().title(title).date_sent("01.02.2026").tags(List.of()).build();
+    }
+
+    private static List<AtomicReference<EnrichmentResultDTO>> submitAll(EnrichmentBatcher batcher,
+                                                                        EnrichmentPriority priority,
+                                                                        String... texts) {
+        List<AtomicReference<EnrichmentResultDTO>> results = new CopyOnWriteArrayList<>();
+        for (String text : texts) {
+            AtomicReference<EnrichmentResultDTO> ref = new AtomicReference<>();
+            batcher.submit(text, priority).subscribe(ref::set);
+            results.add(ref);
+        }
+        return results;
+    }
+
+    @Nested
+    @DisplayName("Batch formation")
+    class BatchFormationTests {
+
+        @Test
+        @DisplayName("should send lone request as single prompt after the wait window")
+        void should_sendSingle_when_windowExpiresWithOneRequest() {
+            // Arrange
+            EnrichmentBatcher batcher = batcher(Map.of());
+
+            // Act
+            List<AtomicReference<EnrichmentResultDTO>> results = submitAll(batcher, EnrichmentPriority.NORMAL, "a");
+            assertThat(singleCalls).isEmpty();
+            scheduler.advanceTimeBy(Duration.ofMillis(200));
+
+            // Assert
+            assertThat(singleCalls).containsExactly("a");
+            assertThat(batchCalls).isEmpty();
+            assertThat(results.get(0).get().getTitle()).isEqualTo("single a");
+        }
+
+        @Test
+        @DisplayName("should send batch immediately when size limit is reached")
+        void should_sendBatch_when_maxBatchSizeReached() {
+            // Arrange
+            EnrichmentBatcher batcher = batcher(Map.of("1", result("A"), "2", result("B"), "3", result("C")));
+
+            // Act
+            List<AtomicReference<EnrichmentResultDTO>> results =
+                    submitAll(batcher, EnrichmentPriority.NORMAL, "a", "b", "c");
+
+            // Assert
+            assertThat(batchCalls).containsExactly(Map.of("1", "a", "2", "b", "3", "c"));
+            assertThat(results).extracting(ref -> ref.get().getTitle()).containsExactly("A", "B", "C");
+            assertThat(singleCalls).isEmpty();
+            assertThat(meterRegistry.counter("llm.batching.batches").count()).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("should flush pending batch when next text would exceed the char budget")
+        void should_flushPending_when_charBudgetExceeded() {
+            // Arrange
+            EnrichmentBatcher batcher = batcher(Map.of("1", result("A"), "2", result("B")));
+
+            // Act
+            submitAll(batcher, EnrichmentPriority.NORMAL, "x".repeat(40), "y".repeat(40), "z".repeat(40));
+
+            // Assert
+            assertThat(batchCalls).hasSize(1);
+            assertThat(batchCalls.get(0)).hasSize(2);
+        }
+
+        @Test
+        @DisplayName("should use highest member priority for the batch")
+        void should_useHighestPriority_when_mixedPriorities() {
+            // Arrange
+            EnrichmentBatcher batcher = batcher(Map.of("1", result("A"), "2", result("B"), "3", result("C")));
+
+            // Act
+            submitAll(batcher, EnrichmentPriority.LOW, "a", "b");
+            submitAll(batcher, EnrichmentPriority.HIGH, "c");
+
+            // Assert
+            assertThat(batchPriority.get()).isEqualTo(EnrichmentPriority.HIGH);
+        }
+
+        @Test
+        @DisplayName("should bypass batching when disabled")
+        void should_sendSingle_when_batchingDisabled() {
+            // Arrange
+            config.setEnabled(false);
+            EnrichmentBatcher batcher = batcher(Map.of());
+
+            // Act
+            submitAll(batcher, EnrichmentPriority.NORMAL, "a", "b", "c");
+
+            // Assert
+            assertThat(singleCalls).containsExactly("a", "b", "c");
+            assertThat(batchCalls).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should bypass batching when text exceeds the char budget on its own")
+        void should_sendSingle_when_textTooLarge() {
+            // Arrange
+            EnrichmentBatcher batcher = batcher(Map.of());
+
+            // Act
+            submitAll(batcher, EnrichmentPriority.NORMAL, "x".repeat(150));
+
+            // Assert
+            assertThat(singleCalls).hasSize(1);
+        }
+
+        @Test
+        @DisplayName("should drop cancelled request before the batch is sent")
+        void should_dropRequest_when_cancelledWhileWaiting() {
+            // Arrange
+            EnrichmentBatcher batcher = batcher(Map.of());
+
+            // Act
+            batcher.submit("a", EnrichmentPriority.NORMAL).subscribe().dispose();
+            scheduler.advanceTimeBy(Duration.ofMillis(200));
+
+            // Assert
+            assertThat(singleCalls).isEmpty();
+            assertThat(batchCalls).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Fallback")
+    class FallbackTests {
+
+        @Test
+        @DisplayName("should retry only documents missing from the batch response")
+        void should_fallBackForMissingIds_when_batchResponseIncomplete() {
+            // Arrange
+            EnrichmentBatcher batcher = batcher(Map.of("1", result("A"), "3", result("C")));
+
+            // Act
+            List<AtomicReference<EnrichmentResultDTO>> results =
+                    submitAll(batcher, EnrichmentPriority.NORMAL, "a", "b", "c");
+
+            // Assert
+            assertThat(singleCalls).containsExactly("b");
+            assertThat(results).extracting(ref -> ref.get().getTitle()).containsExactly("A", "single b", "C");
+            assertThat(meterRegistry.counter("llm.batching.fallbacks").count()).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("should retry every document when the batch call fails")
+        void should_fallBackForAll_when_batchCallFails() {
+            // Arrange
+            EnrichmentBatcher batcher = batcher(null);
+
+            // Act
+            List<AtomicReference<EnrichmentResultDTO>> results =
+                    submitAll(batcher, EnrichmentPriority.NORMAL, "a", "b", "c");
+
+            // Assert
+            assertThat(singleCalls).containsExactly("a", "b", "c");
+            assertThat(results).extracting(ref -> ref.get().getTitle())
+                    .containsExactly("single a", "single b", "single c");
+        }
+    }
+}
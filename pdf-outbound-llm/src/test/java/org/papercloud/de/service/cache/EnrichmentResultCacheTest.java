@@ -0,0 +1,223 @@
+package org.papercloud.de.service.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.papercloud.de.config.LlmCacheConfiguration;
+import org.papercloud.de.core.dto.llm.EnrichmentResultDTO;
+import org.papercloud.de.core.ports.outbound.EnrichmentCacheRepository;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for EnrichmentResultCache.
+ * Tests key derivation, tier lookups, in-flight coalescing and LRU eviction.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EnrichmentResultCache")
+class EnrichmentResultCacheTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    @Mock
+    private EnrichmentCacheRepository repository;
+
+    private LlmCacheConfiguration config;
+    private SimpleMeterRegistry meterRegistry;
+    private EnrichmentResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        config = new LlmCacheConfiguration();
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new EnrichmentResultCache(config, repository, meterRegistry);
+    }
+
+    private static EnrichmentResultDTO result(String title) {
+        return EnrichmentResultDTO.builder().title(title).date_sent("01.02.2026").tags(List.of()).build();
+    }
+
+    @Nested
+    @DisplayName("key")
+    class KeyTests {
+
+        @Test
+        @DisplayName("should change when model or prompt version changes")
+        void should_differ_when_modelOrPromptVersionChanges() {
+            // Act
+            String base = EnrichmentResultCache.key("text", "model-a", "1");
+
+            // Assert
+            assertThat(base).hasSize(64).isEqualTo(EnrichmentResultCache.key("text", "model-a", "1"));
+            assertThat(EnrichmentResultCache.key("text", "model-b", "1")).isNotEqualTo(base);
+            assertThat(EnrichmentResultCache.key("text", "model-a", "2")).isNotEqualTo(base);
+            assertThat(EnrichmentResultCache.key("other", "model-a", "1")).isNotEqualTo(base);
+        }
+    }
+
+    @Nested
+    @DisplayName("get")
+    class GetTests {
+
+        @Test
+        @DisplayName("should call loader once and persist result on miss")
+        void should_loadAndPersist_when_miss() {
+            // Arrange
+            when(repository.findByCacheKey("k")).thenReturn(Optional.empty());
+            AtomicInteger loads = new AtomicInteger();
+
+            // Act
+            EnrichmentResultDTO first = cache.get("k", () -> {
+                loads.incrementAndGet();
+                return Mono.just(result("Invoice"));
+            }).block(TIMEOUT);
+            EnrichmentResultDTO second = cache.get("k", () -> {
+                loads.incrementAndGet();
+                return Mono.just(result("Other"));
+            }).block(TIMEOUT);
+
+            // Assert
+            assertThat(first.getTitle()).isEqualTo("Invoice");
+            assertThat(second.getTitle()).isEqualTo("Invoice");
+            assertThat(loads).hasValue(1);
+            verify(repository).save(eq("k"), any());
+            assertThat(meterRegistry.counter("llm.cache.hits", "tier", "memory").count()).isEqualTo(1.0);
+            assertThat(meterRegistry.counter("llm.cache.misses").count()).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("should serve persistent hit without calling loader")
+        void should_returnStoredResult_when_persistentHit() {
+            // Arrange
+            when(repository.findByCacheKey("k")).thenReturn(Optional.of(result("Stored")));
+            AtomicInteger loads = new AtomicInteger();
+
+            // Act
+            EnrichmentResultDTO result = cache.get("k", () -> {
+                loads.incrementAndGet();
+                return Mono.just(result("Fresh"));
+            }).block(TIMEOUT);
+
+            // Assert
+            assertThat(result.getTitle()).isEqualTo("Stored");
+            assertThat(loads).hasValue(0);
+            verify(repository, never()).save(anyString(), any());
+            assertThat(cache.getMemorySize()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should share one in-flight load between concurrent callers")
+        void should_coalesce_when_sameKeyRequestedConcurrently() {
+            // Arrange
+            when(repository.findByCacheKey("k")).thenReturn(Optional.empty());
+            Sinks.One<EnrichmentResultDTO> pending = Sinks.one();
+            AtomicInteger loads = new AtomicInteger();
+
+            // Act
+            Mono<EnrichmentResultDTO> first = cache.get("k", () -> {
+                loads.incrementAndGet();
+                return pending.asMono();
+            });
+            Mono<EnrichmentResultDTO> second = cache.get("k", () -> {
+                loads.incrementAndGet();
+                return Mono.just(result("Other"));
+            });
+            Mono<List<EnrichmentResultDTO>> both = Mono.zip(first, second).map(t -> List.of(t.getT1(), t.getT2()));
+            Mono<List<EnrichmentResultDTO>> results = both.cache();
+            results.subscribe();
+            pending.tryEmitValue(result("Shared"));
+
+            // Assert
+            assertThat(results.block(TIMEOUT)).extracting(EnrichmentResultDTO::getTitle)
+                    .containsExactly("Shared", "Shared");
+            assertThat(loads).hasValue(1);
+            assertThat(meterRegistry.counter("llm.cache.coalesced").count()).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("should not cache fallback results")
+        void should_skipCaching_when_enrichmentFailed() {
+            // Arrange
+            when(repository.findByCacheKey("k")).thenReturn(Optional.empty());
+            EnrichmentResultDTO fallback = result("Unknown Title");
+            fallback.setFlagFailedEnrichment(true);
+            AtomicInteger loads = new AtomicInteger();
+
+            // Act
+            cache.get("k", () -> {
+                loads.incrementAndGet();
+                return Mono.just(fallback);
+            }).block(TIMEOUT);
+            cache.get("k", () -> {
+                loads.incrementAndGet();
+                return Mono.just(fallback);
+            }).block(TIMEOUT);
+
+            // Assert
+            assertThat(loads).hasValue(2);
+            verify(repository, never()).save(anyString(), any());
+            assertThat(cache.getMemorySize()).isZero();
+        }
+
+        @Test
+        @DisplayName("should fall through to loader when persistent lookup fails")
+        void should_callLoader_when_repositoryFails() {
+            // Arrange
+            when(repository.findByCacheKey("k")).thenThrow(new IllegalStateException("db down"));
+
+            // Act
+            EnrichmentResultDTO result = cache.get("k", () -> Mono.just(result("Fresh"))).block(TIMEOUT);
+
+            // Assert
+            assertThat(result.getTitle()).isEqualTo("Fresh");
+        }
+
+        @Test
+        @DisplayName("should evict least recently used entry when full")
+        void should_evictEldest_when_maxEntriesExceeded() {
+            // Arrange
+            config.setMaxEntries(2);
+            when(repository.findByCacheKey(anyString())).thenReturn(Optional.empty());
+
+            // Act
+            cache.get("a", () -> Mono.just(result("A"))).block(TIMEOUT);
+            cache.get("b", () -> Mono.just(result("B"))).block(TIMEOUT);
+            cache.get("a", () -> Mono.just(result("A2"))).block(TIMEOUT);
+            cache.get("c", () -> Mono.just(result("C"))).block(TIMEOUT);
+            EnrichmentResultDTO b = cache.get("b", () -> Mono.just(result("B2"))).block(TIMEOUT);
+
+            // Assert
+            assertThat(cache.getMemorySize()).isEqualTo(2);
+            assertThat(b.getTitle()).isEqualTo("B2");
+        }
+
+        @Test
+        @DisplayName("should bypass both tiers when disabled")
+        void should_callLoader_when_disabled() {
+            // Arrange
+            config.setEnabled(false);
+
+            // Act
+            EnrichmentResultDTO result = cache.get("k", () -> Mono.just(result("Fresh"))).block(TIMEOUT);
+
+            // Assert
+            assertThat(result.getTitle()).isEqualTo("Fresh");
+            verifyNoInteractions(repository);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package org.papercloud.de.service.cascade;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.papercloud.de.config.LlmCascadeConfiguration;
+import org.papercloud.de.core.dto.llm.EnrichmentResultDTO;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for ModelCascade.
+ * Tests plausibility checks, escalation between models and per-model metrics.
+ */
+@DisplayName("ModelCascade")
+class ModelCascadeTest {
+
+    private LlmCascadeConfiguration config;
+    private SimpleMeterRegistry meterRegistry;
+    private ModelCascade cascade;
+
+    @BeforeEach
+    void setUp() {
+        config = new LlmCascadeConfiguration();
+        config.setModels(List.of("small", "medium", "large"));
+        meterRegistry = new SimpleMeterRegistry();
+        cascade = new ModelCascade(config, meterRegistry);
+    }
+
+    private static EnrichmentResultDTO result(String title, String date, String... tags) {
+        return EnrichmentResultDTO.builder()
+                .title(title)
+                .date_sent(date)
+                .tags(Arrays.stream(tags).map(EnrichmentResultDTO.TagDTO::new).toList())
+                .build();
+    }
+
+    @Nested
+    @DisplayName("isPlausible")
+    class PlausibilityTests {
+
+        @Test
+        @DisplayName("should accept complete result")
+        void should_accept_when_resultComplete() {
+            assertThat(cascade.isPlausible(result("Invoice", "01.02.2025", "bill"))).isTrue();
+        }
+
+        @Test
+        @DisplayName("should reject missing or fallback title")
+        void should_reject_when_titleMissing() {
+            assertThat(cascade.isPlausible(result(" ", "01.02.2025", "bill"))).isFalse();
+            assertThat(cascade.isPlausible(result("Unknown Title", "01.02.2025", "bill"))).isFalse();
+        }
+
+        @Test
+        @DisplayName("should reject invalid, old or far-future dates")
+        void should_reject_when_dateImplausible() {
+            assertThat(cascade.isPlausible(result("Invoice", "2025-02-01", "bill"))).isFalse();
+            assertThat(cascade.isPlausible(result("Invoice", "31.02.2025", "bill"))).isFalse();
+            assertThat(cascade.isPlausible(result("Invoice", "01.01.1900", "bill"))).isFalse();
+            assertThat(cascade.isPlausible(result("Invoice", "01.01.2999", "bill"))).isFalse();
+        }
+
+        @Test
+        @DisplayName("should reject result without tags")
+        void should_reject_when_noTags() {
+            assertThat(cascade.isPlausible(result("Invoice", "01.02.2025"))).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("run")
+    class RunTests {
+
+        @Test
+        @DisplayName("should stop at the first plausible result")
+        void should_stop_when_firstModelPlausible() {
+            // Arrange
+            List<String> called = new CopyOnWriteArrayList<>();
+
+            // Act
+            EnrichmentResultDTO result = cascade.run(model -> {
+                called.add(model);
+                return Mono.just(result("Invoice", "01.02.2025", "bill"));
+            }).block();
+
+            // Assert
+            assertThat(result).isNotNull();
+            assertThat(called).containsExactly("small");
+            assertThat(meterRegistry.counter("llm.cascade.results", "model", "small", "outcome", "accepted").count())
+                    .isEqualTo(1.0);
+            assertThat(meterRegistry.find("llm.cascade.latency").tag("model", "small").timer().count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should escalate on empty, failed or implausible results")
+        void should_escalate_when_resultUnusable() {
+            // Arrange
+            List<String> called = new CopyOnWriteArrayList<>();
+
+            // Act
+            EnrichmentResultDTO result = cascade.run(model -> {
+                called.add(model);
+                return switch (model) {
+                    case "small" -> Mono.empty();
+                    case "medium" -> Mono.error(new IllegalStateException("boom"));
+                    default -> Mono.just(result("Invoice", "01.02.2025", "bill"));
+                };
+            }).block();
+
+            // Assert
+            assertThat(result.getTitle()).isEqualTo("Invoice");
+            assertThat(called).containsExactly("small", "medium", "large");
+            assertThat(meterRegistry.counter("llm.cascade.results", "model", "small", "outcome", "escalated").count())
+                    .isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("should return last model's result even if implausible")
+        void should_returnLastResult_when_allImplausible() {
+            // Act
+            EnrichmentResultDTO result = cascade.run(model -> Mono.just(result(model, "bad"))).block();
+
+            // Assert
+            assertThat(result.getTitle()).isEqualTo("large");
+            assertThat(meterRegistry.counter("llm.cascade.results", "model", "large", "outcome", "failed").count())
+                    .isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("should complete empty when no model returns a result")
+        void should_returnEmpty_when_noResult() {
+            // Act
+            EnrichmentResultDTO result = cascade.run(model -> Mono.empty()).block();
+
+            // Assert
+            assertThat(result).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("should reject empty model list")
+    void should_throw_when_noModelsConfigured() {
+        // Arrange
+        config.setModels(List.of());
+
+        // Act & Assert
+        assertThatThrownBy(() -> new ModelCascade(config, meterRegistry))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
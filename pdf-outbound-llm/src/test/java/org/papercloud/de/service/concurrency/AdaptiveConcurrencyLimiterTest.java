@@ -0,0 +1,255 @@
+package org.papercloud.de.service.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.papercloud.de.config.LlmConcurrencyConfiguration;
+import org.papercloud.de.core.dto.llm.EnrichmentPriority;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for AdaptiveConcurrencyLimiter.
+ * Tests admission, priority queueing, rejection and AIMD limit adjustments.
+ */
+@DisplayName("AdaptiveConcurrencyLimiter")
+class AdaptiveConcurrencyLimiterTest {
+
+    private LlmConcurrencyConfiguration config;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        config = new LlmConcurrencyConfiguration();
+        config.setInitialLimit(1);
+        config.setMinLimit(1);
+        config.setMaxLimit(4);
+        config.setMaxQueueSize(2);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Nested
+    @DisplayName("Admission and queueing")
+    class AdmissionTests {
+
+        @Test
+        @DisplayName("should not invoke queued call until a slot is released")
+        void should_deferCall_when_limitReached() {
+            // Arrange
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config, meterRegistry);
+            Sinks.One<String> first = Sinks.one();
+            AtomicInteger secondInvocations = new AtomicInteger();
+
+            // Act
+            limiter.execute(EnrichmentPriority.NORMAL, first::asMono).subscribe();
+            limiter.execute(EnrichmentPriority.NORMAL, () -> {
+                secondInvocations.incrementAndGet();
+                return Mono.just("second");
+            }).subscribe();
+
+            // Assert
+            assertThat(secondInvocations).hasValue(0);
+            assertThat(limiter.getQueueSize()).isEqualTo(1);
+
+            first.tryEmitValue("first");
+            assertThat(secondInvocations).hasValue(1);
+            assertThat(limiter.getQueueSize()).isZero();
+            assertThat(limiter.getInFlight()).isZero();
+        }
+
+        @Test
+        @DisplayName("should serve higher priorities first and keep FIFO order within a priority")
+        void should_servePriorityOrder_when_slotFreed() {
+            // Arrange
+            config.setMaxQueueSize(10);
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config, meterRegistry);
+            Sinks.One<String> blocker = Sinks.one();
+            List<String> order = new CopyOnWriteArrayList<>();
+
+            limiter.execute(EnrichmentPriority.NORMAL, blocker::asMono).subscribe();
+            limiter.execute(EnrichmentPriority.LOW, () -> Mono.fromRunnable(() -> order.add("low"))).subscribe();
+            limiter.execute(EnrichmentPriority.NORMAL, () -> Mono.fromRunnable(() -> order.add("normal-1"))).subscribe();
+            limiter.execute(EnrichmentPriority.HIGH, () -> Mono.fromRunnable(() -> order.add("high"))).subscribe();
+            limiter.execute(EnrichmentPriority.NORMAL, () -> Mono.fromRunnable(() -> order.add("normal-2"))).subscribe();
+
+            // Act
+            blocker.tryEmitValue("done");
+
+            // Assert
+            assertThat(order).containsExactly("high", "normal-1", "normal-2", "low");
+        }
+
+        @Test
+        @DisplayName("should reject and count calls when the queue is full")
+        void should_reject_when_queueFull() {
+            // Arrange
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config, meterRegistry);
+            limiter.execute(EnrichmentPriority.NORMAL, () -> Mono.never()).subscribe();
+            limiter.execute(EnrichmentPriority.NORMAL, () -> Mono.never()).subscribe();
+            limiter.execute(EnrichmentPriority.NORMAL, () -> Mono.never()).subscribe();
+
+            // Act & Assert
+            StepVerifier.create(limiter.execute(EnrichmentPriority.NORMAL, () -> Mono.just("x")))
+                    .expectError(LlmCapacityExceededException.class)
+                    .verify();
+            assertThat(meterRegistry.get("llm.concurrency.rejections").counter().count()).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("should reject calls that wait longer than the configured queue wait")
+        void should_reject_when_queueWaitExceeded() {
+            // Arrange
+            config.setMaxQueueWait(Duration.ofMillis(50));
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config, meterRegistry);
+            limiter.execute(EnrichmentPriority.NORMAL, () -> Mono.never()).subscribe();
+
+            // Act & Assert
+            StepVerifier.create(limiter.execute(EnrichmentPriority.NORMAL, () -> Mono.just("x")))
+                    .expectError(LlmCapacityExceededException.class)
+                    .verify(Duration.ofSeconds(2));
+            assertThat(limiter.getQueueSize()).isZero();
+        }
+
+        @Test
+        @DisplayName("should free the slot when the subscriber cancels")
+        void should_releaseSlot_when_cancelled() {
+            // Arrange
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config, meterRegistry);
+
+            // Act
+            limiter.execute(EnrichmentPriority.NORMAL, () -> Mono.never()).subscribe().dispose();
+
+            // Assert
+            assertThat(limiter.getInFlight()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Limit adjustment")
+    class LimitAdjustmentTests {
+
+        @Test
+        @DisplayName("should grow the limit while saturated calls stay near the baseline latency")
+        void should_increaseLimit_when_latencyStable() {
+            // Arrange
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config, meterRegistry);
+
+            // Act
+            for (int i = 0; i < 5; i++) {
+                StepVerifier.create(limiter.execute(EnrichmentPriority.NORMAL, () -> Mono.just("ok")))
+                        .expectNext("ok")
+                        .verifyComplete();
+            }
+
+            // Assert
+            assertThat(limiter.getLimit()).isGreaterThan(1.0);
+            assertThat(meterRegistry.get("llm.concurrency.limit").gauge().value()).isEqualTo(limiter.getLimit());
+        }
+
+        @Test
+        @DisplayName("should back off multiplicatively when a call times out")
+        void should_decreaseLimit_when_callTimesOut() {
+            // Arrange
+            config.setInitialLimit(4);
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config, meterRegistry);
+
+            // Act
+            StepVerifier.create(limiter.execute(EnrichmentPriority.NORMAL,
+                            () -> Mono.<String>error(new TimeoutException("slow"))))
+                    .expectError(TimeoutException.class)
+                    .verify();
+
+            // Assert
+            assertThat(limiter.getLimit()).isEqualTo(4 * config.getBackoffRatio());
+            assertThat(limiter.getInFlight()).isZero();
+        }
+
+        @Test
+        @DisplayName("should back off when latency exceeds the tolerated multiple of the baseline")
+        void should_decreaseLimit_when_latencyCongested() {
+            // Arrange
+            config.setInitialLimit(4);
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config, meterRegistry);
+            limiter.execute(EnrichmentPriority.NORMAL, () -> Mono.just("warm")).block();
+            double before = limiter.getLimit();
+
+            // Act
+            limiter.execute(EnrichmentPriority.NORMAL,
+                    () -> Mono.delay(Duration.ofMillis(200)).thenReturn("slow")).block();
+
+            // Assert
+            assertThat(limiter.getLimit()).isLessThan(before);
+        }
+
+        @Test
+        @DisplayName("should never drop below the configured minimum")
+        void should_respectMinimum_when_repeatedFailures() {
+            // Arrange
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config, meterRegistry);
+
+            // Act
+            for (int i = 0; i < 10; i++) {
+                limiter.execute(EnrichmentPriority.NORMAL, () -> Mono.<String>error(new TimeoutException()))
+                        .onErrorResume(e -> Mono.empty())
+                        .block();
+            }
+
+            // Assert
+            assertThat(limiter.getLimit()).isEqualTo(1.0);
+        }
+    }
+
+    @Nested
+    @DisplayName("Streaming calls")
+    class StreamingTests {
+
+        @Test
+        @DisplayName("should hold the slot until the stream completes")
+        void should_holdSlot_when_streamStillEmitting() {
+            // Arrange
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config, meterRegistry);
+            Sinks.Many<String> tokens = Sinks.many().unicast().onBackpressureBuffer();
+            List<String> received = new CopyOnWriteArrayList<>();
+
+            // Act
+            limiter.executeMany(EnrichmentPriority.HIGH, tokens::asFlux).subscribe(received::add);
+            tokens.tryEmitNext("a");
+
+            // Assert
+            assertThat(received).containsExactly("a");
+            assertThat(limiter.getInFlight()).isEqualTo(1);
+
+            tokens.tryEmitComplete();
+            assertThat(limiter.getInFlight()).isZero();
+        }
+
+        @Test
+        @DisplayName("should not raise the limit for completed streams")
+        void should_keepLimit_when_streamCompletes() {
+            // Arrange
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config, meterRegistry);
+            double before = limiter.getLimit();
+
+            // Act
+            for (int i = 0; i < 20; i++) {
+                limiter.executeMany(EnrichmentPriority.NORMAL, () -> Flux.just("a", "b")).blockLast();
+            }
+
+            // Assert
+            assertThat(limiter.getLimit()).isEqualTo(before);
+            assertThat(meterRegistry.get("llm.concurrency.latency").timer().count()).isZero();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.papercloud.de.service.embedding;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.papercloud.de.config.LlmEmbeddingConfiguration;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for HashingEmbeddingService.
+ */
+@DisplayName("HashingEmbeddingService")
+class HashingEmbeddingServiceTest {
+
+    private HashingEmbeddingService service;
+
+    @BeforeEach
+    void setUp() {
+        LlmEmbeddingConfiguration config = new LlmEmbeddingConfiguration();
+        config.setHashingDimensions(64);
+        service = new HashingEmbeddingService(config);
+    }
+
+    private static double cosine(float[] a, float[] b) {
+        double dot = 0;
+        double normA = 0;
+        double normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        return dot / Math.sqrt(normA * normB);
+    }
+
+    @Test
+    @DisplayName("should embed every text with the configured dimension")
+    void should_returnOneVectorPerText_when_embedding() {
+        List<float[]> vectors = service.embed(List.of("Rechnung März", "Kontoauszug"));
+
+        assertThat(vectors).hasSize(2).allSatisfy(vector -> assertThat(vector).hasSize(64));
+        assertThat(service.getModelName()).isEqualTo("hashing-64");
+    }
+
+    @Test
+    @DisplayName("should be deterministic and case-insensitive")
+    void should_returnSameVector_when_textDiffersInCase() {
+        assertThat(service.embed("Stadtwerke Rechnung")).containsExactly(service.embed("stadtwerke RECHNUNG"));
+    }
+
+    @Test
+    @DisplayName("should place texts with shared words closer together")
+    void should_rankSharedVocabularyHigher_when_comparing() {
+        float[] query = service.embed("stromrechnung stadtwerke");
+        float[] related = service.embed("Ihre Stromrechnung der Stadtwerke für März");
+        float[] unrelated = service.embed("Versicherungspolice Hausrat Vertrag");
+
+        assertThat(cosine(query, related)).isGreaterThan(cosine(query, unrelated));
+    }
+}
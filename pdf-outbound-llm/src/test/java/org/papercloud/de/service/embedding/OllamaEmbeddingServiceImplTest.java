@@ -0,0 +1,102 @@
+package org.papercloud.de.service.embedding;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.papercloud.de.config.LlmCascadeConfiguration;
+import org.papercloud.de.config.LlmConcurrencyConfiguration;
+import org.papercloud.de.config.LlmEmbeddingConfiguration;
+import org.papercloud.de.config.LlmEndpointConfiguration;
+import org.papercloud.de.config.LlmResidencyConfiguration;
+import org.papercloud.de.service.cascade.ModelCascade;
+import org.papercloud.de.service.concurrency.AdaptiveConcurrencyLimiter;
+import org.papercloud.de.service.internal.OllamaEmbedResponse;
+import org.papercloud.de.service.routing.LlmEndpoint;
+import org.papercloud.de.service.routing.LlmEndpointPool;
+import org.papercloud.de.service.routing.ModelResidencyManager;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for OllamaEmbeddingServiceImpl.
+ * Tests request batching and validation of the response size.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OllamaEmbeddingServiceImpl")
+class OllamaEmbeddingServiceImplTest {
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private WebClient webClient;
+
+    @Mock
+    private WebClient.RequestBodySpec requestBodySpec;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private WebClient.RequestHeadersSpec<?> requestHeadersSpec;
+
+    private OllamaEmbeddingServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        LlmEndpointPool pool = new LlmEndpointPool(new LlmEndpointConfiguration(),
+                List.of(new LlmEndpoint("http://test", webClient)), meterRegistry);
+        ModelResidencyManager residencyManager = new ModelResidencyManager(new LlmResidencyConfiguration(), pool,
+                new AdaptiveConcurrencyLimiter(new LlmConcurrencyConfiguration(), meterRegistry),
+                new ModelCascade(new LlmCascadeConfiguration(), meterRegistry), meterRegistry);
+        LlmEmbeddingConfiguration config = new LlmEmbeddingConfiguration();
+        config.setBatchSize(2);
+        service = new OllamaEmbeddingServiceImpl(config, residencyManager);
+
+        when(webClient.post().uri("/api/embed")).thenReturn(requestBodySpec);
+        when(requestBodySpec.bodyValue(any())).thenAnswer(invocation -> requestHeadersSpec);
+    }
+
+    @Test
+    @DisplayName("should split inputs into batches and keep their order")
+    @SuppressWarnings("unchecked")
+    void should_embedInBatches_when_moreTextsThanBatchSize() {
+        // Arrange
+        when(requestHeadersSpec.retrieve().bodyToMono(OllamaEmbedResponse.class))
+                .thenReturn(Mono.just(new OllamaEmbedResponse(List.of(new float[]{1f}, new float[]{2f}))))
+                .thenReturn(Mono.just(new OllamaEmbedResponse(List.of(new float[]{3f}))));
+
+        // Act
+        List<float[]> vectors = service.embed(List.of("a", "b", "c"));
+
+        // Assert
+        assertThat(vectors).extracting(vector -> vector[0]).containsExactly(1f, 2f, 3f);
+        ArgumentCaptor<Object> body = ArgumentCaptor.forClass(Object.class);
+        verify(requestBodySpec, times(2)).bodyValue(body.capture());
+        assertThat((Map<String, Object>) body.getAllValues().get(0))
+                .containsEntry("model", "nomic-embed-text")
+                .containsEntry("input", List.of("a", "b"));
+    }
+
+    @Test
+    @DisplayName("should fail when Ollama returns fewer embeddings than texts")
+    void should_throw_when_embeddingCountMismatch() {
+        when(requestHeadersSpec.retrieve().bodyToMono(OllamaEmbedResponse.class))
+                .thenReturn(Mono.just(new OllamaEmbedResponse(List.of(new float[]{1f}))));
+
+        assertThatThrownBy(() -> service.embed(List.of("a", "b")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("1 embeddings for 2 texts");
+    }
+}
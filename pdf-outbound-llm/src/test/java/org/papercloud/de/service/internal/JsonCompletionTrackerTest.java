@@ -0,0 +1,90 @@
+package org.papercloud.de.service.internal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for JsonCompletionTracker.
+ * Tests detection of the closing outer JSON value across streamed tokens.
+ */
+@DisplayName("JsonCompletionTracker")
+class JsonCompletionTrackerTest {
+
+    @Test
+    @DisplayName("should complete when outer object closes across tokens")
+    void should_complete_when_outerObjectCloses() {
+        // Arrange
+        JsonCompletionTracker tracker = new JsonCompletionTracker(JsonCompletionTracker.OBJECT);
+
+        // Act
+        boolean afterFirst = tracker.append("```json\n{\"title\":\"x\",");
+        boolean afterNested = tracker.append("\"tags\":[{\"name\":\"a\"}]");
+        boolean afterLast = tracker.append("}\n```");
+
+        // Assert
+        assertThat(afterFirst).isFalse();
+        assertThat(afterNested).isFalse();
+        assertThat(afterLast).isTrue();
+        assertThat(tracker.text()).isEqualTo("```json\n{\"title\":\"x\",\"tags\":[{\"name\":\"a\"}]}");
+    }
+
+    @Test
+    @DisplayName("should ignore braces and escaped quotes inside strings")
+    void should_ignoreBraces_when_insideString() {
+        // Arrange
+        JsonCompletionTracker tracker = new JsonCompletionTracker(JsonCompletionTracker.OBJECT);
+
+        // Act
+        boolean complete = tracker.append("{\"title\":\"a } \\\" {\"");
+
+        // Assert
+        assertThat(complete).isFalse();
+        assertThat(tracker.append("}")).isTrue();
+    }
+
+    @Test
+    @DisplayName("should ignore brackets before the object when tracking objects only")
+    void should_ignoreArray_when_trackingObject() {
+        // Arrange
+        JsonCompletionTracker tracker = new JsonCompletionTracker(JsonCompletionTracker.OBJECT);
+
+        // Act
+        boolean complete = tracker.append("[Note] here it is: ");
+
+        // Assert
+        assertThat(complete).isFalse();
+        assertThat(tracker.append("{\"a\":1}")).isTrue();
+    }
+
+    @Test
+    @DisplayName("should complete when outer array closes")
+    void should_complete_when_outerArrayCloses() {
+        // Arrange
+        JsonCompletionTracker tracker = new JsonCompletionTracker(JsonCompletionTracker.OBJECT_OR_ARRAY);
+
+        // Act
+        tracker.append("[{\"id\":\"1\"},");
+        boolean complete = tracker.append("{\"id\":\"2\"}] trailing");
+
+        // Assert
+        assertThat(complete).isTrue();
+        assertThat(tracker.text()).isEqualTo("[{\"id\":\"1\"},{\"id\":\"2\"}]");
+    }
+
+    @Test
+    @DisplayName("should ignore tokens after completion")
+    void should_ignoreTokens_when_alreadyComplete() {
+        // Arrange
+        JsonCompletionTracker tracker = new JsonCompletionTracker(JsonCompletionTracker.OBJECT);
+        tracker.append("{}");
+
+        // Act
+        tracker.append("more");
+
+        // Assert
+        assertThat(tracker.isComplete()).isTrue();
+        assertThat(tracker.text()).isEqualTo("{}");
+    }
+}
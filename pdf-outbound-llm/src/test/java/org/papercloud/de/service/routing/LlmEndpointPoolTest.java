@@ -0,0 +1,216 @@
+package org.papercloud.de.service.routing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.papercloud.de.config.LlmEndpointConfiguration;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for LlmEndpointPool.
+ * Tests least-loaded selection, passive and active health handling and hedging.
+ */
+@DisplayName("LlmEndpointPool")
+class LlmEndpointPoolTest {
+
+    private LlmEndpointConfiguration config;
+    private SimpleMeterRegistry meterRegistry;
+    private LlmEndpoint first;
+    private LlmEndpoint second;
+    private LlmEndpointPool pool;
+
+    @BeforeEach
+    void setUp() {
+        config = new LlmEndpointConfiguration();
+        config.setFailureThreshold(2);
+        meterRegistry = new SimpleMeterRegistry();
+        first = new LlmEndpoint("http://first", mock(WebClient.class));
+        second = new LlmEndpoint("http://second", mock(WebClient.class));
+        pool = new LlmEndpointPool(config, List.of(first, second), meterRegistry);
+    }
+
+    private String nameOf(LlmEndpoint endpoint) {
+        return endpoint == first ? "first" : "second";
+    }
+
+    @Test
+    @DisplayName("should reject empty endpoint list")
+    void should_throw_when_noEndpoints() {
+        assertThatThrownBy(() -> new LlmEndpointPool(config, List.of(), meterRegistry))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Nested
+    @DisplayName("selection")
+    class SelectionTests {
+
+        @Test
+        @DisplayName("should prefer endpoint with lower latency")
+        void should_pickFasterEndpoint_when_latenciesDiffer() {
+            // Arrange
+            first.recordSuccess(TimeUnit.SECONDS.toNanos(4), 1.0);
+            second.recordSuccess(TimeUnit.SECONDS.toNanos(1), 1.0);
+
+            // Act & Assert
+            assertThat(pool.select(null, null)).isSameAs(second);
+        }
+
+        @Test
+        @DisplayName("should weigh latency by in-flight requests")
+        void should_pickLessLoadedEndpoint_when_fasterOneIsBusy() {
+            // Arrange
+            first.recordSuccess(TimeUnit.SECONDS.toNanos(2), 1.0);
+            second.recordSuccess(TimeUnit.SECONDS.toNanos(1), 1.0);
+            second.requestStarted();
+            second.requestStarted();
+
+            // Act & Assert
+            assertThat(pool.select(null, null)).isSameAs(first);
+        }
+
+        @Test
+        @DisplayName("should prefer endpoint that has the model loaded")
+        void should_pickWarmEndpoint_when_modelResidentElsewhere() {
+            // Arrange
+            first.recordSuccess(TimeUnit.SECONDS.toNanos(1), 1.0);
+            second.recordSuccess(TimeUnit.SECONDS.toNanos(3), 1.0);
+            second.markResident("qwen2.5:0.5b", System.nanoTime() + TimeUnit.MINUTES.toNanos(5));
+
+            // Act & Assert
+            assertThat(pool.select("qwen2.5:0.5b", null)).isSameAs(second);
+            assertThat(pool.select(null, null)).isSameAs(first);
+        }
+
+        @Test
+        @DisplayName("should run the call on the selected endpoint and track latency")
+        void should_recordLatency_when_callSucceeds() {
+            // Act
+            StepVerifier.create(pool.execute(null, endpoint -> Mono.just(nameOf(endpoint))))
+                    .expectNext("first")
+                    .verifyComplete();
+
+            // Assert
+            assertThat(first.getInFlight()).isZero();
+            assertThat(first.getEwmaLatencyNanos()).isPositive();
+        }
+    }
+
+    @Nested
+    @DisplayName("health")
+    class HealthTests {
+
+        @Test
+        @DisplayName("should eject endpoint after consecutive server errors")
+        void should_ejectEndpoint_when_failureThresholdReached() {
+            // Arrange
+            Mono<String> failing = Mono.error(new WebClientResponseException(503, "Unavailable", null, null, null));
+
+            // Act
+            for (int i = 0; i < 2; i++) {
+                StepVerifier.create(pool.execute(null, endpoint -> endpoint == first ? failing : Mono.just("ok")))
+                        .verifyError(WebClientResponseException.class);
+            }
+
+            // Assert
+            assertThat(first.isAvailable(System.nanoTime())).isFalse();
+            assertThat(pool.select(null, null)).isSameAs(second);
+        }
+
+        @Test
+        @DisplayName("should not count client errors against the endpoint")
+        void should_keepEndpoint_when_clientError() {
+            // Arrange
+            Mono<String> failing = Mono.error(new WebClientResponseException(400, "Bad Request", null, null, null));
+
+            // Act
+            for (int i = 0; i < 3; i++) {
+                StepVerifier.create(pool.execute(null, endpoint -> failing)).verifyError();
+            }
+
+            // Assert
+            assertThat(first.isAvailable(System.nanoTime())).isTrue();
+        }
+
+        @Test
+        @DisplayName("should skip endpoint that failed the active probe")
+        void should_skipEndpoint_when_probeFailed() {
+            // Act
+            pool.updateActiveHealth(first, false);
+
+            // Assert
+            assertThat(pool.select(null, null)).isSameAs(second);
+        }
+
+        @Test
+        @DisplayName("should still route somewhere when all endpoints are down")
+        void should_failOpen_when_allEndpointsUnavailable() {
+            // Arrange
+            pool.updateActiveHealth(first, false);
+            pool.updateActiveHealth(second, false);
+
+            // Act & Assert
+            assertThat(pool.select(null, null)).isNotNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("hedging")
+    class HedgingTests {
+
+        @BeforeEach
+        void enableHedging() {
+            config.getHedging().setEnabled(true);
+            config.getHedging().setMinSamples(1);
+            config.getHedging().setMinDelay(Duration.ofMillis(50));
+        }
+
+        @Test
+        @DisplayName("should not hedge before enough samples exist")
+        void should_notHedge_when_tooFewSamples() {
+            config.getHedging().setMinSamples(5);
+
+            assertThat(pool.hedgeDelay()).isNull();
+        }
+
+        @Test
+        @DisplayName("should answer from second endpoint when primary is slow")
+        void should_returnHedgedResult_when_primarySlow() {
+            // Arrange - one sample on "first" makes the idle "second" the primary
+            pool.execute(null, endpoint -> Mono.just("warm-up")).block();
+
+            // Act & Assert
+            StepVerifier.create(pool.execute(null, endpoint ->
+                            endpoint == second ? Mono.<String>never() : Mono.just(nameOf(endpoint))))
+                    .expectNext("first")
+                    .verifyComplete();
+            assertThat(meterRegistry.counter("llm.endpoint.hedges").count()).isEqualTo(1.0);
+            assertThat(second.getInFlight()).isZero();
+        }
+
+        @Test
+        @DisplayName("should not hedge when primary answers in time")
+        void should_notHedge_when_primaryFast() {
+            // Arrange
+            pool.execute(null, endpoint -> Mono.just("warm-up")).block();
+
+            // Act & Assert
+            StepVerifier.create(pool.execute(null, endpoint -> Mono.just(nameOf(endpoint))))
+                    .expectNext("second")
+                    .verifyComplete();
+            assertThat(meterRegistry.counter("llm.endpoint.hedges").count()).isZero();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package org.papercloud.de.service.routing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.papercloud.de.config.LlmCascadeConfiguration;
+import org.papercloud.de.config.LlmEndpointConfiguration;
+import org.papercloud.de.config.LlmResidencyConfiguration;
+import org.papercloud.de.service.cascade.ModelCascade;
+import org.papercloud.de.service.concurrency.AdaptiveConcurrencyLimiter;
+import org.papercloud.de.service.internal.OllamaGenerateChunk;
+import org.papercloud.de.service.internal.OllamaRunningModels;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for ModelResidencyManager.
+ * Tests keep_alive sizing, residency tracking, warm-up and cold-start metrics.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ModelResidencyManager")
+class ModelResidencyManagerTest {
+
+    private static final String MODEL = "qwen2.5:0.5b";
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private WebClient webClient;
+
+    @Mock
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    private LlmResidencyConfiguration config;
+    private SimpleMeterRegistry meterRegistry;
+    private LlmEndpoint endpoint;
+    private ModelResidencyManager manager;
+
+    @BeforeEach
+    void setUp() {
+        config = new LlmResidencyConfiguration();
+        meterRegistry = new SimpleMeterRegistry();
+        endpoint = new LlmEndpoint("http://test", webClient);
+        LlmEndpointPool pool = new LlmEndpointPool(new LlmEndpointConfiguration(), List.of(endpoint), meterRegistry);
+        ModelCascade cascade = new ModelCascade(new LlmCascadeConfiguration(), meterRegistry);
+        manager = new ModelResidencyManager(config, pool, concurrencyLimiter, cascade, meterRegistry);
+    }
+
+    @Nested
+    @DisplayName("keepAlive")
+    class KeepAliveTests {
+
+        @Test
+        @DisplayName("should use idle keep_alive without backlog")
+        void should_returnIdleKeepAlive_when_noPendingCalls() {
+            assertThat(manager.keepAlive()).isEqualTo(Duration.ofMinutes(5));
+        }
+
+        @Test
+        @DisplayName("should extend keep_alive with pending calls")
+        void should_extendKeepAlive_when_callsPending() {
+            // Arrange
+            when(concurrencyLimiter.getQueueSize()).thenReturn(8);
+            when(concurrencyLimiter.getInFlight()).thenReturn(2);
+
+            // Act & Assert
+            assertThat(manager.keepAlive()).isEqualTo(Duration.ofMinutes(15));
+        }
+
+        @Test
+        @DisplayName("should cap keep_alive at the configured maximum")
+        void should_capKeepAlive_when_backlogLarge() {
+            // Arrange
+            when(concurrencyLimiter.getQueueSize()).thenReturn(500);
+
+            // Act & Assert
+            assertThat(manager.keepAlive()).isEqualTo(Duration.ofHours(1));
+        }
+    }
+
+    @Nested
+    @DisplayName("execute")
+    class ExecuteTests {
+
+        @Test
+        @DisplayName("should pass keep_alive and count first call as cold start")
+        void should_recordColdThenWarm_when_modelLoadedByFirstCall() {
+            // Act
+            StepVerifier.create(manager.execute(MODEL, (client, keepAlive) -> Mono.just(keepAlive)))
+                    .expectNext("300s")
+                    .verifyComplete();
+            StepVerifier.create(manager.execute(MODEL, (client, keepAlive) -> Mono.just("ok")))
+                    .expectNext("ok")
+                    .verifyComplete();
+
+            // Assert
+            assertThat(endpoint.isResident(MODEL, System.nanoTime())).isTrue();
+            assertThat(meterRegistry.counter("llm.residency.requests", "model", MODEL, "residency", "cold").count())
+                    .isEqualTo(1.0);
+            assertThat(meterRegistry.counter("llm.residency.requests", "model", MODEL, "residency", "warm").count())
+                    .isEqualTo(1.0);
+            assertThat(meterRegistry.timer("llm.residency.cold_start", "model", MODEL).count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should not mark model resident when call fails")
+        void should_notMarkResident_when_callFails() {
+            StepVerifier.create(manager.execute(MODEL, (client, keepAlive) -> Mono.error(new IllegalStateException())))
+                    .verifyError(IllegalStateException.class);
+
+            assertThat(endpoint.isResident(MODEL, System.nanoTime())).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("warm-up and refresh")
+    class WarmUpTests {
+
+        @Test
+        @DisplayName("should mark model resident and record load time after warm-up")
+        void should_recordLoadTime_when_warmUpSucceeds() {
+            // Arrange
+            when(webClient.post().uri("/api/generate").bodyValue(any()).retrieve()
+                    .bodyToMono(OllamaGenerateChunk.class))
+                    .thenReturn(Mono.just(new OllamaGenerateChunk("", true, TimeUnit.SECONDS.toNanos(25))));
+
+            // Act
+            StepVerifier.create(manager.warmUp(endpoint, MODEL)).verifyComplete();
+
+            // Assert
+            assertThat(endpoint.isResident(MODEL, System.nanoTime())).isTrue();
+            assertThat(meterRegistry.timer("llm.residency.load", "model", MODEL).totalTime(TimeUnit.SECONDS))
+                    .isEqualTo(25.0);
+        }
+
+        @Test
+        @DisplayName("should swallow warm-up errors")
+        void should_complete_when_warmUpFails() {
+            // Arrange
+            when(webClient.post().uri("/api/generate").bodyValue(any()).retrieve()
+                    .bodyToMono(OllamaGenerateChunk.class))
+                    .thenReturn(Mono.error(new IllegalStateException("unreachable")));
+
+            // Act & Assert
+            StepVerifier.create(manager.warmUp(endpoint, MODEL)).verifyComplete();
+            assertThat(endpoint.isResident(MODEL, System.nanoTime())).isFalse();
+        }
+
+        @Test
+        @DisplayName("should replace tracked models with those reported by /api/ps")
+        void should_replaceResidency_when_psRefreshed() {
+            // Arrange
+            endpoint.markResident("llama3", System.nanoTime() + TimeUnit.MINUTES.toNanos(5));
+            String expiresAt = OffsetDateTime.now().plusMinutes(10).toString();
+            when(webClient.get().uri("/api/ps").retrieve().bodyToMono(OllamaRunningModels.class))
+                    .thenReturn(Mono.just(new OllamaRunningModels(
+                            List.of(new OllamaRunningModels.Model(MODEL, expiresAt)))));
+
+            // Act
+            StepVerifier.create(manager.refreshResidency(endpoint)).verifyComplete();
+
+            // Assert
+            assertThat(endpoint.getResidentModels(System.nanoTime())).containsExactly(MODEL);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package org.papercloud.de.pdfsearch.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Buffering of index and delete operations into {@code _bulk} requests. A buffer is sent
+ * when it reaches {@code maxActions} or {@code maxBytes}, and otherwise every flush interval.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "search.bulk")
+@Data
+public class BulkIndexingConfiguration {
+    private int maxActions = 500;
+    /** Estimated request size; Elasticsearch handles bulks of 5–15 MB best. */
+    private DataSize maxBytes = DataSize.ofMegabytes(5);
+    private long flushIntervalMs = 1000;
+    /** Resends of an item that Elasticsearch rejected with 429 before it is reported as failed. */
+    private int maxRetries = 3;
+}
@@ -0,0 +1,29 @@
+package org.papercloud.de.pdfsearch.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Layout of the documents index. Documents are routed by owner username, so a user's
+ * search touches one shard, or {@code routingPartitionSize} shards when single users are
+ * large enough to skew shard sizes. Both values only apply to newly created indices.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "search.index")
+@Data
+public class DocumentIndexConfiguration {
+    private int shards = 1;
+    private int replicas = 1;
+    /** Shards a single user's documents are spread over; 1 routes each user to one shard. */
+    private int routingPartitionSize = 1;
+    /** Move an index created before routing behind the alias on startup, while it keeps serving. */
+    private boolean migrateLegacyIndex = true;
+    /** Documents per scroll batch while copying the legacy index. */
+    private int migrationBatchSize = 1000;
+    private long migrationPollIntervalMs = 2000;
+    /** How long a search cursor stays valid after its last page was read. */
+    private Duration cursorKeepAlive = Duration.ofMinutes(5);
+}
@@ -0,0 +1,39 @@
+package org.papercloud.de.pdfsearch.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Connection pool and timeouts of the Elasticsearch client, and the circuit breaker that
+ * stops sending requests once Elasticsearch is known to be down.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "elasticsearch.client")
+@Data
+public class ElasticsearchClientConfiguration {
+    /** Connections to the cluster; all requests share one pool. */
+    private int maxConnections = 50;
+    private int maxConnectionsPerRoute = 50;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    /** Socket timeout of every request; bounds bulk writes and index administration. */
+    private Duration socketTimeout = Duration.ofSeconds(60);
+    /** Wait for a free pooled connection before a request fails. */
+    private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+    /** Time a user-facing search may take before it counts as failed. */
+    private Duration searchTimeout = Duration.ofSeconds(5);
+    /** Suggestions are requested per keystroke and give up much sooner. */
+    private Duration suggestTimeout = Duration.ofMillis(800);
+    private Breaker breaker = new Breaker();
+
+    @Data
+    public static class Breaker {
+        /** Consecutive failed requests after which requests fail immediately. */
+        private int failureThreshold = 5;
+        /** Interval of the background ping while the breaker is open, in milliseconds. */
+        private long probeIntervalMs = 5000;
+        private Duration probeTimeout = Duration.ofSeconds(2);
+    }
+}
@@ -1,7 +1,9 @@
 package org.papercloud.de.pdfsearch.config;
 
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
 import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.transport.ElasticsearchTransport;
 import co.elastic.clients.transport.rest_client.RestClientTransport;
 import org.apache.http.HttpHost;
 import org.elasticsearch.client.RestClient;
@@ -9,16 +11,38 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+/**
+ * The blocking and the async client share one transport, and with it one connection pool.
+ * Searches use the async client so they can be given up on after their own timeout;
+ * writes and index administration block and are bounded by the socket timeout.
+ */
 @Configuration
 public class ElasticsearchConfig {
 
     @Value("${elasticsearch.url:http://elasticsearch:9200}")
     private String elasticsearchUrl;
 
+    @Bean(destroyMethod = "close")
+    public ElasticsearchTransport elasticsearchTransport(ElasticsearchClientConfiguration config) {
+        RestClient restClient = RestClient.builder(HttpHost.create(elasticsearchUrl))
+                .setHttpClientConfigCallback(http -> http
+                        .setMaxConnTotal(config.getMaxConnections())
+                        .setMaxConnPerRoute(config.getMaxConnectionsPerRoute()))
+                .setRequestConfigCallback(request -> request
+                        .setConnectTimeout((int) config.getConnectTimeout().toMillis())
+                        .setSocketTimeout((int) config.getSocketTimeout().toMillis())
+                        .setConnectionRequestTimeout((int) config.getConnectionRequestTimeout().toMillis()))
+                .build();
+        return new RestClientTransport(restClient, new JacksonJsonpMapper());
+    }
+
     @Bean
-    public ElasticsearchClient elasticsearchClient() {
-        RestClient restClient = RestClient.builder(HttpHost.create(elasticsearchUrl)).build();
-        RestClientTransport transport = new RestClientTransport(restClient, new JacksonJsonpMapper());
+    public ElasticsearchClient elasticsearchClient(ElasticsearchTransport transport) {
         return new ElasticsearchClient(transport);
     }
+
+    @Bean
+    public ElasticsearchAsyncClient elasticsearchAsyncClient(ElasticsearchTransport transport) {
+        return new ElasticsearchAsyncClient(transport);
+    }
 }
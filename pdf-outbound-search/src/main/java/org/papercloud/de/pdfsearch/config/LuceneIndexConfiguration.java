@@ -0,0 +1,19 @@
+package org.papercloud.de.pdfsearch.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Embedded Lucene index on local disk. With {@code search.engine=elasticsearch} it mirrors
+ * every index write and answers searches while Elasticsearch is unavailable; with
+ * {@code search.engine=lucene} it is the only search index.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "search.lucene")
+@Data
+public class LuceneIndexConfiguration {
+    private String directory = "./data/search-index";
+    /** Mirrored writes are made durable this often; in standalone mode every write is committed. */
+    private long commitIntervalMs = 5000;
+}
@@ -0,0 +1,24 @@
+package org.papercloud.de.pdfsearch.config;
+
+import lombok.Data;
+import org.papercloud.de.pdfsearch.vector.VectorQuantization;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * In-process HNSW index over page chunk embeddings, one memory-mapped file per user.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "search.vector-index")
+@Data
+public class VectorIndexConfiguration {
+    private String directory = "./data/vector-index";
+    /** INT8 stores a quarter of the bytes per vector at a small loss in ranking precision. */
+    private VectorQuantization quantization = VectorQuantization.INT8;
+    /** Links per node and layer; layer 0 keeps twice as many. */
+    private int m = 16;
+    private int efConstruction = 100;
+    private int efSearch = 64;
+    /** Records reserved when a user's file is created; the file doubles when full. */
+    private int initialCapacity = 1024;
+}
@@ -0,0 +1,594 @@
+package org.papercloud.de.pdfsearch.lucene;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedSetDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.CollectorManager;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.MultiCollectorManager;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.SimpleCollector;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopScoreDocCollectorManager;
+import org.apache.lucene.search.uhighlight.DefaultPassageFormatter;
+import org.apache.lucene.search.uhighlight.LengthGoalBreakIterator;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.QueryBuilder;
+import org.papercloud.de.core.dto.search.FacetBucketDTO;
+import org.papercloud.de.core.dto.search.IndexableDocumentDTO;
+import org.papercloud.de.core.dto.search.IndexableMetadataDTO;
+import org.papercloud.de.core.dto.search.IndexablePageDTO;
+import org.papercloud.de.core.dto.search.SearchHitDTO;
+import org.papercloud.de.core.dto.search.SearchRequestDTO;
+import org.papercloud.de.core.dto.search.SearchResultDTO;
+import org.papercloud.de.core.dto.search.SuggestionDTO;
+import org.papercloud.de.core.ports.outbound.SearchRebuildConflictException;
+import org.papercloud.de.pdfsearch.config.LuceneIndexConfiguration;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Full-text index of the users' documents in an embedded Lucene directory.
+ * <p>
+ * Every document is stored as one entry with its metadata and full text, followed by one
+ * entry per page. Searches match the full text the way the Elasticsearch adapter does,
+ * count tag and year facets over all matches from doc values, and take the page number and
+ * snippet of a hit from its best matching page, whose text keeps offsets for highlighting.
+ * <p>
+ * Writes are serialized and visible to searches as soon as they return. They are made
+ * durable by {@link #commit()}, which runs every {@code search.lucene.commit-interval-ms}
+ * and can be called after a write that must survive a crash.
+ * <p>
+ * A rebuild rewrites the documents in place. Documents that received a live write since
+ * the rebuild began are skipped, since the live write is at least as recent. A backfill
+ * copies documents that never reached the index in the same way, tracking its live writes
+ * separately so that it can run next to a rebuild.
+ */
+@Slf4j
+@Component
+public class LuceneDocumentIndex {
+
+    private static final String DOCUMENT_ID = "documentId";
+    private static final String TYPE = "type";
+    private static final String TYPE_DOCUMENT = "document";
+    private static final String TYPE_PAGE = "page";
+    private static final String USERNAME = "username";
+    private static final String FILE_NAME = "fileName";
+    private static final String TAGS = "tags";
+    private static final String YEAR = "year";
+    private static final String FULL_TEXT = "fullText";
+    private static final String SUGGEST = "suggest";
+    private static final String PAGE_NUMBER = "pageNumber";
+    private static final String PAGE_TEXT = "text";
+    private static final int SNIPPET_CHARS = 200;
+    static final int TAG_FACET_SIZE = 20;
+    static final int SUGGEST_MIN_CHARS = 2;
+    private static final FieldType PAGE_TEXT_TYPE = pageTextType();
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final QueryBuilder queryBuilder = new QueryBuilder(analyzer);
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final Set<Long> liveWrites = ConcurrentHashMap.newKeySet();
+    private boolean rebuilding;
+    private final Set<Long> backfillWrites = ConcurrentHashMap.newKeySet();
+    private boolean backfilling;
+
+    public LuceneDocumentIndex(LuceneIndexConfiguration config) throws IOException {
+        Path path = Path.of(config.getDirectory());
+        Files.createDirectories(path);
+        this.directory = FSDirectory.open(path);
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        this.searcherManager = new SearcherManager(writer, null);
+        log.info("Opened search index at {} with {} documents", path, countDocuments());
+    }
+
+    /** Replaces the document and all of its pages. */
+    public synchronized void index(IndexableDocumentDTO document) throws IOException {
+        recordLiveWrite(document.getId());
+        write(document);
+        searcherManager.maybeRefreshBlocking();
+    }
+
+    /**
+     * Replaces title, tags and year of a document and keeps its text and pages.
+     *
+     * @return false if the document is not in the index
+     */
+    public synchronized boolean updateMetadata(IndexableMetadataDTO metadata) throws IOException {
+        recordLiveWrite(metadata.getId());
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs current = searcher.search(documentQuery(metadata.getId()), 1);
+            if (current.scoreDocs.length == 0) {
+                return false;
+            }
+            String fullText = searcher.storedFields().document(current.scoreDocs[0].doc, Set.of(FULL_TEXT))
+                    .get(FULL_TEXT);
+            writer.updateDocuments(documentQuery(metadata.getId()), List.of(documentEntry(metadata.getId(),
+                    metadata.getUsername(), metadata.getFileName(), metadata.getTags(), metadata.getYear(), fullText)));
+        } finally {
+            searcherManager.release(searcher);
+        }
+        searcherManager.maybeRefreshBlocking();
+        return true;
+    }
+
+    public synchronized void delete(Long documentId) throws IOException {
+        recordLiveWrite(documentId);
+        writer.deleteDocuments(new Term(DOCUMENT_ID, documentId.toString()));
+        searcherManager.maybeRefreshBlocking();
+    }
+
+    /**
+     * Starts tracking live writes so that {@link #writeRebuildBatch} does not overwrite them.
+     *
+     * @throws SearchRebuildConflictException if a rebuild is already running
+     */
+    public synchronized void beginRebuild() {
+        if (rebuilding) {
+            throw new SearchRebuildConflictException("A search index rebuild is already running");
+        }
+        liveWrites.clear();
+        rebuilding = true;
+    }
+
+    /** Continues an interrupted rebuild; live writes from before the restart are no longer known. */
+    public synchronized void resumeRebuild() {
+        rebuilding = true;
+    }
+
+    /**
+     * Writes the documents that have not received a live write since the rebuild began.
+     *
+     * @return the IDs of the documents that could not be written
+     */
+    public synchronized List<Long> writeRebuildBatch(List<IndexableDocumentDTO> documents) throws IOException {
+        return writeBatch(documents, liveWrites);
+    }
+
+    public synchronized void endRebuild() {
+        rebuilding = false;
+        liveWrites.clear();
+    }
+
+    /** Starts tracking live writes so that {@link #writeBackfillBatch} does not overwrite them. */
+    public synchronized void beginBackfill() {
+        backfillWrites.clear();
+        backfilling = true;
+    }
+
+    /**
+     * Writes the documents that have not received a live write since the backfill began.
+     *
+     * @return the IDs of the documents that could not be written
+     */
+    public synchronized List<Long> writeBackfillBatch(List<IndexableDocumentDTO> documents) throws IOException {
+        return writeBatch(documents, backfillWrites);
+    }
+
+    public synchronized void endBackfill() {
+        backfilling = false;
+        backfillWrites.clear();
+    }
+
+    public SearchResultDTO search(SearchRequestDTO request) throws IOException {
+        int page = request.getPage() != null ? request.getPage() : 0;
+        int size = request.getSize() != null ? request.getSize() : 10;
+        int from = page * size;
+
+        Query pageQuery = textQuery(PAGE_TEXT, request.getQuery());
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(TYPE, TYPE_DOCUMENT)), Occur.FILTER);
+        if (request.getQuery() != null && !request.getQuery().isBlank()) {
+            Query fullTextQuery = textQuery(FULL_TEXT, request.getQuery());
+            query.add(fullTextQuery != null ? fullTextQuery : new MatchNoDocsQuery(), Occur.MUST);
+        }
+        if (request.getUsername() != null) {
+            query.add(new TermQuery(new Term(USERNAME, request.getUsername())), Occur.FILTER);
+        }
+        if (request.getTags() != null) {
+            request.getTags().stream()
+                    .filter(tag -> tag != null && !tag.isBlank())
+                    .distinct()
+                    .forEach(tag -> query.add(new TermQuery(new Term(TAGS, tag)), Occur.FILTER));
+        }
+        if (request.getYear() != null) {
+            query.add(IntPoint.newExactQuery(YEAR, request.getYear()), Occur.FILTER);
+        }
+
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            Object[] results = searcher.search(query.build(), new MultiCollectorManager(
+                    new TopScoreDocCollectorManager(from + size, Integer.MAX_VALUE),
+                    new FacetCollectorManager()));
+            TopDocs top = (TopDocs) results[0];
+            FacetCounts facets = (FacetCounts) results[1];
+
+            UnifiedHighlighter highlighter = UnifiedHighlighter.builder(searcher, analyzer)
+                    .withBreakIterator(() -> LengthGoalBreakIterator.createClosestToLength(
+                            BreakIterator.getSentenceInstance(Locale.ROOT), SNIPPET_CHARS, 0.5f))
+                    .withFormatter(new DefaultPassageFormatter("<em>", "</em>", " ... ", false))
+                    .build();
+            List<SearchHitDTO> hits = new ArrayList<>();
+            for (int i = from; i < top.scoreDocs.length; i++) {
+                hits.add(toSearchHit(searcher, top.scoreDocs[i], pageQuery, highlighter));
+            }
+
+            long total = top.totalHits.value;
+            return SearchResultDTO.builder()
+                    .hits(hits)
+                    .totalHits(total)
+                    .totalPages((int) Math.ceil((double) total / size))
+                    .currentPage(page)
+                    .tagFacets(facets.tagFacets())
+                    .yearFacets(facets.yearFacets())
+                    .build();
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    /**
+     * Completes a partially typed query: every word has to start a word of the document's
+     * title or tags.
+     */
+    public List<SuggestionDTO> suggest(String username, String prefix, int size) throws IOException {
+        String text = prefix == null ? "" : prefix.strip();
+        List<String> words = analyze(text);
+        if (text.length() < SUGGEST_MIN_CHARS || words.isEmpty()) {
+            return List.of();
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(TYPE, TYPE_DOCUMENT)), Occur.FILTER)
+                .add(new TermQuery(new Term(USERNAME, username)), Occur.FILTER);
+        words.forEach(word -> query.add(new PrefixQuery(new Term(SUGGEST, word)), Occur.MUST));
+
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            String lastWord = words.get(words.size() - 1);
+            List<SuggestionDTO> documents = new ArrayList<>();
+            Set<String> tags = new LinkedHashSet<>();
+            for (ScoreDoc scoreDoc : searcher.search(query.build(), size).scoreDocs) {
+                Document stored = searcher.storedFields().document(scoreDoc.doc, Set.of(DOCUMENT_ID, FILE_NAME, TAGS));
+                if (stored.get(FILE_NAME) != null) {
+                    documents.add(new SuggestionDTO(SuggestionDTO.Kind.DOCUMENT, stored.get(FILE_NAME),
+                            Long.valueOf(stored.get(DOCUMENT_ID))));
+                }
+                for (String tag : stored.getValues(TAGS)) {
+                    if (startsWithWord(tag, lastWord)) {
+                        tags.add(tag);
+                    }
+                }
+            }
+
+            // Documents first, then tags, up to size suggestions in total
+            List<SuggestionDTO> suggestions = new ArrayList<>(documents);
+            tags.stream()
+                    .limit(Math.max(0, size - documents.size()))
+                    .map(tag -> new SuggestionDTO(SuggestionDTO.Kind.TAG, tag, null))
+                    .forEach(suggestions::add);
+            return suggestions;
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    public void commit() throws IOException {
+        if (writer.hasUncommittedChanges()) {
+            writer.commit();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${search.lucene.commit-interval-ms:5000}")
+    public void commitPeriodically() {
+        try {
+            commit();
+        } catch (IOException e) {
+            log.warn("Failed to commit the search index: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        try {
+            searcherManager.close();
+            writer.close();
+            directory.close();
+        } catch (IOException e) {
+            log.warn("Failed to close the search index", e);
+        }
+    }
+
+    public int countDocuments() throws IOException {
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            return searcher.count(new TermQuery(new Term(TYPE, TYPE_DOCUMENT)));
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    private void recordLiveWrite(Long documentId) {
+        if (rebuilding) {
+            liveWrites.add(documentId);
+        }
+        if (backfilling) {
+            backfillWrites.add(documentId);
+        }
+    }
+
+    private List<Long> writeBatch(List<IndexableDocumentDTO> documents, Set<Long> skipped) throws IOException {
+        List<Long> failed = new ArrayList<>();
+        for (IndexableDocumentDTO document : documents) {
+            if (skipped.contains(document.getId())) {
+                continue;
+            }
+            try {
+                write(document);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to write document {} to the search index: {}", document.getId(), e.getMessage());
+                failed.add(document.getId());
+            }
+        }
+        searcherManager.maybeRefreshBlocking();
+        return failed;
+    }
+
+    private void write(IndexableDocumentDTO document) throws IOException {
+        List<Document> entries = new ArrayList<>();
+        entries.add(documentEntry(document.getId(), document.getUsername(), document.getFileName(),
+                document.getTags(), document.getYear(), document.getFullText()));
+        if (document.getPages() != null) {
+            for (IndexablePageDTO page : document.getPages()) {
+                entries.add(pageEntry(document.getId(), page));
+            }
+        }
+        writer.updateDocuments(new Term(DOCUMENT_ID, document.getId().toString()), entries);
+    }
+
+    private static Document documentEntry(Long id, String username, String fileName, List<String> tags, int year,
+                                          String fullText) {
+        Document entry = new Document();
+        entry.add(new StringField(DOCUMENT_ID, id.toString(), Field.Store.YES));
+        entry.add(new StringField(TYPE, TYPE_DOCUMENT, Field.Store.NO));
+        if (username != null) {
+            entry.add(new StringField(USERNAME, username, Field.Store.NO));
+        }
+        StringBuilder suggest = new StringBuilder();
+        if (fileName != null) {
+            entry.add(new StoredField(FILE_NAME, fileName));
+            suggest.append(fileName);
+        }
+        if (tags != null) {
+            for (String tag : new LinkedHashSet<>(tags)) {
+                entry.add(new StringField(TAGS, tag, Field.Store.YES));
+                entry.add(new SortedSetDocValuesField(TAGS, new BytesRef(tag)));
+                suggest.append(' ').append(tag);
+            }
+        }
+        entry.add(new IntPoint(YEAR, year));
+        entry.add(new NumericDocValuesField(YEAR, year));
+        entry.add(new TextField(FULL_TEXT, fullText != null ? fullText : "", Field.Store.YES));
+        entry.add(new TextField(SUGGEST, suggest.toString(), Field.Store.NO));
+        return entry;
+    }
+
+    private static Document pageEntry(Long documentId, IndexablePageDTO page) {
+        Document entry = new Document();
+        entry.add(new StringField(DOCUMENT_ID, documentId.toString(), Field.Store.YES));
+        entry.add(new StringField(TYPE, TYPE_PAGE, Field.Store.NO));
+        entry.add(new StoredField(PAGE_NUMBER, page.getPageNumber()));
+        entry.add(new Field(PAGE_TEXT, page.getText() != null ? page.getText() : "", PAGE_TEXT_TYPE));
+        return entry;
+    }
+
+    private static Query documentQuery(Long documentId) {
+        return new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(DOCUMENT_ID, documentId.toString())), Occur.FILTER)
+                .add(new TermQuery(new Term(TYPE, TYPE_DOCUMENT)), Occur.FILTER)
+                .build();
+    }
+
+    /** Any analyzed word of the text may match, like a {@code match} query; null if nothing is left to match. */
+    private Query textQuery(String field, String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        return queryBuilder.createBooleanQuery(field, text);
+    }
+
+    /** Page number and highlighted snippet come from the best matching page of the document. */
+    private SearchHitDTO toSearchHit(IndexSearcher searcher, ScoreDoc scoreDoc, Query pageQuery,
+                                     UnifiedHighlighter highlighter) throws IOException {
+        Document stored = searcher.storedFields().document(scoreDoc.doc, Set.of(DOCUMENT_ID, FILE_NAME));
+        String documentId = stored.get(DOCUMENT_ID);
+        int pageNumber = 0;
+        String snippet = "";
+        if (pageQuery != null) {
+            Query bestPage = new BooleanQuery.Builder()
+                    .add(new TermQuery(new Term(DOCUMENT_ID, documentId)), Occur.FILTER)
+                    .add(new TermQuery(new Term(TYPE, TYPE_PAGE)), Occur.FILTER)
+                    .add(pageQuery, Occur.MUST)
+                    .build();
+            TopDocs pages = searcher.search(bestPage, 1);
+            if (pages.scoreDocs.length > 0) {
+                IndexableField number = searcher.storedFields().document(pages.scoreDocs[0].doc, Set.of(PAGE_NUMBER))
+                        .getField(PAGE_NUMBER);
+                pageNumber = number.numericValue().intValue();
+                String[] fragments = highlighter.highlight(PAGE_TEXT, pageQuery, pages, 1);
+                snippet = fragments[0] != null ? fragments[0] : "";
+            }
+        }
+        return SearchHitDTO.builder()
+                .documentId(documentId)
+                .documentName(stored.get(FILE_NAME))
+                .pageNumber(pageNumber)
+                .textSnippet(snippet)
+                .score(scoreDoc.score)
+                .build();
+    }
+
+    private List<String> analyze(String text) throws IOException {
+        List<String> words = new ArrayList<>();
+        try (TokenStream tokens = analyzer.tokenStream(SUGGEST, text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                words.add(term.toString());
+            }
+            tokens.end();
+        }
+        return words;
+    }
+
+    /** Whether any word of the tag starts with the given lower-case prefix. */
+    private static boolean startsWithWord(String tag, String prefix) {
+        for (String word : tag.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static FieldType pageTextType() {
+        FieldType type = new FieldType(TextField.TYPE_STORED);
+        type.setIndexOptions(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS_AND_OFFSETS);
+        type.freeze();
+        return type;
+    }
+
+    /** Tag and year counts over all matches, most frequent tags first and years in ascending order. */
+    record FacetCounts(Map<String, Long> tags, Map<Integer, Long> years) {
+
+        List<FacetBucketDTO> tagFacets() {
+            return tags.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(TAG_FACET_SIZE)
+                    .map(entry -> new FacetBucketDTO(entry.getKey(), entry.getValue()))
+                    .toList();
+        }
+
+        List<FacetBucketDTO> yearFacets() {
+            return years.entrySet().stream()
+                    .map(entry -> new FacetBucketDTO(String.valueOf(entry.getKey()), entry.getValue()))
+                    .toList();
+        }
+    }
+
+    private static final class FacetCollectorManager implements CollectorManager<FacetCollector, FacetCounts> {
+
+        @Override
+        public FacetCollector newCollector() {
+            return new FacetCollector();
+        }
+
+        @Override
+        public FacetCounts reduce(Collection<FacetCollector> collectors) throws IOException {
+            FacetCounts counts = new FacetCounts(new HashMap<>(), new TreeMap<>());
+            for (FacetCollector collector : collectors) {
+                collector.countSegmentTags();
+                collector.tags.forEach((tag, count) -> counts.tags().merge(tag, count, Long::sum));
+                collector.years.forEach((year, count) -> counts.years().merge(year, count, Long::sum));
+            }
+            return counts;
+        }
+    }
+
+    /** Counts tag ordinals per segment and resolves them to tags once the segment is done. */
+    private static final class FacetCollector extends SimpleCollector {
+        private final Map<String, Long> tags = new HashMap<>();
+        private final Map<Integer, Long> years = new HashMap<>();
+        private SortedSetDocValues tagValues;
+        private long[] tagOrdinalCounts;
+        private NumericDocValues yearValues;
+
+        @Override
+        protected void doSetNextReader(LeafReaderContext context) throws IOException {
+            countSegmentTags();
+            tagValues = DocValues.getSortedSet(context.reader(), TAGS);
+            tagOrdinalCounts = new long[(int) tagValues.getValueCount()];
+            yearValues = DocValues.getNumeric(context.reader(), YEAR);
+        }
+
+        @Override
+        public void collect(int doc) throws IOException {
+            if (tagValues.advanceExact(doc)) {
+                for (int i = 0; i < tagValues.docValueCount(); i++) {
+                    tagOrdinalCounts[(int) tagValues.nextOrd()]++;
+                }
+            }
+            if (yearValues.advanceExact(doc)) {
+                years.merge((int) yearValues.longValue(), 1L, Long::sum);
+            }
+        }
+
+        @Override
+        public ScoreMode scoreMode() {
+            return ScoreMode.COMPLETE_NO_SCORES;
+        }
+
+        void countSegmentTags() throws IOException {
+            if (tagOrdinalCounts == null) {
+                return;
+            }
+            for (int ordinal = 0; ordinal < tagOrdinalCounts.length; ordinal++) {
+                if (tagOrdinalCounts[ordinal] > 0) {
+                    tags.merge(tagValues.lookupOrd(ordinal).utf8ToString(), tagOrdinalCounts[ordinal], Long::sum);
+                }
+            }
+            tagOrdinalCounts = null;
+        }
+    }
+}
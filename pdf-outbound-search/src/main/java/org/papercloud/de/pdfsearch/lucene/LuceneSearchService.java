@@ -0,0 +1,137 @@
+package org.papercloud.de.pdfsearch.lucene;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.papercloud.de.core.dto.search.IndexableDocumentDTO;
+import org.papercloud.de.core.dto.search.IndexableMetadataDTO;
+import org.papercloud.de.core.dto.search.SearchRequestDTO;
+import org.papercloud.de.core.dto.search.SearchResultDTO;
+import org.papercloud.de.core.dto.search.SuggestionDTO;
+import org.papercloud.de.core.events.DocumentIndexedEvent;
+import org.papercloud.de.core.events.DocumentIndexingFailedEvent;
+import org.papercloud.de.core.ports.outbound.SearchIndexAdmin;
+import org.papercloud.de.core.ports.outbound.SearchService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * SearchService for deployments without Elasticsearch, enabled with {@code search.engine=lucene}.
+ * <p>
+ * Documents are written to the embedded {@link LuceneDocumentIndex} and committed before
+ * the outcome is published, so a document reported as indexed survives a restart. Results
+ * are paged by page number only and carry no cursor. Saved-search notifications need the
+ * Elasticsearch percolator and are not available in this mode.
+ */
+@Slf4j
+@Primary
+@Service
+@ConditionalOnProperty(prefix = "search", name = "engine", havingValue = "lucene")
+@RequiredArgsConstructor
+public class LuceneSearchService implements SearchService, SearchIndexAdmin {
+
+    static final String INDEX_NAME = "lucene";
+
+    private final LuceneDocumentIndex index;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void indexDocument(IndexableDocumentDTO document) {
+        try {
+            index.index(document);
+            index.commit();
+            eventPublisher.publishEvent(new DocumentIndexedEvent(document.getId(), document.getUsername()));
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to index document {}: {}", document.getId(), e.getMessage());
+            eventPublisher.publishEvent(new DocumentIndexingFailedEvent(document.getId(), e.getMessage()));
+        }
+    }
+
+    @Override
+    public void updateMetadata(IndexableMetadataDTO metadata) {
+        try {
+            if (!index.updateMetadata(metadata)) {
+                eventPublisher.publishEvent(new DocumentIndexingFailedEvent(metadata.getId(),
+                        "Document is not in the search index"));
+                return;
+            }
+            index.commit();
+            eventPublisher.publishEvent(new DocumentIndexedEvent(metadata.getId(), metadata.getUsername()));
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to update document {}: {}", metadata.getId(), e.getMessage());
+            eventPublisher.publishEvent(new DocumentIndexingFailedEvent(metadata.getId(), e.getMessage()));
+        }
+    }
+
+    @Override
+    public SearchResultDTO search(SearchRequestDTO request) {
+        if (request.getCursor() != null) {
+            throw new IllegalArgumentException("Search cursors are not supported by the embedded search index");
+        }
+        try {
+            return index.search(request);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to search documents", e);
+        }
+    }
+
+    @Override
+    public List<SuggestionDTO> suggest(String username, String prefix, int size) {
+        try {
+            return index.suggest(username, prefix, size);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to suggest completions", e);
+        }
+    }
+
+    @Override
+    public void deleteDocument(Long documentId, String username) {
+        try {
+            index.delete(documentId);
+            index.commit();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to delete document " + documentId + " from the search index", e);
+        }
+    }
+
+    /** The embedded index is rebuilt in place, so there is no second index to switch to. */
+    @Override
+    public String beginRebuild() {
+        index.beginRebuild();
+        return INDEX_NAME;
+    }
+
+    @Override
+    public boolean resumeRebuild(String indexName) {
+        index.resumeRebuild();
+        return true;
+    }
+
+    /** Committed per batch, since the rebuild job checkpoints after every batch. */
+    @Override
+    public List<Long> writeRebuildBatch(String indexName, List<IndexableDocumentDTO> documents) {
+        try {
+            List<Long> failed = index.writeRebuildBatch(documents);
+            index.commit();
+            return failed;
+        } catch (IOException e) {
+            log.error("Failed to commit a rebuild batch: {}", e.getMessage());
+            return documents.stream().map(IndexableDocumentDTO::getId).toList();
+        }
+    }
+
+    @Override
+    public void completeRebuild(String indexName) {
+        index.endRebuild();
+    }
+
+    /** Documents written so far stay; they were read from the database like any live write. */
+    @Override
+    public void abortRebuild(String indexName) {
+        index.endRebuild();
+    }
+}
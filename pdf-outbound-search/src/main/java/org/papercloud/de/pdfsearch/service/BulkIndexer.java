@@ -0,0 +1,319 @@
+package org.papercloud.de.pdfsearch.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import lombok.extern.slf4j.Slf4j;
+import org.papercloud.de.core.dto.search.IndexableDocumentDTO;
+import org.papercloud.de.core.dto.search.IndexableMetadataDTO;
+import org.papercloud.de.core.events.DocumentIndexedEvent;
+import org.papercloud.de.core.events.DocumentIndexingEvent;
+import org.papercloud.de.core.events.DocumentIndexingFailedEvent;
+import org.papercloud.de.pdfsearch.config.BulkIndexingConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Buffers index and delete operations and sends them as {@code _bulk} requests.
+ * <p>
+ * Only the latest pending operation per document id is kept, so repeated indexing events
+ * for the same document cost one write. The buffer is sent from the calling thread once it
+ * reaches the action or byte limit, and by a scheduled flush otherwise. Flushes run one at a
+ * time, which keeps operations on the same id in order. The outcome of every index operation
+ * is published as a {@link DocumentIndexedEvent} or {@link DocumentIndexingFailedEvent}.
+ * <p>
+ * Metadata changes are sent as partial {@code _update} operations that leave the text fields
+ * alone. A metadata change for a document whose full index operation is still pending is
+ * folded into that operation instead.
+ * <p>
+ * Operations are written to every target the {@link DocumentIndexManager} reports, routed by
+ * the owner's username where the target expects it. While an index is being migrated the
+ * first target decides the reported outcome. A metadata update that finds no document in a
+ * later target, e.g. an index being rebuilt that has not copied the document yet, requests a
+ * full indexing of the document, since the copy may have read it before the change.
+ * <p>
+ * While the {@link ElasticsearchCircuitBreaker} is open a flush fails its operations right
+ * away; the documents are picked up again by the indexing retry.
+ */
+@Slf4j
+@Component
+public class BulkIndexer {
+
+    /** Rough JSON overhead per operation on top of the document's text fields. */
+    private static final int OPERATION_OVERHEAD_BYTES = 256;
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final BulkIndexingConfiguration config;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DocumentIndexManager indexManager;
+    private final ElasticsearchCircuitBreaker circuitBreaker;
+
+    private final Object lock = new Object();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private Map<String, PendingOperation> pending = new LinkedHashMap<>();
+    private long pendingBytes;
+
+    public BulkIndexer(ElasticsearchClient elasticsearchClient,
+                       BulkIndexingConfiguration config,
+                       ApplicationEventPublisher eventPublisher,
+                       DocumentIndexManager indexManager,
+                       ElasticsearchCircuitBreaker circuitBreaker) {
+        this.elasticsearchClient = elasticsearchClient;
+        this.config = config;
+        this.eventPublisher = eventPublisher;
+        this.indexManager = indexManager;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public void index(IndexableDocumentDTO document) {
+        enqueue(new PendingOperation(String.valueOf(document.getId()), document, null, document.getUsername(),
+                estimateBytes(document), 0));
+    }
+
+    public void update(IndexableMetadataDTO metadata) {
+        Map<String, Object> changes = new HashMap<>();
+        changes.put("fileName", metadata.getFileName());
+        changes.put("tags", metadata.getTags() == null ? List.of() : metadata.getTags());
+        changes.put("year", metadata.getYear());
+        enqueue(new PendingOperation(String.valueOf(metadata.getId()), null, changes, metadata.getUsername(),
+                estimateBytes(changes), 0));
+    }
+
+    public void delete(Long documentId, String username) {
+        enqueue(new PendingOperation(String.valueOf(documentId), null, null, username, OPERATION_OVERHEAD_BYTES, 0));
+    }
+
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    private void enqueue(PendingOperation operation) {
+        boolean full;
+        synchronized (lock) {
+            PendingOperation replaced = pending.get(operation.id());
+            PendingOperation next = replaced == null ? operation : replaced.coalesce(operation);
+            pending.put(operation.id(), next);
+            if (replaced != null) {
+                pendingBytes -= replaced.bytes();
+                log.debug("Coalesced pending operation for document {}", operation.id());
+            }
+            pendingBytes += next.bytes();
+            full = pending.size() >= config.getMaxActions() || pendingBytes >= config.getMaxBytes().toBytes();
+        }
+        if (full) {
+            flush();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${search.bulk.flush-interval-ms:1000}")
+    public void flushScheduled() {
+        flush();
+    }
+
+    @PreDestroy
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<PendingOperation> batch;
+            synchronized (lock) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = new ArrayList<>(pending.values());
+                pending = new LinkedHashMap<>();
+                pendingBytes = 0;
+            }
+            send(batch);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void send(List<PendingOperation> batch) {
+        BulkOutcome outcome = indexManager.withWriteTargets(targets -> execute(batch, targets));
+        if (outcome.error() != null) {
+            log.error("Bulk request with {} operations failed", batch.size(), outcome.error());
+            batch.forEach(operation -> fail(operation, outcome.error().getMessage()));
+            return;
+        }
+
+        int failed = 0;
+        int targetCount = outcome.targets().size();
+        List<BulkResponseItem> items = outcome.response().items();
+        for (int i = 0; i < batch.size(); i++) {
+            PendingOperation operation = batch.get(i);
+            int first = i * targetCount;
+            BulkResponseItem item = first < items.size() ? items.get(first) : null;
+            boolean missingInSecondary = false;
+            for (int t = 1; t < targetCount && first + t < items.size(); t++) {
+                missingInSecondary |= handleSecondaryFailure(operation, outcome.targets().get(t), items.get(first + t));
+            }
+            if (missingInSecondary) {
+                eventPublisher.publishEvent(new DocumentIndexingEvent(Long.valueOf(operation.id())));
+            }
+            if (item == null) {
+                failed++;
+                fail(operation, "No result in bulk response");
+            } else if (item.error() == null || (operation.isDelete() && item.status() == 404)) {
+                succeed(operation);
+            } else if (item.status() == 429 && operation.attempts() < config.getMaxRetries()) {
+                retry(operation);
+            } else {
+                failed++;
+                fail(operation, item.error().type() + ": " + item.error().reason());
+            }
+        }
+        log.info("Sent bulk request with {} operations in {} ms, {} failed", batch.size(),
+                outcome.response().took(), failed);
+    }
+
+    private BulkOutcome execute(List<PendingOperation> batch, List<DocumentIndexManager.WriteTarget> targets) {
+        BulkRequest.Builder request = new BulkRequest.Builder();
+        for (PendingOperation operation : batch) {
+            for (DocumentIndexManager.WriteTarget target : targets) {
+                String routing = target.routed() ? operation.routing() : null;
+                if (operation.isDelete()) {
+                    request.operations(op -> op.delete(d -> d
+                            .index(target.index())
+                            .id(operation.id())
+                            .routing(routing)));
+                } else if (operation.isUpdate()) {
+                    request.operations(op -> op.update(u -> u
+                            .index(target.index())
+                            .id(operation.id())
+                            .routing(routing)
+                            .action(a -> a.doc(operation.changes()))));
+                } else {
+                    request.operations(op -> op.index(i -> i
+                            .index(target.index())
+                            .id(operation.id())
+                            .routing(routing)
+                            .document(operation.document())));
+                }
+            }
+        }
+        try {
+            return new BulkOutcome(targets, circuitBreaker.call(() -> elasticsearchClient.bulk(request.build())), null);
+        } catch (Exception e) {
+            return new BulkOutcome(targets, null, e);
+        }
+    }
+
+    /** Logs a failed write to a later target; returns true if an update found no document there. */
+    private boolean handleSecondaryFailure(PendingOperation operation, DocumentIndexManager.WriteTarget target,
+                                           BulkResponseItem item) {
+        if (item.error() == null || (operation.isDelete() && item.status() == 404)) {
+            return false;
+        }
+        if (operation.isUpdate() && item.status() == 404) {
+            log.info("Document {} is not in {} yet, indexing it in full", operation.id(), target.index());
+            return true;
+        }
+        log.warn("Write of document {} to {} failed: {}", operation.id(), target.index(), item.error().reason());
+        return false;
+    }
+
+    /** Puts a rejected operation back unless a newer one for the same document is already pending. */
+    private void retry(PendingOperation operation) {
+        synchronized (lock) {
+            if (pending.putIfAbsent(operation.id(), operation.nextAttempt()) == null) {
+                pendingBytes += operation.bytes();
+            }
+        }
+    }
+
+    private void succeed(PendingOperation operation) {
+        if (!operation.isDelete()) {
+            eventPublisher.publishEvent(new DocumentIndexedEvent(Long.valueOf(operation.id()), operation.routing()));
+        }
+    }
+
+    private void fail(PendingOperation operation, String reason) {
+        if (operation.isDelete()) {
+            log.error("Failed to delete document {} from Elasticsearch: {}", operation.id(), reason);
+        } else {
+            log.error("Failed to {} document {}: {}", operation.isUpdate() ? "update" : "index", operation.id(), reason);
+            eventPublisher.publishEvent(new DocumentIndexingFailedEvent(Long.valueOf(operation.id()), reason));
+        }
+    }
+
+    private static long estimateBytes(IndexableDocumentDTO document) {
+        long bytes = OPERATION_OVERHEAD_BYTES;
+        bytes += document.getFullText() == null ? 0 : document.getFullText().length();
+        if (document.getPages() != null) {
+            bytes += document.getPages().stream()
+                    .mapToInt(page -> page.getText() == null ? 0 : page.getText().length())
+                    .sum();
+        }
+        bytes += document.getFileName() == null ? 0 : document.getFileName().length();
+        if (document.getTags() != null) {
+            bytes += document.getTags().stream().mapToInt(String::length).sum();
+        }
+        return bytes;
+    }
+
+    private static long estimateBytes(Map<String, Object> changes) {
+        return OPERATION_OVERHEAD_BYTES + changes.values().stream()
+                .mapToInt(value -> String.valueOf(value).length())
+                .sum();
+    }
+
+    private record BulkOutcome(List<DocumentIndexManager.WriteTarget> targets, BulkResponse response, Exception error) {
+    }
+
+    /** A full document, a partial update ({@code changes}) or, with neither, a delete. */
+    private record PendingOperation(String id, IndexableDocumentDTO document, Map<String, Object> changes,
+                                    String routing, long bytes, int attempts) {
+
+        boolean isDelete() {
+            return document == null && changes == null;
+        }
+
+        boolean isUpdate() {
+            return changes != null;
+        }
+
+        PendingOperation nextAttempt() {
+            return new PendingOperation(id, document, changes, routing, bytes, attempts + 1);
+        }
+
+        /** Combines this pending operation with a later one for the same document. */
+        @SuppressWarnings("unchecked")
+        PendingOperation coalesce(PendingOperation later) {
+            if (!later.isUpdate()) {
+                return later;
+            }
+            if (isDelete()) {
+                return this;
+            }
+            if (isUpdate()) {
+                Map<String, Object> merged = new HashMap<>(changes);
+                merged.putAll(later.changes());
+                return new PendingOperation(id, null, merged, routing, later.bytes(), 0);
+            }
+            IndexableDocumentDTO updated = IndexableDocumentDTO.builder()
+                    .id(document.getId())
+                    .fileName((String) later.changes().get("fileName"))
+                    .contentType(document.getContentType())
+                    .tags((List<String>) later.changes().get("tags"))
+                    .year((Integer) later.changes().get("year"))
+                    .fullText(document.getFullText())
+                    .pages(document.getPages())
+                    .username(document.getUsername())
+                    .build();
+            return new PendingOperation(id, updated, null, routing, bytes, 0);
+        }
+    }
+}
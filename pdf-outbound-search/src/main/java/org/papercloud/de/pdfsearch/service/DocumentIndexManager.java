@@ -0,0 +1,384 @@
+package org.papercloud.de.pdfsearch.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.Conflicts;
+import co.elastic.clients.elasticsearch._types.OpType;
+import co.elastic.clients.elasticsearch._types.mapping.IndexOptions;
+import co.elastic.clients.elasticsearch._types.mapping.Property;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.ReindexResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.indices.UpdateAliasesRequest;
+import co.elastic.clients.elasticsearch.tasks.GetTasksResponse;
+import co.elastic.clients.util.ObjectBuilder;
+import jakarta.json.JsonArray;
+import lombok.extern.slf4j.Slf4j;
+import org.papercloud.de.core.dto.search.IndexableDocumentDTO;
+import org.papercloud.de.core.ports.outbound.SearchIndexAdmin;
+import org.papercloud.de.core.ports.outbound.SearchRebuildConflictException;
+import org.papercloud.de.pdfsearch.config.DocumentIndexConfiguration;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Owns the physical indices behind the {@code documents} alias.
+ * <p>
+ * Indices are versioned ({@code documents-<timestamp>}) and require a routing value, which
+ * is always the owner's username. An index named {@code documents} that predates routing is
+ * migrated online: writes go to both indices, the legacy documents are copied with
+ * {@code op_type=create} so they never overwrite a newer dual-written version, and a single
+ * alias action then replaces the legacy index with the alias. Searches only use routing
+ * once the alias is in place, because the legacy index was written without it.
+ * <p>
+ * A rebuild from the database works the same way: the new index receives live writes while
+ * it is filled, and the alias is then moved onto it. Only one index can be rebuilt at a time.
+ */
+@Slf4j
+@Component
+public class DocumentIndexManager implements SearchIndexAdmin {
+
+    private static final DateTimeFormatter VERSION_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS");
+    private static final String AUTOCOMPLETE_ANALYZER = "autocomplete";
+    private static final String AUTOCOMPLETE_SEARCH_ANALYZER = "autocomplete_search";
+    private static final String AUTOCOMPLETE_FILTER = "autocomplete_edge_ngram";
+    static final int AUTOCOMPLETE_MIN_GRAM = 2;
+    static final int AUTOCOMPLETE_MAX_GRAM = 20;
+
+    /** A physical index or alias that receives writes, and whether writes to it carry routing. */
+    public record WriteTarget(String index, boolean routed) {
+    }
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final DocumentIndexConfiguration config;
+
+    /** Held shared while a write is sent, exclusively while the targets change. */
+    private final ReentrantReadWriteLock targetsLock = new ReentrantReadWriteLock();
+    private volatile List<WriteTarget> writeTargets = List.of(new WriteTarget(ElasticsearchServiceImpl.INDEX_NAME, true));
+    private volatile boolean routed = true;
+    /** The index that receives live writes next to the alias while it is filled, if any. */
+    private String rebuildIndex;
+
+    public DocumentIndexManager(ElasticsearchClient elasticsearchClient, DocumentIndexConfiguration config) {
+        this.elasticsearchClient = elasticsearchClient;
+        this.config = config;
+    }
+
+    /**
+     * Creates the first versioned index behind the alias, or starts migrating a legacy index.
+     */
+    public void initialize() throws IOException {
+        String alias = ElasticsearchServiceImpl.INDEX_NAME;
+        if (elasticsearchClient.indices().existsAlias(a -> a.name(alias)).value()) {
+            return;
+        }
+        if (elasticsearchClient.indices().exists(e -> e.index(alias)).value()) {
+            routed = false;
+            setWriteTargets(List.of(new WriteTarget(alias, false)));
+            if (config.isMigrateLegacyIndex()) {
+                Thread.ofVirtual().name("documents-index-migration").start(this::migrateLegacyIndex);
+            } else {
+                log.warn("Index '{}' predates username routing; searches fan out to all shards", alias);
+            }
+            return;
+        }
+        String index = newIndexName();
+        createIndex(index);
+        elasticsearchClient.indices().updateAliases(u -> u
+                .actions(a -> a.add(add -> add.index(index).alias(alias).isWriteIndex(true))));
+        log.info("Created Elasticsearch index '{}' behind alias '{}'", index, alias);
+    }
+
+    /** Whether searches may be restricted to the user's routing shards. */
+    public boolean isRouted() {
+        return routed;
+    }
+
+    /**
+     * Runs a write against the current targets. Target changes wait until running writes
+     * are done, so no write is sent to a target set that is already outdated.
+     */
+    public <T> T withWriteTargets(Function<List<WriteTarget>, T> write) {
+        targetsLock.readLock().lock();
+        try {
+            return write.apply(writeTargets);
+        } finally {
+            targetsLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public String beginRebuild() {
+        String index = newIndexName();
+        claimRebuild(index);
+        try {
+            createIndex(index);
+        } catch (Exception e) {
+            releaseRebuild(index);
+            throw new RuntimeException("Failed to create index " + index, e);
+        }
+        setWriteTargets(List.of(liveTarget(), new WriteTarget(index, true)));
+        log.info("Rebuilding the search index into '{}'", index);
+        return index;
+    }
+
+    @Override
+    public boolean resumeRebuild(String index) {
+        synchronized (this) {
+            if (index.equals(rebuildIndex)) {
+                return true;
+            }
+        }
+        try {
+            if (!elasticsearchClient.indices().exists(e -> e.index(index)).value()) {
+                return false;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to look up index " + index, e);
+        }
+        claimRebuild(index);
+        setWriteTargets(List.of(liveTarget(), new WriteTarget(index, true)));
+        log.info("Resumed sending live writes to index '{}'", index);
+        return true;
+    }
+
+    @Override
+    public List<Long> writeRebuildBatch(String index, List<IndexableDocumentDTO> documents) {
+        if (documents.isEmpty()) {
+            return List.of();
+        }
+        // create instead of index: a live write that got there first is never replaced by the copy
+        BulkRequest.Builder request = new BulkRequest.Builder();
+        for (IndexableDocumentDTO document : documents) {
+            request.operations(op -> op.create(c -> c
+                    .index(index)
+                    .id(String.valueOf(document.getId()))
+                    .routing(document.getUsername())
+                    .document(document)));
+        }
+        BulkResponse response;
+        try {
+            response = elasticsearchClient.bulk(request.build());
+        } catch (IOException e) {
+            throw new RuntimeException("Bulk write to index " + index + " failed", e);
+        }
+
+        List<Long> failed = new ArrayList<>();
+        List<BulkResponseItem> items = response.items();
+        for (int i = 0; i < documents.size(); i++) {
+            BulkResponseItem item = i < items.size() ? items.get(i) : null;
+            if (item == null || (item.error() != null && item.status() != 409)) {
+                Long id = documents.get(i).getId();
+                log.warn("Could not copy document {} into index '{}': {}", id, index,
+                        item == null ? "no result in bulk response" : item.error().reason());
+                failed.add(id);
+            }
+        }
+        return failed;
+    }
+
+    @Override
+    public void completeRebuild(String index) {
+        requireRebuild(index);
+        String alias = ElasticsearchServiceImpl.INDEX_NAME;
+        List<String> replaced;
+        targetsLock.writeLock().lock();
+        try {
+            replaced = moveAlias(index);
+            writeTargets = List.of(new WriteTarget(alias, true));
+            routed = true;
+            releaseRebuild(index);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to move alias '" + alias + "' to index " + index, e);
+        } finally {
+            targetsLock.writeLock().unlock();
+        }
+        log.info("Alias '{}' now points to '{}'", alias, index);
+        replaced.forEach(this::deleteIndex);
+    }
+
+    @Override
+    public void abortRebuild(String index) {
+        boolean active;
+        synchronized (this) {
+            active = index.equals(rebuildIndex);
+        }
+        if (active) {
+            setWriteTargets(List.of(liveTarget()));
+            releaseRebuild(index);
+        }
+        deleteIndex(index);
+    }
+
+    void migrateLegacyIndex() {
+        String alias = ElasticsearchServiceImpl.INDEX_NAME;
+        String target;
+        try {
+            target = beginRebuild();
+        } catch (Exception e) {
+            log.error("Could not start migrating legacy index '{}'; it stays in use without routing", alias, e);
+            return;
+        }
+        try {
+            log.info("Copying legacy index '{}' into routed index '{}'", alias, target);
+            copyLegacyDocuments(alias, target);
+            completeRebuild(target);
+        } catch (Exception e) {
+            log.error("Migration of legacy index '{}' failed; it stays in use without routing", alias, e);
+            abortRebuild(target);
+        }
+    }
+
+    /**
+     * Points the alias at the given index alone. A legacy index that carries the alias' name is
+     * deleted by the same action. Returns the indices that were behind the alias before.
+     */
+    private List<String> moveAlias(String index) throws IOException {
+        String alias = ElasticsearchServiceImpl.INDEX_NAME;
+        List<String> replaced = new ArrayList<>();
+        boolean legacy = false;
+        if (elasticsearchClient.indices().existsAlias(a -> a.name(alias)).value()) {
+            elasticsearchClient.indices().getAlias(g -> g.name(alias)).result().keySet().stream()
+                    .filter(current -> !current.equals(index))
+                    .forEach(replaced::add);
+        } else {
+            legacy = elasticsearchClient.indices().exists(e -> e.index(alias)).value();
+        }
+
+        UpdateAliasesRequest.Builder update = new UpdateAliasesRequest.Builder();
+        if (legacy) {
+            update.actions(a -> a.removeIndex(remove -> remove.index(alias)));
+        }
+        for (String current : replaced) {
+            update.actions(a -> a.remove(remove -> remove.index(current).alias(alias)));
+        }
+        update.actions(a -> a.add(add -> add.index(index).alias(alias).isWriteIndex(true)));
+        elasticsearchClient.indices().updateAliases(update.build());
+        return replaced;
+    }
+
+    private WriteTarget liveTarget() {
+        return new WriteTarget(ElasticsearchServiceImpl.INDEX_NAME, routed);
+    }
+
+    private synchronized void claimRebuild(String index) {
+        if (rebuildIndex != null) {
+            throw new SearchRebuildConflictException("Index " + rebuildIndex + " is already being rebuilt");
+        }
+        rebuildIndex = index;
+    }
+
+    private synchronized void releaseRebuild(String index) {
+        if (index.equals(rebuildIndex)) {
+            rebuildIndex = null;
+        }
+    }
+
+    private synchronized void requireRebuild(String index) {
+        if (!index.equals(rebuildIndex)) {
+            throw new SearchRebuildConflictException("Index " + index + " is not being rebuilt");
+        }
+    }
+
+    private void deleteIndex(String index) {
+        try {
+            elasticsearchClient.indices().delete(d -> d.index(index));
+        } catch (Exception e) {
+            log.warn("Could not delete index '{}'", index, e);
+        }
+    }
+
+    private void copyLegacyDocuments(String source, String target) throws IOException, InterruptedException {
+        ReindexResponse started = elasticsearchClient.reindex(r -> r
+                .source(s -> s.index(source).size(config.getMigrationBatchSize()))
+                .dest(d -> d.index(target).opType(OpType.Create))
+                .conflicts(Conflicts.Proceed)
+                .script(s -> s.inline(i -> i.source("ctx._routing = ctx._source.username")))
+                .waitForCompletion(false));
+
+        GetTasksResponse task;
+        do {
+            Thread.sleep(config.getMigrationPollIntervalMs());
+            task = elasticsearchClient.tasks().get(t -> t.taskId(started.task()));
+        } while (!task.completed());
+
+        if (task.error() != null) {
+            throw new IllegalStateException("Reindex failed: " + task.error().reason());
+        }
+        if (task.response() != null) {
+            JsonArray failures = task.response().toJson().asJsonObject().getJsonArray("failures");
+            if (failures != null && !failures.isEmpty()) {
+                throw new IllegalStateException("Reindex reported " + failures.size() + " failures");
+            }
+        }
+    }
+
+    void createIndex(String index) throws IOException {
+        elasticsearchClient.indices().create(c -> c
+                .index(index)
+                .settings(s -> {
+                    s.numberOfShards(String.valueOf(config.getShards()))
+                            .numberOfReplicas(String.valueOf(config.getReplicas()));
+                    if (config.getRoutingPartitionSize() > 1) {
+                        s.routingPartitionSize(config.getRoutingPartitionSize());
+                    }
+                    // Indexes every prefix of each word, so suggestions are a plain term lookup. The
+                    // typed prefix is folded the same way, so "mü" finds "Müller" as "mu" does
+                    return s.analysis(a -> a
+                            .filter(AUTOCOMPLETE_FILTER, f -> f.definition(d -> d.edgeNgram(e -> e
+                                    .minGram(AUTOCOMPLETE_MIN_GRAM)
+                                    .maxGram(AUTOCOMPLETE_MAX_GRAM))))
+                            .analyzer(AUTOCOMPLETE_ANALYZER, an -> an.custom(custom -> custom
+                                    .tokenizer("standard")
+                                    .filter("lowercase", "asciifolding", AUTOCOMPLETE_FILTER)))
+                            .analyzer(AUTOCOMPLETE_SEARCH_ANALYZER, an -> an.custom(custom -> custom
+                                    .tokenizer("standard")
+                                    .filter("lowercase", "asciifolding"))));
+                })
+                .mappings(m -> m
+                        .routing(r -> r.required(true))
+                        .properties("fullText", p -> p.text(t -> t.analyzer("standard")))
+                        .properties("fileName", p -> p.text(t -> t
+                                .analyzer("standard")
+                                .fields("keyword", f -> f.keyword(k -> k.ignoreAbove(256)))
+                                .fields("autocomplete", this::autocompleteField)
+                        ))
+                        .properties("username", p -> p.keyword(k -> k))
+                        .properties("tags", p -> p.keyword(k -> k
+                                .fields("autocomplete", this::autocompleteField)))
+                        .properties("year", p -> p.integer(i -> i))
+                        .properties("pages", p -> p.nested(n -> n
+                                .properties("pageNumber", pp -> pp.integer(i -> i))
+                                .properties("text", pp -> pp.text(t -> t
+                                        .analyzer("standard")
+                                        .indexOptions(IndexOptions.Offsets)))
+                        ))
+                )
+        );
+    }
+
+    private ObjectBuilder<Property> autocompleteField(Property.Builder field) {
+        return field.text(t -> t.analyzer(AUTOCOMPLETE_ANALYZER).searchAnalyzer(AUTOCOMPLETE_SEARCH_ANALYZER));
+    }
+
+    void setWriteTargets(List<WriteTarget> targets) {
+        targetsLock.writeLock().lock();
+        try {
+            writeTargets = targets;
+        } finally {
+            targetsLock.writeLock().unlock();
+        }
+    }
+
+    private static String newIndexName() {
+        return ElasticsearchServiceImpl.INDEX_NAME + "-" + ZonedDateTime.now(ZoneOffset.UTC).format(VERSION_FORMAT);
+    }
+}
@@ -0,0 +1,146 @@
+package org.papercloud.de.pdfsearch.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import lombok.extern.slf4j.Slf4j;
+import org.papercloud.de.pdfsearch.config.ElasticsearchClientConfiguration;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Stops sending requests to Elasticsearch once it is known to be down.
+ * <p>
+ * Connection errors, timeouts and 429/5xx responses count as failures; any other answer
+ * proves the cluster is reachable and resets the count. After {@code failureThreshold}
+ * consecutive failures the breaker opens and every request fails immediately with
+ * {@link SearchUnavailableException}, so callers fall back without waiting for a timeout.
+ * While open, a background ping checks for recovery and closes the breaker once it succeeds.
+ */
+@Slf4j
+@Component
+public class ElasticsearchCircuitBreaker {
+
+    /** A blocking request; its duration is bounded by the client's socket timeout. */
+    @FunctionalInterface
+    public interface BlockingRequest<T> {
+        T send() throws IOException;
+    }
+
+    private final ElasticsearchAsyncClient asyncClient;
+    private final ElasticsearchClientConfiguration config;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean open = new AtomicBoolean();
+
+    public ElasticsearchCircuitBreaker(ElasticsearchAsyncClient asyncClient, ElasticsearchClientConfiguration config) {
+        this.asyncClient = asyncClient;
+        this.config = config;
+    }
+
+    public boolean isOpen() {
+        return open.get();
+    }
+
+    /**
+     * Sends an async request and waits for it at most {@code timeout}. A request that takes
+     * longer is cancelled, which also hands its pooled connection back.
+     */
+    public <T> T execute(Duration timeout, Supplier<CompletableFuture<T>> request) throws IOException {
+        rejectIfOpen();
+        CompletableFuture<T> future = request.get();
+        try {
+            T result = future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            recordSuccess();
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            recordFailure();
+            throw new SearchUnavailableException("Elasticsearch did not answer within " + timeout.toMillis() + " ms", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new SearchUnavailableException("Interrupted while waiting for Elasticsearch", e);
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    public <T> T call(BlockingRequest<T> request) throws IOException {
+        rejectIfOpen();
+        try {
+            T result = request.send();
+            recordSuccess();
+            return result;
+        } catch (IOException | RuntimeException e) {
+            throw rethrow(e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${elasticsearch.client.breaker.probe-interval-ms:5000}")
+    public void probe() {
+        if (!open.get()) {
+            return;
+        }
+        try {
+            if (asyncClient.ping().get(config.getBreaker().getProbeTimeout().toMillis(), TimeUnit.MILLISECONDS).value()) {
+                consecutiveFailures.set(0);
+                open.set(false);
+                log.info("Elasticsearch is reachable again; requests are sent again");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.debug("Elasticsearch is still unreachable: {}", e.getMessage());
+        }
+    }
+
+    private void rejectIfOpen() {
+        if (open.get()) {
+            throw new SearchUnavailableException("Elasticsearch is unavailable");
+        }
+    }
+
+    /** Records the outcome of a failed request and returns the exception to throw for it. */
+    private IOException rethrow(Throwable error) {
+        if (error instanceof ElasticsearchException response) {
+            if (response.status() == 429 || response.status() >= 500) {
+                recordFailure();
+            } else {
+                recordSuccess();
+            }
+            throw response;
+        }
+        if (error instanceof IOException io) {
+            recordFailure();
+            return io;
+        }
+        if (error instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        if (error instanceof Error fatal) {
+            throw fatal;
+        }
+        return new IOException(error);
+    }
+
+    private void recordSuccess() {
+        consecutiveFailures.set(0);
+    }
+
+    private void recordFailure() {
+        if (consecutiveFailures.incrementAndGet() >= config.getBreaker().getFailureThreshold()
+                && open.compareAndSet(false, true)) {
+            log.warn("Elasticsearch failed {} requests in a row; failing fast until it answers a ping again",
+                    consecutiveFailures.get());
+        }
+    }
+}
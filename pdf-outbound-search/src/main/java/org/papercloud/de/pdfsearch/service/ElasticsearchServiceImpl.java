@@ -1,53 +1,103 @@
 package org.papercloud.de.pdfsearch.service;
 
-import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
 import co.elastic.clients.elasticsearch._types.query_dsl.*;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.elasticsearch.core.search.InnerHitsResult;
+import co.elastic.clients.json.JsonData;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.papercloud.de.core.dto.search.FacetBucketDTO;
 import org.papercloud.de.core.dto.search.IndexableDocumentDTO;
+import org.papercloud.de.core.dto.search.IndexableMetadataDTO;
+import org.papercloud.de.core.dto.search.IndexablePageDTO;
 import org.papercloud.de.core.dto.search.SearchHitDTO;
 import org.papercloud.de.core.dto.search.SearchRequestDTO;
 import org.papercloud.de.core.dto.search.SearchResultDTO;
+import org.papercloud.de.core.dto.search.SuggestionDTO;
 import org.papercloud.de.core.ports.outbound.SearchService;
+import org.papercloud.de.pdfsearch.config.DocumentIndexConfiguration;
+import org.papercloud.de.pdfsearch.config.ElasticsearchClientConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
 import java.io.IOException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 /**
  * Elasticsearch implementation of the SearchService port.
  * This adapter handles document indexing and full-text search using Elasticsearch.
+ * Index and delete operations are buffered by the {@link BulkIndexer}; their outcome is
+ * published as an event once the buffer has been sent.
+ * <p>
+ * Besides the joined {@code fullText}, every page is indexed as a nested object whose text
+ * keeps term offsets, so the best matching page of a hit can be highlighted without
+ * re-analysing the text. Searches leave the text fields out of {@code _source} and take the
+ * snippet and page number from that page's inner hit.
+ * <p>
+ * {@code documents} is an alias managed by the {@link DocumentIndexManager}. Documents are
+ * routed by owner username, so a user's search only touches the shards holding their data.
+ * <p>
+ * Tag and year filters are sent as filter clauses, which do not score and are cached by
+ * Elasticsearch. Every search also returns tag and year aggregations over all its matches,
+ * so the facets of a result list come with the same request.
+ * <p>
+ * Suggestions query edge-ngram subfields of {@code fileName} and {@code tags}, which hold
+ * every word prefix, and read nothing but those two fields from {@code _source}.
+ * <p>
+ * A request that asks for a cursor is read from a point in time on the user's shards, opened
+ * before its first page and sorted by {@code _score} and {@code _shard_doc}. If more hits
+ * follow, the cursor carries the sort values of the page's last hit and later pages continue
+ * from there with {@code search_after}, so all pages see the same documents in the same
+ * order, ties included, and every page costs the same however deep it is. Those pages skip
+ * total hits and facets, which the first page already returned, and the point in time is
+ * closed once the last page has been read.
+ * <p>
+ * Reads go through the async client and the {@link ElasticsearchCircuitBreaker}: each one
+ * is given up on after its own timeout, and none is sent while Elasticsearch is known to be
+ * down, so callers can fall back right away. The {@link FailoverSearchService} in front of
+ * this adapter mirrors writes into an embedded index and searches that one instead.
  */
 @Slf4j
 @Service
+@ConditionalOnProperty(prefix = "search", name = "engine", havingValue = "elasticsearch", matchIfMissing = true)
 @RequiredArgsConstructor
 public class ElasticsearchServiceImpl implements SearchService {
 
-    private final ElasticsearchClient elasticsearchClient;
-    private static final String INDEX_NAME = "documents";
+    private final ElasticsearchAsyncClient asyncClient;
+    private final ElasticsearchCircuitBreaker circuitBreaker;
+    private final BulkIndexer bulkIndexer;
+    private final DocumentIndexManager indexManager;
+    private final DocumentIndexConfiguration config;
+    private final ElasticsearchClientConfiguration clientConfig;
+    static final String INDEX_NAME = "documents";
+    private static final String PAGES_PATH = "pages";
+    private static final String PAGE_TEXT_FIELD = "pages.text";
+    private static final int SNIPPET_CHARS = 200;
+    private static final String TAGS_AGGREGATION = "tags";
+    private static final String YEARS_AGGREGATION = "years";
+    static final int TAG_FACET_SIZE = 20;
+    private static final List<String> AUTOCOMPLETE_FIELDS = List.of("fileName.autocomplete", "tags.autocomplete");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final String SHARD_DOC_FIELD = "_shard_doc";
 
     @PostConstruct
     public void createIndexIfNotExists() {
         try {
-            boolean exists = elasticsearchClient.indices().exists(e -> e.index(INDEX_NAME)).value();
-            if (!exists) {
-                elasticsearchClient.indices().create(c -> c
-                        .index(INDEX_NAME)
-                        .mappings(m -> m
-                                .properties("fullText", p -> p.text(t -> t.analyzer("standard")))
-                                .properties("fileName", p -> p.text(t -> t
-                                        .analyzer("standard")
-                                        .fields("keyword", f -> f.keyword(k -> k.ignoreAbove(256)))
-                                ))
-                                .properties("username", p -> p.keyword(k -> k))
-                                .properties("tags", p -> p.keyword(k -> k))
-                                .properties("year", p -> p.integer(i -> i))
-                        )
-                );
-                log.info("Created Elasticsearch index '{}' with explicit mappings", INDEX_NAME);
-            }
+            indexManager.initialize();
         } catch (Exception e) {
             log.warn("Failed to create Elasticsearch index '{}'. Search will be unavailable until ES is reachable.", INDEX_NAME, e);
         }
@@ -55,78 +105,86 @@ public class ElasticsearchServiceImpl implements SearchService {
 
     @Override
     public void indexDocument(IndexableDocumentDTO dto) {
-        try {
-            elasticsearchClient.index(i -> i
-                    .index(INDEX_NAME)
-                    .id(String.valueOf(dto.getId()))
-                    .document(dto)
-            );
-            log.info("Indexed document ID {} into Elasticsearch", dto.getId());
-        } catch (IOException e) {
-            log.error("Failed to index document {}", dto.getId(), e);
-        }
+        bulkIndexer.index(dto);
+        log.debug("Queued document ID {} for indexing", dto.getId());
+    }
+
+    @Override
+    public void updateMetadata(IndexableMetadataDTO metadata) {
+        bulkIndexer.update(metadata);
+        log.debug("Queued metadata update for document ID {}", metadata.getId());
     }
 
     @Override
     public SearchResultDTO search(SearchRequestDTO req) {
-        String query = req.getQuery();
         String username = req.getUsername();
         int page = req.getPage() != null ? req.getPage() : 0;
         int size = req.getSize() != null ? req.getSize() : 10;
+        int criteria = SearchCursor.criteria(req.getQuery(), req.getTags(), req.getYear());
+        Query query = searchQuery(req);
 
         try {
-            // Build the bool query
-            BoolQuery.Builder boolQ = QueryBuilders.bool();
-
-            // 1. Full-text match
-            if (query != null && !query.isBlank()) {
-                boolQ.must(m -> m.match(t -> t
-                        .field("fullText")
-                        .query(query)
-                ));
+            if (req.getCursor() != null) {
+                return searchAfter(SearchCursor.decode(req.getCursor(), criteria), query, size);
             }
 
-            // 2. Restrict to this user
-            if (username != null) {
-                boolQ.filter(f -> f.term(t -> t
-                        .field("username")
-                        .value(username)
+            String routing = routing(username);
+            String pitId = req.isWithCursor() ? openPointInTime(routing) : null;
+            SearchResponse<IndexableDocumentDTO> resp;
+            try {
+                resp = circuitBreaker.execute(clientConfig.getSearchTimeout(), () -> asyncClient.search(s -> {
+                            if (pitId != null) {
+                                // The cursor keeps this total for every later page, so count past 10,000
+                                s.pit(p -> p.id(pitId).keepAlive(k -> k.time(keepAlive())))
+                                        .trackTotalHits(t -> t.enabled(true));
+                                cursorSort(s);
+                            } else {
+                                s.index(INDEX_NAME).routing(routing);
+                            }
+                            return s
+                                    .from(page * size)
+                                    .size(size)
+                                    .source(src -> src.filter(f -> f.excludes("fullText", PAGES_PATH)))
+                                    .query(query)
+                                    .aggregations(TAGS_AGGREGATION, a -> a.terms(t -> t
+                                            .field("tags")
+                                            .size(TAG_FACET_SIZE)))
+                                    .aggregations(YEARS_AGGREGATION, a -> a.histogram(h -> h
+                                            .field("year")
+                                            .interval(1.0)
+                                            .minDocCount(1)));
+                        },
+                        IndexableDocumentDTO.class
                 ));
+            } catch (IOException | RuntimeException e) {
+                if (pitId != null) {
+                    closePointInTime(pitId);
+                }
+                throw e;
             }
 
-            // Execute the search
-            SearchResponse<IndexableDocumentDTO> resp = elasticsearchClient.search(s -> s
-                            .index(INDEX_NAME)
-                            .from(page * size)
-                            .size(size)
-                            .query(q -> q.bool(boolQ.build())),
-                    IndexableDocumentDTO.class
-            );
-
-            // Map to SearchHitDTO
-            List<SearchHitDTO> hits = resp.hits().hits().stream()
-                    .map(hit -> {
-                        IndexableDocumentDTO d = hit.source();
-                        return SearchHitDTO.builder()
-                                .documentId(d.getId().toString())
-                                .documentName(d.getFileName())
-                                .pageNumber(0)
-                                .textSnippet(
-                                        d.getFullText() == null ? ""
-                                                : d.getFullText().substring(0, Math.min(200, d.getFullText().length()))
-                                )
-                                .build();
-                    })
-                    .toList();
-
+            List<Hit<IndexableDocumentDTO>> rawHits = resp.hits().hits();
             long total = resp.hits().total().value();
             int totalPages = (int) Math.ceil((double) total / size);
+            String nextCursor = null;
+            if (pitId != null) {
+                String currentPitId = resp.pitId() != null ? resp.pitId() : pitId;
+                if (rawHits.size() == size && (long) page * size + size < total) {
+                    List<Object> after = SearchCursor.sortValues(rawHits.get(rawHits.size() - 1).sort());
+                    nextCursor = new SearchCursor(currentPitId, page + 1, after, total, criteria).encode();
+                } else {
+                    closePointInTime(currentPitId);
+                }
+            }
 
             return SearchResultDTO.builder()
-                    .hits(hits)
+                    .hits(rawHits.stream().map(this::toSearchHit).toList())
                     .totalHits(total)
                     .totalPages(totalPages)
                     .currentPage(page)
+                    .tagFacets(tagFacets(resp.aggregations().get(TAGS_AGGREGATION)))
+                    .yearFacets(yearFacets(resp.aggregations().get(YEARS_AGGREGATION)))
+                    .nextCursor(nextCursor)
                     .build();
 
         } catch (IOException e) {
@@ -134,16 +192,274 @@ public class ElasticsearchServiceImpl implements SearchService {
         }
     }
 
+    private Query searchQuery(SearchRequestDTO req) {
+        String query = req.getQuery();
+        String username = req.getUsername();
+
+        // Build the bool query
+        BoolQuery.Builder boolQ = QueryBuilders.bool();
+
+        // 1. Full-text match on the document or any of its pages. The nested clause is
+        // ignored on indices created before pages were indexed.
+        if (query != null && !query.isBlank()) {
+            boolQ.must(m -> m.bool(b -> b
+                    .should(s -> s.match(t -> t
+                            .field("fullText")
+                            .query(query)
+                    ))
+                    .should(s -> s.nested(n -> n
+                            .path(PAGES_PATH)
+                            .ignoreUnmapped(true)
+                            .scoreMode(ChildScoreMode.Max)
+                            .query(pq -> pq.match(t -> t
+                                    .field(PAGE_TEXT_FIELD)
+                                    .query(query)
+                            ))
+                            .innerHits(ih -> ih
+                                    .name(PAGES_PATH)
+                                    .size(1)
+                                    .source(src -> src.filter(f -> f.includes(PAGES_PATH + ".pageNumber")))
+                                    .highlight(h -> h.fields(PAGE_TEXT_FIELD, hf -> hf
+                                            .fragmentSize(SNIPPET_CHARS)
+                                            .numberOfFragments(1)))
+                            )
+                    ))
+                    .minimumShouldMatch("1")
+            ));
+        }
+
+        // 2. Restrict to this user
+        if (username != null) {
+            boolQ.filter(f -> f.term(t -> t
+                    .field("username")
+                    .value(username)
+            ));
+        }
+
+        // 3. Facet filters; every selected tag has to be present
+        if (req.getTags() != null) {
+            req.getTags().stream()
+                    .filter(tag -> tag != null && !tag.isBlank())
+                    .distinct()
+                    .forEach(tag -> boolQ.filter(f -> f.term(t -> t.field("tags").value(tag))));
+        }
+        if (req.getYear() != null) {
+            boolQ.filter(f -> f.term(t -> t.field("year").value(req.getYear())));
+        }
+        return Query.of(q -> q.bool(boolQ.build()));
+    }
+
+    private String routing(String username) {
+        return username != null && indexManager.isRouted() ? username : null;
+    }
+
+    /**
+     * Opens the point in time all pages of a search are read from. The page is served from the
+     * live index if this fails, so a failure only means the result has no cursor.
+     */
+    private String openPointInTime(String routing) {
+        try {
+            return circuitBreaker.execute(clientConfig.getSearchTimeout(),
+                    () -> asyncClient.openPointInTime(p -> p
+                            .index(INDEX_NAME)
+                            .routing(routing)
+                            .keepAlive(k -> k.time(keepAlive())))).id();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not open a point in time for a paged search: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /** The order every page of a cursor is read in; {@code _shard_doc} breaks ties in score. */
+    private static SearchRequest.Builder cursorSort(SearchRequest.Builder s) {
+        return s.sort(so -> so.score(sc -> sc.order(SortOrder.Desc)))
+                .sort(so -> so.field(f -> f.field(SHARD_DOC_FIELD).order(SortOrder.Asc)));
+    }
+
+    private SearchResultDTO searchAfter(SearchCursor cursor, Query query, int size) throws IOException {
+        SearchResponse<IndexableDocumentDTO> resp;
+        try {
+            resp = circuitBreaker.execute(clientConfig.getSearchTimeout(), () -> asyncClient.search(s -> cursorSort(s
+                            .pit(p -> p.id(cursor.pitId()).keepAlive(k -> k.time(keepAlive())))
+                            .size(size)
+                            .trackTotalHits(t -> t.enabled(false))
+                            .source(src -> src.filter(f -> f.excludes("fullText", PAGES_PATH)))
+                            .query(query))
+                            .searchAfter(cursor.searchAfter()),
+                    IndexableDocumentDTO.class
+            ));
+        } catch (ElasticsearchException e) {
+            if (e.status() == 404) {
+                throw new IllegalArgumentException("The search cursor has expired; start the search again");
+            }
+            throw e;
+        }
+
+        List<Hit<IndexableDocumentDTO>> rawHits = resp.hits().hits();
+        String pitId = resp.pitId() != null ? resp.pitId() : cursor.pitId();
+        String nextCursor = null;
+        if (rawHits.size() < size) {
+            closePointInTime(pitId);
+        } else {
+            List<Object> after = SearchCursor.sortValues(rawHits.get(rawHits.size() - 1).sort());
+            nextCursor = new SearchCursor(pitId, cursor.page() + 1, after, cursor.totalHits(), cursor.criteria())
+                    .encode();
+        }
+
+        return SearchResultDTO.builder()
+                .hits(rawHits.stream().map(this::toSearchHit).toList())
+                .totalHits(cursor.totalHits())
+                .totalPages((int) Math.ceil((double) cursor.totalHits() / size))
+                .currentPage(cursor.page())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /** Not waited for; a point in time that is not closed expires after the keep-alive. */
+    private void closePointInTime(String pitId) {
+        asyncClient.closePointInTime(c -> c.id(pitId))
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        log.debug("Could not close point in time: {}", error.getMessage());
+                    }
+                });
+    }
+
+    private String keepAlive() {
+        return config.getCursorKeepAlive().toSeconds() + "s";
+    }
+
     @Override
-    public void deleteDocument(Long documentId) {
+    public List<SuggestionDTO> suggest(String username, String prefix, int size) {
+        String text = prefix == null ? "" : prefix.strip();
+        if (text.length() < DocumentIndexManager.AUTOCOMPLETE_MIN_GRAM) {
+            return List.of();
+        }
+        String routing = routing(username);
         try {
-            elasticsearchClient.delete(d -> d
-                    .index(INDEX_NAME)
-                    .id(String.valueOf(documentId))
-            );
-            log.info("Deleted document ID {} from Elasticsearch", documentId);
+            SearchResponse<IndexableDocumentDTO> resp = circuitBreaker.execute(clientConfig.getSuggestTimeout(),
+                    () -> asyncClient.search(s -> s
+                            .index(INDEX_NAME)
+                            .routing(routing)
+                            .size(size)
+                            .trackTotalHits(t -> t.enabled(false))
+                            .source(src -> src.filter(f -> f.includes("fileName", "tags")))
+                            .query(q -> q.bool(b -> b
+                                    .must(m -> m.multiMatch(mm -> mm
+                                            .query(text)
+                                            .fields(AUTOCOMPLETE_FIELDS)
+                                            .type(TextQueryType.CrossFields)
+                                            .operator(Operator.And)))
+                                    .filter(f -> f.term(t -> t.field("username").value(username))))),
+                    IndexableDocumentDTO.class
+            ));
+
+            String lastWord = lastWord(text);
+            List<SuggestionDTO> documents = new ArrayList<>();
+            Set<String> tags = new LinkedHashSet<>();
+            for (Hit<IndexableDocumentDTO> hit : resp.hits().hits()) {
+                IndexableDocumentDTO source = hit.source();
+                if (source == null) {
+                    continue;
+                }
+                if (source.getFileName() != null) {
+                    documents.add(new SuggestionDTO(SuggestionDTO.Kind.DOCUMENT, source.getFileName(),
+                            Long.valueOf(hit.id())));
+                }
+                if (source.getTags() != null) {
+                    source.getTags().stream()
+                            .filter(tag -> startsWithWord(tag, lastWord))
+                            .forEach(tags::add);
+                }
+            }
+
+            // Documents first, then tags, up to size suggestions in total
+            List<SuggestionDTO> suggestions = new ArrayList<>(documents);
+            tags.stream()
+                    .limit(Math.max(0, size - documents.size()))
+                    .map(tag -> new SuggestionDTO(SuggestionDTO.Kind.TAG, tag, null))
+                    .forEach(suggestions::add);
+            return suggestions;
         } catch (IOException e) {
-            log.error("Failed to delete document {}", documentId, e);
+            throw new RuntimeException("Failed to suggest completions", e);
+        }
+    }
+
+    private static String lastWord(String text) {
+        String[] words = fold(text).split("\\s+");
+        return words[words.length - 1];
+    }
+
+    /** Whether any word of the tag starts with the given folded prefix. */
+    private static boolean startsWithWord(String tag, String prefix) {
+        for (String word : fold(tag).split("[^\\p{L}\\p{N}]+")) {
+            if (word.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Lower case without accents and with ß as ss, close to the index's asciifolding. */
+    private static String fold(String text) {
+        return DIACRITICS.matcher(Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD))
+                .replaceAll("")
+                .replace("ß", "ss");
+    }
+
+    private SearchHitDTO toSearchHit(Hit<IndexableDocumentDTO> hit) {
+        IndexableDocumentDTO d = hit.source();
+        Hit<JsonData> pageHit = bestPageHit(hit);
+        int pageNumber = 0;
+        String snippet = "";
+        if (pageHit != null) {
+            if (pageHit.source() != null) {
+                pageNumber = pageHit.source().to(IndexablePageDTO.class).getPageNumber();
+            }
+            List<String> fragments = pageHit.highlight().get(PAGE_TEXT_FIELD);
+            if (fragments != null && !fragments.isEmpty()) {
+                snippet = fragments.get(0);
+            }
+        }
+        return SearchHitDTO.builder()
+                .documentId(d.getId().toString())
+                .documentName(d.getFileName())
+                .pageNumber(pageNumber)
+                .textSnippet(snippet)
+                .score(hit.score() != null ? hit.score() : 0)
+                .build();
+    }
+
+    private static List<FacetBucketDTO> tagFacets(Aggregate aggregate) {
+        if (aggregate == null || !aggregate.isSterms()) {
+            return List.of();
+        }
+        return aggregate.sterms().buckets().array().stream()
+                .map(bucket -> new FacetBucketDTO(bucket.key().stringValue(), bucket.docCount()))
+                .toList();
+    }
+
+    private static List<FacetBucketDTO> yearFacets(Aggregate aggregate) {
+        if (aggregate == null || !aggregate.isHistogram()) {
+            return List.of();
+        }
+        return aggregate.histogram().buckets().array().stream()
+                .map(bucket -> new FacetBucketDTO(String.valueOf((long) bucket.key()), bucket.docCount()))
+                .toList();
+    }
+
+    private static Hit<JsonData> bestPageHit(Hit<IndexableDocumentDTO> hit) {
+        Map<String, InnerHitsResult> innerHits = hit.innerHits();
+        InnerHitsResult pages = innerHits == null ? null : innerHits.get(PAGES_PATH);
+        if (pages == null || pages.hits().hits().isEmpty()) {
+            return null;
         }
+        return pages.hits().hits().get(0);
+    }
+
+    @Override
+    public void deleteDocument(Long documentId, String username) {
+        bulkIndexer.delete(documentId, username);
+        log.debug("Queued document ID {} for deletion", documentId);
     }
 }
@@ -0,0 +1,188 @@
+package org.papercloud.de.pdfsearch.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.papercloud.de.core.dto.search.IndexableDocumentDTO;
+import org.papercloud.de.core.dto.search.IndexableMetadataDTO;
+import org.papercloud.de.core.dto.search.SearchRequestDTO;
+import org.papercloud.de.core.dto.search.SearchResultDTO;
+import org.papercloud.de.core.dto.search.SuggestionDTO;
+import org.papercloud.de.core.ports.outbound.SearchIndexAdmin;
+import org.papercloud.de.core.ports.outbound.SearchIndexMirror;
+import org.papercloud.de.core.ports.outbound.SearchService;
+import org.papercloud.de.pdfsearch.lucene.LuceneDocumentIndex;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * SearchService while Elasticsearch is the search engine, which is the default.
+ * <p>
+ * Every write goes to Elasticsearch and is mirrored into the embedded
+ * {@link LuceneDocumentIndex}. Searches and suggestions are answered by Elasticsearch, and
+ * by the embedded index when Elasticsearch fails, so search keeps covering page text during
+ * an outage. Pages read by cursor are not answered from the mirror, which cannot continue an
+ * Elasticsearch cursor.
+ * <p>
+ * The mirror lives on the local disk of each instance. Documents indexed before it existed,
+ * or by another instance, are copied in by a backfill from the database on startup, and
+ * rebuilds of the Elasticsearch index rewrite it as well. A failed mirror write is logged and
+ * does not fail the Elasticsearch write.
+ */
+@Slf4j
+@Primary
+@Service
+@ConditionalOnProperty(prefix = "search", name = "engine", havingValue = "elasticsearch", matchIfMissing = true)
+@RequiredArgsConstructor
+public class FailoverSearchService implements SearchService, SearchIndexAdmin, SearchIndexMirror {
+
+    private final ElasticsearchServiceImpl elasticsearch;
+    private final DocumentIndexManager indexManager;
+    private final LuceneDocumentIndex mirror;
+
+    @Override
+    public void indexDocument(IndexableDocumentDTO document) {
+        elasticsearch.indexDocument(document);
+        try {
+            mirror.index(document);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to mirror document {} into the embedded index: {}", document.getId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void updateMetadata(IndexableMetadataDTO metadata) {
+        elasticsearch.updateMetadata(metadata);
+        try {
+            if (!mirror.updateMetadata(metadata)) {
+                log.debug("Document {} is not in the embedded index yet", metadata.getId());
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to mirror metadata of document {} into the embedded index: {}",
+                    metadata.getId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public SearchResultDTO search(SearchRequestDTO request) {
+        try {
+            return elasticsearch.search(request);
+        } catch (RuntimeException e) {
+            if (request.getCursor() != null || e instanceof IllegalArgumentException) {
+                throw e;
+            }
+            log.warn("Elasticsearch search failed, searching the embedded index: {}", e.getMessage());
+            try {
+                return mirror.search(request);
+            } catch (IOException mirrorError) {
+                e.addSuppressed(mirrorError);
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public List<SuggestionDTO> suggest(String username, String prefix, int size) {
+        try {
+            return elasticsearch.suggest(username, prefix, size);
+        } catch (RuntimeException e) {
+            log.debug("Elasticsearch suggest failed, using the embedded index: {}", e.getMessage());
+            try {
+                return mirror.suggest(username, prefix, size);
+            } catch (IOException mirrorError) {
+                e.addSuppressed(mirrorError);
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public void deleteDocument(Long documentId, String username) {
+        elasticsearch.deleteDocument(documentId, username);
+        try {
+            mirror.delete(documentId);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to delete document {} from the embedded index: {}", documentId, e.getMessage());
+        }
+    }
+
+    @Override
+    public String beginRebuild() {
+        String index = indexManager.beginRebuild();
+        // Elasticsearch decides whether a rebuild is already running; the mirror follows it
+        mirror.endRebuild();
+        mirror.beginRebuild();
+        return index;
+    }
+
+    @Override
+    public boolean resumeRebuild(String index) {
+        if (!indexManager.resumeRebuild(index)) {
+            return false;
+        }
+        mirror.resumeRebuild();
+        return true;
+    }
+
+    /** Only documents Elasticsearch rejected are reported; the mirror is best effort. */
+    @Override
+    public List<Long> writeRebuildBatch(String index, List<IndexableDocumentDTO> documents) {
+        try {
+            List<Long> failed = mirror.writeRebuildBatch(documents);
+            if (!failed.isEmpty()) {
+                log.warn("{} documents could not be written to the embedded index", failed.size());
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to write a rebuild batch to the embedded index: {}", e.getMessage());
+        }
+        return indexManager.writeRebuildBatch(index, documents);
+    }
+
+    @Override
+    public void completeRebuild(String index) {
+        indexManager.completeRebuild(index);
+        mirror.endRebuild();
+    }
+
+    @Override
+    public void abortRebuild(String index) {
+        indexManager.abortRebuild(index);
+        mirror.endRebuild();
+    }
+
+    @Override
+    public long countDocuments() {
+        try {
+            return mirror.countDocuments();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to count the documents in the embedded index", e);
+        }
+    }
+
+    @Override
+    public void beginBackfill() {
+        mirror.beginBackfill();
+    }
+
+    @Override
+    public List<Long> writeBackfillBatch(List<IndexableDocumentDTO> documents) {
+        try {
+            return mirror.writeBackfillBatch(documents);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write a backfill batch to the embedded index", e);
+        }
+    }
+
+    @Override
+    public void endBackfill() {
+        mirror.endBackfill();
+        try {
+            mirror.commit();
+        } catch (IOException e) {
+            log.warn("Failed to commit the embedded index after the backfill: {}", e.getMessage());
+        }
+    }
+}
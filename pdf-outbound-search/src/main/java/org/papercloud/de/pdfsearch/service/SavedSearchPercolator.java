@@ -0,0 +1,174 @@
+package org.papercloud.de.pdfsearch.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.Refresh;
+import co.elastic.clients.elasticsearch._types.mapping.DynamicMapping;
+import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.Operator;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch._types.query_dsl.QueryBuilders;
+import co.elastic.clients.elasticsearch._types.query_dsl.TextQueryType;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.json.JsonData;
+import co.elastic.clients.json.JsonpSerializable;
+import jakarta.annotation.PostConstruct;
+import jakarta.json.stream.JsonGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.papercloud.de.core.ports.outbound.SavedSearchIndex;
+import org.papercloud.de.pdfsearch.config.DocumentIndexConfiguration;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Elasticsearch implementation of the SavedSearchIndex port.
+ * <p>
+ * Every saved search is a percolator query in the {@code saved-searches} index, restricted
+ * to its owner's documents. A new document is matched by reference: Elasticsearch loads it
+ * from the documents index and runs only the owner's saved queries against it in memory, so
+ * the cost per document does not grow with the number of saved searches of other users.
+ * <p>
+ * The percolator index maps the document fields the queries use, with the same analyzers
+ * as the documents index. Other fields of the matched document are ignored.
+ */
+@Slf4j
+@Component
+public class SavedSearchPercolator implements SavedSearchIndex {
+
+    static final String INDEX_NAME = "saved-searches";
+    private static final String QUERY_FIELD = "query";
+    private static final int MAX_MATCHES = 1000;
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final DocumentIndexConfiguration config;
+    private final DocumentIndexManager indexManager;
+    private final ElasticsearchCircuitBreaker circuitBreaker;
+
+    public SavedSearchPercolator(ElasticsearchClient elasticsearchClient,
+                                 DocumentIndexConfiguration config,
+                                 DocumentIndexManager indexManager,
+                                 ElasticsearchCircuitBreaker circuitBreaker) {
+        this.elasticsearchClient = elasticsearchClient;
+        this.config = config;
+        this.indexManager = indexManager;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @PostConstruct
+    public void createIndexIfNotExists() {
+        try {
+            if (!elasticsearchClient.indices().exists(e -> e.index(INDEX_NAME)).value()) {
+                createIndex();
+            }
+        } catch (Exception e) {
+            log.warn("Failed to create Elasticsearch index '{}'. Saved searches will not be matched until ES is reachable.",
+                    INDEX_NAME, e);
+        }
+    }
+
+    @Override
+    public void saveQuery(Long savedSearchId, String username, String query, List<String> tags, Integer year) {
+        SavedQuery document = new SavedQuery(savedSearchId, username, toQuery(username, query, tags, year));
+        try {
+            circuitBreaker.call(() -> elasticsearchClient.index(i -> i
+                    .index(INDEX_NAME)
+                    .id(String.valueOf(savedSearchId))
+                    .document(document)
+                    // Visible to the next new document right away
+                    .refresh(Refresh.WaitFor)));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store saved search " + savedSearchId, e);
+        }
+    }
+
+    @Override
+    public void deleteQuery(Long savedSearchId) {
+        try {
+            circuitBreaker.call(() -> elasticsearchClient.delete(d -> d.index(INDEX_NAME).id(String.valueOf(savedSearchId))));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to delete saved search " + savedSearchId, e);
+        }
+    }
+
+    @Override
+    public List<Long> match(Long documentId, String username) {
+        String routing = indexManager.isRouted() ? username : null;
+        try {
+            SearchResponse<JsonData> response = circuitBreaker.call(() -> elasticsearchClient.search(s -> s
+                            .index(INDEX_NAME)
+                            .size(MAX_MATCHES)
+                            .source(src -> src.fetch(false))
+                            .query(q -> q.bool(b -> b
+                                    .filter(f -> f.term(t -> t.field("username").value(username)))
+                                    .filter(f -> f.percolate(p -> p
+                                            .field(QUERY_FIELD)
+                                            .index(ElasticsearchServiceImpl.INDEX_NAME)
+                                            .id(String.valueOf(documentId))
+                                            .routing(routing))))),
+                    JsonData.class
+            ));
+            return response.hits().hits().stream()
+                    .map(Hit::id)
+                    .map(Long::valueOf)
+                    .toList();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to match document " + documentId + " against saved searches", e);
+        }
+    }
+
+    static Query toQuery(String username, String query, List<String> tags, Integer year) {
+        BoolQuery.Builder bool = QueryBuilders.bool();
+        if (query != null && !query.isBlank()) {
+            bool.must(m -> m.multiMatch(mm -> mm
+                    .query(query)
+                    .fields("fullText", "fileName")
+                    .type(TextQueryType.CrossFields)
+                    .operator(Operator.And)));
+        }
+        bool.filter(f -> f.term(t -> t.field("username").value(username)));
+        if (tags != null) {
+            tags.forEach(tag -> bool.filter(f -> f.term(t -> t.field("tags").value(tag))));
+        }
+        if (year != null) {
+            bool.filter(f -> f.term(t -> t.field("year").value(year)));
+        }
+        return Query.of(q -> q.bool(bool.build()));
+    }
+
+    void createIndex() throws IOException {
+        elasticsearchClient.indices().create(c -> c
+                .index(INDEX_NAME)
+                .settings(s -> s
+                        .numberOfShards("1")
+                        .numberOfReplicas(String.valueOf(config.getReplicas())))
+                .mappings(m -> m
+                        .dynamic(DynamicMapping.False)
+                        .properties(QUERY_FIELD, p -> p.percolator(pc -> pc))
+                        .properties("savedSearchId", p -> p.long_(l -> l))
+                        .properties("username", p -> p.keyword(k -> k))
+                        .properties("fullText", p -> p.text(t -> t.analyzer("standard")))
+                        .properties("fileName", p -> p.text(t -> t.analyzer("standard")))
+                        .properties("tags", p -> p.keyword(k -> k))
+                        .properties("year", p -> p.integer(i -> i))
+                )
+        );
+        log.info("Created Elasticsearch index '{}'", INDEX_NAME);
+    }
+
+    /** Written by hand because the generated query classes only serialize through JSON-P. */
+    record SavedQuery(Long savedSearchId, String username, Query query) implements JsonpSerializable {
+
+        @Override
+        public void serialize(JsonGenerator generator, JsonpMapper mapper) {
+            generator.writeStartObject();
+            generator.write("savedSearchId", savedSearchId);
+            generator.write("username", username);
+            generator.writeKey(QUERY_FIELD);
+            query.serialize(generator, mapper);
+            generator.writeEnd();
+        }
+    }
+}
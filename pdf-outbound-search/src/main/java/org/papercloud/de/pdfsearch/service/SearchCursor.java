@@ -0,0 +1,72 @@
+package org.papercloud.de.pdfsearch.service;
+
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Position in a result list that is paged through a point in time. Clients only see it as an
+ * opaque, URL-safe string and send it back unchanged for the next page.
+ *
+ * @param pitId     the point in time the pages are read from
+ * @param page      the number of the page this cursor leads to
+ * @param after     sort values of the last hit already returned
+ * @param totalHits the total reported with the first page
+ * @param criteria  hash of query and filters, so a cursor cannot be replayed against another search
+ */
+record SearchCursor(String pitId, int page, List<Object> after, long totalHits, int criteria) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    static int criteria(String query, List<String> tags, Integer year) {
+        return Objects.hash(query == null ? "" : query.strip(), tags == null ? List.of() : tags, year);
+    }
+
+    String encode() {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(this));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode search cursor", e);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token is malformed or belongs to another search
+     */
+    static SearchCursor decode(String token, int criteria) {
+        SearchCursor cursor;
+        try {
+            cursor = MAPPER.readValue(Base64.getUrlDecoder().decode(token), SearchCursor.class);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid search cursor");
+        }
+        if (cursor.pitId() == null || cursor.after() == null || cursor.criteria() != criteria) {
+            throw new IllegalArgumentException("The search cursor belongs to a different search");
+        }
+        return cursor;
+    }
+
+    /** Sort values as sent in {@code search_after}. JSON keeps integral values integral. */
+    List<FieldValue> searchAfter() {
+        return after.stream().map(SearchCursor::toFieldValue).toList();
+    }
+
+    static List<Object> sortValues(List<FieldValue> values) {
+        return values.stream().map(FieldValue::_get).toList();
+    }
+
+    private static FieldValue toFieldValue(Object value) {
+        if (value instanceof Double || value instanceof Float) {
+            return FieldValue.of(((Number) value).doubleValue());
+        }
+        if (value instanceof Number number) {
+            return FieldValue.of(number.longValue());
+        }
+        return FieldValue.of(String.valueOf(value));
+    }
+}
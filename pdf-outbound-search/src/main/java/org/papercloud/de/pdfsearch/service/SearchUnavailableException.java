@@ -0,0 +1,16 @@
+package org.papercloud.de.pdfsearch.service;
+
+/**
+ * Thrown instead of sending a request while Elasticsearch is known to be down, and when a
+ * request does not complete within its timeout.
+ */
+public class SearchUnavailableException extends RuntimeException {
+
+    public SearchUnavailableException(String message) {
+        super(message);
+    }
+
+    public SearchUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,222 @@
+package org.papercloud.de.pdfsearch.vector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Hierarchical navigable small world graph (Malkov &amp; Yashunin) over node ids.
+ * <p>
+ * The graph only stores links; similarities are computed by the caller, so the vectors can
+ * live in a {@link MappedVectorStore}. Nodes are never removed: deleted nodes stay navigable
+ * and are filtered out of results. Not thread-safe; callers synchronize.
+ */
+final class HnswGraph {
+
+    /** Similarity between two nodes; higher is closer. */
+    @FunctionalInterface
+    interface NodeSimilarity {
+        double between(int a, int b);
+    }
+
+    record Neighbor(int node, double similarity) {
+    }
+
+    private static final Comparator<Neighbor> CLOSEST_FIRST =
+            Comparator.comparingDouble(Neighbor::similarity).reversed();
+
+    private final NodeSimilarity similarity;
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final SplittableRandom random;
+
+    /** links.get(node)[level] holds the neighbour count at index 0 followed by the neighbours. */
+    private final List<int[][]> links = new ArrayList<>();
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+    private int size;
+
+    HnswGraph(NodeSimilarity similarity, int m, int efConstruction, long seed) {
+        this.similarity = similarity;
+        this.m = m;
+        this.maxM0 = 2 * m;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1 / Math.log(m);
+        this.random = new SplittableRandom(seed);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(int node) {
+        return node < links.size() && links.get(node) != null;
+    }
+
+    void insert(int node) {
+        if (contains(node)) {
+            throw new IllegalArgumentException("Node " + node + " is already in the graph");
+        }
+        int level = randomLevel();
+        int[][] nodeLinks = new int[level + 1][];
+        for (int l = 0; l <= level; l++) {
+            nodeLinks[l] = new int[maxLinks(l) + 1];
+        }
+        while (links.size() <= node) {
+            links.add(null);
+        }
+        links.set(node, nodeLinks);
+        size++;
+
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return;
+        }
+
+        IntToDoubleFunction toNode = other -> similarity.between(node, other);
+        int current = entryPoint;
+        for (int l = maxLevel; l > level; l--) {
+            current = greedyClosest(toNode, current, l);
+        }
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            List<Neighbor> candidates = searchLayer(toNode, current, efConstruction, l);
+            List<Neighbor> selected = candidates.subList(0, Math.min(m, candidates.size()));
+            for (Neighbor neighbor : selected) {
+                addLink(node, neighbor.node(), l);
+                addLink(neighbor.node(), node, l);
+            }
+            current = candidates.get(0).node();
+        }
+        if (level > maxLevel) {
+            entryPoint = node;
+            maxLevel = level;
+        }
+    }
+
+    /**
+     * Returns up to {@code k} accepted nodes closest to the query, closest first.
+     *
+     * @param toQuery  similarity of a node to the query
+     * @param accepted nodes that may appear in the result; others are only traversed
+     */
+    List<Neighbor> search(IntToDoubleFunction toQuery, int k, int ef, IntPredicate accepted) {
+        if (entryPoint < 0 || k <= 0) {
+            return List.of();
+        }
+        int current = entryPoint;
+        for (int l = maxLevel; l > 0; l--) {
+            current = greedyClosest(toQuery, current, l);
+        }
+        List<Neighbor> candidates = searchLayer(toQuery, current, Math.max(ef, k), 0);
+        List<Neighbor> result = new ArrayList<>(k);
+        for (Neighbor candidate : candidates) {
+            if (accepted.test(candidate.node())) {
+                result.add(candidate);
+                if (result.size() == k) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private int greedyClosest(IntToDoubleFunction toTarget, int start, int level) {
+        int current = start;
+        double best = toTarget.applyAsDouble(current);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            int[] neighbors = links.get(current)[level];
+            for (int i = 1; i <= neighbors[0]; i++) {
+                double candidate = toTarget.applyAsDouble(neighbors[i]);
+                if (candidate > best) {
+                    best = candidate;
+                    current = neighbors[i];
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /** Beam search on one layer; returns up to {@code ef} nodes, closest first. */
+    private List<Neighbor> searchLayer(IntToDoubleFunction toTarget, int start, int ef, int level) {
+        BitSet visited = new BitSet(links.size());
+        PriorityQueue<Neighbor> candidates = new PriorityQueue<>(CLOSEST_FIRST);
+        PriorityQueue<Neighbor> results = new PriorityQueue<>(CLOSEST_FIRST.reversed());
+
+        Neighbor first = new Neighbor(start, toTarget.applyAsDouble(start));
+        visited.set(start);
+        candidates.add(first);
+        results.add(first);
+
+        while (!candidates.isEmpty()) {
+            Neighbor closest = candidates.poll();
+            if (results.size() >= ef && closest.similarity() < results.peek().similarity()) {
+                break;
+            }
+            int[][] nodeLinks = links.get(closest.node());
+            if (nodeLinks.length <= level) {
+                continue;
+            }
+            int[] neighbors = nodeLinks[level];
+            for (int i = 1; i <= neighbors[0]; i++) {
+                int neighbor = neighbors[i];
+                if (visited.get(neighbor)) {
+                    continue;
+                }
+                visited.set(neighbor);
+                double candidateSimilarity = toTarget.applyAsDouble(neighbor);
+                if (results.size() < ef || candidateSimilarity > results.peek().similarity()) {
+                    Neighbor candidate = new Neighbor(neighbor, candidateSimilarity);
+                    candidates.add(candidate);
+                    results.add(candidate);
+                    if (results.size() > ef) {
+                        results.poll();
+                    }
+                }
+            }
+        }
+
+        List<Neighbor> ordered = new ArrayList<>(results);
+        ordered.sort(CLOSEST_FIRST);
+        return ordered;
+    }
+
+    private void addLink(int from, int to, int level) {
+        int[] neighbors = links.get(from)[level];
+        int count = neighbors[0];
+        if (count < neighbors.length - 1) {
+            neighbors[count + 1] = to;
+            neighbors[0] = count + 1;
+            return;
+        }
+        // Full: keep the closest neighbours including the new one
+        Neighbor[] all = new Neighbor[count + 1];
+        for (int i = 0; i < count; i++) {
+            all[i] = new Neighbor(neighbors[i + 1], similarity.between(from, neighbors[i + 1]));
+        }
+        all[count] = new Neighbor(to, similarity.between(from, to));
+        Arrays.sort(all, CLOSEST_FIRST);
+        for (int i = 0; i < count; i++) {
+            neighbors[i + 1] = all[i].node();
+        }
+    }
+
+    private int maxLinks(int level) {
+        return level == 0 ? maxM0 : m;
+    }
+
+    private int randomLevel() {
+        return (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+    }
+}
@@ -0,0 +1,89 @@
+package org.papercloud.de.pdfsearch.vector;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.papercloud.de.core.dto.search.ChunkVectorDTO;
+import org.papercloud.de.core.dto.search.VectorMatchDTO;
+import org.papercloud.de.core.ports.outbound.VectorIndex;
+import org.papercloud.de.pdfsearch.config.VectorIndexConfiguration;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process implementation of the VectorIndex port.
+ * Each user has an HNSW graph over the vectors in their own memory-mapped file, so queries
+ * never touch other users' data. Partitions are loaded on first use.
+ */
+@Slf4j
+@Service
+public class HnswVectorIndex implements VectorIndex {
+
+    private final VectorIndexConfiguration config;
+    private final Map<String, UserVectorPartition> partitions = new ConcurrentHashMap<>();
+
+    public HnswVectorIndex(VectorIndexConfiguration config) {
+        this.config = config;
+    }
+
+    @Override
+    public void replaceDocument(String username, Long documentId, List<ChunkVectorDTO> chunks) {
+        partition(username).replaceDocument(documentId, chunks);
+        log.debug("Stored {} vectors for document ID {}", chunks.size(), documentId);
+    }
+
+    @Override
+    public List<VectorMatchDTO> search(String username, float[] query, int limit) {
+        return partition(username).search(query, limit);
+    }
+
+    @Override
+    public void deleteDocument(String username, Long documentId) {
+        partition(username).deleteDocument(documentId);
+    }
+
+    @PreDestroy
+    public void close() {
+        partitions.forEach((username, partition) -> {
+            try {
+                partition.close();
+            } catch (IOException e) {
+                log.warn("Failed to close vector partition of user {}", username, e);
+            }
+        });
+        partitions.clear();
+    }
+
+    UserVectorPartition partition(String username) {
+        return partitions.computeIfAbsent(username, user -> {
+            Path path = Path.of(config.getDirectory()).resolve(fileName(user));
+            try {
+                UserVectorPartition partition = UserVectorPartition.load(path, config);
+                log.info("Loaded {} vectors for user {} from {}", partition.liveVectorCount(), user, path);
+                return partition;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to load vector partition " + path, e);
+            }
+        });
+    }
+
+    /** Readable prefix plus a hash, so names stay unique and safe for any username. */
+    static String fileName(String username) {
+        String readable = username.replaceAll("[^A-Za-z0-9_-]", "_");
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(username.getBytes(StandardCharsets.UTF_8));
+            return readable + "-" + HexFormat.of().formatHex(digest, 0, 4) + ".vec";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
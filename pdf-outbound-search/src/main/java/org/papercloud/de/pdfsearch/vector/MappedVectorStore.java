@@ -0,0 +1,268 @@
+package org.papercloud.de.pdfsearch.vector;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Fixed-size vector records in a memory-mapped file. A record's index is its node id in the
+ * {@link HnswGraph}. Records are only appended or tombstoned; {@link #compactTo} drops the
+ * tombstones by copying the live records into a new file.
+ * <p>
+ * Layout: a 32 byte header (magic, version, dimensions, quantization, record count) followed
+ * by records of {@code documentId:long, pageNumber:int, offset:int, length:int, deleted:byte,
+ * padding:3, scale:float} and the vector components. Vectors are expected to be L2-normalized,
+ * so the dot product is the cosine similarity.
+ */
+final class MappedVectorStore implements Closeable {
+
+    private static final int MAGIC = 0x56454331;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int COUNT_POSITION = 16;
+    private static final int RECORD_HEADER_BYTES = 28;
+    private static final int DELETED_POSITION = 20;
+    private static final int SCALE_POSITION = 24;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final int dimensions;
+    private final VectorQuantization quantization;
+    private final int recordBytes;
+    private MappedByteBuffer buffer;
+    private int count;
+    private int deleted;
+
+    private MappedVectorStore(Path path, FileChannel channel, int dimensions, VectorQuantization quantization,
+                              int capacity, int count) throws IOException {
+        this.path = path;
+        this.channel = channel;
+        this.dimensions = dimensions;
+        this.quantization = quantization;
+        this.recordBytes = RECORD_HEADER_BYTES + dimensions * quantization.getBytesPerComponent();
+        this.count = count;
+        map(capacity);
+    }
+
+    static MappedVectorStore create(Path path, int dimensions, VectorQuantization quantization,
+                                    int capacity) throws IOException {
+        Files.createDirectories(path.getParent());
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedVectorStore store = new MappedVectorStore(path, channel, dimensions, quantization,
+                Math.max(1, capacity), 0);
+        store.buffer.putInt(0, MAGIC);
+        store.buffer.putInt(4, VERSION);
+        store.buffer.putInt(8, dimensions);
+        store.buffer.put(12, (byte) quantization.ordinal());
+        store.buffer.putInt(COUNT_POSITION, 0);
+        return store;
+    }
+
+    static MappedVectorStore open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            channel.close();
+            throw new IOException("Not a vector store file: " + path);
+        }
+        int dimensions = header.getInt(8);
+        VectorQuantization quantization = VectorQuantization.values()[header.get(12)];
+        int count = header.getInt(COUNT_POSITION);
+        int recordBytes = RECORD_HEADER_BYTES + dimensions * quantization.getBytesPerComponent();
+        int capacity = (int) Math.max(count, (channel.size() - HEADER_BYTES) / recordBytes);
+        MappedVectorStore store = new MappedVectorStore(path, channel, dimensions, quantization, capacity, count);
+        for (int id = 0; id < count; id++) {
+            if (store.isDeleted(id)) {
+                store.deleted++;
+            }
+        }
+        return store;
+    }
+
+    int getDimensions() {
+        return dimensions;
+    }
+
+    VectorQuantization getQuantization() {
+        return quantization;
+    }
+
+    int size() {
+        return count;
+    }
+
+    int deletedCount() {
+        return deleted;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    /**
+     * Appends a record and returns its id.
+     */
+    int append(long documentId, int pageNumber, int offset, int length, float[] vector) throws IOException {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions but got " + vector.length);
+        }
+        if (position(count + 1) > buffer.capacity()) {
+            map(Math.max(1, count) * 2);
+        }
+        int id = count;
+        int base = position(id);
+        buffer.putLong(base, documentId);
+        buffer.putInt(base + 8, pageNumber);
+        buffer.putInt(base + 12, offset);
+        buffer.putInt(base + 16, length);
+        buffer.put(base + DELETED_POSITION, (byte) 0);
+        writeVector(base, vector);
+        count++;
+        buffer.putInt(COUNT_POSITION, count);
+        return id;
+    }
+
+    void markDeleted(int id) {
+        int base = position(id);
+        if (buffer.get(base + DELETED_POSITION) == 0) {
+            buffer.put(base + DELETED_POSITION, (byte) 1);
+            deleted++;
+        }
+    }
+
+    boolean isDeleted(int id) {
+        return buffer.get(position(id) + DELETED_POSITION) != 0;
+    }
+
+    long documentId(int id) {
+        return buffer.getLong(position(id));
+    }
+
+    int pageNumber(int id) {
+        return buffer.getInt(position(id) + 8);
+    }
+
+    int offset(int id) {
+        return buffer.getInt(position(id) + 12);
+    }
+
+    int length(int id) {
+        return buffer.getInt(position(id) + 16);
+    }
+
+    /** Dot product between a stored vector and the query. */
+    double dot(int id, float[] query) {
+        int base = position(id);
+        int vectorBase = base + RECORD_HEADER_BYTES;
+        double sum = 0;
+        if (quantization == VectorQuantization.FLOAT32) {
+            for (int i = 0; i < dimensions; i++) {
+                sum += buffer.getFloat(vectorBase + i * 4) * query[i];
+            }
+            return sum;
+        }
+        for (int i = 0; i < dimensions; i++) {
+            sum += buffer.get(vectorBase + i) * query[i];
+        }
+        return sum * buffer.getFloat(base + SCALE_POSITION);
+    }
+
+    /** Dot product between two stored vectors. */
+    double dot(int a, int b) {
+        int baseA = position(a);
+        int baseB = position(b);
+        int vectorA = baseA + RECORD_HEADER_BYTES;
+        int vectorB = baseB + RECORD_HEADER_BYTES;
+        if (quantization == VectorQuantization.FLOAT32) {
+            double sum = 0;
+            for (int i = 0; i < dimensions; i++) {
+                sum += buffer.getFloat(vectorA + i * 4) * buffer.getFloat(vectorB + i * 4);
+            }
+            return sum;
+        }
+        long sum = 0;
+        for (int i = 0; i < dimensions; i++) {
+            sum += buffer.get(vectorA + i) * buffer.get(vectorB + i);
+        }
+        return sum * (double) buffer.getFloat(baseA + SCALE_POSITION) * buffer.getFloat(baseB + SCALE_POSITION);
+    }
+
+    float[] vector(int id) {
+        int base = position(id);
+        int vectorBase = base + RECORD_HEADER_BYTES;
+        float[] vector = new float[dimensions];
+        if (quantization == VectorQuantization.FLOAT32) {
+            for (int i = 0; i < dimensions; i++) {
+                vector[i] = buffer.getFloat(vectorBase + i * 4);
+            }
+            return vector;
+        }
+        float scale = buffer.getFloat(base + SCALE_POSITION);
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] = buffer.get(vectorBase + i) * scale;
+        }
+        return vector;
+    }
+
+    /**
+     * Copies the live records into a new store at the given path, preserving their order.
+     */
+    MappedVectorStore compactTo(Path target) throws IOException {
+        MappedVectorStore compacted = create(target, dimensions, quantization, Math.max(1, count - deleted));
+        for (int id = 0; id < count; id++) {
+            if (!isDeleted(id)) {
+                compacted.append(documentId(id), pageNumber(id), offset(id), length(id), vector(id));
+            }
+        }
+        compacted.flush();
+        return compacted;
+    }
+
+    void flush() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    private void writeVector(int base, float[] vector) {
+        int vectorBase = base + RECORD_HEADER_BYTES;
+        if (quantization == VectorQuantization.FLOAT32) {
+            buffer.putFloat(base + SCALE_POSITION, 1f);
+            for (int i = 0; i < dimensions; i++) {
+                buffer.putFloat(vectorBase + i * 4, vector[i]);
+            }
+            return;
+        }
+        float maxAbs = 0;
+        for (float component : vector) {
+            maxAbs = Math.max(maxAbs, Math.abs(component));
+        }
+        float scale = maxAbs == 0 ? 1f : maxAbs / 127f;
+        buffer.putFloat(base + SCALE_POSITION, scale);
+        for (int i = 0; i < dimensions; i++) {
+            buffer.put(vectorBase + i, (byte) Math.round(vector[i] / scale));
+        }
+    }
+
+    private void map(int capacity) throws IOException {
+        long bytes = (long) HEADER_BYTES + (long) capacity * recordBytes;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IOException("Vector store " + path + " exceeds 2 GB");
+        }
+        // Mapping past the end of the file grows it
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+    }
+
+    private int position(int id) {
+        return HEADER_BYTES + id * recordBytes;
+    }
+}
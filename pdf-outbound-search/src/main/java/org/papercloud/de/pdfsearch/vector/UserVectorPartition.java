@@ -0,0 +1,174 @@
+package org.papercloud.de.pdfsearch.vector;
+
+import lombok.extern.slf4j.Slf4j;
+import org.papercloud.de.core.dto.search.ChunkVectorDTO;
+import org.papercloud.de.core.dto.search.VectorMatchDTO;
+import org.papercloud.de.pdfsearch.config.VectorIndexConfiguration;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Vectors and HNSW graph of a single user. The vectors are persisted in a
+ * {@link MappedVectorStore}; the graph is rebuilt from them when the partition is loaded.
+ */
+@Slf4j
+final class UserVectorPartition {
+
+    private static final long GRAPH_SEED = 42;
+
+    private final Path path;
+    private final VectorIndexConfiguration config;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, List<Integer>> nodesByDocument = new HashMap<>();
+
+    private MappedVectorStore store;
+    private HnswGraph graph;
+
+    private UserVectorPartition(Path path, VectorIndexConfiguration config) {
+        this.path = path;
+        this.config = config;
+    }
+
+    /**
+     * Opens the partition stored at the given path, dropping tombstoned records first.
+     * A missing file yields an empty partition.
+     */
+    static UserVectorPartition load(Path path, VectorIndexConfiguration config) throws IOException {
+        UserVectorPartition partition = new UserVectorPartition(path, config);
+        if (!Files.exists(path)) {
+            return partition;
+        }
+        MappedVectorStore store = MappedVectorStore.open(path);
+        if (store.deletedCount() > 0) {
+            Path compactedPath = path.resolveSibling(path.getFileName() + ".compact");
+            MappedVectorStore compacted = store.compactTo(compactedPath);
+            store.close();
+            compacted.close();
+            Files.move(compactedPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            store = MappedVectorStore.open(path);
+        }
+        partition.attach(store);
+        for (int id = 0; id < store.size(); id++) {
+            partition.graph.insert(id);
+            partition.nodesByDocument.computeIfAbsent(store.documentId(id), key -> new ArrayList<>()).add(id);
+        }
+        return partition;
+    }
+
+    void replaceDocument(Long documentId, List<ChunkVectorDTO> chunks) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(documentId);
+            if (chunks.isEmpty()) {
+                return;
+            }
+            int dimensions = chunks.get(0).getVector().length;
+            if (store == null || store.getDimensions() != dimensions) {
+                reset(dimensions);
+            }
+            List<Integer> nodes = new ArrayList<>(chunks.size());
+            for (ChunkVectorDTO chunk : chunks) {
+                int id = store.append(documentId, chunk.getPageNumber(), chunk.getOffset(), chunk.getLength(),
+                        VectorMath.normalize(chunk.getVector()));
+                graph.insert(id);
+                nodes.add(id);
+            }
+            nodesByDocument.put(documentId, nodes);
+            store.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write vectors to " + path, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void deleteDocument(Long documentId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(documentId);
+            if (store != null) {
+                store.flush();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    List<VectorMatchDTO> search(float[] query, int limit) {
+        lock.readLock().lock();
+        try {
+            if (store == null || query.length != store.getDimensions()) {
+                return List.of();
+            }
+            float[] normalized = VectorMath.normalize(query);
+            MappedVectorStore vectors = store;
+            return graph.search(id -> vectors.dot(id, normalized), limit, config.getEfSearch(),
+                            id -> !vectors.isDeleted(id))
+                    .stream()
+                    .map(neighbor -> VectorMatchDTO.builder()
+                            .documentId(vectors.documentId(neighbor.node()))
+                            .pageNumber(vectors.pageNumber(neighbor.node()))
+                            .offset(vectors.offset(neighbor.node()))
+                            .length(vectors.length(neighbor.node()))
+                            .score(neighbor.similarity())
+                            .build())
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int liveVectorCount() {
+        lock.readLock().lock();
+        try {
+            return store == null ? 0 : store.size() - store.deletedCount();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (store != null) {
+                store.close();
+                store = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeDocument(Long documentId) {
+        List<Integer> nodes = nodesByDocument.remove(documentId);
+        if (nodes != null) {
+            nodes.forEach(store::markDeleted);
+        }
+    }
+
+    /** Starts over with an empty file, e.g. when the embedding model and with it the dimension changed. */
+    private void reset(int dimensions) throws IOException {
+        if (store != null) {
+            log.warn("Vector dimension changed from {} to {}; dropping existing vectors in {}",
+                    store.getDimensions(), dimensions, path);
+            store.close();
+        }
+        nodesByDocument.clear();
+        attach(MappedVectorStore.create(path, dimensions, config.getQuantization(), config.getInitialCapacity()));
+    }
+
+    private void attach(MappedVectorStore vectors) {
+        this.store = vectors;
+        this.graph = new HnswGraph(vectors::dot, config.getM(), config.getEfConstruction(), GRAPH_SEED);
+    }
+}
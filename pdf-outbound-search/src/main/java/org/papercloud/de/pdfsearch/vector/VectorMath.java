@@ -0,0 +1,24 @@
+package org.papercloud.de.pdfsearch.vector;
+
+final class VectorMath {
+
+    private VectorMath() {
+    }
+
+    /** Returns an L2-normalized copy; a zero vector is returned unchanged. */
+    static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float component : vector) {
+            norm += component * component;
+        }
+        float[] normalized = vector.clone();
+        if (norm == 0) {
+            return normalized;
+        }
+        float inverse = (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < normalized.length; i++) {
+            normalized[i] *= inverse;
+        }
+        return normalized;
+    }
+}
@@ -0,0 +1,21 @@
+package org.papercloud.de.pdfsearch.vector;
+
+/**
+ * Storage format of the vector components.
+ */
+public enum VectorQuantization {
+    /** Four bytes per component, exact. */
+    FLOAT32(4),
+    /** One byte per component, scaled by the largest absolute component of the vector. */
+    INT8(1);
+
+    private final int bytesPerComponent;
+
+    VectorQuantization(int bytesPerComponent) {
+        this.bytesPerComponent = bytesPerComponent;
+    }
+
+    public int getBytesPerComponent() {
+        return bytesPerComponent;
+    }
+}
@@ -0,0 +1,246 @@
+package org.papercloud.de.pdfsearch.lucene;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.papercloud.de.core.dto.search.FacetBucketDTO;
+import org.papercloud.de.core.dto.search.IndexableDocumentDTO;
+import org.papercloud.de.core.dto.search.IndexableMetadataDTO;
+import org.papercloud.de.core.dto.search.IndexablePageDTO;
+import org.papercloud.de.core.dto.search.SearchHitDTO;
+import org.papercloud.de.core.dto.search.SearchRequestDTO;
+import org.papercloud.de.core.dto.search.SearchResultDTO;
+import org.papercloud.de.core.dto.search.SuggestionDTO;
+import org.papercloud.de.pdfsearch.config.LuceneIndexConfiguration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Unit tests for LuceneDocumentIndex.
+ * Tests page-level hits, filters and facets, metadata updates, suggestions, durability, rebuilds and backfills.
+ */
+@DisplayName("LuceneDocumentIndex")
+class LuceneDocumentIndexTest {
+
+    @TempDir
+    Path directory;
+
+    private LuceneIndexConfiguration config;
+    private LuceneDocumentIndex index;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        config = new LuceneIndexConfiguration();
+        config.setDirectory(directory.toString());
+        index = new LuceneDocumentIndex(config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.close();
+    }
+
+    private static IndexableDocumentDTO document(long id, String username, String title, List<String> tags, int year,
+                                                 String... pages) {
+        List<IndexablePageDTO> indexablePages = new ArrayList<>();
+        for (int i = 0; i < pages.length; i++) {
+            indexablePages.add(new IndexablePageDTO(i + 1, pages[i]));
+        }
+        return IndexableDocumentDTO.builder()
+                .id(id)
+                .username(username)
+                .fileName(title)
+                .tags(tags)
+                .year(year)
+                .fullText(String.join("\n", pages))
+                .pages(indexablePages)
+                .build();
+    }
+
+    private static SearchRequestDTO request(String username, String query) {
+        return SearchRequestDTO.builder().username(username).query(query).page(0).size(10).build();
+    }
+
+    @Test
+    @DisplayName("should find page text and report the best matching page with a highlighted snippet")
+    void should_returnBestPage_when_pageTextMatches() throws IOException {
+        // Arrange
+        index.index(document(1L, "alice", "Lease", List.of(), 2023,
+                "Tenancy agreement for the flat.", "The deposit is paid back when the tenancy ends."));
+
+        // Act
+        SearchResultDTO result = index.search(request("alice", "deposit"));
+
+        // Assert
+        assertThat(result.getTotalHits()).isEqualTo(1);
+        SearchHitDTO hit = result.getHits().get(0);
+        assertThat(hit.getDocumentId()).isEqualTo("1");
+        assertThat(hit.getDocumentName()).isEqualTo("Lease");
+        assertThat(hit.getPageNumber()).isEqualTo(2);
+        assertThat(hit.getTextSnippet()).contains("<em>deposit</em>");
+        assertThat(result.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("should only search the user's documents and count facets over all matches")
+    void should_filterAndCountFacets_when_searching() throws IOException {
+        // Arrange
+        index.index(document(1L, "alice", "Tax 2023", List.of("tax", "2023"), 2023, "income tax return"));
+        index.index(document(2L, "alice", "Tax 2021", List.of("tax"), 2021, "tax assessment"));
+        index.index(document(3L, "alice", "Invoice", List.of("invoice"), 2023, "invoice for tax advice"));
+        index.index(document(4L, "bob", "Tax", List.of("tax"), 2023, "tax return"));
+
+        // Act
+        SearchResultDTO all = index.search(request("alice", "tax"));
+        SearchResultDTO filtered = index.search(SearchRequestDTO.builder()
+                .username("alice").query("tax").tags(List.of("tax")).year(2023).page(0).size(10).build());
+
+        // Assert
+        assertThat(all.getHits()).extracting(SearchHitDTO::getDocumentId).containsExactlyInAnyOrder("1", "2", "3");
+        assertThat(all.getTagFacets()).extracting(FacetBucketDTO::getValue, FacetBucketDTO::getCount)
+                .containsExactly(tuple("tax", 2L), tuple("2023", 1L), tuple("invoice", 1L));
+        assertThat(all.getYearFacets()).extracting(FacetBucketDTO::getValue).containsExactly("2021", "2023");
+        assertThat(filtered.getHits()).extracting(SearchHitDTO::getDocumentId).containsExactly("1");
+    }
+
+    @Test
+    @DisplayName("should page through hits by page number")
+    void should_returnRequestedPage_when_paging() throws IOException {
+        // Arrange
+        for (long id = 1; id <= 5; id++) {
+            index.index(document(id, "alice", "Doc " + id, List.of(), 2024, "report"));
+        }
+
+        // Act
+        SearchResultDTO result = index.search(SearchRequestDTO.builder()
+                .username("alice").query("report").page(2).size(2).build());
+
+        // Assert
+        assertThat(result.getHits()).hasSize(1);
+        assertThat(result.getTotalHits()).isEqualTo(5);
+        assertThat(result.getTotalPages()).isEqualTo(3);
+        assertThat(result.getCurrentPage()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should replace metadata and keep the text searchable")
+    void should_keepText_when_metadataUpdated() throws IOException {
+        // Arrange
+        index.index(document(1L, "alice", "Scan", List.of(), 2024, "electricity bill"));
+
+        // Act
+        boolean updated = index.updateMetadata(IndexableMetadataDTO.builder()
+                .id(1L).username("alice").fileName("Electricity").tags(List.of("utilities")).year(2022).build());
+        boolean missing = index.updateMetadata(IndexableMetadataDTO.builder()
+                .id(9L).username("alice").fileName("Missing").build());
+
+        // Assert
+        assertThat(updated).isTrue();
+        assertThat(missing).isFalse();
+        SearchResultDTO result = index.search(SearchRequestDTO.builder()
+                .username("alice").query("electricity").tags(List.of("utilities")).year(2022).page(0).size(10).build());
+        assertThat(result.getHits()).extracting(SearchHitDTO::getDocumentName).containsExactly("Electricity");
+        assertThat(result.getHits().get(0).getPageNumber()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should remove the document together with its pages")
+    void should_removePages_when_deleted() throws IOException {
+        // Arrange
+        index.index(document(1L, "alice", "Lease", List.of(), 2023, "deposit"));
+
+        // Act
+        index.delete(1L);
+
+        // Assert
+        assertThat(index.search(request("alice", "deposit")).getHits()).isEmpty();
+        assertThat(index.countDocuments()).isZero();
+    }
+
+    @Test
+    @DisplayName("should complete prefixes of titles and tags")
+    void should_suggestTitlesAndTags_when_prefixMatches() throws IOException {
+        // Arrange
+        index.index(document(1L, "alice", "Tax Report", List.of("taxes 2023"), 2023, "text"));
+        index.index(document(2L, "alice", "Invoice", List.of("tax"), 2023, "text"));
+        index.index(document(3L, "bob", "Tax Return", List.of(), 2023, "text"));
+
+        // Act
+        List<SuggestionDTO> suggestions = index.suggest("alice", "ta", 5);
+
+        // Assert
+        assertThat(suggestions).extracting(SuggestionDTO::getKind, SuggestionDTO::getText).containsExactlyInAnyOrder(
+                tuple(SuggestionDTO.Kind.DOCUMENT, "Tax Report"),
+                tuple(SuggestionDTO.Kind.DOCUMENT, "Invoice"),
+                tuple(SuggestionDTO.Kind.TAG, "taxes 2023"),
+                tuple(SuggestionDTO.Kind.TAG, "tax"));
+        assertThat(index.suggest("alice", "ta", 3)).hasSize(3);
+        assertThat(index.suggest("alice", "t", 5)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should keep committed documents after reopening")
+    void should_keepDocuments_when_reopened() throws IOException {
+        // Arrange
+        index.index(document(1L, "alice", "Lease", List.of(), 2023, "deposit"));
+        index.commit();
+        index.close();
+
+        // Act
+        index = new LuceneDocumentIndex(config);
+
+        // Assert
+        assertThat(index.search(request("alice", "deposit")).getHits()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("should not overwrite a live write with an older rebuild batch")
+    void should_skipLiveWrites_when_rebuilding() throws IOException {
+        // Arrange
+        index.beginRebuild();
+        index.index(document(1L, "alice", "Current", List.of(), 2024, "current text"));
+
+        // Act
+        List<Long> failed = index.writeRebuildBatch(List.of(
+                document(1L, "alice", "Stale", List.of(), 2024, "stale text"),
+                document(2L, "alice", "Other", List.of(), 2024, "other text")));
+        index.endRebuild();
+
+        // Assert
+        assertThat(failed).isEmpty();
+        assertThat(index.search(request("alice", "text")).getHits())
+                .extracting(SearchHitDTO::getDocumentName)
+                .containsExactlyInAnyOrder("Current", "Other");
+    }
+
+    @Test
+    @DisplayName("should not overwrite a live write with an older backfill batch, even during a rebuild")
+    void should_skipLiveWrites_when_backfilling() throws IOException {
+        // Arrange
+        index.beginBackfill();
+        index.beginRebuild();
+        index.index(document(1L, "alice", "Current", List.of(), 2024, "current text"));
+        index.endRebuild();
+
+        // Act
+        List<Long> failed = index.writeBackfillBatch(List.of(
+                document(1L, "alice", "Stale", List.of(), 2024, "stale text"),
+                document(2L, "alice", "Older", List.of(), 2024, "older text")));
+        index.endBackfill();
+
+        // Assert
+        assertThat(failed).isEmpty();
+        assertThat(index.countDocuments()).isEqualTo(2);
+        assertThat(index.search(request("alice", "text")).getHits())
+                .extracting(SearchHitDTO::getDocumentName)
+                .containsExactlyInAnyOrder("Current", "Older");
+    }
+}
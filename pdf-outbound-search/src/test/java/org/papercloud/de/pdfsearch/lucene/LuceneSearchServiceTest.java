@@ -0,0 +1,99 @@
+package org.papercloud.de.pdfsearch.lucene;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.papercloud.de.core.dto.search.IndexableDocumentDTO;
+import org.papercloud.de.core.dto.search.IndexableMetadataDTO;
+import org.papercloud.de.core.dto.search.SearchRequestDTO;
+import org.papercloud.de.core.events.DocumentIndexedEvent;
+import org.papercloud.de.core.events.DocumentIndexingFailedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for LuceneSearchService.
+ * Tests that the outcome of every write is published once it is durable.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LuceneSearchService")
+class LuceneSearchServiceTest {
+
+    @Mock
+    private LuceneDocumentIndex index;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private LuceneSearchService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new LuceneSearchService(index, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("should commit a document before reporting it as indexed")
+    void should_publishIndexed_when_committed() throws IOException {
+        // Arrange
+        IndexableDocumentDTO document = IndexableDocumentDTO.builder().id(1L).username("alice").build();
+
+        // Act
+        service.indexDocument(document);
+
+        // Assert
+        InOrder order = inOrder(index, eventPublisher);
+        order.verify(index).index(document);
+        order.verify(index).commit();
+        order.verify(eventPublisher).publishEvent(new DocumentIndexedEvent(1L, "alice"));
+    }
+
+    @Test
+    @DisplayName("should report a failed write")
+    void should_publishFailure_when_writeFails() throws IOException {
+        // Arrange
+        IndexableDocumentDTO document = IndexableDocumentDTO.builder().id(1L).build();
+        doThrow(new IOException("disk full")).when(index).index(document);
+
+        // Act
+        service.indexDocument(document);
+
+        // Assert
+        verify(eventPublisher).publishEvent(new DocumentIndexingFailedEvent(1L, "disk full"));
+    }
+
+    @Test
+    @DisplayName("should fail a metadata update of a document that is not indexed")
+    void should_publishFailure_when_metadataTargetMissing() throws IOException {
+        // Arrange
+        IndexableMetadataDTO metadata = IndexableMetadataDTO.builder().id(2L).build();
+        when(index.updateMetadata(metadata)).thenReturn(false);
+
+        // Act
+        service.updateMetadata(metadata);
+
+        // Assert
+        verify(eventPublisher).publishEvent(new DocumentIndexingFailedEvent(2L, "Document is not in the search index"));
+    }
+
+    @Test
+    @DisplayName("should reject cursors, which the embedded index never hands out")
+    void should_throwException_when_cursorGiven() {
+        // Act & Assert
+        assertThatThrownBy(() -> service.search(SearchRequestDTO.builder().cursor("abc").build()))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(index);
+    }
+}
@@ -0,0 +1,399 @@
+package org.papercloud.de.pdfsearch.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.core.bulk.OperationType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.papercloud.de.core.dto.search.IndexableDocumentDTO;
+import org.papercloud.de.core.dto.search.IndexableMetadataDTO;
+import org.papercloud.de.core.events.DocumentIndexedEvent;
+import org.papercloud.de.core.events.DocumentIndexingEvent;
+import org.papercloud.de.core.events.DocumentIndexingFailedEvent;
+import org.papercloud.de.pdfsearch.config.BulkIndexingConfiguration;
+import org.papercloud.de.pdfsearch.config.DocumentIndexConfiguration;
+import org.papercloud.de.pdfsearch.config.ElasticsearchClientConfiguration;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for BulkIndexer.
+ * Tests coalescing, flush thresholds and the mapping of bulk item results to events.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BulkIndexer")
+class BulkIndexerTest {
+
+    @Mock
+    private ElasticsearchClient elasticsearchClient;
+
+    @Mock
+    private ElasticsearchAsyncClient asyncClient;
+
+    private BulkIndexingConfiguration config;
+    private ElasticsearchClientConfiguration clientConfig;
+    private List<Object> events;
+    private DocumentIndexManager indexManager;
+    private BulkIndexer bulkIndexer;
+
+    @BeforeEach
+    void setUp() {
+        config = new BulkIndexingConfiguration();
+        events = new CopyOnWriteArrayList<>();
+        indexManager = new DocumentIndexManager(elasticsearchClient, new DocumentIndexConfiguration());
+        clientConfig = new ElasticsearchClientConfiguration();
+        bulkIndexer = new BulkIndexer(elasticsearchClient, config, events::add, indexManager,
+                new ElasticsearchCircuitBreaker(asyncClient, clientConfig));
+    }
+
+    private static IndexableDocumentDTO document(long id, String text) {
+        return IndexableDocumentDTO.builder().id(id).fileName("doc" + id).fullText(text).username("alice").build();
+    }
+
+    private static IndexableMetadataDTO metadata(long id, String fileName) {
+        return IndexableMetadataDTO.builder().id(id).fileName(fileName).tags(List.of("tax")).year(2024)
+                .username("alice").build();
+    }
+
+    private static BulkResponseItem ok(String id) {
+        return BulkResponseItem.of(i -> i.operationType(OperationType.Index).index("documents").id(id).status(200));
+    }
+
+    private static BulkResponseItem failed(String id, int status) {
+        return BulkResponseItem.of(i -> i.operationType(OperationType.Index).index("documents").id(id).status(status)
+                .error(e -> e.type("mapper_parsing_exception").reason("failed to parse")));
+    }
+
+    private static BulkResponse response(BulkResponseItem... items) {
+        return BulkResponse.of(r -> r.errors(false).took(3).items(List.of(items)));
+    }
+
+    @Nested
+    @DisplayName("Coalescing")
+    class CoalescingTests {
+
+        @Test
+        @DisplayName("should send only the latest pending version of a document")
+        void should_keepLatestVersion_when_documentQueuedTwice() throws IOException {
+            // Arrange
+            when(elasticsearchClient.bulk(any(BulkRequest.class))).thenReturn(response(ok("1")));
+            bulkIndexer.index(document(1L, "old"));
+            bulkIndexer.index(document(1L, "new"));
+
+            // Act
+            bulkIndexer.flush();
+
+            // Assert
+            ArgumentCaptor<BulkRequest> request = ArgumentCaptor.forClass(BulkRequest.class);
+            verify(elasticsearchClient).bulk(request.capture());
+            assertThat(request.getValue().operations()).hasSize(1);
+            IndexableDocumentDTO sent = (IndexableDocumentDTO) request.getValue().operations().get(0).index().document();
+            assertThat(sent.getFullText()).isEqualTo("new");
+            assertThat(events).containsExactly(new DocumentIndexedEvent(1L, "alice"));
+        }
+
+        @Test
+        @DisplayName("should replace a pending index operation with a later delete")
+        void should_sendDelete_when_deletedAfterIndexing() throws IOException {
+            // Arrange
+            when(elasticsearchClient.bulk(any(BulkRequest.class))).thenReturn(response(ok("1")));
+            bulkIndexer.index(document(1L, "text"));
+            bulkIndexer.delete(1L, "alice");
+
+            // Act
+            bulkIndexer.flush();
+
+            // Assert
+            ArgumentCaptor<BulkRequest> request = ArgumentCaptor.forClass(BulkRequest.class);
+            verify(elasticsearchClient).bulk(request.capture());
+            assertThat(request.getValue().operations()).singleElement()
+                    .satisfies(operation -> assertThat(operation.isDelete()).isTrue());
+            assertThat(events).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should fold a metadata change into a pending index operation")
+        void should_applyMetadataToPendingDocument_when_updatedBeforeFlush() throws IOException {
+            // Arrange
+            when(elasticsearchClient.bulk(any(BulkRequest.class))).thenReturn(response(ok("1")));
+            bulkIndexer.index(document(1L, "text"));
+            bulkIndexer.update(metadata(1L, "Renamed"));
+
+            // Act
+            bulkIndexer.flush();
+
+            // Assert
+            ArgumentCaptor<BulkRequest> request = ArgumentCaptor.forClass(BulkRequest.class);
+            verify(elasticsearchClient).bulk(request.capture());
+            IndexableDocumentDTO sent = (IndexableDocumentDTO) request.getValue().operations().get(0).index().document();
+            assertThat(sent.getFileName()).isEqualTo("Renamed");
+            assertThat(sent.getTags()).containsExactly("tax");
+            assertThat(sent.getFullText()).isEqualTo("text");
+        }
+    }
+
+    @Nested
+    @DisplayName("Metadata updates")
+    class MetadataTests {
+
+        @Test
+        @DisplayName("should send a partial update without the text fields")
+        @SuppressWarnings("unchecked")
+        void should_sendPartialUpdate_when_metadataChanged() throws IOException {
+            // Arrange
+            when(elasticsearchClient.bulk(any(BulkRequest.class))).thenReturn(response(ok("1")));
+            bulkIndexer.update(metadata(1L, "Renamed"));
+
+            // Act
+            bulkIndexer.flush();
+
+            // Assert
+            ArgumentCaptor<BulkRequest> request = ArgumentCaptor.forClass(BulkRequest.class);
+            verify(elasticsearchClient).bulk(request.capture());
+            BulkOperation operation = request.getValue().operations().get(0);
+            assertThat(operation.isUpdate()).isTrue();
+            assertThat(operation.update().routing()).isEqualTo("alice");
+            Map<String, Object> doc = (Map<String, Object>) operation.update().action().doc();
+            assertThat(doc).containsOnlyKeys("fileName", "tags", "year");
+            assertThat(events).containsExactly(new DocumentIndexedEvent(1L, "alice"));
+        }
+
+        @Test
+        @DisplayName("should report a failure when the document is not in the index")
+        void should_publishFailure_when_documentMissing() throws IOException {
+            // Arrange
+            when(elasticsearchClient.bulk(any(BulkRequest.class))).thenReturn(response(failed("1", 404)));
+            bulkIndexer.update(metadata(1L, "Renamed"));
+
+            // Act
+            bulkIndexer.flush();
+
+            // Assert
+            assertThat(events).singleElement().isInstanceOf(DocumentIndexingFailedEvent.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Routing and write targets")
+    class RoutingTests {
+
+        @Test
+        @DisplayName("should route writes by the owner's username")
+        void should_routeByUsername_when_indexing() throws IOException {
+            // Arrange
+            when(elasticsearchClient.bulk(any(BulkRequest.class))).thenReturn(response(ok("1")));
+            bulkIndexer.index(document(1L, "text"));
+
+            // Act
+            bulkIndexer.flush();
+
+            // Assert
+            ArgumentCaptor<BulkRequest> request = ArgumentCaptor.forClass(BulkRequest.class);
+            verify(elasticsearchClient).bulk(request.capture());
+            assertThat(request.getValue().operations().get(0).index().routing()).isEqualTo("alice");
+        }
+
+        @Test
+        @DisplayName("should write to every target and report the outcome of the first")
+        void should_dualWrite_when_migrating() throws IOException {
+            // Arrange
+            indexManager.setWriteTargets(List.of(
+                    new DocumentIndexManager.WriteTarget("documents", false),
+                    new DocumentIndexManager.WriteTarget("documents-v2", true)));
+            when(elasticsearchClient.bulk(any(BulkRequest.class))).thenReturn(response(ok("1"), failed("1", 400)));
+            bulkIndexer.index(document(1L, "text"));
+
+            // Act
+            bulkIndexer.flush();
+
+            // Assert
+            ArgumentCaptor<BulkRequest> request = ArgumentCaptor.forClass(BulkRequest.class);
+            verify(elasticsearchClient).bulk(request.capture());
+            assertThat(request.getValue().operations())
+                    .extracting(operation -> operation.index().index(), operation -> operation.index().routing())
+                    .containsExactly(tuple("documents", null), tuple("documents-v2", "alice"));
+            assertThat(events).containsExactly(new DocumentIndexedEvent(1L, "alice"));
+        }
+
+        @Test
+        @DisplayName("should request a full indexing when an update misses the document in the rebuilt index")
+        void should_requestFullIndexing_when_updateMissesSecondaryTarget() throws IOException {
+            // Arrange
+            indexManager.setWriteTargets(List.of(
+                    new DocumentIndexManager.WriteTarget("documents", true),
+                    new DocumentIndexManager.WriteTarget("documents-v2", true)));
+            when(elasticsearchClient.bulk(any(BulkRequest.class))).thenReturn(response(ok("1"), failed("1", 404)));
+            bulkIndexer.update(metadata(1L, "Renamed"));
+
+            // Act
+            bulkIndexer.flush();
+
+            // Assert
+            assertThat(events).containsExactly(new DocumentIndexingEvent(1L), new DocumentIndexedEvent(1L, "alice"));
+        }
+
+        @Test
+        @DisplayName("should not request a full indexing when a full write fails in a later target")
+        void should_notRequestFullIndexing_when_indexFailsInSecondaryTarget() throws IOException {
+            // Arrange
+            indexManager.setWriteTargets(List.of(
+                    new DocumentIndexManager.WriteTarget("documents", true),
+                    new DocumentIndexManager.WriteTarget("documents-v2", true)));
+            when(elasticsearchClient.bulk(any(BulkRequest.class))).thenReturn(response(ok("1"), failed("1", 404)));
+            bulkIndexer.index(document(1L, "text"));
+
+            // Act
+            bulkIndexer.flush();
+
+            // Assert
+            assertThat(events).containsExactly(new DocumentIndexedEvent(1L, "alice"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Flush thresholds")
+    class ThresholdTests {
+
+        @Test
+        @DisplayName("should flush from the caller once the action limit is reached")
+        void should_flush_when_maxActionsReached() throws IOException {
+            // Arrange
+            config.setMaxActions(2);
+            when(elasticsearchClient.bulk(any(BulkRequest.class))).thenReturn(response(ok("1"), ok("2")));
+
+            // Act
+            bulkIndexer.index(document(1L, "a"));
+            verify(elasticsearchClient, never()).bulk(any(BulkRequest.class));
+            bulkIndexer.index(document(2L, "b"));
+
+            // Assert
+            verify(elasticsearchClient, times(1)).bulk(any(BulkRequest.class));
+            assertThat(bulkIndexer.getPendingCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("should flush once the estimated size exceeds the byte limit")
+        void should_flush_when_maxBytesReached() throws IOException {
+            // Arrange
+            config.setMaxBytes(DataSize.ofKilobytes(1));
+            when(elasticsearchClient.bulk(any(BulkRequest.class))).thenReturn(response(ok("1")));
+
+            // Act
+            bulkIndexer.index(document(1L, "x".repeat(2000)));
+
+            // Assert
+            verify(elasticsearchClient).bulk(any(BulkRequest.class));
+        }
+
+        @Test
+        @DisplayName("should not send a request when nothing is pending")
+        void should_skipRequest_when_bufferEmpty() throws IOException {
+            // Act
+            bulkIndexer.flushScheduled();
+
+            // Assert
+            verify(elasticsearchClient, never()).bulk(any(BulkRequest.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("Item results")
+    class ItemResultTests {
+
+        @Test
+        @DisplayName("should report failed items and confirm the others")
+        void should_publishPerItemOutcome_when_someItemsFail() throws IOException {
+            // Arrange
+            when(elasticsearchClient.bulk(any(BulkRequest.class))).thenReturn(response(ok("1"), failed("2", 400)));
+            bulkIndexer.index(document(1L, "a"));
+            bulkIndexer.index(document(2L, "b"));
+
+            // Act
+            bulkIndexer.flush();
+
+            // Assert
+            assertThat(events).containsExactly(
+                    new DocumentIndexedEvent(1L, "alice"),
+                    new DocumentIndexingFailedEvent(2L, "mapper_parsing_exception: failed to parse"));
+        }
+
+        @Test
+        @DisplayName("should requeue items rejected with 429 up to the retry limit")
+        void should_retry_when_itemRejected() throws IOException {
+            // Arrange
+            config.setMaxRetries(1);
+            when(elasticsearchClient.bulk(any(BulkRequest.class)))
+                    .thenReturn(response(failed("1", 429)))
+                    .thenReturn(response(failed("1", 429)));
+            bulkIndexer.index(document(1L, "a"));
+
+            // Act
+            bulkIndexer.flush();
+            assertThat(bulkIndexer.getPendingCount()).isEqualTo(1);
+            bulkIndexer.flush();
+
+            // Assert
+            assertThat(bulkIndexer.getPendingCount()).isZero();
+            assertThat(events).singleElement().isInstanceOf(DocumentIndexingFailedEvent.class);
+        }
+
+        @Test
+        @DisplayName("should report every document when the whole request fails")
+        void should_failAll_when_requestFails() throws IOException {
+            // Arrange
+            when(elasticsearchClient.bulk(any(BulkRequest.class))).thenThrow(new IOException("Connection refused"));
+            bulkIndexer.index(document(1L, "a"));
+            bulkIndexer.index(document(2L, "b"));
+
+            // Act
+            bulkIndexer.flush();
+
+            // Assert
+            List<Long> failedIds = new ArrayList<>();
+            events.forEach(event -> failedIds.add(((DocumentIndexingFailedEvent) event).documentId()));
+            assertThat(failedIds).containsExactly(1L, 2L);
+        }
+
+        @Test
+        @DisplayName("should fail operations without sending them while Elasticsearch is known to be down")
+        void should_failWithoutSending_when_breakerOpen() throws IOException {
+            // Arrange
+            clientConfig.getBreaker().setFailureThreshold(1);
+            when(elasticsearchClient.bulk(any(BulkRequest.class))).thenThrow(new IOException("Connection refused"));
+            bulkIndexer.index(document(1L, "a"));
+            bulkIndexer.flush();
+            bulkIndexer.index(document(2L, "b"));
+
+            // Act
+            bulkIndexer.flush();
+
+            // Assert
+            verify(elasticsearchClient, times(1)).bulk(any(BulkRequest.class));
+            assertThat(events).hasSize(2).allMatch(DocumentIndexingFailedEvent.class::isInstance);
+            assertThat(bulkIndexer.getPendingCount()).isZero();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package org.papercloud.de.pdfsearch.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.analysis.Analyzer;
+import co.elastic.clients.elasticsearch._types.mapping.TextProperty;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.core.bulk.OperationType;
+import co.elastic.clients.elasticsearch.indices.CreateIndexRequest;
+import co.elastic.clients.elasticsearch.indices.ElasticsearchIndicesClient;
+import co.elastic.clients.elasticsearch.indices.GetAliasResponse;
+import co.elastic.clients.elasticsearch.indices.UpdateAliasesRequest;
+import co.elastic.clients.elasticsearch.indices.update_aliases.Action;
+import co.elastic.clients.transport.endpoints.BooleanResponse;
+import co.elastic.clients.util.ObjectBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.papercloud.de.core.dto.search.IndexableDocumentDTO;
+import org.papercloud.de.pdfsearch.config.DocumentIndexConfiguration;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for DocumentIndexManager.
+ * Tests the index mapping and the write targets and alias changes of an index rebuild.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DocumentIndexManager")
+class DocumentIndexManagerTest {
+
+    @Mock
+    private ElasticsearchClient elasticsearchClient;
+
+    @Mock
+    private ElasticsearchIndicesClient indicesClient;
+
+    private DocumentIndexManager indexManager;
+
+    @BeforeEach
+    void setUp() {
+        indexManager = new DocumentIndexManager(elasticsearchClient, new DocumentIndexConfiguration());
+    }
+
+    private static IndexableDocumentDTO document(long id) {
+        return IndexableDocumentDTO.builder().id(id).fileName("doc" + id).fullText("text").username("alice").build();
+    }
+
+    private List<DocumentIndexManager.WriteTarget> writeTargets() {
+        return indexManager.withWriteTargets(targets -> targets);
+    }
+
+    private static BulkResponseItem item(String id, int status) {
+        return BulkResponseItem.of(i -> {
+            i.operationType(OperationType.Create).index("documents-2").id(id).status(status);
+            if (status >= 300) {
+                i.error(e -> e.type(status == 409 ? "version_conflict_engine_exception" : "mapper_parsing_exception")
+                        .reason("rejected"));
+            }
+            return i;
+        });
+    }
+
+    @Nested
+    @DisplayName("Index mapping")
+    class MappingTests {
+
+        @Test
+        @DisplayName("should fold umlauts in the typed prefix like in the indexed n-grams")
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        void should_foldSearchPrefix_when_creatingIndex() throws IOException {
+            // Arrange
+            when(elasticsearchClient.indices()).thenReturn(indicesClient);
+            ArgumentCaptor<Function> createFn = ArgumentCaptor.forClass(Function.class);
+
+            // Act
+            indexManager.createIndex("documents-2");
+
+            // Assert
+            verify(indicesClient).create(createFn.capture());
+            CreateIndexRequest request = ((ObjectBuilder<CreateIndexRequest>) createFn.getValue()
+                    .apply(new CreateIndexRequest.Builder())).build();
+            Map<String, Analyzer> analyzers = request.settings().analysis().analyzer();
+            assertThat(analyzers.get("autocomplete").custom().filter())
+                    .containsExactly("lowercase", "asciifolding", "autocomplete_edge_ngram");
+            assertThat(analyzers.get("autocomplete_search").custom().filter())
+                    .containsExactly("lowercase", "asciifolding");
+            TextProperty fileName = request.mappings().properties().get("fileName").text().fields().get("autocomplete").text();
+            TextProperty tags = request.mappings().properties().get("tags").keyword().fields().get("autocomplete").text();
+            assertThat(fileName.searchAnalyzer()).isEqualTo("autocomplete_search");
+            assertThat(tags.searchAnalyzer()).isEqualTo("autocomplete_search");
+        }
+    }
+
+    @Nested
+    @DisplayName("Rebuild lifecycle")
+    class RebuildTests {
+
+        @Test
+        @DisplayName("should send live writes to the new index next to the alias")
+        void should_addWriteTarget_when_rebuildBegins() {
+            // Arrange
+            when(elasticsearchClient.indices()).thenReturn(indicesClient);
+
+            // Act
+            String index = indexManager.beginRebuild();
+
+            // Assert
+            assertThat(index).startsWith("documents-");
+            assertThat(writeTargets())
+                    .extracting(DocumentIndexManager.WriteTarget::index, DocumentIndexManager.WriteTarget::routed)
+                    .containsExactly(tuple("documents", true), tuple(index, true));
+        }
+
+        @Test
+        @DisplayName("should refuse a second rebuild while one is running")
+        void should_throw_when_rebuildAlreadyRunning() {
+            // Arrange
+            when(elasticsearchClient.indices()).thenReturn(indicesClient);
+            indexManager.beginRebuild();
+
+            // Act & Assert
+            assertThatThrownBy(() -> indexManager.beginRebuild())
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("already being rebuilt");
+        }
+
+        @Test
+        @DisplayName("should move the alias in one step and drop the replaced index")
+        @SuppressWarnings("unchecked")
+        void should_swapAlias_when_rebuildCompletes() throws IOException {
+            // Arrange
+            when(elasticsearchClient.indices()).thenReturn(indicesClient);
+            String index = indexManager.beginRebuild();
+            when(indicesClient.existsAlias(any(Function.class))).thenReturn(new BooleanResponse(true));
+            when(indicesClient.getAlias(any(Function.class))).thenReturn(GetAliasResponse.of(r -> r
+                    .result("documents-1", a -> a.aliases("documents", d -> d))));
+
+            // Act
+            indexManager.completeRebuild(index);
+
+            // Assert
+            ArgumentCaptor<UpdateAliasesRequest> update = ArgumentCaptor.forClass(UpdateAliasesRequest.class);
+            verify(indicesClient).updateAliases(update.capture());
+            assertThat(update.getValue().actions()).extracting(Action::_kind)
+                    .containsExactly(Action.Kind.Remove, Action.Kind.Add);
+            assertThat(update.getValue().actions().get(1).add().index()).isEqualTo(index);
+            verify(indicesClient).delete(any(Function.class));
+            assertThat(writeTargets())
+                    .containsExactly(new DocumentIndexManager.WriteTarget("documents", true));
+        }
+    }
+
+    @Nested
+    @DisplayName("Rebuild batches")
+    class BatchTests {
+
+        @Test
+        @DisplayName("should create documents routed by owner and keep live writes that got there first")
+        void should_reportOnlyRealFailures_when_batchWritten() throws IOException {
+            // Arrange
+            when(elasticsearchClient.bulk(any(BulkRequest.class))).thenReturn(BulkResponse.of(r -> r
+                    .errors(true).took(5).items(List.of(item("1", 201), item("2", 409), item("3", 400)))));
+
+            // Act
+            List<Long> failed = indexManager.writeRebuildBatch("documents-2",
+                    List.of(document(1L), document(2L), document(3L)));
+
+            // Assert
+            assertThat(failed).containsExactly(3L);
+            ArgumentCaptor<BulkRequest> request = ArgumentCaptor.forClass(BulkRequest.class);
+            verify(elasticsearchClient).bulk(request.capture());
+            assertThat(request.getValue().operations())
+                    .allSatisfy(operation -> {
+                        assertThat(operation.isCreate()).isTrue();
+                        assertThat(operation.create().routing()).isEqualTo("alice");
+                    });
+        }
+    }
+}
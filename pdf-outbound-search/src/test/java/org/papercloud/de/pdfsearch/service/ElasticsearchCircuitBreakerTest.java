@@ -0,0 +1,150 @@
+package org.papercloud.de.pdfsearch.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.ErrorResponse;
+import co.elastic.clients.transport.endpoints.BooleanResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.papercloud.de.pdfsearch.config.ElasticsearchClientConfiguration;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for ElasticsearchCircuitBreaker.
+ * Tests when the breaker opens, that it fails fast while open and how it recovers.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ElasticsearchCircuitBreaker")
+class ElasticsearchCircuitBreakerTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(1);
+
+    @Mock
+    private ElasticsearchAsyncClient asyncClient;
+
+    private ElasticsearchCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        ElasticsearchClientConfiguration config = new ElasticsearchClientConfiguration();
+        config.getBreaker().setFailureThreshold(2);
+        circuitBreaker = new ElasticsearchCircuitBreaker(asyncClient, config);
+    }
+
+    private void failConnection() {
+        assertThatThrownBy(() -> circuitBreaker.execute(TIMEOUT,
+                () -> CompletableFuture.failedFuture(new ConnectException("Connection refused"))))
+                .isInstanceOf(ConnectException.class);
+    }
+
+    private static ElasticsearchException responseError(int status) {
+        return new ElasticsearchException("search", ErrorResponse.of(e -> e
+                .status(status)
+                .error(c -> c.type("error").reason("status " + status))));
+    }
+
+    @Test
+    @DisplayName("should open after consecutive connection failures and then fail without sending")
+    void should_failFast_when_thresholdReached() {
+        // Arrange
+        failConnection();
+        failConnection();
+        AtomicInteger sent = new AtomicInteger();
+
+        // Act & Assert
+        assertThat(circuitBreaker.isOpen()).isTrue();
+        assertThatThrownBy(() -> circuitBreaker.execute(TIMEOUT, () -> {
+            sent.incrementAndGet();
+            return CompletableFuture.completedFuture("ok");
+        })).isInstanceOf(SearchUnavailableException.class);
+        assertThat(sent).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("should reset the failure count when a request succeeds")
+    void should_stayClosed_when_failuresAreNotConsecutive() throws IOException {
+        // Arrange
+        failConnection();
+        circuitBreaker.execute(TIMEOUT, () -> CompletableFuture.completedFuture("ok"));
+
+        // Act
+        failConnection();
+
+        // Assert
+        assertThat(circuitBreaker.isOpen()).isFalse();
+    }
+
+    @Test
+    @DisplayName("should count a request that exceeds its timeout as failed and cancel it")
+    void should_cancelRequest_when_timeoutExceeded() {
+        // Arrange
+        CompletableFuture<String> pending = new CompletableFuture<>();
+
+        // Act & Assert
+        assertThatThrownBy(() -> circuitBreaker.execute(Duration.ofMillis(10), () -> pending))
+                .isInstanceOf(SearchUnavailableException.class);
+        assertThat(pending).isCancelled();
+    }
+
+    @Test
+    @DisplayName("should treat client errors as a reachable cluster and overload as a failure")
+    void should_classifyErrorResponses() {
+        // Act & Assert
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> circuitBreaker.execute(TIMEOUT,
+                    () -> CompletableFuture.failedFuture(responseError(404))))
+                    .isInstanceOf(ElasticsearchException.class);
+        }
+        assertThat(circuitBreaker.isOpen()).isFalse();
+
+        assertThatThrownBy(() -> circuitBreaker.call(() -> { throw responseError(503); }))
+                .isInstanceOf(ElasticsearchException.class);
+        assertThatThrownBy(() -> circuitBreaker.call(() -> { throw responseError(429); }))
+                .isInstanceOf(ElasticsearchException.class);
+        assertThat(circuitBreaker.isOpen()).isTrue();
+    }
+
+    @Test
+    @DisplayName("should close again once a background ping succeeds")
+    void should_close_when_probeSucceeds() throws IOException {
+        // Arrange
+        failConnection();
+        failConnection();
+        when(asyncClient.ping()).thenReturn(CompletableFuture.completedFuture(new BooleanResponse(true)));
+
+        // Act
+        circuitBreaker.probe();
+
+        // Assert
+        assertThat(circuitBreaker.isOpen()).isFalse();
+        assertThat(circuitBreaker.execute(TIMEOUT, () -> CompletableFuture.completedFuture("ok"))).isEqualTo("ok");
+    }
+
+    @Test
+    @DisplayName("should stay open while the ping fails")
+    void should_stayOpen_when_probeFails() {
+        // Arrange
+        failConnection();
+        failConnection();
+        when(asyncClient.ping()).thenReturn(CompletableFuture.failedFuture(new ConnectException("Connection refused")));
+
+        // Act
+        circuitBreaker.probe();
+
+        // Assert
+        assertThat(circuitBreaker.isOpen()).isTrue();
+    }
+}
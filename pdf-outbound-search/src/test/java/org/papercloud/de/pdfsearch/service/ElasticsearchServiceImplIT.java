@@ -1,5 +1,6 @@
 package org.papercloud.de.pdfsearch.service;
 
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
 import co.elastic.clients.json.jackson.JacksonJsonpMapper;
 import co.elastic.clients.transport.rest_client.RestClientTransport;
@@ -11,16 +12,24 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.papercloud.de.core.dto.search.IndexableDocumentDTO;
+import org.papercloud.de.core.dto.search.IndexablePageDTO;
+import org.papercloud.de.core.dto.search.SearchHitDTO;
 import org.papercloud.de.core.dto.search.SearchRequestDTO;
 import org.papercloud.de.core.dto.search.SearchResultDTO;
+import org.papercloud.de.core.dto.search.SuggestionDTO;
+import org.papercloud.de.pdfsearch.config.BulkIndexingConfiguration;
+import org.papercloud.de.pdfsearch.config.DocumentIndexConfiguration;
+import org.papercloud.de.pdfsearch.config.ElasticsearchClientConfiguration;
 import org.testcontainers.elasticsearch.ElasticsearchContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @Testcontainers
 @DisplayName("ElasticsearchServiceImpl Integration Tests")
@@ -33,6 +42,8 @@ class ElasticsearchServiceImplIT {
      .withEnv("discovery.type", "single-node");
 
     private ElasticsearchClient esClient;
+    private DocumentIndexManager indexManager;
+    private BulkIndexer bulkIndexer;
     private ElasticsearchServiceImpl searchService;
 
     @BeforeEach
@@ -42,16 +53,24 @@ class ElasticsearchServiceImplIT {
         ).build();
         RestClientTransport transport = new RestClientTransport(restClient, new JacksonJsonpMapper());
         esClient = new ElasticsearchClient(transport);
-
-        searchService = new ElasticsearchServiceImpl(esClient);
+        ElasticsearchAsyncClient asyncClient = new ElasticsearchAsyncClient(transport);
+        ElasticsearchClientConfiguration clientConfiguration = new ElasticsearchClientConfiguration();
+        ElasticsearchCircuitBreaker circuitBreaker = new ElasticsearchCircuitBreaker(asyncClient, clientConfiguration);
+
+        DocumentIndexConfiguration indexConfiguration = new DocumentIndexConfiguration();
+        indexConfiguration.setReplicas(0);
+        indexManager = new DocumentIndexManager(esClient, indexConfiguration);
+        bulkIndexer = new BulkIndexer(esClient, new BulkIndexingConfiguration(), event -> { }, indexManager,
+                circuitBreaker);
+        searchService = new ElasticsearchServiceImpl(asyncClient, circuitBreaker, bulkIndexer, indexManager,
+                indexConfiguration, clientConfiguration);
         searchService.createIndexIfNotExists();
     }
 
     @AfterEach
     void tearDown() throws IOException {
-        boolean exists = esClient.indices().exists(e -> e.index("documents")).value();
-        if (exists) {
-            esClient.indices().delete(d -> d.index("documents"));
+        for (String index : esClient.indices().get(g -> g.index("documents*")).result().keySet()) {
+            esClient.indices().delete(d -> d.index(index));
         }
     }
 
@@ -69,6 +88,7 @@ class ElasticsearchServiceImplIT {
                 .build();
 
         searchService.indexDocument(doc);
+        bulkIndexer.flush();
         esClient.indices().refresh(r -> r.index("documents"));
 
         SearchRequestDTO request = SearchRequestDTO.builder()
@@ -102,6 +122,7 @@ class ElasticsearchServiceImplIT {
 
         searchService.indexDocument(aliceDoc);
         searchService.indexDocument(bobDoc);
+        bulkIndexer.flush();
         esClient.indices().refresh(r -> r.index("documents"));
 
         SearchRequestDTO request = SearchRequestDTO.builder()
@@ -132,6 +153,7 @@ class ElasticsearchServiceImplIT {
 
         searchService.indexDocument(lessRelevant);
         searchService.indexDocument(moreRelevant);
+        bulkIndexer.flush();
         esClient.indices().refresh(r -> r.index("documents"));
 
         SearchRequestDTO request = SearchRequestDTO.builder()
@@ -157,6 +179,7 @@ class ElasticsearchServiceImplIT {
                 .username("alice").build();
 
         searchService.indexDocument(doc);
+        bulkIndexer.flush();
         esClient.indices().refresh(r -> r.index("documents"));
 
         SearchRequestDTO request = SearchRequestDTO.builder()
@@ -180,9 +203,11 @@ class ElasticsearchServiceImplIT {
                 .username("alice").build();
 
         searchService.indexDocument(doc);
+        bulkIndexer.flush();
         esClient.indices().refresh(r -> r.index("documents"));
 
-        searchService.deleteDocument(1L);
+        searchService.deleteDocument(1L, "alice");
+        bulkIndexer.flush();
         esClient.indices().refresh(r -> r.index("documents"));
 
         SearchRequestDTO request = SearchRequestDTO.builder()
@@ -213,6 +238,7 @@ class ElasticsearchServiceImplIT {
                 .username("alice").build();
 
         searchService.indexDocument(updated);
+        bulkIndexer.flush();
         esClient.indices().refresh(r -> r.index("documents"));
 
         SearchRequestDTO request = SearchRequestDTO.builder()
@@ -225,4 +251,144 @@ class ElasticsearchServiceImplIT {
         assertThat(result.getTotalHits()).isEqualTo(1);
         assertThat(result.getHits().get(0).getDocumentName()).isEqualTo("Updated Title");
     }
+
+    @Test
+    @DisplayName("should highlight the matching page and report its number")
+    void should_highlightMatchingPage() throws IOException {
+        IndexableDocumentDTO doc = IndexableDocumentDTO.builder()
+                .id(1L).fileName("Lease").contentType("application/pdf")
+                .tags(List.of()).year(2024)
+                .fullText("Parties and premises\nThe rent is due on the third working day")
+                .pages(List.of(
+                        new IndexablePageDTO(1, "Parties and premises"),
+                        new IndexablePageDTO(2, "The rent is due on the third working day")))
+                .username("alice").build();
+
+        searchService.indexDocument(doc);
+        bulkIndexer.flush();
+        esClient.indices().refresh(r -> r.index("documents"));
+
+        SearchResultDTO result = searchService.search(SearchRequestDTO.builder()
+                .query("rent")
+                .username("alice")
+                .page(0).size(10).build());
+
+        assertThat(result.getHits()).singleElement().satisfies(hit -> {
+            assertThat(hit.getPageNumber()).isEqualTo(2);
+            assertThat(hit.getTextSnippet()).contains("<em>rent</em>");
+        });
+    }
+
+    @Test
+    @DisplayName("should page through all matches with cursors without repeating a hit")
+    void should_pageWithCursors() throws IOException {
+        for (long id = 1; id <= 7; id++) {
+            searchService.indexDocument(IndexableDocumentDTO.builder()
+                    .id(id).fileName("Receipt " + id).contentType("application/pdf")
+                    .tags(List.of()).year(2024).fullText("receipt number " + id)
+                    .username("alice").build());
+        }
+        bulkIndexer.flush();
+        esClient.indices().refresh(r -> r.index("documents"));
+
+        List<String> seen = new ArrayList<>();
+        SearchResultDTO result = searchService.search(SearchRequestDTO.builder()
+                .query("receipt").username("alice").page(0).size(3).withCursor(true).build());
+        result.getHits().forEach(hit -> seen.add(hit.getDocumentId()));
+        while (result.getNextCursor() != null) {
+            result = searchService.search(SearchRequestDTO.builder()
+                    .query("receipt").username("alice").size(3).cursor(result.getNextCursor()).build());
+            result.getHits().forEach(hit -> seen.add(hit.getDocumentId()));
+        }
+
+        assertThat(seen).hasSize(7).doesNotHaveDuplicates();
+        assertThat(result.getTotalHits()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("should suggest titles and tags of the user's documents by word prefix")
+    void should_suggestByPrefix() throws IOException {
+        searchService.indexDocument(IndexableDocumentDTO.builder()
+                .id(1L).fileName("Annual Tax Report").contentType("application/pdf")
+                .tags(List.of("taxes", "finance")).year(2024).fullText("")
+                .username("alice").build());
+        searchService.indexDocument(IndexableDocumentDTO.builder()
+                .id(2L).fileName("Tax Notice").contentType("application/pdf")
+                .tags(List.of()).year(2024).fullText("")
+                .username("bob").build());
+        bulkIndexer.flush();
+        esClient.indices().refresh(r -> r.index("documents"));
+
+        List<SuggestionDTO> suggestions = searchService.suggest("alice", "annual ta", 5);
+
+        assertThat(suggestions)
+                .extracting(SuggestionDTO::getKind, SuggestionDTO::getText)
+                .containsExactly(
+                        tuple(SuggestionDTO.Kind.DOCUMENT, "Annual Tax Report"),
+                        tuple(SuggestionDTO.Kind.TAG, "taxes"));
+    }
+
+    @Test
+    @DisplayName("should suggest titles with umlauts for a prefix typed with umlauts")
+    void should_suggestByUmlautPrefix() throws IOException {
+        searchService.indexDocument(IndexableDocumentDTO.builder()
+                .id(1L).fileName("Müller Straße Mietvertrag").contentType("application/pdf")
+                .tags(List.of()).year(2024).fullText("")
+                .username("alice").build());
+        bulkIndexer.flush();
+        esClient.indices().refresh(r -> r.index("documents"));
+
+        assertThat(searchService.suggest("alice", "mü", 5))
+                .extracting(SuggestionDTO::getText).containsExactly("Müller Straße Mietvertrag");
+        assertThat(searchService.suggest("alice", "straß", 5))
+                .extracting(SuggestionDTO::getText).containsExactly("Müller Straße Mietvertrag");
+    }
+
+    @Test
+    @DisplayName("should move a legacy index behind the alias without losing documents")
+    void should_migrateLegacyIndex() throws Exception {
+        // Recreate the pre-routing layout: a concrete index named like the alias
+        for (String index : esClient.indices().get(g -> g.index("documents*")).result().keySet()) {
+            esClient.indices().delete(d -> d.index(index));
+        }
+        esClient.indices().create(c -> c.index("documents"));
+        esClient.index(i -> i.index("documents").id("1").document(IndexableDocumentDTO.builder()
+                .id(1L).fileName("Legacy").tags(List.of()).year(2020)
+                .fullText("legacy invoice").username("alice").build()));
+        esClient.indices().refresh(r -> r.index("documents"));
+
+        DocumentIndexConfiguration indexConfiguration = new DocumentIndexConfiguration();
+        indexConfiguration.setReplicas(0);
+        indexConfiguration.setMigrateLegacyIndex(false);
+        indexConfiguration.setMigrationPollIntervalMs(100);
+        indexManager = new DocumentIndexManager(esClient, indexConfiguration);
+        indexManager.initialize();
+        assertThat(indexManager.isRouted()).isFalse();
+
+        indexManager.migrateLegacyIndex();
+
+        assertThat(indexManager.isRouted()).isTrue();
+        assertThat(esClient.indices().existsAlias(a -> a.name("documents")).value()).isTrue();
+        esClient.indices().refresh(r -> r.index("documents"));
+        long count = esClient.count(c -> c.index("documents").routing("alice")).count();
+        assertThat(count).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should serve searches from the rebuilt index after the alias swap")
+    void should_replaceIndex_when_rebuildCompletes() throws Exception {
+        String index = indexManager.beginRebuild();
+        List<Long> failed = indexManager.writeRebuildBatch(index, List.of(IndexableDocumentDTO.builder()
+                .id(5L).fileName("Rebuilt").tags(List.of()).year(2024)
+                .fullText("rebuilt contract").username("alice").build()));
+
+        indexManager.completeRebuild(index);
+        esClient.indices().refresh(r -> r.index("documents"));
+
+        assertThat(failed).isEmpty();
+        assertThat(esClient.indices().get(g -> g.index("documents*")).result().keySet()).containsExactly(index);
+        SearchResultDTO result = searchService.search(SearchRequestDTO.builder()
+                .query("contract").username("alice").page(0).size(10).build());
+        assertThat(result.getHits()).extracting(SearchHitDTO::getDocumentId).containsExactly("5");
+    }
 }
@@ -0,0 +1,574 @@
+package org.papercloud.de.pdfsearch.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.ErrorResponse;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.aggregations.HistogramBucket;
+import co.elastic.clients.elasticsearch._types.aggregations.StringTermsBucket;
+import co.elastic.clients.elasticsearch.core.ClosePointInTimeResponse;
+import co.elastic.clients.elasticsearch.core.OpenPointInTimeRequest;
+import co.elastic.clients.elasticsearch.core.OpenPointInTimeResponse;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.elasticsearch.core.search.TotalHitsRelation;
+import co.elastic.clients.json.JsonData;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.util.ObjectBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.papercloud.de.core.dto.search.FacetBucketDTO;
+import org.papercloud.de.core.dto.search.IndexableDocumentDTO;
+import org.papercloud.de.core.dto.search.SearchHitDTO;
+import org.papercloud.de.core.dto.search.SearchRequestDTO;
+import org.papercloud.de.core.dto.search.SearchResultDTO;
+import org.papercloud.de.core.dto.search.SuggestionDTO;
+import org.papercloud.de.pdfsearch.config.DocumentIndexConfiguration;
+import org.papercloud.de.pdfsearch.config.ElasticsearchClientConfiguration;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for ElasticsearchServiceImpl.
+ * Tests source filtering, the mapping of page inner hits to snippets and cursor paging.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ElasticsearchServiceImpl")
+class ElasticsearchServiceImplTest {
+
+    @Mock
+    private ElasticsearchAsyncClient asyncClient;
+
+    @Mock
+    private BulkIndexer bulkIndexer;
+
+    @Mock
+    private DocumentIndexManager indexManager;
+
+    private ElasticsearchServiceImpl searchService;
+
+    @BeforeEach
+    void setUp() {
+        ElasticsearchClientConfiguration clientConfig = new ElasticsearchClientConfiguration();
+        searchService = new ElasticsearchServiceImpl(asyncClient, new ElasticsearchCircuitBreaker(asyncClient, clientConfig),
+                bulkIndexer, indexManager, new DocumentIndexConfiguration(), clientConfig);
+    }
+
+    private static SearchRequestDTO request() {
+        return SearchRequestDTO.builder().query("tax").username("alice").page(0).size(10).build();
+    }
+
+    private static SearchResponse<IndexableDocumentDTO> pitResponse(long total, List<Hit<IndexableDocumentDTO>> hits) {
+        return SearchResponse.of(r -> r
+                .took(1)
+                .timedOut(false)
+                .pitId("pit-2")
+                .shards(s -> s.total(1).successful(1).failed(0))
+                .hits(h -> h.total(t -> t.value(total).relation(TotalHitsRelation.Eq)).hits(hits)));
+    }
+
+    private static Hit<IndexableDocumentDTO> sortedHit(String id, double score, long shardDoc) {
+        IndexableDocumentDTO source = IndexableDocumentDTO.builder().id(Long.parseLong(id)).fileName("Doc " + id).build();
+        return Hit.of(h -> h.index("documents").id(id).score(score).source(source)
+                .sort(FieldValue.of(score), FieldValue.of(shardDoc)));
+    }
+
+    @SafeVarargs
+    private static SearchResponse<IndexableDocumentDTO> response(Hit<IndexableDocumentDTO>... hits) {
+        return SearchResponse.of(r -> r
+                .took(1)
+                .timedOut(false)
+                .shards(s -> s.total(1).successful(1).failed(0))
+                .hits(h -> h.total(t -> t.value(hits.length).relation(TotalHitsRelation.Eq)).hits(List.of(hits))));
+    }
+
+    private static IndexableDocumentDTO source() {
+        return IndexableDocumentDTO.builder().id(7L).fileName("Tax Report").build();
+    }
+
+    @Test
+    @DisplayName("should return the highlighted fragment and page number of the best page")
+    @SuppressWarnings("unchecked")
+    void should_mapPageInnerHit_when_pageMatched() throws IOException {
+        // Arrange
+        Hit<JsonData> pageHit = Hit.of(h -> h
+                .index("documents")
+                .id("7")
+                .source(JsonData.of(Map.of("pageNumber", 3), new JacksonJsonpMapper()))
+                .highlight("pages.text", List.of("the yearly <em>tax</em> report")));
+        Hit<IndexableDocumentDTO> hit = Hit.of(h -> h
+                .index("documents")
+                .id("7")
+                .score(2.5)
+                .source(source())
+                .innerHits("pages", ih -> ih.hits(hm -> hm.hits(List.of(pageHit)))));
+        when(asyncClient.search(any(Function.class), eq(IndexableDocumentDTO.class)))
+                .thenReturn(CompletableFuture.completedFuture(response(hit)));
+
+        // Act
+        SearchResultDTO result = searchService.search(request());
+
+        // Assert
+        assertThat(result.getHits()).singleElement().satisfies(searchHit -> {
+            assertThat(searchHit.getDocumentId()).isEqualTo("7");
+            assertThat(searchHit.getPageNumber()).isEqualTo(3);
+            assertThat(searchHit.getTextSnippet()).isEqualTo("the yearly <em>tax</em> report");
+            assertThat(searchHit.getScore()).isEqualTo(2.5);
+        });
+    }
+
+    @Test
+    @DisplayName("should fall back to an empty snippet when no page matched")
+    @SuppressWarnings("unchecked")
+    void should_returnEmptySnippet_when_noInnerHit() throws IOException {
+        // Arrange
+        Hit<IndexableDocumentDTO> hit = Hit.of(h -> h.index("documents").id("7").score(1.0).source(source()));
+        when(asyncClient.search(any(Function.class), eq(IndexableDocumentDTO.class)))
+                .thenReturn(CompletableFuture.completedFuture(response(hit)));
+
+        // Act
+        SearchHitDTO searchHit = searchService.search(request()).getHits().get(0);
+
+        // Assert
+        assertThat(searchHit.getPageNumber()).isZero();
+        assertThat(searchHit.getTextSnippet()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should exclude the text fields from _source")
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void should_excludeTextFromSource_when_searching() throws IOException {
+        // Arrange
+        Hit<IndexableDocumentDTO> hit = Hit.of(h -> h.index("documents").id("7").score(1.0).source(source()));
+        ArgumentCaptor<Function> requestFn = ArgumentCaptor.forClass(Function.class);
+        when(asyncClient.search(requestFn.capture(), eq(IndexableDocumentDTO.class)))
+                .thenReturn(CompletableFuture.completedFuture(response(hit)));
+
+        // Act
+        searchService.search(request());
+
+        // Assert
+        SearchRequest request = ((ObjectBuilder<SearchRequest>) requestFn.getValue()
+                .apply(new SearchRequest.Builder())).build();
+        assertThat(request.source().filter().excludes()).containsExactlyInAnyOrder("fullText", "pages");
+        verify(asyncClient).search(any(Function.class), eq(IndexableDocumentDTO.class));
+    }
+
+    @Test
+    @DisplayName("should route the search to the user's shards once the index is routed")
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void should_routeByUsername_when_indexRouted() throws IOException {
+        // Arrange
+        when(indexManager.isRouted()).thenReturn(true);
+        Hit<IndexableDocumentDTO> hit = Hit.of(h -> h.index("documents").id("7").score(1.0).source(source()));
+        ArgumentCaptor<Function> requestFn = ArgumentCaptor.forClass(Function.class);
+        when(asyncClient.search(requestFn.capture(), eq(IndexableDocumentDTO.class)))
+                .thenReturn(CompletableFuture.completedFuture(response(hit)));
+
+        // Act
+        searchService.search(request());
+
+        // Assert
+        SearchRequest request = ((ObjectBuilder<SearchRequest>) requestFn.getValue()
+                .apply(new SearchRequest.Builder())).build();
+        assertThat(request.routing()).isEqualTo("alice");
+    }
+
+    @Test
+    @DisplayName("should not route searches against a legacy index")
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void should_notRoute_when_legacyIndex() throws IOException {
+        // Arrange
+        when(indexManager.isRouted()).thenReturn(false);
+        Hit<IndexableDocumentDTO> hit = Hit.of(h -> h.index("documents").id("7").score(1.0).source(source()));
+        ArgumentCaptor<Function> requestFn = ArgumentCaptor.forClass(Function.class);
+        when(asyncClient.search(requestFn.capture(), eq(IndexableDocumentDTO.class)))
+                .thenReturn(CompletableFuture.completedFuture(response(hit)));
+
+        // Act
+        searchService.search(request());
+
+        // Assert
+        SearchRequest request = ((ObjectBuilder<SearchRequest>) requestFn.getValue()
+                .apply(new SearchRequest.Builder())).build();
+        assertThat(request.routing()).isNull();
+    }
+    @Test
+    @DisplayName("should apply tag and year filters as non-scoring filter clauses")
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void should_addFilterClauses_when_tagsAndYearGiven() throws IOException {
+        // Arrange
+        Hit<IndexableDocumentDTO> hit = Hit.of(h -> h.index("documents").id("7").score(1.0).source(source()));
+        ArgumentCaptor<Function> requestFn = ArgumentCaptor.forClass(Function.class);
+        when(asyncClient.search(requestFn.capture(), eq(IndexableDocumentDTO.class)))
+                .thenReturn(CompletableFuture.completedFuture(response(hit)));
+        SearchRequestDTO searchRequest = request();
+        searchRequest.setTags(List.of("tax", "invoice"));
+        searchRequest.setYear(2023);
+
+        // Act
+        searchService.search(searchRequest);
+
+        // Assert
+        SearchRequest request = ((ObjectBuilder<SearchRequest>) requestFn.getValue()
+                .apply(new SearchRequest.Builder())).build();
+        assertThat(request.query().bool().filter())
+                .extracting(query -> query.term().field() + "=" + query.term().value()._toJsonString())
+                .containsExactly("username=alice", "tags=tax", "tags=invoice", "year=2023");
+        assertThat(request.aggregations()).containsOnlyKeys("tags", "years");
+        assertThat(request.aggregations().get("years").histogram().interval()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("should return the tag and year buckets of all matches")
+    @SuppressWarnings("unchecked")
+    void should_mapFacets_when_aggregationsReturned() throws IOException {
+        // Arrange
+        Hit<IndexableDocumentDTO> hit = Hit.of(h -> h.index("documents").id("7").score(1.0).source(source()));
+        SearchResponse<IndexableDocumentDTO> response = SearchResponse.of(r -> r
+                .took(1)
+                .timedOut(false)
+                .shards(s -> s.total(1).successful(1).failed(0))
+                .hits(h -> h.total(t -> t.value(1).relation(TotalHitsRelation.Eq)).hits(List.of(hit)))
+                .aggregations("tags", a -> a.sterms(t -> t
+                        .sumOtherDocCount(0L)
+                        .buckets(b -> b.array(List.of(
+                                StringTermsBucket.of(tb -> tb.key("tax").docCount(5)),
+                                StringTermsBucket.of(tb -> tb.key("invoice").docCount(2)))))))
+                .aggregations("years", a -> a.histogram(y -> y
+                        .buckets(b -> b.array(List.of(
+                                HistogramBucket.of(yb -> yb.key(2022.0).docCount(1)),
+                                HistogramBucket.of(yb -> yb.key(2023.0).docCount(6))))))));
+        when(asyncClient.search(any(Function.class), eq(IndexableDocumentDTO.class)))
+                .thenReturn(CompletableFuture.completedFuture(response));
+
+        // Act
+        SearchResultDTO result = searchService.search(request());
+
+        // Assert
+        assertThat(result.getTagFacets())
+                .extracting(FacetBucketDTO::getValue, FacetBucketDTO::getCount)
+                .containsExactly(tuple("tax", 5L), tuple("invoice", 2L));
+        assertThat(result.getYearFacets())
+                .extracting(FacetBucketDTO::getValue, FacetBucketDTO::getCount)
+                .containsExactly(tuple("2022", 1L), tuple("2023", 6L));
+    }
+    @Test
+    @DisplayName("should suggest titles and matching tags from the autocomplete fields only")
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void should_suggestTitlesAndTags_when_prefixTyped() throws IOException {
+        // Arrange
+        when(indexManager.isRouted()).thenReturn(true);
+        IndexableDocumentDTO taxReport = IndexableDocumentDTO.builder()
+                .fileName("Tax Report").tags(List.of("taxes 2023", "finance")).build();
+        Hit<IndexableDocumentDTO> hit = Hit.of(h -> h.index("documents").id("7").score(1.0).source(taxReport));
+        ArgumentCaptor<Function> requestFn = ArgumentCaptor.forClass(Function.class);
+        when(asyncClient.search(requestFn.capture(), eq(IndexableDocumentDTO.class)))
+                .thenReturn(CompletableFuture.completedFuture(response(hit)));
+
+        // Act
+        List<SuggestionDTO> suggestions = searchService.suggest("alice", "ta", 5);
+
+        // Assert
+        assertThat(suggestions)
+                .extracting(SuggestionDTO::getKind, SuggestionDTO::getText, SuggestionDTO::getDocumentId)
+                .containsExactly(
+                        tuple(SuggestionDTO.Kind.DOCUMENT, "Tax Report", 7L),
+                        tuple(SuggestionDTO.Kind.TAG, "taxes 2023", null));
+        SearchRequest request = ((ObjectBuilder<SearchRequest>) requestFn.getValue()
+                .apply(new SearchRequest.Builder())).build();
+        assertThat(request.routing()).isEqualTo("alice");
+        assertThat(request.source().filter().includes()).containsExactlyInAnyOrder("fileName", "tags");
+        assertThat(request.query().bool().must().get(0).multiMatch().fields())
+                .containsExactly("fileName.autocomplete", "tags.autocomplete");
+        assertThat(request.query().bool().filter().get(0).term().value().stringValue()).isEqualTo("alice");
+    }
+
+    @Test
+    @DisplayName("should return at most size suggestions across documents and tags")
+    @SuppressWarnings("unchecked")
+    void should_capMergedSuggestions_when_documentsAndTagsMatch() throws IOException {
+        // Arrange
+        when(indexManager.isRouted()).thenReturn(true);
+        Hit<IndexableDocumentDTO> first = Hit.of(h -> h.index("documents").id("1").score(2.0)
+                .source(IndexableDocumentDTO.builder().fileName("Tax 2022").tags(List.of("tax", "taxes")).build()));
+        Hit<IndexableDocumentDTO> second = Hit.of(h -> h.index("documents").id("2").score(1.0)
+                .source(IndexableDocumentDTO.builder().fileName("Tax 2023").tags(List.of("tax office")).build()));
+        when(asyncClient.search(any(Function.class), eq(IndexableDocumentDTO.class)))
+                .thenReturn(CompletableFuture.completedFuture(response(first, second)));
+
+        // Act
+        List<SuggestionDTO> suggestions = searchService.suggest("alice", "tax", 3);
+
+        // Assert
+        assertThat(suggestions)
+                .extracting(SuggestionDTO::getKind, SuggestionDTO::getText)
+                .containsExactly(
+                        tuple(SuggestionDTO.Kind.DOCUMENT, "Tax 2022"),
+                        tuple(SuggestionDTO.Kind.DOCUMENT, "Tax 2023"),
+                        tuple(SuggestionDTO.Kind.TAG, "tax"));
+    }
+
+    @Test
+    @DisplayName("should suggest tags with umlauts for a prefix typed with or without them")
+    @SuppressWarnings("unchecked")
+    void should_suggestTag_when_prefixHasUmlaut() throws IOException {
+        // Arrange
+        when(indexManager.isRouted()).thenReturn(true);
+        IndexableDocumentDTO letter = IndexableDocumentDTO.builder()
+                .fileName("Brief").tags(List.of("Müller", "Straße")).build();
+        Hit<IndexableDocumentDTO> hit = Hit.of(h -> h.index("documents").id("3").score(1.0).source(letter));
+        when(asyncClient.search(any(Function.class), eq(IndexableDocumentDTO.class)))
+                .thenReturn(CompletableFuture.completedFuture(response(hit)));
+
+        // Act & Assert
+        assertThat(searchService.suggest("alice", "mü", 5)).extracting(SuggestionDTO::getText).contains("Müller");
+        assertThat(searchService.suggest("alice", "mu", 5)).extracting(SuggestionDTO::getText).contains("Müller");
+        assertThat(searchService.suggest("alice", "strass", 5)).extracting(SuggestionDTO::getText).contains("Straße");
+    }
+
+    @Test
+    @DisplayName("should not query the index for a prefix shorter than the smallest n-gram")
+    void should_returnNothing_when_prefixTooShort() {
+        // Act
+        List<SuggestionDTO> suggestions = searchService.suggest("alice", " t ", 5);
+
+        // Assert
+        assertThat(suggestions).isEmpty();
+        verifyNoInteractions(asyncClient);
+    }
+
+    @Test
+    @DisplayName("should read the first page from a point in time and return a cursor when more hits follow")
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void should_returnCursor_when_moreHitsFollow() throws IOException {
+        // Arrange
+        when(indexManager.isRouted()).thenReturn(true);
+        ArgumentCaptor<Function> requestFn = ArgumentCaptor.forClass(Function.class);
+        when(asyncClient.search(requestFn.capture(), eq(IndexableDocumentDTO.class)))
+                .thenReturn(CompletableFuture.completedFuture(pitResponse(3, List.of(sortedHit("7", 2.0, 11)))));
+        ArgumentCaptor<Function> pitFn = ArgumentCaptor.forClass(Function.class);
+        when(asyncClient.openPointInTime(pitFn.capture()))
+                .thenReturn(CompletableFuture.completedFuture(OpenPointInTimeResponse.of(r -> r.id("pit-1"))));
+        SearchRequestDTO searchRequest = request();
+        searchRequest.setSize(1);
+        searchRequest.setWithCursor(true);
+
+        // Act
+        SearchResultDTO result = searchService.search(searchRequest);
+
+        // Assert
+        OpenPointInTimeRequest pitRequest = ((ObjectBuilder<OpenPointInTimeRequest>) pitFn.getValue()
+                .apply(new OpenPointInTimeRequest.Builder())).build();
+        assertThat(pitRequest.routing()).isEqualTo("alice");
+        assertThat(pitRequest.keepAlive().time()).isEqualTo("300s");
+        SearchRequest request = ((ObjectBuilder<SearchRequest>) requestFn.getValue()
+                .apply(new SearchRequest.Builder())).build();
+        assertThat(request.pit().id()).isEqualTo("pit-1");
+        assertThat(request.index()).isEmpty();
+        assertThat(request.trackTotalHits().enabled()).isTrue();
+        assertThat(request.sort()).hasSize(2);
+        assertThat(request.aggregations()).containsKeys("tags", "years");
+        SearchCursor cursor = SearchCursor.decode(result.getNextCursor(),
+                SearchCursor.criteria("tax", null, null));
+        assertThat(cursor.pitId()).isEqualTo("pit-2");
+        assertThat(cursor.page()).isEqualTo(1);
+        assertThat(cursor.searchAfter()).extracting(FieldValue::_get).containsExactly(2.0, 11L);
+        assertThat(cursor.totalHits()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("should continue after the last tied hit of the first page in the same order")
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void should_continueAfterTiedHit_when_scoresEqual() throws IOException {
+        // Arrange - all three hits score the same, so only _shard_doc orders them
+        ArgumentCaptor<Function> requestFn = ArgumentCaptor.forClass(Function.class);
+        when(asyncClient.search(requestFn.capture(), eq(IndexableDocumentDTO.class)))
+                .thenReturn(CompletableFuture.completedFuture(
+                        pitResponse(3, List.of(sortedHit("7", 1.0, 11), sortedHit("8", 1.0, 12)))))
+                .thenReturn(CompletableFuture.completedFuture(pitResponse(0, List.of(sortedHit("9", 1.0, 13)))));
+        when(asyncClient.openPointInTime(any(Function.class)))
+                .thenReturn(CompletableFuture.completedFuture(OpenPointInTimeResponse.of(r -> r.id("pit-1"))));
+        when(asyncClient.closePointInTime(any(Function.class)))
+                .thenReturn(CompletableFuture.completedFuture(
+                        ClosePointInTimeResponse.of(r -> r.succeeded(true).numFreed(1))));
+        SearchRequestDTO firstRequest = request();
+        firstRequest.setSize(2);
+        firstRequest.setWithCursor(true);
+
+        // Act
+        SearchResultDTO first = searchService.search(firstRequest);
+        SearchRequestDTO secondRequest = request();
+        secondRequest.setSize(2);
+        secondRequest.setCursor(first.getNextCursor());
+        SearchResultDTO second = searchService.search(secondRequest);
+
+        // Assert
+        List<SearchRequest> requests = requestFn.getAllValues().stream()
+                .map(fn -> ((ObjectBuilder<SearchRequest>) fn.apply(new SearchRequest.Builder())).build())
+                .toList();
+        assertThat(requests.get(0).pit().id()).isEqualTo("pit-1");
+        assertThat(requests.get(1).pit().id()).isEqualTo("pit-2");
+        assertThat(requests.get(1).sort()).usingRecursiveComparison().isEqualTo(requests.get(0).sort());
+        assertThat(requests.get(1).from()).isNull();
+        assertThat(requests.get(1).searchAfter()).extracting(FieldValue::_get).containsExactly(1.0, 12L);
+        assertThat(first.getHits()).extracting(SearchHitDTO::getDocumentId).containsExactly("7", "8");
+        assertThat(second.getHits()).extracting(SearchHitDTO::getDocumentId).containsExactly("9");
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("should close the point in time when the first page holds all hits")
+    @SuppressWarnings("unchecked")
+    void should_notReturnCursor_when_lastPage() throws IOException {
+        // Arrange
+        when(asyncClient.search(any(Function.class), eq(IndexableDocumentDTO.class)))
+                .thenReturn(CompletableFuture.completedFuture(pitResponse(1, List.of(sortedHit("7", 1.0, 11)))));
+        when(asyncClient.openPointInTime(any(Function.class)))
+                .thenReturn(CompletableFuture.completedFuture(OpenPointInTimeResponse.of(r -> r.id("pit-1"))));
+        when(asyncClient.closePointInTime(any(Function.class)))
+                .thenReturn(CompletableFuture.completedFuture(
+                        ClosePointInTimeResponse.of(r -> r.succeeded(true).numFreed(1))));
+        SearchRequestDTO searchRequest = request();
+        searchRequest.setWithCursor(true);
+
+        // Act
+        SearchResultDTO result = searchService.search(searchRequest);
+
+        // Assert
+        assertThat(result.getNextCursor()).isNull();
+        verify(asyncClient).closePointInTime(any(Function.class));
+    }
+
+    @Test
+    @DisplayName("should search the live index without a point in time when no cursor is asked for")
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void should_notOpenPointInTime_when_noCursorWanted() throws IOException {
+        // Arrange
+        ArgumentCaptor<Function> requestFn = ArgumentCaptor.forClass(Function.class);
+        when(asyncClient.search(requestFn.capture(), eq(IndexableDocumentDTO.class)))
+                .thenReturn(CompletableFuture.completedFuture(pitResponse(3, List.of(sortedHit("7", 2.0, 11)))));
+        SearchRequestDTO searchRequest = request();
+        searchRequest.setSize(1);
+
+        // Act
+        SearchResultDTO result = searchService.search(searchRequest);
+
+        // Assert
+        SearchRequest request = ((ObjectBuilder<SearchRequest>) requestFn.getValue()
+                .apply(new SearchRequest.Builder())).build();
+        assertThat(request.index()).containsExactly("documents");
+        assertThat(request.pit()).isNull();
+        assertThat(result.getNextCursor()).isNull();
+        verify(asyncClient, never()).openPointInTime(any(Function.class));
+    }
+
+    @Test
+    @DisplayName("should read the next page from the point in time after the cursor's sort values")
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void should_searchAfter_when_cursorGiven() throws IOException {
+        // Arrange
+        ArgumentCaptor<Function> requestFn = ArgumentCaptor.forClass(Function.class);
+        when(asyncClient.search(requestFn.capture(), eq(IndexableDocumentDTO.class)))
+                .thenReturn(CompletableFuture.completedFuture(pitResponse(0, List.of(sortedHit("8", 1.5, 12)))));
+        SearchRequestDTO searchRequest = request();
+        searchRequest.setSize(1);
+        searchRequest.setCursor(new SearchCursor("pit-1", 2, List.of(2.0, 11L), 3,
+                SearchCursor.criteria("tax", null, null)).encode());
+
+        // Act
+        SearchResultDTO result = searchService.search(searchRequest);
+
+        // Assert
+        SearchRequest request = ((ObjectBuilder<SearchRequest>) requestFn.getValue()
+                .apply(new SearchRequest.Builder())).build();
+        assertThat(request.pit().id()).isEqualTo("pit-1");
+        assertThat(request.index()).isEmpty();
+        assertThat(request.routing()).isNull();
+        assertThat(request.searchAfter()).extracting(FieldValue::_get).containsExactly(2.0, 11L);
+        assertThat(request.trackTotalHits().enabled()).isFalse();
+        assertThat(request.aggregations()).isEmpty();
+        assertThat(result.getHits()).hasSize(1);
+        assertThat(result.getCurrentPage()).isEqualTo(2);
+        assertThat(result.getTotalHits()).isEqualTo(3);
+        SearchCursor next = SearchCursor.decode(result.getNextCursor(), SearchCursor.criteria("tax", null, null));
+        assertThat(next.pitId()).isEqualTo("pit-2");
+        assertThat(next.searchAfter()).extracting(FieldValue::_get).containsExactly(1.5, 12L);
+    }
+
+    @Test
+    @DisplayName("should close the point in time once the last page has been read")
+    @SuppressWarnings("unchecked")
+    void should_closePointInTime_when_cursorExhausted() throws IOException {
+        // Arrange
+        when(asyncClient.search(any(Function.class), eq(IndexableDocumentDTO.class)))
+                .thenReturn(CompletableFuture.completedFuture(pitResponse(0, List.of())));
+        when(asyncClient.closePointInTime(any(Function.class)))
+                .thenReturn(CompletableFuture.completedFuture(
+                        ClosePointInTimeResponse.of(r -> r.succeeded(true).numFreed(1))));
+        SearchRequestDTO searchRequest = request();
+        searchRequest.setCursor(new SearchCursor("pit-1", 1, List.of(1.0, 5L), 10,
+                SearchCursor.criteria("tax", null, null)).encode());
+
+        // Act
+        SearchResultDTO result = searchService.search(searchRequest);
+
+        // Assert
+        assertThat(result.getHits()).isEmpty();
+        assertThat(result.getNextCursor()).isNull();
+        verify(asyncClient).closePointInTime(any(Function.class));
+    }
+
+    @Test
+    @DisplayName("should reject a cursor that belongs to another query")
+    void should_rejectCursor_when_queryChanged() {
+        // Arrange
+        SearchRequestDTO searchRequest = request();
+        searchRequest.setCursor(new SearchCursor("pit-1", 1, List.of(1.0, 5L), 10,
+                SearchCursor.criteria("invoice", null, null)).encode());
+
+        // Act & Assert
+        assertThatThrownBy(() -> searchService.search(searchRequest))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(asyncClient);
+    }
+
+    @Test
+    @DisplayName("should report an expired point in time as an invalid cursor")
+    @SuppressWarnings("unchecked")
+    void should_rejectCursor_when_pointInTimeExpired() throws IOException {
+        // Arrange
+        when(asyncClient.search(any(Function.class), eq(IndexableDocumentDTO.class)))
+                .thenReturn(CompletableFuture.failedFuture(new ElasticsearchException("search", ErrorResponse.of(e -> e
+                        .status(404)
+                        .error(c -> c.type("search_context_missing_exception").reason("No search context"))))));
+        SearchRequestDTO searchRequest = request();
+        searchRequest.setCursor(new SearchCursor("pit-1", 1, List.of(1.0, 5L), 10,
+                SearchCursor.criteria("tax", null, null)).encode());
+
+        // Act & Assert
+        assertThatThrownBy(() -> searchService.search(searchRequest))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("expired");
+    }
+}
@@ -0,0 +1,208 @@
+package org.papercloud.de.pdfsearch.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.papercloud.de.core.dto.search.IndexableDocumentDTO;
+import org.papercloud.de.core.dto.search.IndexablePageDTO;
+import org.papercloud.de.core.dto.search.SearchHitDTO;
+import org.papercloud.de.core.dto.search.SearchRequestDTO;
+import org.papercloud.de.core.dto.search.SearchResultDTO;
+import org.papercloud.de.core.dto.search.SuggestionDTO;
+import org.papercloud.de.pdfsearch.config.LuceneIndexConfiguration;
+import org.papercloud.de.pdfsearch.lucene.LuceneDocumentIndex;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for FailoverSearchService.
+ * Tests that writes reach both indices, when searches are answered by the embedded index and
+ * that a backfill makes older documents searchable there.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FailoverSearchService")
+class FailoverSearchServiceTest {
+
+    @Mock
+    private ElasticsearchServiceImpl elasticsearch;
+
+    @Mock
+    private DocumentIndexManager indexManager;
+
+    @Mock
+    private LuceneDocumentIndex mirror;
+
+    private FailoverSearchService service;
+
+    private final IndexableDocumentDTO document = IndexableDocumentDTO.builder().id(1L).username("alice").build();
+    private final SearchResultDTO mirrorResult = SearchResultDTO.builder().hits(List.of()).build();
+
+    @BeforeEach
+    void setUp() {
+        service = new FailoverSearchService(elasticsearch, indexManager, mirror);
+    }
+
+    @Nested
+    @DisplayName("Writes")
+    class WriteTests {
+
+        @Test
+        @DisplayName("should send a document to Elasticsearch and the embedded index")
+        void should_mirrorWrite_when_indexing() throws IOException {
+            // Act
+            service.indexDocument(document);
+
+            // Assert
+            verify(elasticsearch).indexDocument(document);
+            verify(mirror).index(document);
+        }
+
+        @Test
+        @DisplayName("should not fail the Elasticsearch write when the embedded index fails")
+        void should_ignoreMirrorFailure_when_indexing() throws IOException {
+            // Arrange
+            doThrow(new IOException("disk full")).when(mirror).index(document);
+
+            // Act
+            service.indexDocument(document);
+
+            // Assert
+            verify(elasticsearch).indexDocument(document);
+        }
+
+        @Test
+        @DisplayName("should write rebuild batches to both indices and report Elasticsearch rejections")
+        void should_rebuildMirror_when_rebuildingIndex() throws IOException {
+            // Arrange
+            when(indexManager.beginRebuild()).thenReturn("documents-v2");
+            when(indexManager.writeRebuildBatch("documents-v2", List.of(document))).thenReturn(List.of(1L));
+
+            // Act
+            String index = service.beginRebuild();
+            List<Long> failed = service.writeRebuildBatch(index, List.of(document));
+            service.completeRebuild(index);
+
+            // Assert
+            assertThat(failed).containsExactly(1L);
+            verify(mirror).beginRebuild();
+            verify(mirror).writeRebuildBatch(List.of(document));
+            verify(indexManager).completeRebuild("documents-v2");
+        }
+    }
+
+    @Nested
+    @DisplayName("Searches")
+    class SearchTests {
+
+        @Test
+        @DisplayName("should answer from Elasticsearch while it is available")
+        void should_useElasticsearch_when_available() {
+            // Arrange
+            SearchRequestDTO request = SearchRequestDTO.builder().query("tax").build();
+            SearchResultDTO result = SearchResultDTO.builder().hits(List.of()).build();
+            when(elasticsearch.search(request)).thenReturn(result);
+
+            // Act & Assert
+            assertThat(service.search(request)).isSameAs(result);
+            verifyNoInteractions(mirror);
+        }
+
+        @Test
+        @DisplayName("should search the embedded index when Elasticsearch fails")
+        void should_searchMirror_when_elasticsearchFails() throws IOException {
+            // Arrange
+            SearchRequestDTO request = SearchRequestDTO.builder().query("tax").build();
+            when(elasticsearch.search(request)).thenThrow(new SearchUnavailableException("Elasticsearch is unavailable"));
+            when(mirror.search(request)).thenReturn(mirrorResult);
+
+            // Act & Assert
+            assertThat(service.search(request)).isSameAs(mirrorResult);
+        }
+
+        @Test
+        @DisplayName("should not answer cursor pages or invalid requests from the embedded index")
+        void should_propagateFailure_when_cursorOrInvalidRequest() {
+            // Arrange
+            SearchRequestDTO byCursor = SearchRequestDTO.builder().query("tax").cursor("abc").build();
+            SearchRequestDTO invalid = SearchRequestDTO.builder().query("tax").build();
+            when(elasticsearch.search(byCursor)).thenThrow(new SearchUnavailableException("Elasticsearch is unavailable"));
+            when(elasticsearch.search(invalid)).thenThrow(new IllegalArgumentException("bad request"));
+
+            // Act & Assert
+            assertThatThrownBy(() -> service.search(byCursor)).isInstanceOf(SearchUnavailableException.class);
+            assertThatThrownBy(() -> service.search(invalid)).isInstanceOf(IllegalArgumentException.class);
+            verifyNoInteractions(mirror);
+        }
+
+        @Test
+        @DisplayName("should suggest from the embedded index when Elasticsearch fails")
+        void should_suggestFromMirror_when_elasticsearchFails() throws IOException {
+            // Arrange
+            List<SuggestionDTO> suggestions = List.of(new SuggestionDTO(SuggestionDTO.Kind.TAG, "tax", null));
+            when(elasticsearch.suggest(any(), any(), any(Integer.class)))
+                    .thenThrow(new SearchUnavailableException("Elasticsearch is unavailable"));
+            when(mirror.suggest("alice", "ta", 5)).thenReturn(suggestions);
+
+            // Act & Assert
+            assertThat(service.suggest("alice", "ta", 5)).isEqualTo(suggestions);
+        }
+    }
+
+    @Nested
+    @DisplayName("Mirror backfill")
+    class BackfillTests {
+
+        @TempDir
+        Path directory;
+
+        @Test
+        @DisplayName("should find a document indexed before the mirror existed while Elasticsearch is down")
+        void should_searchBackfilledDocument_when_elasticsearchDown() throws IOException {
+            // Arrange
+            LuceneIndexConfiguration config = new LuceneIndexConfiguration();
+            config.setDirectory(directory.toString());
+            LuceneDocumentIndex embedded = new LuceneDocumentIndex(config);
+            FailoverSearchService failover = new FailoverSearchService(elasticsearch, indexManager, embedded);
+            IndexableDocumentDTO older = IndexableDocumentDTO.builder()
+                    .id(7L).username("alice").fileName("Lease").tags(List.of()).year(2020)
+                    .fullText("The deposit is paid back when the tenancy ends.")
+                    .pages(List.of(new IndexablePageDTO(1, "The deposit is paid back when the tenancy ends.")))
+                    .build();
+            SearchRequestDTO request = SearchRequestDTO.builder()
+                    .username("alice").query("deposit").page(0).size(10).build();
+            when(elasticsearch.search(request)).thenThrow(new SearchUnavailableException("Elasticsearch is unavailable"));
+
+            try {
+                // Act
+                long before = failover.countDocuments();
+                failover.beginBackfill();
+                List<Long> failed = failover.writeBackfillBatch(List.of(older));
+                failover.endBackfill();
+                SearchResultDTO result = failover.search(request);
+
+                // Assert
+                assertThat(before).isZero();
+                assertThat(failed).isEmpty();
+                assertThat(failover.countDocuments()).isEqualTo(1);
+                assertThat(result.getHits()).extracting(SearchHitDTO::getDocumentId).containsExactly("7");
+            } finally {
+                embedded.close();
+            }
+        }
+    }
+}
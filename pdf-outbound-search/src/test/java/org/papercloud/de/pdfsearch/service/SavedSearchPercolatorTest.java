@@ -0,0 +1,121 @@
+package org.papercloud.de.pdfsearch.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.query_dsl.PercolateQuery;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.elasticsearch.core.search.TotalHitsRelation;
+import co.elastic.clients.json.JsonData;
+import co.elastic.clients.json.JsonpUtils;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.util.ObjectBuilder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.papercloud.de.pdfsearch.config.DocumentIndexConfiguration;
+import org.papercloud.de.pdfsearch.config.ElasticsearchClientConfiguration;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for SavedSearchPercolator.
+ * Tests the stored percolator queries and the match request for a new document.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SavedSearchPercolator")
+class SavedSearchPercolatorTest {
+
+    @Mock
+    private ElasticsearchClient elasticsearchClient;
+
+    @Mock
+    private DocumentIndexManager indexManager;
+
+    @Mock
+    private ElasticsearchAsyncClient asyncClient;
+
+    private SavedSearchPercolator percolator;
+
+    @BeforeEach
+    void setUp() {
+        percolator = new SavedSearchPercolator(elasticsearchClient, new DocumentIndexConfiguration(), indexManager,
+                new ElasticsearchCircuitBreaker(asyncClient, new ElasticsearchClientConfiguration()));
+    }
+
+    @Test
+    @DisplayName("should store the criteria as a query limited to the owner's documents")
+    void should_storeOwnerScopedQuery_when_savingSearch() throws IOException {
+        // Arrange
+        SavedSearchPercolator.SavedQuery document = new SavedSearchPercolator.SavedQuery(7L, "alice",
+                SavedSearchPercolator.toQuery("alice", "tax report", List.of("finance"), 2024));
+
+        // Act
+        JsonNode json = new ObjectMapper().readTree(JsonpUtils.toJsonString(document, new JacksonJsonpMapper()));
+
+        // Assert
+        assertThat(json.get("savedSearchId").asLong()).isEqualTo(7L);
+        assertThat(json.get("username").asText()).isEqualTo("alice");
+        JsonNode bool = json.get("query").get("bool");
+        assertThat(bool.get("must").get(0).get("multi_match").get("query").asText()).isEqualTo("tax report");
+        assertThat(bool.get("filter").toString())
+                .contains("\"username\":{\"value\":\"alice\"}")
+                .contains("\"tags\":{\"value\":\"finance\"}")
+                .contains("\"year\":{\"value\":2024}");
+    }
+
+    @Test
+    @DisplayName("should leave out the text clause when the search has no query")
+    void should_omitTextClause_when_queryBlank() {
+        // Act
+        String json = JsonpUtils.toJsonString(
+                SavedSearchPercolator.toQuery("alice", " ", List.of("finance"), null), new JacksonJsonpMapper());
+
+        // Assert
+        assertThat(json).doesNotContain("multi_match").contains("finance");
+    }
+
+    @Test
+    @DisplayName("should percolate the indexed document against the owner's searches only")
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void should_percolateByReference_when_matching() throws IOException {
+        // Arrange
+        when(indexManager.isRouted()).thenReturn(true);
+        ArgumentCaptor<Function> requestFn = ArgumentCaptor.forClass(Function.class);
+        SearchResponse<JsonData> response = SearchResponse.of(r -> r
+                .took(1)
+                .timedOut(false)
+                .shards(s -> s.total(1).successful(1).failed(0))
+                .hits(h -> h.total(t -> t.value(2).relation(TotalHitsRelation.Eq))
+                        .hits(List.of(Hit.of(hit -> hit.index("saved-searches").id("7")),
+                                Hit.of(hit -> hit.index("saved-searches").id("9"))))));
+        when(elasticsearchClient.search(requestFn.capture(), eq(JsonData.class))).thenReturn(response);
+
+        // Act
+        List<Long> matches = percolator.match(42L, "alice");
+
+        // Assert
+        assertThat(matches).containsExactly(7L, 9L);
+        SearchRequest request = ((ObjectBuilder<SearchRequest>) requestFn.getValue()
+                .apply(new SearchRequest.Builder())).build();
+        assertThat(request.index()).containsExactly(SavedSearchPercolator.INDEX_NAME);
+        PercolateQuery percolate = request.query().bool().filter().get(1).percolate();
+        assertThat(percolate.index()).isEqualTo(ElasticsearchServiceImpl.INDEX_NAME);
+        assertThat(percolate.id()).isEqualTo("42");
+        assertThat(percolate.routing()).isEqualTo("alice");
+        assertThat(request.query().bool().filter().get(0).term().value().stringValue()).isEqualTo("alice");
+    }
+}
@@ -0,0 +1,120 @@
+package org.papercloud.de.pdfsearch.vector;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for HnswGraph.
+ * Tests recall against brute force, filtering of rejected nodes and edge cases.
+ */
+@DisplayName("HnswGraph")
+class HnswGraphTest {
+
+    private static final int DIMENSIONS = 32;
+
+    private final List<float[]> vectors = new ArrayList<>();
+    private HnswGraph graph;
+
+    @BeforeEach
+    void setUp() {
+        graph = new HnswGraph((a, b) -> dot(vectors.get(a), vectors.get(b)), 16, 100, 42);
+    }
+
+    private static double dot(float[] a, float[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    private void insertRandomVectors(int count, Random random) {
+        for (int i = 0; i < count; i++) {
+            float[] vector = new float[DIMENSIONS];
+            for (int d = 0; d < DIMENSIONS; d++) {
+                vector[d] = (float) random.nextGaussian();
+            }
+            vectors.add(VectorMath.normalize(vector));
+            graph.insert(i);
+        }
+    }
+
+    private Set<Integer> bruteForce(float[] query, int k) {
+        return IntStream.range(0, vectors.size()).boxed()
+                .sorted(Comparator.comparingDouble((Integer id) -> dot(vectors.get(id), query)).reversed())
+                .limit(k)
+                .collect(Collectors.toSet());
+    }
+
+    @Test
+    @DisplayName("should find nearly all true nearest neighbours")
+    void should_reachHighRecall_when_searchingRandomVectors() {
+        // Arrange
+        Random random = new Random(7);
+        insertRandomVectors(2000, random);
+
+        // Act
+        int found = 0;
+        int queries = 50;
+        for (int q = 0; q < queries; q++) {
+            float[] query = vectors.get(random.nextInt(vectors.size()));
+            Set<Integer> expected = bruteForce(query, 10);
+            found += (int) graph.search(id -> dot(vectors.get(id), query), 10, 64, id -> true).stream()
+                    .filter(neighbor -> expected.contains(neighbor.node()))
+                    .count();
+        }
+
+        // Assert
+        assertThat(found / (double) (queries * 10)).isGreaterThan(0.9);
+    }
+
+    @Test
+    @DisplayName("should return results closest first")
+    void should_orderResults_when_searching() {
+        insertRandomVectors(200, new Random(1));
+        float[] query = vectors.get(5);
+
+        List<HnswGraph.Neighbor> result = graph.search(id -> dot(vectors.get(id), query), 5, 32, id -> true);
+
+        assertThat(result).hasSize(5);
+        assertThat(result.get(0).node()).isEqualTo(5);
+        assertThat(result).isSortedAccordingTo(Comparator.comparingDouble(HnswGraph.Neighbor::similarity).reversed());
+    }
+
+    @Test
+    @DisplayName("should skip nodes that are not accepted")
+    void should_excludeRejectedNodes_when_filterGiven() {
+        insertRandomVectors(200, new Random(2));
+        float[] query = vectors.get(5);
+
+        List<HnswGraph.Neighbor> result = graph.search(id -> dot(vectors.get(id), query), 5, 32, id -> id != 5);
+
+        assertThat(result).hasSize(5).noneMatch(neighbor -> neighbor.node() == 5);
+    }
+
+    @Test
+    @DisplayName("should return nothing for an empty graph")
+    void should_returnEmpty_when_graphEmpty() {
+        assertThat(graph.search(id -> 0, 5, 32, id -> true)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should reject inserting the same node twice")
+    void should_throw_when_nodeInsertedTwice() {
+        insertRandomVectors(1, new Random(3));
+
+        assertThatThrownBy(() -> graph.insert(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,124 @@
+package org.papercloud.de.pdfsearch.vector;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.papercloud.de.core.dto.search.ChunkVectorDTO;
+import org.papercloud.de.core.dto.search.VectorMatchDTO;
+import org.papercloud.de.pdfsearch.config.VectorIndexConfiguration;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for HnswVectorIndex.
+ * Tests per-user partitioning, document replacement and deletion, and reloading from disk.
+ */
+@DisplayName("HnswVectorIndex")
+class HnswVectorIndexTest {
+
+    @TempDir
+    Path directory;
+
+    private VectorIndexConfiguration config;
+    private HnswVectorIndex index;
+
+    @BeforeEach
+    void setUp() {
+        config = new VectorIndexConfiguration();
+        config.setDirectory(directory.toString());
+        index = new HnswVectorIndex(config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.close();
+    }
+
+    private static ChunkVectorDTO chunk(int page, float... vector) {
+        return ChunkVectorDTO.builder().pageNumber(page).offset(0).length(10).vector(vector).build();
+    }
+
+    @Test
+    @DisplayName("should return the closest chunk first")
+    void should_rankBySimilarity_when_searching() {
+        // Arrange
+        index.replaceDocument("alice", 1L, List.of(chunk(1, 1f, 0f, 0f), chunk(2, 0f, 1f, 0f)));
+        index.replaceDocument("alice", 2L, List.of(chunk(1, 0f, 0f, 1f)));
+
+        // Act
+        List<VectorMatchDTO> matches = index.search("alice", new float[]{0.1f, 2f, 0f}, 2);
+
+        // Assert
+        assertThat(matches).hasSize(2);
+        assertThat(matches.get(0).getDocumentId()).isEqualTo(1L);
+        assertThat(matches.get(0).getPageNumber()).isEqualTo(2);
+        assertThat(matches.get(0).getScore()).isGreaterThan(matches.get(1).getScore());
+    }
+
+    @Test
+    @DisplayName("should only search the vectors of the given user")
+    void should_isolateUsers_when_searching() {
+        index.replaceDocument("alice", 1L, List.of(chunk(1, 1f, 0f, 0f)));
+        index.replaceDocument("bob", 2L, List.of(chunk(1, 1f, 0f, 0f)));
+
+        assertThat(index.search("alice", new float[]{1f, 0f, 0f}, 10))
+                .extracting(VectorMatchDTO::getDocumentId)
+                .containsExactly(1L);
+        assertThat(index.search("carol", new float[]{1f, 0f, 0f}, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should replace the previous vectors of a document")
+    void should_dropOldVectors_when_documentReplaced() {
+        index.replaceDocument("alice", 1L, List.of(chunk(1, 1f, 0f, 0f)));
+        index.replaceDocument("alice", 1L, List.of(chunk(3, 0f, 1f, 0f)));
+
+        List<VectorMatchDTO> matches = index.search("alice", new float[]{1f, 0f, 0f}, 10);
+
+        assertThat(matches).hasSize(1);
+        assertThat(matches.get(0).getPageNumber()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("should not return deleted documents")
+    void should_excludeDocument_when_deleted() {
+        index.replaceDocument("alice", 1L, List.of(chunk(1, 1f, 0f, 0f)));
+        index.replaceDocument("alice", 2L, List.of(chunk(1, 0.9f, 0.1f, 0f)));
+
+        index.deleteDocument("alice", 1L);
+
+        assertThat(index.search("alice", new float[]{1f, 0f, 0f}, 10))
+                .extracting(VectorMatchDTO::getDocumentId)
+                .containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("should restore vectors from disk after a restart")
+    void should_reloadPartition_when_indexRecreated() {
+        // Arrange
+        index.replaceDocument("alice", 1L, List.of(chunk(1, 1f, 0f, 0f)));
+        index.replaceDocument("alice", 2L, List.of(chunk(1, 0f, 1f, 0f)));
+        index.deleteDocument("alice", 2L);
+        index.close();
+
+        // Act
+        index = new HnswVectorIndex(config);
+        List<VectorMatchDTO> matches = index.search("alice", new float[]{0f, 1f, 0f}, 10);
+
+        // Assert
+        assertThat(matches).extracting(VectorMatchDTO::getDocumentId).containsExactly(1L);
+        assertThat(index.partition("alice").liveVectorCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should derive safe, distinct file names from usernames")
+    void should_sanitizeFileName_when_usernameHasSpecialCharacters() {
+        assertThat(HnswVectorIndex.fileName("../evil")).matches("[A-Za-z0-9_-]+\\.vec");
+        assertThat(HnswVectorIndex.fileName("a.b")).isNotEqualTo(HnswVectorIndex.fileName("a_b"));
+    }
+}
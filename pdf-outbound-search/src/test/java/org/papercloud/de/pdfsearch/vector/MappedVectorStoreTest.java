@@ -0,0 +1,90 @@
+package org.papercloud.de.pdfsearch.vector;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Unit tests for MappedVectorStore.
+ * Tests persistence, growth, tombstones, compaction and INT8 quantization.
+ */
+@DisplayName("MappedVectorStore")
+class MappedVectorStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private static final float[] UNIT_X = {1f, 0f, 0f};
+    private static final float[] DIAGONAL = VectorMath.normalize(new float[]{1f, 1f, 0f});
+
+    @Test
+    @DisplayName("should read back records after reopening the file")
+    void should_persistRecords_when_reopened() throws IOException {
+        // Arrange
+        Path path = directory.resolve("user.vec");
+        try (MappedVectorStore store = MappedVectorStore.create(path, 3, VectorQuantization.FLOAT32, 1)) {
+            store.append(7L, 2, 100, 50, UNIT_X);
+            store.append(8L, 1, 0, 40, DIAGONAL);
+        }
+
+        // Act
+        try (MappedVectorStore reopened = MappedVectorStore.open(path)) {
+            // Assert
+            assertThat(reopened.size()).isEqualTo(2);
+            assertThat(reopened.getDimensions()).isEqualTo(3);
+            assertThat(reopened.documentId(1)).isEqualTo(8L);
+            assertThat(reopened.pageNumber(0)).isEqualTo(2);
+            assertThat(reopened.offset(0)).isEqualTo(100);
+            assertThat(reopened.length(0)).isEqualTo(50);
+            assertThat(reopened.dot(0, 1)).isCloseTo(Math.sqrt(0.5), within(1e-6));
+        }
+    }
+
+    @Test
+    @DisplayName("should approximate dot products with INT8 vectors")
+    void should_approximateSimilarity_when_int8() throws IOException {
+        try (MappedVectorStore store = MappedVectorStore.create(directory.resolve("int8.vec"), 3,
+                VectorQuantization.INT8, 4)) {
+            store.append(1L, 1, 0, 10, UNIT_X);
+            store.append(2L, 1, 0, 10, DIAGONAL);
+
+            assertThat(store.dot(0, 1)).isCloseTo(Math.sqrt(0.5), within(0.01));
+            assertThat(store.dot(1, DIAGONAL)).isCloseTo(1.0, within(0.01));
+        }
+    }
+
+    @Test
+    @DisplayName("should drop tombstoned records when compacting")
+    void should_keepOnlyLiveRecords_when_compacted() throws IOException {
+        try (MappedVectorStore store = MappedVectorStore.create(directory.resolve("a.vec"), 3,
+                VectorQuantization.FLOAT32, 4)) {
+            store.append(1L, 1, 0, 10, UNIT_X);
+            store.append(2L, 1, 0, 10, DIAGONAL);
+            store.markDeleted(0);
+
+            try (MappedVectorStore compacted = store.compactTo(directory.resolve("b.vec"))) {
+                assertThat(store.deletedCount()).isEqualTo(1);
+                assertThat(compacted.size()).isEqualTo(1);
+                assertThat(compacted.documentId(0)).isEqualTo(2L);
+                assertThat(compacted.isDeleted(0)).isFalse();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should reject vectors of another dimension")
+    void should_throw_when_dimensionMismatch() throws IOException {
+        try (MappedVectorStore store = MappedVectorStore.create(directory.resolve("c.vec"), 3,
+                VectorQuantization.FLOAT32, 4)) {
+            assertThatThrownBy(() -> store.append(1L, 1, 0, 10, new float[]{1f}))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}